@@ -0,0 +1,26 @@
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Takes the usual JMH command line options and always adds
+ * the GC profiler, so every result reports allocation per operation next to its time.
+ */
+public final class BenchmarkMain {
+  private BenchmarkMain() {
+  }
+
+  /**
+   * Runs the benchmarks selected on the command line, or every benchmark if none are.
+   *
+   * @param args JMH command line options, e.g. "ModelBenchmark -p board=basic"
+   * @throws Exception if the options are invalid or running the benchmarks fails
+   */
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+  }
+}
@@ -0,0 +1,80 @@
+package model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates board and card configs of arbitrary size for the benchmarks, and names the bundled
+ * configs so benchmarks can be parameterized over both.
+ */
+public final class BenchmarkConfigs {
+  private static final String SYNTHETIC = "synthetic";
+  // Each bundled board config paired with a deck that has enough cards to fill it
+  private static final Map<String, String[]> BUNDLED = Map.of(
+          "basic", new String[]{"basicBoardConfig.txt", "SmallDeckCardConfig.txt"},
+          "disjoint", new String[]{"DisjointCardsBoardConfig.txt", "SmallDeckCardConfig.txt"},
+          "reachable", new String[]{"AllCardsReachableBoardConfig.txt", "BigDeckCardConfig.txt"},
+          "fourFlip", new String[]{"PotentialFourFlipBoardConfig.txt",
+                  "BigDeckCardConfig.txt"},
+          "noHoles", new String[]{"NoHolesBoardConfig.txt", "BigDeckCardConfig.txt"});
+
+  private BenchmarkConfigs() {
+  }
+
+  /**
+   * Writes a size x size board of card cells and a deck with one more card than cells.
+   *
+   * @param dir  directory to write the configs to
+   * @param size number of rows and columns of the board
+   * @param rand source of card values
+   * @return the grid config path followed by the card config path
+   * @throws IOException if writing either config fails
+   */
+  public static String[] writeConfigs(Path dir, int size, Random rand) throws IOException {
+    StringBuilder grid = new StringBuilder(size + " " + size);
+    String row = "C".repeat(size);
+    for (int i = 0; i < size; i++) {
+      grid.append('\n').append(row);
+    }
+    String[] values = {"1", "2", "3", "4", "5", "6", "7", "8", "9", "A"};
+    StringBuilder cards = new StringBuilder();
+    for (int i = 0; i <= size * size; i++) {
+      cards.append("c").append(i);
+      for (int side = 0; side < 4; side++) {
+        cards.append(' ').append(values[rand.nextInt(values.length)]);
+      }
+      cards.append('\n');
+    }
+    Path gridPath = dir.resolve("grid.txt");
+    Path cardPath = dir.resolve("cards.txt");
+    Files.writeString(gridPath, grid);
+    Files.writeString(cardPath, cards);
+    return new String[]{gridPath.toString(), cardPath.toString()};
+  }
+
+  /**
+   * Resolves a benchmark board name to config paths. Bundled boards are read from the
+   * resources directory, so benchmarks have to run from the repo root. A name of the form
+   * synthetic&lt;size&gt;, e.g. synthetic200, generates a size x size board without holes.
+   *
+   * @param name bundled board name (basic, disjoint, reachable, fourFlip or noHoles) or
+   *             synthetic board name
+   * @return the grid config path followed by the card config path
+   * @throws IOException if a synthetic board can't be written
+   * @throws IllegalArgumentException if the name isn't a known board
+   */
+  public static String[] resolve(String name) throws IOException {
+    if (name.startsWith(SYNTHETIC)) {
+      int size = Integer.parseInt(name.substring(SYNTHETIC.length()));
+      return writeConfigs(Files.createTempDirectory(name), size, new Random(7));
+    }
+    String[] files = BUNDLED.get(name);
+    if (files == null) {
+      throw new IllegalArgumentException("Unknown board: " + name);
+    }
+    return new String[]{"resources/" + files[0], "resources/" + files[1]};
+  }
+}
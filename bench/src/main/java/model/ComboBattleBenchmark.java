@@ -0,0 +1,100 @@
+package model;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import model.card.Colors;
+import player.GameMoveData;
+import player.Player;
+import player.UserPlayer;
+
+/**
+ * Measures the heap allocated by ThreeTriosGameModel.playMove, including the combo battle,
+ * while playing full random games on a generated 100x100 board without holes.
+ *
+ * <p>Usage: {@code ComboBattleBenchmark [size] [games]}. Requires a HotSpot JVM for
+ * per-thread allocation accounting.</p>
+ */
+public final class ComboBattleBenchmark {
+  private static final com.sun.management.ThreadMXBean THREADS =
+          (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private ComboBattleBenchmark() {
+  }
+
+  private static long[] playGame(String[] configs, int size, long seed) {
+    ThreeTriosGameModel model = new ThreeTriosGameModel(configs[0], configs[1],
+            new Random(seed));
+    Player red = new UserPlayer(model, Colors.RED);
+    Player blue = new UserPlayer(model, Colors.BLUE);
+    model.startGame(red, blue, true);
+
+    // Precompute the move order so the timed loop only contains playMove
+    Random rand = new Random(seed);
+    List<GameMoveData> cells = new ArrayList<>();
+    for (int r = 0; r < size; r++) {
+      for (int c = 0; c < size; c++) {
+        cells.add(new GameMoveData(r, c, 0));
+      }
+    }
+    Collections.shuffle(cells, rand);
+    int[] handSizes = {(size * size + 2) / 2, (size * size + 1) / 2};
+    GameMoveData[] moves = new GameMoveData[cells.size()];
+    for (int i = 0; i < moves.length; i++) {
+      GameMoveData cell = cells.get(i);
+      int handIndex = rand.nextInt(handSizes[i % 2]--);
+      moves[i] = new GameMoveData(cell.getGridRow(), cell.getGridCol(), handIndex);
+    }
+
+    long thread = Thread.currentThread().getId();
+    long allocated = 0;
+    long start = System.nanoTime();
+    for (GameMoveData move : moves) {
+      long before = THREADS.getThreadAllocatedBytes(thread);
+      model.playMove(move);
+      allocated += THREADS.getThreadAllocatedBytes(thread) - before;
+    }
+    long elapsed = System.nanoTime() - start;
+    return new long[]{allocated, elapsed, moves.length};
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional board size (default 100) and number of measured games (default 5)
+   * @throws IOException if the generated configs can't be written
+   */
+  public static void main(String[] args) throws IOException {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+    int games = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+    Path dir = Files.createTempDirectory("combo-battle");
+    String[] configs = BenchmarkConfigs.writeConfigs(dir, size, new Random(7));
+
+    // Calibrate the cost of reading the allocation counter itself
+    long thread = Thread.currentThread().getId();
+    long calibration = Long.MAX_VALUE;
+    for (int i = 0; i < 1000; i++) {
+      long before = THREADS.getThreadAllocatedBytes(thread);
+      calibration = Math.min(calibration, THREADS.getThreadAllocatedBytes(thread) - before);
+    }
+
+    // Warm up so that the measured games run compiled code
+    for (int i = 0; i < 3; i++) {
+      playGame(configs, size, 1000 + i);
+    }
+
+    System.out.printf("board %dx%d, %d cards%n", size, size, size * size + 1);
+    for (int i = 0; i < games; i++) {
+      long[] result = playGame(configs, size, i);
+      double bytesPerMove = (double) result[0] / result[2] - calibration;
+      System.out.printf("game %d: %d moves, %.2f bytes allocated/move, %.2f us/move%n",
+              i, result[2], Math.max(0, bytesPerMove), result[1] / 1000.0 / result[2]);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import model.cell.Cell;
+import model.cell.HoleCell;
+import model.card.Colors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import player.GameMoveData;
+import player.UserPlayer;
+
+/**
+ * Measures the model operations the strategies and views call on every move: playing a move,
+ * simulating one with potentialCardsFlipped, reading the grid and scoring. Positions are taken
+ * halfway through a game filling the board in row-major order, so both players have cards on
+ * the board and in hand.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+  @Param({"basic", "reachable", "noHoles", "synthetic50", "synthetic100", "synthetic200"})
+  public String board;
+
+  private ThreeTriosGameModel opening;
+  private ThreeTriosGameModel midgame;
+  private List<GameMoveData> moves;
+  private List<GameMoveData> probes;
+  private int nextProbe;
+
+  /**
+   * Starts the opening position and plays half of the moves filling the board.
+   *
+   * @throws IOException if a synthetic board can't be written
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    String[] configs = BenchmarkConfigs.resolve(board);
+    opening = new ThreeTriosGameModel(configs[0], configs[1], new Random(22));
+    opening.startGame(new UserPlayer(opening, Colors.RED), new UserPlayer(opening, Colors.BLUE),
+            true);
+
+    // Playing the first card of the hand is always legal, so fill the board in order
+    moves = new ArrayList<>();
+    Cell[][] grid = opening.getGrid();
+    for (int row = 0; row < grid.length; row++) {
+      for (int col = 0; col < grid[row].length; col++) {
+        if (!(grid[row][col] instanceof HoleCell)) {
+          moves.add(new GameMoveData(row, col, 0));
+        }
+      }
+    }
+
+    midgame = new ThreeTriosGameModel(opening);
+    for (GameMoveData move : moves.subList(0, moves.size() / 2)) {
+      midgame.playMove(move);
+    }
+    probes = new ArrayList<>();
+    int handSize = midgame.getPlayerInTurn().getHandCopy().size();
+    for (GameMoveData move : moves.subList(moves.size() / 2, moves.size())) {
+      probes.add(new GameMoveData(move.getGridRow(), move.getGridCol(),
+              probes.size() % handSize));
+    }
+  }
+
+  /**
+   * State holding a fresh copy of the opening position for every invocation.
+   */
+  @State(Scope.Thread)
+  public static class FreshGame {
+    ThreeTriosGameModel model;
+
+    /**
+     * Copies the opening position.
+     *
+     * @param benchmark benchmark state holding the opening position
+     */
+    @Setup(Level.Invocation)
+    public void setUp(ModelBenchmark benchmark) {
+      model = new ThreeTriosGameModel(benchmark.opening);
+    }
+  }
+
+  /**
+   * Plays every move of a game from the opening position.
+   *
+   * @param game fresh copy of the opening position
+   * @return the finished model
+   */
+  @Benchmark
+  public ThreeTriosGameModel playFullGame(FreshGame game) {
+    for (GameMoveData move : moves) {
+      game.model.playMove(move);
+    }
+    return game.model;
+  }
+
+  /**
+   * Simulates one of the remaining moves of the midgame position.
+   *
+   * @return cards gained by the move
+   */
+  @Benchmark
+  public int potentialCardsFlipped() {
+    GameMoveData probe = probes.get(nextProbe);
+    nextProbe = (nextProbe + 1) % probes.size();
+    return midgame.potentialCardsFlipped(probe);
+  }
+
+  /**
+   * Copies the grid of the midgame position, as the views do on every repaint.
+   *
+   * @return the copied grid
+   */
+  @Benchmark
+  public Cell[][] getGrid() {
+    return midgame.getGrid();
+  }
+
+  /**
+   * Counts the empty cells of the midgame position through the grid view, the read-only
+   * alternative to getGrid.
+   *
+   * @return number of empty card cells
+   */
+  @Benchmark
+  public int scanGridView() {
+    ReadOnlyGrid grid = midgame.getGridView();
+    int empty = 0;
+    for (int row = 0; row < grid.getNumRows(); row++) {
+      for (int col = 0; col < grid.getNumCols(); col++) {
+        if (grid.isCardCell(row, col) && grid.getCard(row, col) == null) {
+          empty++;
+        }
+      }
+    }
+    return empty;
+  }
+
+  /**
+   * Scores both players in the midgame position.
+   *
+   * @param blackhole consumes the scores
+   */
+  @Benchmark
+  public void getPlayerScore(Blackhole blackhole) {
+    blackhole.consume(midgame.getPlayerScore(true));
+    blackhole.consume(midgame.getPlayerScore(false));
+  }
+}
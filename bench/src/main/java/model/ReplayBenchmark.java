@@ -0,0 +1,69 @@
+package model;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import model.card.Colors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import player.GameMoveData;
+import player.UserPlayer;
+
+/**
+ * Measures rebuilding positions of a logged game at random move counts, with checkpoints
+ * every checkpointInterval moves. An interval longer than the game replays every position
+ * from the start.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplayBenchmark {
+  @Param({"noHoles", "synthetic50"})
+  public String board;
+
+  @Param({"16", "64", "1000000"})
+  public int checkpointInterval;
+
+  private GameReplay replay;
+  private Random seekRand;
+
+  /**
+   * Plays a game filling the board in row-major order and replays its log.
+   *
+   * @throws IOException if a synthetic board can't be written
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    String[] configs = BenchmarkConfigs.resolve(board);
+    ThreeTriosGameModel model = new ThreeTriosGameModel(configs[0], configs[1], 22L);
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            true);
+    int[] size = model.getGridSize();
+    for (int cell = 0; cell < size[0] * size[1]; cell++) {
+      if (model.getGridView().isCardCell(cell / size[1], cell % size[1])) {
+        model.playMove(new GameMoveData(cell / size[1], cell % size[1], 0));
+      }
+    }
+    replay = new GameReplay(model.getMoveLog(), configs[0], configs[1], checkpointInterval);
+    seekRand = new Random(9);
+  }
+
+  @Benchmark
+  public ThreeTriosGameModel seek() {
+    return replay.positionAt(seekRand.nextInt(replay.getNumMoves() + 1));
+  }
+}
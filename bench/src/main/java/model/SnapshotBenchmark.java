@@ -0,0 +1,94 @@
+package model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import model.card.Colors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import player.GameMoveData;
+import player.UserPlayer;
+
+/**
+ * Measures saving a game halfway through to the binary snapshot format and restoring it,
+ * against copying the model in memory. The board is filled in row-major order as in
+ * ModelBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark {
+  @Param({"noHoles", "synthetic50", "synthetic100"})
+  public String board;
+
+  private ThreeTriosGameModel midgame;
+  private GameSnapshot snapshot;
+  private byte[] bytes;
+  private ByteBuffer buffer;
+
+  /**
+   * Plays half of the moves filling the board and saves the position once.
+   *
+   * @throws IOException if a synthetic board can't be written
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    String[] configs = BenchmarkConfigs.resolve(board);
+    midgame = new ThreeTriosGameModel(configs[0], configs[1], new Random(22));
+    midgame.startGame(new UserPlayer(midgame, Colors.RED), new UserPlayer(midgame, Colors.BLUE),
+            true);
+    int[] size = midgame.getGridSize();
+    int played = 0;
+    for (int cell = 0; cell < size[0] * size[1] && played < size[0] * size[1] / 2; cell++) {
+      if (midgame.getGridView().isCardCell(cell / size[1], cell % size[1])) {
+        midgame.playMove(new GameMoveData(cell / size[1], cell % size[1], 0));
+        played++;
+      }
+    }
+    snapshot = midgame.snapshot();
+    bytes = snapshot.toBytes();
+    buffer = ByteBuffer.allocateDirect(bytes.length);
+  }
+
+  @Benchmark
+  public byte[] saveToBytes() {
+    return midgame.snapshot().toBytes();
+  }
+
+  @Benchmark
+  public ByteBuffer writeToBuffer() {
+    buffer.clear();
+    snapshot.write(buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public GameSnapshot readFromBytes() {
+    return GameSnapshot.fromBytes(bytes);
+  }
+
+  @Benchmark
+  public ThreeTriosGameModel loadFromBytes() {
+    return ThreeTriosGameModel.fromSnapshot(GameSnapshot.fromBytes(bytes));
+  }
+
+  @Benchmark
+  public ThreeTriosGameModel copyModel() {
+    return new ThreeTriosGameModel(midgame);
+  }
+}
@@ -0,0 +1,99 @@
+package model.filereader;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import model.BenchmarkConfigs;
+import model.card.CardCatalog;
+import model.card.CardInterface;
+import model.cell.Cell;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading grid and card configs, from the small bundled configs up to generated
+ * boards with a million cells and cards, whose card configs are several megabytes. Compares
+ * the line based readers with the NIO ConfigLoader, which also builds the card catalog.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigReaderBenchmark {
+  @Param({"basic", "reachable", "noHoles", "synthetic50", "synthetic100", "synthetic200",
+      "synthetic500", "synthetic1000"})
+  public String board;
+
+  private String gridConfigFilePath;
+  private String cardConfigFilePath;
+
+  /**
+   * Resolves the config paths, writing the synthetic configs once per trial.
+   *
+   * @throws IOException if a synthetic board can't be written
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    String[] configs = BenchmarkConfigs.resolve(board);
+    gridConfigFilePath = configs[0];
+    cardConfigFilePath = configs[1];
+  }
+
+  /**
+   * Reads the grid config.
+   *
+   * @return the grid read
+   * @throws IOException if the config can't be read
+   */
+  @Benchmark
+  public Cell[][] readGrid() throws IOException {
+    return new GridConfigFileReader(gridConfigFilePath).readGrid();
+  }
+
+  /**
+   * Reads the card config.
+   *
+   * @return the cards read
+   * @throws IOException if the config can't be read
+   */
+  @Benchmark
+  public List<CardInterface> readCards() throws IOException {
+    return new CardConfigFileReader(cardConfigFilePath).readCards();
+  }
+
+  /**
+   * Reads both configs with the line based readers, then interns the deck as the models do.
+   *
+   * @return the catalog of the deck read
+   * @throws IOException if a config can't be read
+   */
+  @Benchmark
+  public CardCatalog readConfigs() throws IOException {
+    new GridConfigFileReader(gridConfigFilePath).readGrid();
+    return CardCatalog.of(new CardConfigFileReader(cardConfigFilePath).readCards());
+  }
+
+  /**
+   * Loads both configs and the card catalog with the NIO loader.
+   *
+   * @return the loaded grid, deck and catalog
+   * @throws IOException if a config can't be read
+   */
+  @Benchmark
+  public GameConfig loadConfigs() throws IOException {
+    return new ConfigLoader(gridConfigFilePath, cardConfigFilePath).load();
+  }
+}
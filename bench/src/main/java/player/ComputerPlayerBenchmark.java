@@ -0,0 +1,92 @@
+package player;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import model.BenchmarkConfigs;
+import model.ThreeTriosGameModel;
+import model.card.Colors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import player.strategy.CornerStrategy;
+import player.strategy.MaxCardsFlipStrategy;
+import player.strategy.Strategy;
+
+/**
+ * Measures a ComputerPlayer combining the corner and max cards flip strategies choosing its
+ * first move, including running both strategies and breaking ties between their moves. The
+ * strategies either run one after another or at the same time on a pool with a thread per
+ * core, each on its own snapshot of the model.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComputerPlayerBenchmark {
+  @Param({"basic", "reachable", "noHoles", "synthetic5", "synthetic10", "synthetic20"})
+  public String board;
+
+  @Param({"false", "true"})
+  public boolean concurrent;
+
+  private Player red;
+  private ExecutorService executor;
+
+  /**
+   * Starts the opening position with the computer player as red.
+   *
+   * @throws IOException if a synthetic board can't be written
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    String[] configs = BenchmarkConfigs.resolve(board);
+    ThreeTriosGameModel model = new ThreeTriosGameModel(configs[0], configs[1],
+            new Random(22));
+    List<Strategy> strategies = List.of(new CornerStrategy(model),
+            new MaxCardsFlipStrategy(model));
+    if (concurrent) {
+      executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+      red = new ComputerPlayer(strategies, model, Colors.RED, executor, 60_000);
+    } else {
+      red = new ComputerPlayer(strategies, model, Colors.RED);
+    }
+    model.startGame(red, new UserPlayer(model, Colors.BLUE), true);
+  }
+
+  /**
+   * Stops the pool running the strategies, if any.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Chooses red's first move.
+   *
+   * @return the move chosen
+   */
+  @Benchmark
+  public GameMoveData getNextPlacement() {
+    return red.getNextPlacement();
+  }
+}
@@ -0,0 +1,70 @@
+package player.strategy;
+
+import java.util.List;
+import java.util.Random;
+
+import model.ThreeTriosGameModel;
+import model.card.Colors;
+import player.ComputerPlayer;
+import player.Player;
+
+/**
+ * Reports time-to-depth and nodes per second of AlphaBetaStrategy from the opening position of
+ * each bundled board config.
+ *
+ * <p>Usage: {@code AlphaBetaBenchmark [maxDepth] [timeBudgetMillis] [tableEntries]}. Each
+ * depth is searched with a fresh transposition table of the given size, 0 searches without
+ * one.</p>
+ */
+public final class AlphaBetaBenchmark {
+  // Board config paired with a deck that has enough cards to fill it
+  private static final String[][] CONFIGS = {
+    {"resources/basicBoardConfig.txt", "resources/SmallDeckCardConfig.txt"},
+    {"resources/DisjointCardsBoardConfig.txt", "resources/SmallDeckCardConfig.txt"},
+    {"resources/AllCardsReachableBoardConfig.txt", "resources/BigDeckCardConfig.txt"},
+    {"resources/PotentialFourFlipBoardConfig.txt", "resources/BigDeckCardConfig.txt"},
+    {"resources/NoHolesBoardConfig.txt", "resources/BigDeckCardConfig.txt"}
+  };
+
+  private AlphaBetaBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional deepest depth to report (default 5), time budget per depth in
+   *             milliseconds (default 30000) and transposition table entries (default 2^20)
+   */
+  public static void main(String[] args) {
+    int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+    long budget = args.length > 1 ? Long.parseLong(args[1]) : 30_000;
+    int tableEntries = args.length > 2 ? Integer.parseInt(args[2]) : 1 << 20;
+
+    System.out.printf("%-44s %5s %12s %12s %14s %8s%n", "board", "depth", "ms", "nodes",
+            "nodes/sec", "tt hit%");
+    for (String[] config : CONFIGS) {
+      for (int depth = 1; depth <= maxDepth; depth++) {
+        ThreeTriosGameModel model = new ThreeTriosGameModel(config[0], config[1],
+                new Random(22));
+        TranspositionTable table = tableEntries > 0 ? new TranspositionTable(tableEntries) : null;
+        AlphaBetaStrategy strategy = new AlphaBetaStrategy(model, depth, budget, table);
+        Player red = new ComputerPlayer(List.of(strategy), model, Colors.RED);
+        Player blue = new ComputerPlayer(List.of(strategy), model, Colors.BLUE);
+        model.startGame(red, blue, true);
+
+        long start = System.nanoTime();
+        strategy.execute();
+        long elapsed = System.nanoTime() - start;
+        if (strategy.getCompletedDepth() < depth) {
+          System.out.printf("%-44s %5d %12s%n", config[0], depth, "timed out");
+          break;
+        }
+        double hitRate = table == null ? 0
+                : 100.0 * table.getHits() / Math.max(1, table.getHits() + table.getMisses());
+        System.out.printf("%-44s %5d %12.1f %12d %14.0f %8.1f%n", config[0], depth,
+                elapsed / 1e6, strategy.getNodeCount(),
+                strategy.getNodeCount() / (elapsed / 1e9), hitRate);
+      }
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package player.strategy;
+
+import java.util.Random;
+
+import model.ReadOnlyCellIndex;
+import model.ThreeTriosGameModel;
+import model.card.Colors;
+import player.GameMoveData;
+import player.UserPlayer;
+
+/**
+ * Reports time-to-solve of EndgameSolver by the number of empty cells left, on a board without
+ * holes and one with. Each position is reached by random moves from the opening and solved
+ * with a fresh transposition table.
+ *
+ * <p>Usage: {@code EndgameBenchmark [maxEmptyCells] [tableEntries] [positions]}. Times are
+ * averaged over the given number of random positions per empty cell count.</p>
+ */
+public final class EndgameBenchmark {
+  // Board config paired with a deck that has enough cards to fill it
+  private static final String[][] CONFIGS = {
+    {"resources/NoHolesBoardConfig.txt", "resources/BigDeckCardConfig.txt"},
+    {"resources/AllCardsReachableBoardConfig.txt", "resources/BigDeckCardConfig.txt"}
+  };
+
+  private EndgameBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional most empty cells to solve (default 8), transposition table entries
+   *             (default 2^20) and positions per empty cell count (default 5)
+   */
+  public static void main(String[] args) {
+    int maxEmpty = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+    int tableEntries = args.length > 1 ? Integer.parseInt(args[1]) : 1 << 20;
+    int positions = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+    System.out.printf("%-44s %5s %12s %14s %14s %8s%n", "board", "empty", "ms", "nodes",
+            "nodes/sec", "tt hit%");
+    for (String[] config : CONFIGS) {
+      for (int empty = 1; empty <= maxEmpty; empty++) {
+        long elapsed = 0;
+        long nodes = 0;
+        long hits = 0;
+        long probes = 0;
+        for (int seed = 0; seed < positions; seed++) {
+          Random rand = new Random(seed);
+          ThreeTriosGameModel model = new ThreeTriosGameModel(config[0], config[1], rand);
+          model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+                  true);
+          ReadOnlyCellIndex cells = model.getCellIndex();
+          if (cells.getNumEmptyCells() < empty) {
+            break;
+          }
+          while (cells.getNumEmptyCells() > empty) {
+            int cell = cells.getEmptyCell(rand.nextInt(cells.getNumEmptyCells()));
+            int hand = rand.nextInt(model.getPlayerInTurn().getHandView().size());
+            model.playMove(new GameMoveData(cell / cells.getNumCols(),
+                    cell % cells.getNumCols(), hand));
+          }
+
+          TranspositionTable table = new TranspositionTable(tableEntries);
+          EndgameSolver solver = new EndgameSolver(model, empty, table);
+          solver.execute();
+          elapsed += solver.getElapsedNanos();
+          nodes += solver.getNodeCount();
+          hits += table.getHits();
+          probes += table.getHits() + table.getMisses();
+        }
+        if (nodes == 0) {
+          // The board has fewer card cells than that
+          break;
+        }
+        System.out.printf("%-44s %5d %12.2f %14d %14.0f %8.1f%n", config[0], empty,
+                elapsed / 1e6 / positions, nodes / positions, nodes / (elapsed / 1e9),
+                100.0 * hits / Math.max(1, probes));
+      }
+    }
+  }
+}
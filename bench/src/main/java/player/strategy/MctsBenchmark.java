@@ -0,0 +1,60 @@
+package player.strategy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+
+import model.BenchmarkConfigs;
+import model.ThreeTriosGameModel;
+import model.card.Colors;
+import player.ComputerPlayer;
+import player.Player;
+
+/**
+ * Reports the playouts per second of MctsStrategy from the opening position of generated boards
+ * without holes, for each playout policy and thread count.
+ *
+ * <p>Usage: {@code MctsBenchmark [timeBudgetMillis] [maxThreads]}.</p>
+ */
+public final class MctsBenchmark {
+  private static final int[] SIZES = {5, 10, 20, 100};
+
+  private MctsBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional time budget per search in milliseconds (default 2000) and most threads
+   *             to search with (default the number of available processors)
+   * @throws IOException if the generated configs can't be written
+   */
+  public static void main(String[] args) throws IOException {
+    long budget = args.length > 0 ? Long.parseLong(args[0]) : 2000;
+    int maxThreads = args.length > 1 ? Integer.parseInt(args[1])
+            : Runtime.getRuntime().availableProcessors();
+
+    System.out.printf("%-8s %-8s %8s %12s %14s%n", "board", "policy", "threads", "playouts",
+            "playouts/sec");
+    for (int size : SIZES) {
+      String[] configs = BenchmarkConfigs.writeConfigs(Files.createTempDirectory("mcts"), size,
+              new Random(7));
+      for (MctsStrategy.PlayoutPolicy policy : MctsStrategy.PlayoutPolicy.values()) {
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+          ThreeTriosGameModel model = new ThreeTriosGameModel(configs[0], configs[1],
+                  new Random(22));
+          MctsStrategy strategy = new MctsStrategy(model, threads, budget, Long.MAX_VALUE,
+                  policy, 1);
+          Player red = new ComputerPlayer(List.of(strategy), model, Colors.RED);
+          Player blue = new ComputerPlayer(List.of(strategy), model, Colors.BLUE);
+          model.startGame(red, blue, true);
+
+          strategy.execute();
+          System.out.printf("%-8s %-8s %8d %12d %14.0f%n", size + "x" + size, policy, threads,
+                  strategy.getPlayoutCount(), strategy.getPlayoutsPerSecond());
+        }
+      }
+    }
+  }
+}
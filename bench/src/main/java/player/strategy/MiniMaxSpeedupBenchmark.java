@@ -0,0 +1,85 @@
+package player.strategy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import model.BenchmarkConfigs;
+import model.ThreeTriosGameModel;
+import model.card.Colors;
+import player.ComputerPlayer;
+import player.GameMoveData;
+import player.Player;
+
+/**
+ * Reports the speedup of the parallel MiniMaxStrategy over the sequential one when scoring the
+ * opening move of a generated board without holes, against a MaxCardsFlipStrategy opponent.
+ *
+ * <p>Usage: {@code MiniMaxSpeedupBenchmark [size] [repetitions]}. Speedups above the number
+ * of available cores can't be expected.</p>
+ */
+public final class MiniMaxSpeedupBenchmark {
+  private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+
+  private MiniMaxSpeedupBenchmark() {
+  }
+
+  private static long timeExecute(MiniMaxStrategy strategy, int repetitions,
+                                  List<GameMoveData> expected) {
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < repetitions; i++) {
+      long start = System.nanoTime();
+      List<GameMoveData> moves = strategy.execute();
+      best = Math.min(best, System.nanoTime() - start);
+      if (expected != null && !expected.equals(moves)) {
+        throw new IllegalStateException("Parallel search chose different moves.");
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args optional board size (default 7) and timed repetitions per thread count, the
+   *             fastest of which is reported (default 3)
+   * @throws IOException if the generated configs can't be written
+   */
+  public static void main(String[] args) throws IOException {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : 7;
+    int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+    String[] configs = BenchmarkConfigs.writeConfigs(Files.createTempDirectory("minimax"), size,
+            new Random(7));
+
+    ThreeTriosGameModel model = new ThreeTriosGameModel(configs[0], configs[1],
+            new Random(22));
+    Strategy opponent = new MaxCardsFlipStrategy(model);
+    Player red = new ComputerPlayer(List.of(opponent), model, Colors.RED);
+    Player blue = new ComputerPlayer(List.of(opponent), model, Colors.BLUE);
+    model.startGame(red, blue, true);
+
+    MiniMaxStrategy sequential = new MiniMaxStrategy(model, opponent);
+    List<GameMoveData> expected = sequential.execute();
+    long sequentialNanos = timeExecute(sequential, repetitions, null);
+
+    System.out.printf("board %dx%d, %d available processors%n", size, size,
+            Runtime.getRuntime().availableProcessors());
+    System.out.printf("%-12s %12s %10s%n", "threads", "ms", "speedup");
+    System.out.printf("%-12s %12.1f %10.2f%n", "sequential", sequentialNanos / 1e6, 1.0);
+    for (int threads : THREAD_COUNTS) {
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      try {
+        MiniMaxStrategy parallel = new MiniMaxStrategy(model, opponent, null, pool);
+        // Warm up the pool's threads before timing
+        parallel.execute();
+        long nanos = timeExecute(parallel, repetitions, expected);
+        System.out.printf("%-12d %12.1f %10.2f%n", threads, nanos / 1e6,
+                (double) sequentialNanos / nanos);
+      } finally {
+        pool.shutdown();
+      }
+    }
+  }
+}
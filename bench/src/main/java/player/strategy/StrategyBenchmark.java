@@ -0,0 +1,94 @@
+package player.strategy;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import model.BenchmarkConfigs;
+import model.ThreeTriosGameModel;
+import model.card.Colors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import player.GameMoveData;
+import player.UserPlayer;
+
+/**
+ * Measures a single execute() of each strategy from the opening position. The searching
+ * strategies are run with fixed limits (alpha-beta to depth 2 without a transposition table,
+ * MCTS for 1000 playouts on one thread) so that the score doesn't depend on a time budget.
+ * Only small boards are included, as MiniMax looks at every reply to every move.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrategyBenchmark {
+  @Param({"basic", "reachable", "noHoles", "synthetic5"})
+  public String board;
+
+  @Param({"corner", "leastFlippable", "maxCardsFlip", "miniMax", "alphaBeta", "mcts"})
+  public String strategyName;
+
+  // Long enough to never cut a search short, the depth and playout limits end them instead
+  private static final long TIME_BUDGET_MILLIS = 60_000;
+
+  private Strategy strategy;
+
+  /**
+   * Starts the opening position and creates the strategy reading from it.
+   *
+   * @throws IOException if a synthetic board can't be written
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    String[] configs = BenchmarkConfigs.resolve(board);
+    ThreeTriosGameModel model = new ThreeTriosGameModel(configs[0], configs[1],
+            new Random(22));
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            true);
+    strategy = createStrategy(strategyName, model);
+  }
+
+  private static Strategy createStrategy(String name, ThreeTriosGameModel model) {
+    switch (name) {
+      case "corner":
+        return new CornerStrategy(model);
+      case "leastFlippable":
+        return new LeastFlippableStrategy(model);
+      case "maxCardsFlip":
+        return new MaxCardsFlipStrategy(model);
+      case "miniMax":
+        return new MiniMaxStrategy(model, new MaxCardsFlipStrategy(model));
+      case "alphaBeta":
+        return new AlphaBetaStrategy(model, 2, TIME_BUDGET_MILLIS, null);
+      case "mcts":
+        return new MctsStrategy(model, 1, TIME_BUDGET_MILLIS, 1000,
+                MctsStrategy.PlayoutPolicy.RANDOM, 1);
+      default:
+        throw new IllegalArgumentException("Unknown strategy: " + name);
+    }
+  }
+
+  /**
+   * Chooses the best moves of the opening position.
+   *
+   * @return the moves the strategy found best
+   */
+  @Benchmark
+  public List<GameMoveData> execute() {
+    return strategy.execute();
+  }
+}
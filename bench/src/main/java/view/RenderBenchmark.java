@@ -0,0 +1,199 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import model.BenchmarkConfigs;
+import model.ThreeTriosGameModel;
+import model.card.Colors;
+import model.card.ReadOnlyCard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import player.GameMoveData;
+import player.UserPlayer;
+
+/**
+ * Measures the time to draw a frame of the GUI after a move, headless into an offscreen image.
+ * Every frame either applies a move to a half-full board or undoes it, so each one shows a
+ * placed or removed card, the cards it flipped and a changed hand slot. An incremental frame
+ * repaints only those cells and slots, while a full frame repaints the whole grid and both
+ * hands, from the face atlas or by drawing every face again as the view used to.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+  private static final int GRID_SIZE = 600;
+  private static final int HAND_WIDTH = 100;
+
+  @Param({"noHoles", "synthetic20", "synthetic50"})
+  public String board;
+
+  private ThreeTriosGameModel model;
+  private final List<GameMoveData> moves = new ArrayList<>();
+  private int nextMove;
+  private boolean applied;
+  private GridComponent grid;
+  private HandComponent[] hands;
+  private BufferedImage screen;
+  private Graphics2D graphics;
+
+  /**
+   * Plays half of the moves filling the board in a random order, and lays the view out on an
+   * offscreen image.
+   *
+   * @throws IOException if a synthetic board can't be written
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    String[] configs = BenchmarkConfigs.resolve(board);
+    model = new ThreeTriosGameModel(configs[0], configs[1], new Random(20));
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            true);
+    int[] size = model.getGridSize();
+    List<GameMoveData> cells = new ArrayList<>();
+    for (int cell = 0; cell < size[0] * size[1]; cell++) {
+      if (model.getGridView().isCardCell(cell / size[1], cell % size[1])) {
+        cells.add(new GameMoveData(cell / size[1], cell % size[1], 0));
+      }
+    }
+    Collections.shuffle(cells, new Random(20));
+    int half = cells.size() / 2;
+    for (GameMoveData cell : cells.subList(0, half)) {
+      model.playMove(cell);
+    }
+    moves.addAll(cells.subList(half, cells.size()));
+
+    CardFaceAtlas atlas = new CardFaceAtlas();
+    grid = new GridComponent(model.getGridView(), atlas);
+    grid.setBounds(HAND_WIDTH, 0, GRID_SIZE, GRID_SIZE);
+    hands = new HandComponent[2];
+    for (int player = 0; player < hands.length; player++) {
+      hands[player] = new HandComponent(hand(player), atlas);
+      hands[player].setBounds(player == 0 ? 0 : HAND_WIDTH + GRID_SIZE, 0, HAND_WIDTH,
+              GRID_SIZE);
+    }
+    screen = new BufferedImage(GRID_SIZE + 2 * HAND_WIDTH, GRID_SIZE,
+            BufferedImage.TYPE_INT_RGB);
+    graphics = screen.createGraphics();
+    fullFrame();
+  }
+
+  /**
+   * Releases the offscreen image's graphics.
+   */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    graphics.dispose();
+  }
+
+  private List<ReadOnlyCard> hand(int player) {
+    return model.getPlayers().get(player).getHandView();
+  }
+
+  private void step() {
+    if (applied) {
+      model.undoMove();
+    } else {
+      model.applyMove(moves.get(nextMove));
+      nextMove = (nextMove + 1) % moves.size();
+    }
+    applied = !applied;
+  }
+
+  private static void paint(Component component, Graphics2D g, Rectangle clip) {
+    if (clip.isEmpty()) {
+      return;
+    }
+    Graphics2D child = (Graphics2D) g.create(component.getX(), component.getY(),
+            component.getWidth(), component.getHeight());
+    child.clipRect(clip.x, clip.y, clip.width, clip.height);
+    component.paint(child);
+    child.dispose();
+  }
+
+  private static Rectangle whole(Component component) {
+    return new Rectangle(0, 0, component.getWidth(), component.getHeight());
+  }
+
+  @Benchmark
+  public BufferedImage incrementalFrame() {
+    step();
+    paint(grid, graphics, grid.sync());
+    for (int player = 0; player < hands.length; player++) {
+      paint(hands[player], graphics, hands[player].sync(hand(player)));
+    }
+    return screen;
+  }
+
+  @Benchmark
+  public BufferedImage fullFrame() {
+    step();
+    grid.sync();
+    paint(grid, graphics, whole(grid));
+    for (int player = 0; player < hands.length; player++) {
+      hands[player].sync(hand(player));
+      paint(hands[player], graphics, whole(hands[player]));
+    }
+    return screen;
+  }
+
+  @Benchmark
+  public BufferedImage fullFrameWithoutAtlas() {
+    step();
+    int rows = model.getGridSize()[0];
+    int cols = model.getGridSize()[1];
+    int width = GRID_SIZE / cols;
+    int height = GRID_SIZE / rows;
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < cols; col++) {
+        ReadOnlyCard card = model.getGridView().getCard(row, col);
+        Graphics2D cell = (Graphics2D) graphics.create(HAND_WIDTH + col * width, row * height,
+                width, height);
+        if (card == null) {
+          cell.setColor(Color.YELLOW);
+          cell.fillRect(0, 0, width, height);
+        } else {
+          CardFaceAtlas.paintFace(cell, card, card.getColor() == Colors.RED
+                  ? Color.RED : Color.BLUE, width, height);
+        }
+        cell.dispose();
+      }
+    }
+    for (int player = 0; player < hands.length; player++) {
+      List<ReadOnlyCard> cards = hand(player);
+      int slot = Math.min(HAND_WIDTH, GRID_SIZE / Math.max(1, cards.size()));
+      for (int i = 0; i < cards.size(); i++) {
+        Graphics2D face = (Graphics2D) graphics.create(player == 0 ? 0
+                : HAND_WIDTH + GRID_SIZE, i * slot, HAND_WIDTH, slot);
+        CardFaceAtlas.paintFace(face, cards.get(i), player == 0 ? Color.RED
+                : Color.BLUE, HAND_WIDTH, slot);
+        face.dispose();
+      }
+    }
+    return screen;
+  }
+}
@@ -1,6 +1,9 @@
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.swing.SwingUtilities;
+
+import controller.ComputerTurnRunner;
 import controller.ThreeTriosController;
 import model.adapter.ProviderViewToRegView;
 import model.adapter.ThreeTriosGameAdapter;
@@ -8,10 +11,8 @@ import model.ThreeTriosGameModel;
 import player.ComputerPlayer;
 import player.Player;
 import player.UserPlayer;
-import player.strategy.CornerStrategy;
-import player.strategy.LeastFlippableStrategy;
-import player.strategy.MaxCardsFlipStrategy;
 import player.strategy.Strategy;
+import player.strategy.StrategyCodes;
 import view.ThreeTriosGUI;
 import view.ThreeTriosGUIView;
 import model.card.Colors;
@@ -20,6 +21,10 @@ import model.card.Colors;
  * Executable file that can run this whole program.
  */
 public final class ThreeTrios {
+  // Search strategies budget themselves a second per move, so this only catches runaways
+  private static final long COMPUTER_MOVE_DEADLINE_MILLIS = 5000;
+  private static final long COMPUTER_PROGRESS_INTERVAL_MILLIS = 100;
+
   private static Player[] initializePlayers(String[] args, ThreeTriosGameModel model) {
     Colors userColor;
     Colors oppColor;
@@ -48,20 +53,7 @@ public final class ThreeTrios {
         }
         List<Strategy> strats = new ArrayList<>();
         for (int i = 4; i < args.length; i++) {
-          switch (args[i]) {
-            case "1":
-              strats.add(new CornerStrategy(model));
-              break;
-            case "2":
-              strats.add(new LeastFlippableStrategy(model));
-              break;
-            case "3":
-              strats.add(new MaxCardsFlipStrategy(model));
-              break;
-            default:
-              throw new IllegalArgumentException(String.format("Invalid number entered for "
-                      + "opponent strategy: %s", args[i]));
-          }
+          strats.add(StrategyCodes.create(args[i], model));
         }
         opponent = new ComputerPlayer(strats, model, oppColor);
         break;
@@ -86,6 +78,8 @@ public final class ThreeTrios {
    *  - Corner Strategy = 1
    *  - Least Flippable Strategy = 2
    *  - Max Cards Flip Strategy = 3
+   *  - Alpha Beta Search Strategy = 4 (searches up to 8 plies deep, 1 second per move)
+   *  - Monte Carlo Tree Search Strategy = 5 (1 second per move on every core)
    *
    * @param args the strings used to determine what model to make.
    */
@@ -137,8 +131,14 @@ public final class ThreeTrios {
 
     // Initialize views and controller for each player
     ThreeTriosGUI userView = new ThreeTriosGUIView(model);
-    ThreeTriosController userController = new ThreeTriosController(model, user, userView);
-    ThreeTriosController oppController = new ThreeTriosController(model, opponent, oppView);
+    // Computer moves are chosen in the background on a copy of the model, so both views can
+    // keep drawing it, and are played on the event dispatch thread
+    ComputerTurnRunner turns = new ComputerTurnRunner(SwingUtilities::invokeLater,
+            COMPUTER_MOVE_DEADLINE_MILLIS, COMPUTER_PROGRESS_INTERVAL_MILLIS);
+    ThreeTriosController userController = new ThreeTriosController(model, user, userView,
+            turns);
+    ThreeTriosController oppController = new ThreeTriosController(model, opponent, oppView,
+            turns);
 
     // Start the game
     model.startGame(redPlayer, bluePlayer, true);
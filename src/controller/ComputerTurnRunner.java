@@ -0,0 +1,181 @@
+package controller;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import model.ReadOnlyCellIndex;
+import model.ReadOnlyThreeTriosModel;
+import model.UndoableThreeTriosModel;
+import player.ComputerPlayer;
+import player.GameMoveData;
+
+/**
+ * Chooses the moves of computer players on a background thread, so the thread the model is
+ * played on, such as the Swing event dispatch thread, stays free while a strategy searches.
+ * Each move is searched on a private copy of the model, so the model itself can be read and
+ * drawn meanwhile. Moves are chosen one at a time. A search still running at the deadline is
+ * interrupted and given a short grace period to return its move. If it fails or doesn't
+ * return in time, the first legal move is chosen instead, and the search is left to finish on
+ * its copy. The chosen move is handed over on the model thread, in the same task that marks
+ * the runner idle, so no other move can be played between the two.
+ */
+public final class ComputerTurnRunner implements AutoCloseable {
+  // Time an interrupted search is given to return its move after the deadline
+  private static final long INTERRUPT_GRACE_MILLIS = 250;
+
+  private final Executor modelThread;
+  private final long deadlineMillis;
+  private final long progressIntervalMillis;
+  // Searches run on copies, so one ignoring an interrupt doesn't hold up the next
+  private final ExecutorService searchThreads;
+  private final ScheduledExecutorService timer;
+  private volatile boolean busy;
+
+  /**
+   * Constructor for initializing a ComputerTurnRunner.
+   *
+   * @param modelThread            runs progress callbacks on the thread the model is played on
+   * @param deadlineMillis         wall-clock time allowed to choose each move
+   * @param progressIntervalMillis time between progress callbacks
+   * @throws IllegalArgumentException if modelThread is null or either time isn't positive
+   */
+  public ComputerTurnRunner(Executor modelThread, long deadlineMillis,
+                            long progressIntervalMillis) {
+    if (modelThread == null) {
+      throw new IllegalArgumentException("Model thread cannot be null.");
+    } else if (deadlineMillis < 1 || progressIntervalMillis < 1) {
+      throw new IllegalArgumentException("Deadline and progress interval must be positive.");
+    }
+    this.modelThread = modelThread;
+    this.deadlineMillis = deadlineMillis;
+    this.progressIntervalMillis = progressIntervalMillis;
+    this.searchThreads = Executors.newCachedThreadPool(runnable -> {
+      Thread thread = new Thread(runnable, "computer-turn");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "computer-turn-timer");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Starts choosing the next move of a player in the background. Called on the model thread,
+   * where the model and player are copied before the search starts. The returned future
+   * completes on the model thread, right after the runner stops being busy, so callers apply
+   * the move in a stage of the future run by the completing thread, such as whenComplete.
+   * Cancelling the future interrupts the search.
+   *
+   * @param player   player in turn, whose move to choose
+   * @param model    model the player reads from, copied to search on
+   * @param progress called on the model thread with the milliseconds spent so far, every
+   *                 progress interval until the move is chosen, may be null
+   * @return future of the chosen move, or of the first legal move if the player failed or
+   *         ran out of time; it only fails by being cancelled
+   * @throws IllegalArgumentException if player or model is null, or the player's strategies
+   *                                  can't be copied
+   * @throws IllegalStateException    if a move is already being chosen
+   */
+  public CompletableFuture<GameMoveData> chooseMove(ComputerPlayer player,
+                                                    UndoableThreeTriosModel model,
+                                                    LongConsumer progress) {
+    if (player == null || model == null) {
+      throw new IllegalArgumentException("Player and model cannot be null.");
+    } else if (!player.supportsCopy()) {
+      throw new IllegalArgumentException("Player's strategies must support copies to be "
+              + "searched in the background.");
+    } else if (busy) {
+      throw new IllegalStateException("A move is already being chosen.");
+    }
+    ComputerPlayer searcher = player.copyFor(model.copy());
+    GameMoveData fallback = firstLegalMove(model);
+    busy = true;
+    long start = System.nanoTime();
+    CompletableFuture<GameMoveData> result = new CompletableFuture<>();
+    // Completed by the search or the timer, whichever answers first
+    CompletableFuture<GameMoveData> chosen = new CompletableFuture<>();
+    Future<?> search = searchThreads.submit(() -> {
+      try {
+        chosen.complete(searcher.getNextPlacement());
+      } catch (RuntimeException e) {
+        // A failed search still leaves the game a move to play
+        chosen.complete(fallback);
+      }
+    });
+    ScheduledFuture<?> deadline = timer.schedule(() -> {
+      search.cancel(true);
+      timer.schedule(() -> chosen.complete(fallback), INTERRUPT_GRACE_MILLIS,
+              TimeUnit.MILLISECONDS);
+    }, deadlineMillis, TimeUnit.MILLISECONDS);
+    ScheduledFuture<?> ticks = progress == null ? null : timer.scheduleAtFixedRate(() ->
+            modelThread.execute(() -> {
+              if (!result.isDone()) {
+                progress.accept((System.nanoTime() - start) / 1_000_000);
+              }
+            }), progressIntervalMillis, progressIntervalMillis, TimeUnit.MILLISECONDS);
+
+    chosen.thenAccept(move -> modelThread.execute(() -> {
+      if (result.isDone()) {
+        // Cancelled, which already freed the runner
+        return;
+      }
+      // Freed in the same model thread task the move is applied in, so nothing is played in
+      // between, while the turn the move passes on can start choosing the next one
+      busy = false;
+      result.complete(move);
+    }));
+    result.whenComplete((move, error) -> {
+      deadline.cancel(false);
+      if (ticks != null) {
+        ticks.cancel(false);
+      }
+      if (result.isCancelled()) {
+        search.cancel(true);
+        busy = false;
+      }
+    });
+    return result;
+  }
+
+  private static GameMoveData firstLegalMove(ReadOnlyThreeTriosModel model) {
+    ReadOnlyCellIndex cells = model.getCellIndex();
+    int cell = cells.getEmptyCell(0);
+    return new GameMoveData(cell / cells.getNumCols(), cell % cells.getNumCols(), 0);
+  }
+
+  /**
+   * Predicate for whether a move is being chosen, during which moves shouldn't be played.
+   *
+   * @return true from the start of chooseMove until the move is chosen or cancelled
+   */
+  public boolean isBusy() {
+    return busy;
+  }
+
+  /**
+   * Gets the executor running tasks on the model thread, on which moves should be applied.
+   *
+   * @return the model thread's executor
+   */
+  public Executor getModelThread() {
+    return modelThread;
+  }
+
+  /**
+   * Stops the background threads, interrupting any search.
+   */
+  @Override
+  public void close() {
+    searchThreads.shutdownNow();
+    timer.shutdownNow();
+  }
+}
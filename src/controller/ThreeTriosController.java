@@ -3,8 +3,10 @@ package controller;
 import java.io.IOException;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 import model.ThreeTriosModel;
+import model.UndoableThreeTriosModel;
 import model.card.Colors;
 import player.ComputerPlayer;
 import player.GameMoveData;
@@ -14,7 +16,10 @@ import view.ThreeTriosGUI;
 
 /**
  * Represent a controller that can be used for an individual player to interact with and play a
- * game of Three Trios.
+ * game of Three Trios. A computer player's moves are chosen either synchronously, inside the
+ * model's turn callback, or in the background on a copy of the model by a ComputerTurnRunner
+ * and then played on the runner's model thread. Players whose strategies can't be copied are
+ * always run synchronously.
  */
 public class ThreeTriosController implements ModelFeatures, ViewFeatures {
   private ThreeTriosGUI view;
@@ -22,14 +27,32 @@ public class ThreeTriosController implements ModelFeatures, ViewFeatures {
   private ThreeTriosModel model;
   private Map.Entry<Integer, Integer> currentlyHighlightedCard; // player index, card index
   private int playerIdx;
+  private final ComputerTurnRunner turns;
+  private CompletableFuture<GameMoveData> pendingMove;
 
   /**
-   * Constructs a controller for a specified player, view, and mode.
+   * Constructs a controller for a specified player, view, and mode. Computer moves are chosen
+   * synchronously on the thread that played the previous move.
    * @param model Game model to be played with
    * @param player who will use this controller to interact with the game
    * @param view view specific to player
    */
   public ThreeTriosController(ThreeTriosModel model, Player player, ThreeTriosGUI view) {
+    this(model, player, view, null);
+  }
+
+  /**
+   * Constructs a controller whose computer moves are chosen in the background. Every
+   * controller of the model should share the runner, so that no move is played while a
+   * computer is choosing one.
+   * @param model Game model to be played with
+   * @param player who will use this controller to interact with the game
+   * @param view view specific to player
+   * @param turns runner choosing computer moves, null to choose them synchronously
+   */
+  public ThreeTriosController(ThreeTriosModel model, Player player, ThreeTriosGUI view,
+                              ComputerTurnRunner turns) {
+    this.turns = turns;
     activePlayer = Objects.requireNonNull(player);
     this.model = Objects.requireNonNull(model);
     this.view = Objects.requireNonNull(view);
@@ -49,8 +72,19 @@ public class ThreeTriosController implements ModelFeatures, ViewFeatures {
     }
   }
 
+  private boolean computerThinking() {
+    if (turns != null && turns.isBusy()) {
+      showComputerPlayerSafeMessage("Wait for the computer to make its move");
+      return true;
+    }
+    return false;
+  }
+
   @Override
   public void selectCard(int playerIndex, int cardIndex) {
+    if (computerThinking()) {
+      return;
+    }
     if (model.isGameOver()) {
       gameEnd();
       return;
@@ -86,6 +120,9 @@ public class ThreeTriosController implements ModelFeatures, ViewFeatures {
 
   @Override
   public void selectGridCell(int row, int col) {
+    if (computerThinking()) {
+      return;
+    }
     if (model.isGameOver()) {
       gameEnd();
       return;
@@ -131,8 +168,12 @@ public class ThreeTriosController implements ModelFeatures, ViewFeatures {
     if (this.playerIdx == playerIndex) {
       showComputerPlayerSafeMessage("It's your turn!");
 
-      // Make moves for computer players
-      if (this.activePlayer instanceof ComputerPlayer) {
+      // Make moves for computer players, in the background if they can search on a copy
+      if (this.activePlayer instanceof ComputerPlayer && turns != null
+              && model instanceof UndoableThreeTriosModel
+              && ((ComputerPlayer) activePlayer).supportsCopy()) {
+        chooseInBackground();
+      } else if (this.activePlayer instanceof ComputerPlayer) {
         GameMoveData computerMove = activePlayer.getNextPlacement();
         while (true) {
           try {
@@ -146,6 +187,38 @@ public class ThreeTriosController implements ModelFeatures, ViewFeatures {
     }
   }
 
+  private void chooseInBackground() {
+    CompletableFuture<GameMoveData> move = turns.chooseMove((ComputerPlayer) activePlayer,
+            (UndoableThreeTriosModel) model,
+            elapsed -> view.showStatus(String.format("%s is thinking: %.1f s",
+                    activePlayer.getColor(), elapsed / 1000.0)));
+    pendingMove = move;
+    // The runner completes the move on the model thread, so it is played right there. The
+    // future only fails when cancelled, and a cancelled move is never played.
+    move.whenComplete((computerMove, error) -> {
+      if (pendingMove != move || error != null) {
+        return;
+      }
+      pendingMove = null;
+      try {
+        model.playMove(computerMove);
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        showComputerPlayerSafeMessage(e.getMessage());
+      }
+    });
+  }
+
+  /**
+   * Cancels the computer move being chosen in the background, if any, so that it is never
+   * played. Called on the model thread.
+   * @return true if a move was being chosen
+   */
+  public boolean cancelComputerMove() {
+    CompletableFuture<GameMoveData> move = pendingMove;
+    pendingMove = null;
+    return move != null && move.cancel(true);
+  }
+
   @Override
   public void gameEnd() {
     Player[] winners = model.getWinner();
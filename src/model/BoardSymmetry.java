@@ -0,0 +1,335 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.card.Colors;
+import model.card.Positions;
+import model.card.ReadOnlyCard;
+import model.cell.Cell;
+
+/**
+ * The rotations and reflections that map a grid onto itself, holes onto holes and card cells
+ * onto card cells. A rectangular grid can have up to four of them, a square one up to eight.
+ * Turning the board turns every card with it, so a card's north value may end up facing east,
+ * and a symmetry only maps a position onto an equivalent one if the cards in hand are turned
+ * as well. Positions equivalent under a symmetry play out the same way, with every move
+ * mapped by it.
+ *
+ * <p>Symmetries are numbered from 0, which is always the identity. Cells are numbered
+ * row * numCols + col.</p>
+ */
+public final class BoardSymmetry {
+  // Candidate transforms: identity, half turn, mirror left-right, mirror top-bottom, and on
+  // square grids quarter turn clockwise, quarter turn counterclockwise, and the two transposes
+  private static final int NUM_TRANSFORMS = 8;
+  private static final int NUM_RECTANGLE_TRANSFORMS = 4;
+  private static final Positions[] SIDES = Positions.values();
+
+  private final int cols;
+  // Image of every cell, and the cell whose image every cell is, by symmetry
+  private final int[][] cellMaps;
+  private final int[][] inverseCellMaps;
+  // Side a card's side faces once turned, and the side that ends up facing each side
+  private final Positions[][] sideMaps;
+  private final Positions[][] inverseSideMaps;
+
+  /**
+   * Constructor for finding the symmetries of a grid.
+   *
+   * @param grid grid whose layout to check
+   * @throws IllegalArgumentException if grid is null
+   */
+  public BoardSymmetry(ReadOnlyGrid grid) {
+    if (grid == null) {
+      throw new IllegalArgumentException("Grid cannot be null.");
+    }
+    int rows = grid.getNumRows();
+    this.cols = grid.getNumCols();
+    List<Integer> found = new ArrayList<>();
+    int candidates = rows == cols ? NUM_TRANSFORMS : NUM_RECTANGLE_TRANSFORMS;
+    for (int t = 0; t < candidates; t++) {
+      if (preservesLayout(grid, t)) {
+        found.add(t);
+      }
+    }
+
+    int numCells = rows * cols;
+    this.cellMaps = new int[found.size()][numCells];
+    this.inverseCellMaps = new int[found.size()][numCells];
+    this.sideMaps = new Positions[found.size()][SIDES.length];
+    this.inverseSideMaps = new Positions[found.size()][SIDES.length];
+    for (int s = 0; s < found.size(); s++) {
+      int t = found.get(s);
+      for (int cell = 0; cell < numCells; cell++) {
+        int[] image = transform(t, cell / cols, cell % cols, rows, cols);
+        cellMaps[s][cell] = image[0] * cols + image[1];
+        inverseCellMaps[s][cellMaps[s][cell]] = cell;
+      }
+      for (Positions side : SIDES) {
+        Positions image = sideOf(t, side, rows, cols);
+        sideMaps[s][side.ordinal()] = image;
+        inverseSideMaps[s][image.ordinal()] = side;
+      }
+    }
+  }
+
+  /**
+   * Finds the symmetries of a grid as read from a grid config file.
+   *
+   * @param grid grid of cells, row, col indexed
+   * @return the symmetries of the grid
+   * @throws NullPointerException if grid is null
+   */
+  public static BoardSymmetry of(Cell[][] grid) {
+    return new BoardSymmetry(new CellGridView(grid));
+  }
+
+  private static boolean preservesLayout(ReadOnlyGrid grid, int t) {
+    for (int row = 0; row < grid.getNumRows(); row++) {
+      for (int col = 0; col < grid.getNumCols(); col++) {
+        int[] image = transform(t, row, col, grid.getNumRows(), grid.getNumCols());
+        if (grid.isCardCell(row, col) != grid.isCardCell(image[0], image[1])) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static int[] transform(int t, int row, int col, int rows, int cols) {
+    switch (t) {
+      case 0:
+        return new int[]{row, col};
+      case 1:
+        return new int[]{rows - 1 - row, cols - 1 - col};
+      case 2:
+        return new int[]{row, cols - 1 - col};
+      case 3:
+        return new int[]{rows - 1 - row, col};
+      case 4:
+        return new int[]{col, rows - 1 - row};
+      case 5:
+        return new int[]{cols - 1 - col, row};
+      case 6:
+        return new int[]{col, row};
+      case 7:
+        return new int[]{cols - 1 - col, rows - 1 - row};
+      default:
+        throw new IllegalArgumentException("No transform " + t);
+    }
+  }
+
+  private static Positions sideOf(int t, Positions side, int rows, int cols) {
+    // Every transform is affine, so the step to a neighbor maps to the same step anywhere
+    int dRow = side == Positions.NORTH ? -1 : side == Positions.SOUTH ? 1 : 0;
+    int dCol = side == Positions.WEST ? -1 : side == Positions.EAST ? 1 : 0;
+    int[] origin = transform(t, 0, 0, rows, cols);
+    int[] step = transform(t, dRow, dCol, rows, cols);
+    int row = step[0] - origin[0];
+    int col = step[1] - origin[1];
+    return row < 0 ? Positions.NORTH : row > 0 ? Positions.SOUTH
+            : col > 0 ? Positions.EAST : Positions.WEST;
+  }
+
+  /**
+   * Gets the number of symmetries of the grid, including the identity.
+   *
+   * @return size of the symmetry group, 1 if the grid has no symmetry
+   */
+  public int size() {
+    return cellMaps.length;
+  }
+
+  /**
+   * Gets the cell a cell is mapped to by a symmetry.
+   *
+   * @param symmetry symmetry number
+   * @param cell     cell number
+   * @return number of the image cell
+   * @throws IndexOutOfBoundsException if symmetry or cell is out of range
+   */
+  public int mapCell(int symmetry, int cell) {
+    return cellMaps[symmetry][cell];
+  }
+
+  /**
+   * Gets the cell a symmetry maps onto a cell, undoing mapCell.
+   *
+   * @param symmetry symmetry number
+   * @param cell     number of the image cell
+   * @return number of the cell mapped to it
+   * @throws IndexOutOfBoundsException if symmetry or cell is out of range
+   */
+  public int unmapCell(int symmetry, int cell) {
+    return inverseCellMaps[symmetry][cell];
+  }
+
+  /**
+   * Gets the side a card's side faces once the card is turned by a symmetry.
+   *
+   * @param symmetry symmetry number
+   * @param side     side of the card before turning
+   * @return side it faces after turning
+   * @throws IndexOutOfBoundsException if symmetry is out of range
+   */
+  public Positions mapSide(int symmetry, Positions side) {
+    return sideMaps[symmetry][side.ordinal()];
+  }
+
+  /**
+   * Gets the key of a model's position as seen through a symmetry: the position with every
+   * card moved to its image cell and turned, and every card in hand turned. The key covers the
+   * values and owner of every card on the grid, the player to move and the values of the cards
+   * in each hand in order, which is all that decides the rest of the game.
+   *
+   * @param model    model whose position to key
+   * @param symmetry symmetry number
+   * @return 64-bit hash of the mapped position
+   * @throws IndexOutOfBoundsException if symmetry is out of range
+   */
+  public long keyOf(ReadOnlyThreeTriosModel model, int symmetry) {
+    ReadOnlyGrid grid = model.getGridView();
+    int[] sources = inverseCellMaps[symmetry];
+    long key = mix(model.getPlayerInTurn().getColor() == Colors.RED ? 1 : 2);
+    for (int source : sources) {
+      ReadOnlyCard card = grid.getCard(source / cols, source % cols);
+      // Holes and empty cells look alike, but symmetries keep holes in place
+      key = mix(key ^ (card == null ? 0
+              : packValues(card, symmetry) << 2 | (card.getColor() == Colors.RED ? 1 : 2)));
+    }
+    for (int player = 0; player < 2; player++) {
+      List<ReadOnlyCard> hand = model.getPlayers().get(player).getHandView();
+      key = mix(key ^ hand.size());
+      for (ReadOnlyCard card : hand) {
+        key = mix(key ^ packValues(card, symmetry));
+      }
+    }
+    return key;
+  }
+
+  /**
+   * Gets the symmetry under which a position has its smallest key, so that equivalent
+   * positions map to the same canonical form under their respective canonical symmetries.
+   *
+   * @param model model whose position to canonicalize
+   * @return symmetry number, the first one if several give the smallest key
+   */
+  public int canonicalSymmetry(ReadOnlyThreeTriosModel model) {
+    int best = 0;
+    long bestKey = keyOf(model, 0);
+    for (int s = 1; s < size(); s++) {
+      long key = keyOf(model, s);
+      if (key < bestKey) {
+        best = s;
+        bestKey = key;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Gets the key of a position's canonical form, the same for every position equivalent to
+   * it.
+   *
+   * @param model model whose position to key
+   * @return smallest key of the position over all symmetries
+   */
+  public long canonicalKey(ReadOnlyThreeTriosModel model) {
+    return keyOf(model, canonicalSymmetry(model));
+  }
+
+  /**
+   * Gets the symmetries that map a position onto itself, with the cards in hand turned as
+   * well. Moves mapped onto each other by them lead to equivalent positions. Hands are kept
+   * in order, so only symmetries turning every card in hand into itself can fix a position,
+   * which few decks have; the hands are checked first so other positions are rejected without
+   * keying the grid.
+   *
+   * @param model model whose position to check
+   * @return symmetry numbers in ascending order, always starting with the identity
+   */
+  public int[] symmetriesOf(ReadOnlyThreeTriosModel model) {
+    int[] fixing = new int[size()];
+    int count = 0;
+    fixing[count++] = 0;
+    long key = 0;
+    boolean keyed = false;
+    for (int s = 1; s < size(); s++) {
+      if (!fixesHands(model, s)) {
+        continue;
+      }
+      if (!keyed) {
+        key = keyOf(model, 0);
+        keyed = true;
+      }
+      if (keyOf(model, s) == key) {
+        fixing[count++] = s;
+      }
+    }
+    return Arrays.copyOf(fixing, count);
+  }
+
+  private boolean fixesHands(ReadOnlyThreeTriosModel model, int symmetry) {
+    for (int player = 0; player < 2; player++) {
+      for (ReadOnlyCard card : model.getPlayers().get(player).getHandView()) {
+        if (packValues(card, symmetry) != packValues(card, 0)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Predicate for whether a cell is the smallest cell of its orbit, the cells some of the
+   * symmetries map it to. Searching only the moves to such cells covers every move up to
+   * symmetry.
+   *
+   * @param symmetries symmetries of a position, from symmetriesOf
+   * @param cell       cell number
+   * @return true if no symmetry maps the cell to a smaller one
+   */
+  public boolean isRepresentative(int[] symmetries, int cell) {
+    for (int s : symmetries) {
+      if (cellMaps[s][cell] < cell) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Gets the cells the symmetries map a cell to, itself included.
+   *
+   * @param symmetries symmetries of a position, from symmetriesOf
+   * @param cell       cell number
+   * @return distinct cell numbers in ascending order
+   */
+  public int[] orbitOf(int[] symmetries, int cell) {
+    int[] images = new int[symmetries.length];
+    for (int i = 0; i < symmetries.length; i++) {
+      images[i] = cellMaps[symmetries[i]][cell];
+    }
+    return Arrays.stream(images).sorted().distinct().toArray();
+  }
+
+  private long packValues(ReadOnlyCard card, int symmetry) {
+    Positions[] from = inverseSideMaps[symmetry];
+    long packed = 0;
+    for (Positions side : SIDES) {
+      // The value facing this side once turned is the one on the side turned onto it
+      packed = packed << 4 | card.getValueFromPos(from[side.ordinal()]).ordinal();
+    }
+    return packed;
+  }
+
+  // SplitMix64 finalizer, so that every field affects every bit of the key
+  private static long mix(long z) {
+    z += 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,49 @@
+package model;
+
+import java.util.Objects;
+
+import model.card.ReadOnlyCard;
+import model.cell.CardCell;
+import model.cell.Cell;
+
+/**
+ * ReadOnlyGrid backed by a grid of cell objects, showing the cards held by the cells
+ * themselves rather than copies of them.
+ */
+public final class CellGridView implements ReadOnlyGrid {
+  private final Cell[][] grid;
+
+  /**
+   * Constructor for initializing a view of a grid.
+   *
+   * @param grid grid to view, row, col indexed
+   * @throws NullPointerException if grid is null
+   */
+  public CellGridView(Cell[][] grid) {
+    this.grid = Objects.requireNonNull(grid);
+  }
+
+  @Override
+  public int getNumRows() {
+    return grid.length;
+  }
+
+  @Override
+  public int getNumCols() {
+    return grid[0].length;
+  }
+
+  @Override
+  public boolean isCardCell(int row, int col) {
+    return row >= 0 && row < grid.length && col >= 0 && col < grid[0].length
+            && grid[row][col] instanceof CardCell;
+  }
+
+  @Override
+  public ReadOnlyCard getCard(int row, int col) {
+    if (!isCardCell(row, col)) {
+      return null;
+    }
+    return ((CardCell) grid[row][col]).getActualCard().orElse(null);
+  }
+}
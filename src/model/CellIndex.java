@@ -0,0 +1,238 @@
+package model;
+
+import java.util.Arrays;
+
+import model.card.Positions;
+
+/**
+ * Index of the card cells of a game grid, kept up to date by a model as cards are placed and
+ * taken back. Empty and frontier cells are kept in dense arrays with a position per cell, so
+ * that placing a card swap-removes its cell in constant time. Taking back the most recent
+ * placement first, as undoing moves does, restores the exact order the cells were in.
+ */
+public final class CellIndex implements ReadOnlyCellIndex {
+  private final int cols;
+  // Four neighbor indexes per cell in Positions order, -1 for holes and off grid locations
+  private final int[] neighbors;
+  private final byte[] holeNeighborCounts;
+  private final byte[] openSides;
+  private final boolean[] corners;
+  private final boolean[] cardCells;
+  // Number of occupied card cells next to each cell
+  private final byte[] occupiedNeighbors;
+  private final IndexedSet empty;
+  private final IndexedSet frontier;
+
+  /**
+   * Constructor indexing the card cells of a grid, and the cards already on it.
+   *
+   * @param grid grid to index
+   * @throws IllegalArgumentException if grid is null
+   */
+  public CellIndex(ReadOnlyGrid grid) {
+    if (grid == null) {
+      throw new IllegalArgumentException("Grid cannot be null.");
+    }
+    int rows = grid.getNumRows();
+    this.cols = grid.getNumCols();
+    int numCells = rows * cols;
+    this.neighbors = new int[numCells * 4];
+    this.holeNeighborCounts = new byte[numCells];
+    this.openSides = new byte[numCells];
+    this.corners = new boolean[numCells];
+    this.cardCells = new boolean[numCells];
+    this.occupiedNeighbors = new byte[numCells];
+    this.empty = new IndexedSet(numCells);
+    this.frontier = new IndexedSet(numCells);
+
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < cols; col++) {
+        int cell = row * cols + col;
+        link(grid, cell, Positions.NORTH, row - 1, col);
+        link(grid, cell, Positions.SOUTH, row + 1, col);
+        link(grid, cell, Positions.EAST, row, col + 1);
+        link(grid, cell, Positions.WEST, row, col - 1);
+        corners[cell] = (row == 0 || row == rows - 1) && (col == 0 || col == cols - 1);
+        cardCells[cell] = grid.isCardCell(row, col);
+      }
+    }
+
+    // Empty cells are added in row-major order, then cards already on the grid are counted
+    for (int cell = 0; cell < numCells; cell++) {
+      if (cardCells[cell] && !grid.hasCard(cell / cols, cell % cols)) {
+        empty.add(cell);
+      }
+    }
+    for (int cell = 0; cell < numCells; cell++) {
+      if (grid.hasCard(cell / cols, cell % cols)) {
+        for (int dir = 0; dir < 4; dir++) {
+          int adj = neighbors[cell * 4 + dir];
+          if (adj >= 0) {
+            occupiedNeighbors[adj]++;
+          }
+        }
+      }
+    }
+    for (int i = 0; i < empty.size; i++) {
+      if (occupiedNeighbors[empty.items[i]] > 0) {
+        frontier.add(empty.items[i]);
+      }
+    }
+  }
+
+  private void link(ReadOnlyGrid grid, int cell, Positions dir, int row, int col) {
+    if (grid.isCardCell(row, col)) {
+      neighbors[cell * 4 + dir.ordinal()] = row * cols + col;
+      openSides[cell] |= (byte) (1 << dir.ordinal());
+    } else {
+      neighbors[cell * 4 + dir.ordinal()] = -1;
+      holeNeighborCounts[cell]++;
+    }
+  }
+
+  /**
+   * Marks an empty card cell as holding a card.
+   *
+   * @param cell row-major index of the cell
+   * @throws IllegalArgumentException if the cell isn't an empty card cell
+   */
+  public void fill(int cell) {
+    if (!isEmptyCell(cell)) {
+      throw new IllegalArgumentException("Cell is not an empty card cell: " + cell);
+    }
+    empty.remove(cell);
+    if (frontier.contains(cell)) {
+      frontier.remove(cell);
+    }
+    for (int dir = 0; dir < 4; dir++) {
+      int adj = neighbors[cell * 4 + dir];
+      if (adj >= 0 && ++occupiedNeighbors[adj] == 1 && empty.contains(adj)) {
+        frontier.add(adj);
+      }
+    }
+  }
+
+  /**
+   * Marks a card cell holding a card as empty again. Every step of fill is reversed in
+   * reverse order, so clearing the most recently filled cell restores the previous order.
+   *
+   * @param cell row-major index of the cell
+   * @throws IllegalArgumentException if the cell isn't a card cell holding a card
+   */
+  public void clear(int cell) {
+    if (cell < 0 || cell >= cardCells.length || !cardCells[cell] || empty.contains(cell)) {
+      throw new IllegalArgumentException("Cell is not an occupied card cell: " + cell);
+    }
+    for (int dir = 3; dir >= 0; dir--) {
+      int adj = neighbors[cell * 4 + dir];
+      if (adj >= 0 && occupiedNeighbors[adj]-- == 1 && empty.contains(adj)) {
+        frontier.remove(adj);
+      }
+    }
+    if (occupiedNeighbors[cell] > 0) {
+      frontier.add(cell);
+    }
+    empty.add(cell);
+  }
+
+  @Override
+  public int getNumCols() {
+    return cols;
+  }
+
+  @Override
+  public int getNumEmptyCells() {
+    return empty.size;
+  }
+
+  @Override
+  public int getEmptyCell(int i) {
+    return empty.get(i);
+  }
+
+  @Override
+  public int getNumFrontierCells() {
+    return frontier.size;
+  }
+
+  @Override
+  public int getFrontierCell(int i) {
+    return frontier.get(i);
+  }
+
+  @Override
+  public boolean isEmptyCell(int cell) {
+    return cell >= 0 && cell < cardCells.length && empty.contains(cell);
+  }
+
+  @Override
+  public int getHoleNeighborCount(int cell) {
+    return holeNeighborCounts[cell];
+  }
+
+  @Override
+  public int getOpenSides(int cell) {
+    return openSides[cell];
+  }
+
+  @Override
+  public boolean isCorner(int cell) {
+    return corners[cell];
+  }
+
+  /**
+   * Set of cell indexes in a dense array, with the position of every member.
+   */
+  private static final class IndexedSet {
+    private final int[] items;
+    private final int[] positions;
+    // Position each cell was swap-removed from, used to restore it to the same position
+    private final int[] removedFrom;
+    private int size;
+
+    IndexedSet(int capacity) {
+      this.items = new int[capacity];
+      this.positions = new int[capacity];
+      this.removedFrom = new int[capacity];
+      Arrays.fill(positions, -1);
+      Arrays.fill(removedFrom, -1);
+    }
+
+    boolean contains(int cell) {
+      return positions[cell] >= 0;
+    }
+
+    int get(int i) {
+      if (i < 0 || i >= size) {
+        throw new IndexOutOfBoundsException("Index " + i + " out of range for " + size);
+      }
+      return items[i];
+    }
+
+    void add(int cell) {
+      items[size] = cell;
+      positions[cell] = size;
+      int from = removedFrom[cell];
+      if (from >= 0 && from < size) {
+        // Swap the cell back to where it was removed from. When removals are taken back in
+        // reverse order, the cell found there is the one that was moved to fill the gap.
+        int moved = items[from];
+        items[from] = cell;
+        items[size] = moved;
+        positions[moved] = size;
+        positions[cell] = from;
+      }
+      removedFrom[cell] = -1;
+      size++;
+    }
+
+    void remove(int cell) {
+      int from = positions[cell];
+      int last = items[--size];
+      items[from] = last;
+      positions[last] = from;
+      positions[cell] = -1;
+      removedFrom[cell] = from;
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package model;
+
+import java.util.Random;
+
+import model.card.Colors;
+import player.UserPlayer;
+
+/**
+ * Replays a logged game from the config files it was played with, and rebuilds the position
+ * after any number of moves. The whole log is replayed once up front, checking every move
+ * against the flips it logged, and a snapshot is kept every checkpointInterval moves, so a
+ * position is rebuilt by restoring the nearest checkpoint and playing fewer than
+ * checkpointInterval moves on it.
+ */
+public final class GameReplay {
+  /**
+   * Moves between checkpoints when no interval is supplied.
+   */
+  public static final int DEFAULT_CHECKPOINT_INTERVAL = 64;
+
+  private final MoveLog log;
+  private final int checkpointInterval;
+  private final GameSnapshot[] checkpoints;
+
+  /**
+   * Constructor replaying a log with the default checkpoint interval.
+   *
+   * @param log                log of the game
+   * @param gridConfigFilePath path to the grid config the game was played on
+   * @param cardConfigFilePath path to the card config the game was played with
+   * @throws IllegalArgumentException if any parameter is null, the configs aren't the ones the
+   *                                  game was played with, or the log can't be replayed
+   * @throws IllegalStateException    if reading from the config files produces an IOException
+   */
+  public GameReplay(MoveLog log, String gridConfigFilePath, String cardConfigFilePath) {
+    this(log, gridConfigFilePath, cardConfigFilePath, DEFAULT_CHECKPOINT_INTERVAL);
+  }
+
+  /**
+   * Constructor replaying a log, keeping a checkpoint every checkpointInterval moves. Shorter
+   * intervals rebuild positions faster and take more memory.
+   *
+   * @param log                log of the game
+   * @param gridConfigFilePath path to the grid config the game was played on
+   * @param cardConfigFilePath path to the card config the game was played with
+   * @param checkpointInterval number of moves between checkpoints
+   * @throws IllegalArgumentException if any parameter is null, checkpointInterval isn't
+   *                                  positive, the configs aren't the ones the game was played
+   *                                  with, or the log can't be replayed
+   * @throws IllegalStateException    if reading from the config files produces an IOException
+   */
+  public GameReplay(MoveLog log, String gridConfigFilePath, String cardConfigFilePath,
+                    int checkpointInterval) {
+    if (log == null || gridConfigFilePath == null || cardConfigFilePath == null) {
+      throw new IllegalArgumentException("Constructor does not take null parameters.");
+    } else if (checkpointInterval <= 0) {
+      throw new IllegalArgumentException("Checkpoint interval must be positive.");
+    }
+    this.log = log;
+    this.checkpointInterval = checkpointInterval;
+    this.checkpoints = new GameSnapshot[log.getNumMoves() / checkpointInterval + 1];
+
+    ThreeTriosGameModel model = log.isSeeded()
+            ? new ThreeTriosGameModel(gridConfigFilePath, cardConfigFilePath, log.getSeed())
+            : new ThreeTriosGameModel(gridConfigFilePath, cardConfigFilePath, new Random());
+    if (MoveLog.hashGrid(model.getGridView()) != log.getGridHash()
+            || model.deckHash() != log.getDeckHash()) {
+      throw new IllegalArgumentException("Configs are not the ones the game was played with.");
+    }
+    boolean shuffle = log.isShuffled();
+    if (shuffle && !log.isSeeded()) {
+      model.setDeckOrder(log.getDealOrder());
+      shuffle = false;
+    }
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            shuffle);
+
+    checkpoints[0] = model.snapshot();
+    for (int i = 0; i < log.getNumMoves(); i++) {
+      try {
+        model.playMove(log.getMove(i));
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        throw new IllegalArgumentException("Move " + i + " of the log can't be replayed: "
+                + e.getMessage());
+      }
+      if (model.getMoveLog().getFlips(i) != log.getFlips(i)) {
+        throw new IllegalArgumentException(String.format("Move %d flipped %d cards in the "
+                + "replay, but %d in the log", i, model.getMoveLog().getFlips(i),
+                log.getFlips(i)));
+      }
+      if ((i + 1) % checkpointInterval == 0) {
+        checkpoints[(i + 1) / checkpointInterval] = model.snapshot();
+      }
+    }
+  }
+
+  /**
+   * Gets the number of moves of the replayed game.
+   *
+   * @return number of moves logged
+   */
+  public int getNumMoves() {
+    return log.getNumMoves();
+  }
+
+  /**
+   * Rebuilds the position after a number of moves, as a new model independent of the replay.
+   * Its players are UserPlayers, and it has no move log.
+   *
+   * @param numMoves number of moves played, between 0 and getNumMoves()
+   * @return new model in the position
+   * @throws IllegalArgumentException if numMoves is out of range
+   */
+  public ThreeTriosGameModel positionAt(int numMoves) {
+    if (numMoves < 0 || numMoves > log.getNumMoves()) {
+      throw new IllegalArgumentException(String.format("Invalid number of moves: %d, the game "
+              + "has %d", numMoves, log.getNumMoves()));
+    }
+    int checkpoint = numMoves / checkpointInterval;
+    ThreeTriosGameModel model = ThreeTriosGameModel.fromSnapshot(checkpoints[checkpoint]);
+    for (int i = checkpoint * checkpointInterval; i < numMoves; i++) {
+      model.playMove(log.getMove(i));
+    }
+    return model;
+  }
+}
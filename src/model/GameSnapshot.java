@@ -0,0 +1,377 @@
+package model;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import model.card.CardCatalog;
+
+/**
+ * Snapshot of a game, in or out of progress, that can be written to and read from a compact,
+ * versioned binary format. A snapshot covers the grid layout, the catalog of the deck's
+ * distinct cards, the deck order, the owner and card of every cell, both hands, the player in
+ * turn, the newly placed card and, if known, the seed of the game's source of randomness
+ * along with the number of shuffles drawn from it.
+ *
+ * <p>The format is big-endian: a magic number and format version, then the grid size and a
+ * bit per cell marking holes, the catalog as length-prefixed UTF-8 names with four values
+ * each, the deck as catalog ids, a started flag and the player in turn, then one int per card
+ * cell holding 0 for an empty cell or (id + 1) * 2 + owner, both hands as length-prefixed
+ * catalog ids, the newly placed card encoded like a cell, then a flag for whether the seed
+ * is known, the seed and the number of shuffles. Version 1 snapshots end with the seed alone,
+ * which was always known and not yet drawn from.</p>
+ */
+public final class GameSnapshot {
+  /**
+   * Magic number every snapshot starts with, "TTSN" in ASCII.
+   */
+  public static final int MAGIC = 0x5454534E;
+  /**
+   * Version of the format written by this class.
+   */
+  public static final short VERSION = 2;
+
+  private final int rows;
+  private final int cols;
+  private final boolean[] holes;
+  private final CardCatalog catalog;
+  private final int[] deckIds;
+  private final boolean started;
+  private final int turn;
+  // Card id of each cell (-1 if empty or a hole) and its owner, row-major
+  private final int[] cellCardIds;
+  private final byte[] cellOwners;
+  private final int[][] hands;
+  private final int newlyPlacedId;
+  private final int newlyPlacedOwner;
+  private final boolean seeded;
+  private final long seed;
+  private final int shuffles;
+  // UTF-8 card names, encoded on first write. A race can only encode them twice.
+  private byte[][] encodedNames;
+
+  GameSnapshot(int rows, int cols, boolean[] holes, CardCatalog catalog, int[] deckIds,
+               boolean started, int turn, int[] cellCardIds, byte[] cellOwners, int[][] hands,
+               int newlyPlacedId, int newlyPlacedOwner, boolean seeded, long seed,
+               int shuffles) {
+    this.rows = rows;
+    this.cols = cols;
+    this.holes = holes;
+    this.catalog = catalog;
+    this.deckIds = deckIds;
+    this.started = started;
+    this.turn = turn;
+    this.cellCardIds = cellCardIds;
+    this.cellOwners = cellOwners;
+    this.hands = hands;
+    this.newlyPlacedId = newlyPlacedId;
+    this.newlyPlacedOwner = newlyPlacedOwner;
+    this.seeded = seeded;
+    this.seed = seed;
+    this.shuffles = shuffles;
+  }
+
+  /**
+   * Writes the snapshot into a byte array.
+   *
+   * @return the encoded snapshot
+   */
+  public byte[] toBytes() {
+    ByteBuffer buf = ByteBuffer.allocate(getEncodedSize());
+    writeBigEndian(buf);
+    return buf.array();
+  }
+
+  /**
+   * Writes the snapshot into a buffer, starting at its position, and moves the position past
+   * it. The snapshot is written big-endian whatever the byte order of the buffer.
+   *
+   * @param buf buffer to write to
+   * @throws IllegalArgumentException if buf is null or doesn't have enough room left
+   */
+  public void write(ByteBuffer buf) {
+    if (buf == null) {
+      throw new IllegalArgumentException("Buffer cannot be null.");
+    }
+    int size = getEncodedSize();
+    if (buf.remaining() < size) {
+      throw new IllegalArgumentException(String.format("Snapshot needs %d bytes, buffer has %d "
+              + "left", size, buf.remaining()));
+    }
+    ByteBuffer out = buf.slice().order(ByteOrder.BIG_ENDIAN);
+    writeBigEndian(out);
+    buf.position(buf.position() + out.position());
+  }
+
+  /**
+   * Gets the number of bytes the encoded snapshot takes.
+   *
+   * @return size of the encoded snapshot
+   */
+  public int getEncodedSize() {
+    int size = 4 + 2 + 4 + 4 + (rows * cols + 7) / 8 + 4;
+    for (byte[] name : encodeNames()) {
+      size += 2 + name.length + 4;
+    }
+    size += 4 + deckIds.length * 4 + 2;
+    for (int cell = 0; cell < holes.length; cell++) {
+      size += holes[cell] ? 0 : 4;
+    }
+    size += 8 + (hands[0].length + hands[1].length) * 4 + 4 + 1 + 8 + 4;
+    return size;
+  }
+
+  private byte[][] encodeNames() {
+    byte[][] encoded = encodedNames;
+    if (encoded == null) {
+      encoded = new byte[catalog.size()][];
+      for (int id = 0; id < encoded.length; id++) {
+        encoded[id] = catalog.getName(id).getBytes(StandardCharsets.UTF_8);
+        if (encoded[id].length > 0xFFFF) {
+          throw new IllegalStateException("Card name is too long to save: " + encoded[id].length
+                  + " bytes");
+        }
+      }
+      encodedNames = encoded;
+    }
+    return encoded;
+  }
+
+  private void writeBigEndian(ByteBuffer buf) {
+    byte[][] names = encodeNames();
+    buf.putInt(MAGIC).putShort(VERSION).putInt(rows).putInt(cols);
+    for (int i = 0; i < holes.length; i += 8) {
+      int bits = 0;
+      for (int b = 0; b < 8 && i + b < holes.length; b++) {
+        bits |= holes[i + b] ? 1 << b : 0;
+      }
+      buf.put((byte) bits);
+    }
+
+    buf.putInt(names.length);
+    for (int id = 0; id < names.length; id++) {
+      buf.putShort((short) names[id].length).put(names[id]);
+      for (int dir = 0; dir < 4; dir++) {
+        buf.put((byte) catalog.getValue(id, dir));
+      }
+    }
+    putIds(buf, deckIds);
+
+    buf.put((byte) (started ? 1 : 0)).put((byte) turn);
+    for (int cell = 0; cell < holes.length; cell++) {
+      if (!holes[cell]) {
+        buf.putInt(encodeCard(cellCardIds[cell], cellOwners[cell]));
+      }
+    }
+    putIds(buf, hands[0]);
+    putIds(buf, hands[1]);
+    buf.putInt(encodeCard(newlyPlacedId, newlyPlacedOwner));
+    buf.put((byte) (seeded ? 1 : 0)).putLong(seed).putInt(shuffles);
+  }
+
+  private static void putIds(ByteBuffer buf, int[] ids) {
+    buf.putInt(ids.length);
+    buf.asIntBuffer().put(ids);
+    buf.position(buf.position() + ids.length * 4);
+  }
+
+  private static int encodeCard(int id, int owner) {
+    return id < 0 ? 0 : (id + 1) * 2 + owner;
+  }
+
+  /**
+   * Reads a snapshot from a byte array.
+   *
+   * @param bytes the encoded snapshot
+   * @return the snapshot read
+   * @throws IllegalArgumentException if bytes is null or doesn't hold a valid snapshot
+   */
+  public static GameSnapshot fromBytes(byte[] bytes) {
+    if (bytes == null) {
+      throw new IllegalArgumentException("Bytes cannot be null.");
+    }
+    return read(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * Reads a big-endian snapshot from a buffer, starting at its position, whatever the byte
+   * order of the buffer. On success the position is left just past the snapshot.
+   *
+   * @param buf buffer to read from
+   * @return the snapshot read
+   * @throws IllegalArgumentException if buf is null or doesn't hold a valid snapshot of a
+   *                                  supported version
+   */
+  public static GameSnapshot read(ByteBuffer buf) {
+    if (buf == null) {
+      throw new IllegalArgumentException("Buffer cannot be null.");
+    }
+    try {
+      ByteBuffer in = buf.slice().order(ByteOrder.BIG_ENDIAN);
+      GameSnapshot snapshot = readBigEndian(in);
+      buf.position(buf.position() + in.position());
+      return snapshot;
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("Snapshot is truncated.");
+    }
+  }
+
+  private static GameSnapshot readBigEndian(ByteBuffer buf) {
+    if (buf.getInt() != MAGIC) {
+      throw new IllegalArgumentException("Not a game snapshot.");
+    }
+    short version = buf.getShort();
+    if (version != 1 && version != VERSION) {
+      throw new IllegalArgumentException("Unsupported snapshot version: " + version);
+    }
+    int rows = buf.getInt();
+    int cols = buf.getInt();
+    if (rows <= 0 || cols <= 0 || (long) rows * cols > (long) buf.remaining() * 8) {
+      throw new IllegalArgumentException(String.format("Invalid grid size: %d x %d", rows,
+              cols));
+    }
+    boolean[] holes = new boolean[rows * cols];
+    for (int i = 0; i < holes.length; i += 8) {
+      int bits = buf.get();
+      for (int b = 0; b < 8 && i + b < holes.length; b++) {
+        holes[i + b] = (bits & 1 << b) != 0;
+      }
+    }
+
+    int numCards = readCount(buf, 6);
+    String[] names = new String[numCards];
+    byte[] values = new byte[numCards * 4];
+    byte[] scratch = new byte[64];
+    for (int id = 0; id < numCards; id++) {
+      int length = buf.getShort() & 0xFFFF;
+      if (length > buf.remaining()) {
+        throw new BufferUnderflowException();
+      } else if (buf.hasArray()) {
+        // Names are decoded straight from the backing array, or copied out of other buffers
+        names[id] = new String(buf.array(), buf.arrayOffset() + buf.position(), length,
+                StandardCharsets.UTF_8);
+        buf.position(buf.position() + length);
+      } else {
+        scratch = scratch.length < length ? new byte[length] : scratch;
+        buf.get(scratch, 0, length);
+        names[id] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+      }
+      buf.get(values, id * 4, 4);
+    }
+    CardCatalog catalog = CardCatalog.fromValues(names, values);
+    int[] deckIds = readIds(buf, numCards);
+
+    boolean started = buf.get() != 0;
+    int turn = buf.get();
+    if (turn != 0 && turn != 1) {
+      throw new IllegalArgumentException("Invalid player in turn: " + turn);
+    }
+    int[] cellCardIds = new int[holes.length];
+    byte[] cellOwners = new byte[holes.length];
+    for (int cell = 0; cell < holes.length; cell++) {
+      int encoded = holes[cell] ? 0 : buf.getInt();
+      cellCardIds[cell] = decodeId(encoded, numCards);
+      cellOwners[cell] = (byte) (encoded & 1);
+    }
+    int[][] hands = {readIds(buf, numCards), readIds(buf, numCards)};
+    int newlyPlaced = buf.getInt();
+    boolean seeded = version == 1 || buf.get() != 0;
+    long seed = buf.getLong();
+    int shuffles = version == 1 ? 0 : buf.getInt();
+    if (shuffles < 0) {
+      throw new IllegalArgumentException("Invalid number of shuffles: " + shuffles);
+    }
+    return new GameSnapshot(rows, cols, holes, catalog, deckIds, started, turn,
+            cellCardIds, cellOwners, hands, decodeId(newlyPlaced, numCards), newlyPlaced & 1,
+            seeded, seed, shuffles);
+  }
+
+  private static int decodeId(int encoded, int numCards) {
+    int id = (encoded >> 1) - 1;
+    if (encoded < 0 || encoded == 1 || id >= numCards) {
+      throw new IllegalArgumentException("Invalid card in cell: " + encoded);
+    }
+    return id;
+  }
+
+  private static int readCount(ByteBuffer buf, int minBytesEach) {
+    int count = buf.getInt();
+    if (count < 0 || (long) count * minBytesEach > buf.remaining()) {
+      throw new IllegalArgumentException("Invalid count: " + count);
+    }
+    return count;
+  }
+
+  private static int[] readIds(ByteBuffer buf, int numCards) {
+    int[] ids = new int[readCount(buf, 4)];
+    buf.asIntBuffer().get(ids);
+    buf.position(buf.position() + ids.length * 4);
+    for (int id : ids) {
+      if (id < 0 || id >= numCards) {
+        throw new IllegalArgumentException("Invalid card id: " + id);
+      }
+    }
+    return ids;
+  }
+
+  int getRows() {
+    return rows;
+  }
+
+  int getCols() {
+    return cols;
+  }
+
+  boolean isHole(int cell) {
+    return holes[cell];
+  }
+
+  CardCatalog getCatalog() {
+    return catalog;
+  }
+
+  int[] getDeckIds() {
+    return deckIds;
+  }
+
+  boolean isStarted() {
+    return started;
+  }
+
+  int getTurn() {
+    return turn;
+  }
+
+  int[] getCellCardIds() {
+    return cellCardIds;
+  }
+
+  byte[] getCellOwners() {
+    return cellOwners;
+  }
+
+  int[] getHand(int player) {
+    return hands[player];
+  }
+
+  int getNewlyPlacedId() {
+    return newlyPlacedId;
+  }
+
+  int getNewlyPlacedOwner() {
+    return newlyPlacedOwner;
+  }
+
+  boolean isSeeded() {
+    return seeded;
+  }
+
+  long getSeed() {
+    return seed;
+  }
+
+  int getShuffles() {
+    return shuffles;
+  }
+}
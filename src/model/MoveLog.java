@@ -0,0 +1,366 @@
+package model;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import model.card.CardCatalog;
+import player.GameMoveData;
+
+/**
+ * Append-only log of a game, enough to replay it from the config files it was loaded from.
+ * A model starts a log when its game starts and appends a record for every move played.
+ * The header identifies the configs by hash and fixes the deal: the seed the deck was
+ * shuffled with, or the dealt order of the deck if the model's source of randomness had an
+ * unknown seed. Records are fixed-width, so a log written out can be extended by appending
+ * the bytes of later records.
+ *
+ * <p>The format is big-endian: a magic number, the format version, flags, the seed, the grid
+ * and deck hashes, the grid size and the deal order as length-prefixed catalog ids, followed
+ * by {@value #RECORD_BYTES} bytes per move, holding the cell index row * numCols + col, the
+ * hand index and the number of cards the move flipped. A log is not safe to read while the
+ * model is appending to it on another thread.</p>
+ */
+public final class MoveLog {
+  /**
+   * Magic number every log starts with, "TTML" in ASCII.
+   */
+  public static final int MAGIC = 0x54544D4C;
+  /**
+   * Version of the format written by this class.
+   */
+  public static final short VERSION = 1;
+  /**
+   * Number of bytes of each move record.
+   */
+  public static final int RECORD_BYTES = 12;
+
+  private static final int SHUFFLED = 1;
+  private static final int SEEDED = 2;
+  private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+  private static final long FNV_PRIME = 0x100000001B3L;
+
+  private final boolean shuffled;
+  private final boolean seeded;
+  private final long seed;
+  private final long gridHash;
+  private final long deckHash;
+  private final int rows;
+  private final int cols;
+  // Catalog ids of the deck as dealt, kept only if the deal can't be redone from the seed
+  private final int[] dealOrder;
+  // Cell, hand index and flip count of every move
+  private final int[] records;
+  private int numMoves;
+
+  MoveLog(boolean shuffled, boolean seeded, long seed, long gridHash, long deckHash, int rows,
+          int cols, int[] dealOrder, int maxMoves) {
+    this.shuffled = shuffled;
+    this.seeded = seeded;
+    this.seed = seed;
+    this.gridHash = gridHash;
+    this.deckHash = deckHash;
+    this.rows = rows;
+    this.cols = cols;
+    this.dealOrder = dealOrder == null ? new int[0] : dealOrder;
+    // A game has one move per card cell, so the records never need to grow
+    this.records = new int[maxMoves * 3];
+  }
+
+  void append(int cell, int handIndex, int flips) {
+    records[numMoves * 3] = cell;
+    records[numMoves * 3 + 1] = handIndex;
+    records[numMoves * 3 + 2] = flips;
+    numMoves++;
+  }
+
+  /**
+   * Gets the number of moves logged.
+   *
+   * @return number of move records
+   */
+  public int getNumMoves() {
+    return numMoves;
+  }
+
+  /**
+   * Gets a logged move.
+   *
+   * @param i index of the move, 0 for the first move of the game
+   * @return the move
+   * @throws IndexOutOfBoundsException if i is out of range
+   */
+  public GameMoveData getMove(int i) {
+    checkIndex(i);
+    int cell = records[i * 3];
+    return new GameMoveData(cell / cols, cell % cols, records[i * 3 + 1]);
+  }
+
+  /**
+   * Gets the number of cards a logged move flipped, not counting the card placed.
+   *
+   * @param i index of the move, 0 for the first move of the game
+   * @return number of cards flipped
+   * @throws IndexOutOfBoundsException if i is out of range
+   */
+  public int getFlips(int i) {
+    checkIndex(i);
+    return records[i * 3 + 2];
+  }
+
+  private void checkIndex(int i) {
+    if (i < 0 || i >= numMoves) {
+      throw new IndexOutOfBoundsException("Move " + i + " out of range for " + numMoves);
+    }
+  }
+
+  /**
+   * Predicate for whether the deck was shuffled before it was dealt.
+   *
+   * @return true if the game was started with shuffling
+   */
+  public boolean isShuffled() {
+    return shuffled;
+  }
+
+  /**
+   * Predicate for whether the deal can be redone from the seed. If not, the log holds the
+   * dealt order of the deck instead.
+   *
+   * @return true if the deck was shuffled by a source of randomness with a known seed
+   */
+  public boolean isSeeded() {
+    return seeded;
+  }
+
+  /**
+   * Gets the seed of the source of randomness the deck was shuffled with.
+   *
+   * @return the seed, meaningful only if isSeeded()
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Gets the hash of the grid layout the game was played on.
+   *
+   * @return hash of the grid size and holes
+   */
+  public long getGridHash() {
+    return gridHash;
+  }
+
+  /**
+   * Gets the hash of the deck the game was played with, in config file order.
+   *
+   * @return hash of the names and values of the cards
+   */
+  public long getDeckHash() {
+    return deckHash;
+  }
+
+  int[] getDealOrder() {
+    return dealOrder;
+  }
+
+  /**
+   * Gets the number of bytes of the header, which is followed by the move records.
+   *
+   * @return size of the encoded header
+   */
+  public int getHeaderSize() {
+    return 4 + 2 + 1 + 8 + 8 + 8 + 4 + 4 + 4 + dealOrder.length * 4;
+  }
+
+  /**
+   * Gets the number of bytes the encoded log takes.
+   *
+   * @return size of the header and every record
+   */
+  public int getEncodedSize() {
+    return getHeaderSize() + numMoves * RECORD_BYTES;
+  }
+
+  /**
+   * Writes the log into a byte array.
+   *
+   * @return the encoded log
+   */
+  public byte[] toBytes() {
+    ByteBuffer buf = ByteBuffer.allocate(getEncodedSize());
+    write(buf);
+    return buf.array();
+  }
+
+  /**
+   * Writes the whole log into a buffer, starting at its position, and moves the position past
+   * it. The log is written big-endian whatever the byte order of the buffer.
+   *
+   * @param buf buffer to write to
+   * @throws IllegalArgumentException if buf is null or doesn't have enough room left
+   */
+  public void write(ByteBuffer buf) {
+    checkRoom(buf, getEncodedSize());
+    ByteBuffer out = buf.slice().order(ByteOrder.BIG_ENDIAN);
+    out.putInt(MAGIC).putShort(VERSION);
+    out.put((byte) ((shuffled ? SHUFFLED : 0) | (seeded ? SEEDED : 0)));
+    out.putLong(seed).putLong(gridHash).putLong(deckHash).putInt(rows).putInt(cols);
+    out.putInt(dealOrder.length);
+    out.asIntBuffer().put(dealOrder);
+    out.position(out.position() + dealOrder.length * 4);
+    out.asIntBuffer().put(records, 0, numMoves * 3);
+    buf.position(buf.position() + out.position() + numMoves * RECORD_BYTES);
+  }
+
+  /**
+   * Writes the records of the moves logged since an earlier write, so that a log being
+   * written out as the game goes on only has its new records appended.
+   *
+   * @param buf  buffer to write to
+   * @param from index of the first move to write
+   * @throws IllegalArgumentException if buf is null or doesn't have enough room left, or if
+   *                                  from is out of range
+   */
+  public void writeRecords(ByteBuffer buf, int from) {
+    if (from < 0 || from > numMoves) {
+      throw new IllegalArgumentException("Invalid first move: " + from);
+    }
+    checkRoom(buf, (numMoves - from) * RECORD_BYTES);
+    ByteBuffer out = buf.slice().order(ByteOrder.BIG_ENDIAN);
+    out.asIntBuffer().put(records, from * 3, (numMoves - from) * 3);
+    buf.position(buf.position() + (numMoves - from) * RECORD_BYTES);
+  }
+
+  private static void checkRoom(ByteBuffer buf, int size) {
+    if (buf == null) {
+      throw new IllegalArgumentException("Buffer cannot be null.");
+    } else if (buf.remaining() < size) {
+      throw new IllegalArgumentException(String.format("Log needs %d bytes, buffer has %d left",
+              size, buf.remaining()));
+    }
+  }
+
+  /**
+   * Reads a log from a byte array.
+   *
+   * @param bytes the encoded log
+   * @return the log read
+   * @throws IllegalArgumentException if bytes is null or doesn't hold a valid log
+   */
+  public static MoveLog fromBytes(byte[] bytes) {
+    if (bytes == null) {
+      throw new IllegalArgumentException("Bytes cannot be null.");
+    }
+    return read(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * Reads a big-endian log from a buffer, starting at its position. Every byte left in the
+   * buffer after the header is read as move records, and the position is left at the limit.
+   *
+   * @param buf buffer to read from
+   * @return the log read
+   * @throws IllegalArgumentException if buf is null or doesn't hold a valid log of a
+   *                                  supported version
+   */
+  public static MoveLog read(ByteBuffer buf) {
+    if (buf == null) {
+      throw new IllegalArgumentException("Buffer cannot be null.");
+    }
+    ByteBuffer in = buf.slice().order(ByteOrder.BIG_ENDIAN);
+    MoveLog log;
+    try {
+      log = readBigEndian(in);
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("Log header is truncated.");
+    }
+    buf.position(buf.limit());
+    return log;
+  }
+
+  private static MoveLog readBigEndian(ByteBuffer in) {
+    if (in.getInt() != MAGIC) {
+      throw new IllegalArgumentException("Not a move log.");
+    }
+    short version = in.getShort();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported move log version: " + version);
+    }
+    int flags = in.get();
+    long seed = in.getLong();
+    long gridHash = in.getLong();
+    long deckHash = in.getLong();
+    int rows = in.getInt();
+    int cols = in.getInt();
+    int dealSize = in.getInt();
+    if (rows <= 0 || cols <= 0 || dealSize < 0 || dealSize > in.remaining() / 4) {
+      throw new IllegalArgumentException("Invalid log header.");
+    }
+    int[] dealOrder = new int[dealSize];
+    in.asIntBuffer().get(dealOrder);
+    in.position(in.position() + dealSize * 4);
+    if (in.remaining() % RECORD_BYTES != 0) {
+      throw new IllegalArgumentException("Log ends in a partial move record.");
+    }
+
+    int numMoves = in.remaining() / RECORD_BYTES;
+    MoveLog log = new MoveLog((flags & SHUFFLED) != 0, (flags & SEEDED) != 0, seed, gridHash,
+            deckHash, rows, cols, dealOrder, numMoves);
+    in.asIntBuffer().get(log.records, 0, numMoves * 3);
+    log.numMoves = numMoves;
+    for (int i = 0; i < numMoves; i++) {
+      int cell = log.records[i * 3];
+      if (cell < 0 || cell >= rows * cols || log.records[i * 3 + 1] < 0
+              || log.records[i * 3 + 2] < 0) {
+        throw new IllegalArgumentException("Invalid record of move " + i);
+      }
+    }
+    return log;
+  }
+
+  /**
+   * Hashes the layout of a grid, its size and which cells are holes.
+   *
+   * @param grid grid to hash
+   * @return 64-bit FNV-1a hash of the layout
+   */
+  static long hashGrid(ReadOnlyGrid grid) {
+    long hash = mix(mix(FNV_OFFSET, grid.getNumRows()), grid.getNumCols());
+    for (int row = 0; row < grid.getNumRows(); row++) {
+      for (int col = 0; col < grid.getNumCols(); col++) {
+        hash = mix(hash, grid.isCardCell(row, col) ? 1 : 0);
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Hashes a deck, the names and values of its cards in order.
+   *
+   * @param catalog catalog of the deck's cards
+   * @param deckIds catalog id of every card of the deck, in order
+   * @return 64-bit FNV-1a hash of the deck
+   */
+  static long hashDeck(CardCatalog catalog, int[] deckIds) {
+    long hash = mix(FNV_OFFSET, deckIds.length);
+    for (int id : deckIds) {
+      String name = catalog.getName(id);
+      hash = mix(hash, name.length());
+      for (int i = 0; i < name.length(); i++) {
+        hash = mix(hash, name.charAt(i));
+      }
+      for (int dir = 0; dir < 4; dir++) {
+        hash = mix(hash, catalog.getValue(id, dir));
+      }
+    }
+    return hash;
+  }
+
+  private static long mix(long hash, int value) {
+    for (int shift = 0; shift < 32; shift += 8) {
+      hash = (hash ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+    }
+    return hash;
+  }
+}
@@ -0,0 +1,489 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.card.Colors;
+import model.card.Positions;
+import model.card.ReadOnlyCard;
+import model.cell.Cell;
+
+/**
+ * Primitive, bit-packed representation of a Three Trios game state.
+ *
+ * <p>Cells are addressed by a single index {@code row * cols + col}. Holes, occupied cells and
+ * red ownership are kept as bit masks in {@code long} arrays, the N/S/E/W values of the card in
+ * each cell are byte-packed, and cards are interned by their index in the deck. Once constructed,
+ * playing and simulating moves and querying scores never allocate.</p>
+ */
+public final class PackedGameState {
+  /**
+   * Index of the red player (matches the index used by ModelFeatures).
+   */
+  public static final int RED = 0;
+  /**
+   * Index of the blue player (matches the index used by ModelFeatures).
+   */
+  public static final int BLUE = 1;
+  /**
+   * Owner returned for empty cells and holes.
+   */
+  public static final int NO_OWNER = -1;
+
+  private final int rows;
+  private final int cols;
+  private final int numCardCells;
+
+  // Bit masks, one bit per cell index
+  private final long[] holes;
+  private final long[] occupied;
+  private final long[] redOwned;
+
+  // Four values (in Positions order: N, S, E, W) per cell and per deck card
+  private final byte[] cellValues;
+  private final byte[] cardValues;
+  private final int[] cellCard;
+
+  // Four neighbor cell indexes per cell (in Positions order), -1 for holes or off grid
+  private final int[] neighbors;
+
+  private final int[][] hands;
+  private final int[] handSizes;
+  private final int[] boardCounts;
+  private int numOccupied;
+  private int turn;
+
+  // Reusable work queue for battle resolution, also records the cells flipped by the last move
+  private final int[] queue;
+  private int queueTail;
+
+  /**
+   * Packs the supplied grid layout and deck. All card cells start empty, both hands start empty
+   * and red is in turn.
+   *
+   * @param grid grid layout as read from a grid config file, only holes vs card cells is used
+   * @param deck deck as read from a card config file, card ids are indexes into this list
+   * @throws IllegalArgumentException if either parameter is null or the grid is empty
+   */
+  public PackedGameState(Cell[][] grid, List<? extends ReadOnlyCard> deck) {
+    this(viewOf(grid), deck);
+  }
+
+  /**
+   * Packs the grid layout shown by the supplied view and the supplied deck. All card cells
+   * start empty, whatever the view shows, both hands start empty and red is in turn.
+   *
+   * @param grid view of the grid layout, only holes vs card cells is used
+   * @param deck deck of cards, card ids are indexes into this list
+   * @throws IllegalArgumentException if either parameter is null or the grid is empty
+   */
+  public PackedGameState(ReadOnlyGrid grid, List<? extends ReadOnlyCard> deck) {
+    if (grid == null || deck == null || grid.getNumRows() == 0 || grid.getNumCols() == 0) {
+      throw new IllegalArgumentException("Grid and deck must be non null and non empty.");
+    }
+
+    this.rows = grid.getNumRows();
+    this.cols = grid.getNumCols();
+    int size = rows * cols;
+    int words = (size + 63) >>> 6;
+    this.holes = new long[words];
+    this.occupied = new long[words];
+    this.redOwned = new long[words];
+    this.cellValues = new byte[size * 4];
+    this.cellCard = new int[size];
+    Arrays.fill(cellCard, -1);
+
+    int cardCells = 0;
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < cols; c++) {
+        if (!grid.isCardCell(r, c)) {
+          int cell = r * cols + c;
+          holes[cell >>> 6] |= 1L << cell;
+        } else {
+          cardCells++;
+        }
+      }
+    }
+    this.numCardCells = cardCells;
+
+    this.cardValues = new byte[deck.size() * 4];
+    for (int i = 0; i < deck.size(); i++) {
+      ReadOnlyCard card = deck.get(i);
+      for (Positions pos : Positions.values()) {
+        cardValues[i * 4 + pos.ordinal()] = (byte) card.getValueFromPos(pos).toInt();
+      }
+    }
+
+    this.neighbors = new int[size * 4];
+    for (int cell = 0; cell < size; cell++) {
+      int r = cell / cols;
+      int c = cell % cols;
+      neighbors[cell * 4 + Positions.NORTH.ordinal()] = linkTo(r - 1, c);
+      neighbors[cell * 4 + Positions.SOUTH.ordinal()] = linkTo(r + 1, c);
+      neighbors[cell * 4 + Positions.EAST.ordinal()] = linkTo(r, c + 1);
+      neighbors[cell * 4 + Positions.WEST.ordinal()] = linkTo(r, c - 1);
+    }
+
+    this.hands = new int[][]{new int[deck.size()], new int[deck.size()]};
+    this.handSizes = new int[2];
+    this.boardCounts = new int[2];
+    this.queue = new int[size];
+    this.numOccupied = 0;
+    this.turn = RED;
+  }
+
+  private static ReadOnlyGrid viewOf(Cell[][] grid) {
+    if (grid == null || grid.length == 0 || grid[0].length == 0) {
+      throw new IllegalArgumentException("Grid and deck must be non null and non empty.");
+    }
+    return new CellGridView(grid);
+  }
+
+  /**
+   * Copy constructor producing an independent state. Immutable layout tables are shared.
+   *
+   * @param other state to copy
+   */
+  public PackedGameState(PackedGameState other) {
+    this.rows = other.rows;
+    this.cols = other.cols;
+    this.numCardCells = other.numCardCells;
+    this.holes = other.holes;
+    this.cardValues = other.cardValues;
+    this.neighbors = other.neighbors;
+    this.occupied = other.occupied.clone();
+    this.redOwned = other.redOwned.clone();
+    this.cellValues = other.cellValues.clone();
+    this.cellCard = other.cellCard.clone();
+    this.hands = new int[][]{other.hands[RED].clone(), other.hands[BLUE].clone()};
+    this.handSizes = other.handSizes.clone();
+    this.boardCounts = other.boardCounts.clone();
+    this.queue = new int[other.queue.length];
+    this.numOccupied = other.numOccupied;
+    this.turn = other.turn;
+  }
+
+  /**
+   * Packs the current position of a game in progress. Card ids index a deck made of the cards
+   * on the grid in row-major order, followed by the red hand and then the blue hand, and hands
+   * keep the order of the players' hands so hand indexes carry over to the model.
+   *
+   * @param model model to pack the position of
+   * @return state in the same position as the model
+   * @throws IllegalArgumentException if model is null
+   * @throws IllegalStateException if the game hasn't started
+   */
+  public static PackedGameState of(ReadOnlyThreeTriosModel model) {
+    if (model == null) {
+      throw new IllegalArgumentException("Model cannot be null.");
+    } else if (!model.isGameStarted()) {
+      throw new IllegalStateException("Game hasn't started.");
+    }
+
+    ReadOnlyGrid grid = model.getGridView();
+    int cols = grid.getNumCols();
+    List<ReadOnlyCard> deck = new ArrayList<>();
+    List<Integer> cells = new ArrayList<>();
+    for (int r = 0; r < grid.getNumRows(); r++) {
+      for (int c = 0; c < cols; c++) {
+        ReadOnlyCard card = grid.getCard(r, c);
+        if (card != null) {
+          deck.add(card);
+          cells.add(r * cols + c);
+        }
+      }
+    }
+    List<ReadOnlyCard> redHand = model.getRedPlayer().getHandView();
+    List<ReadOnlyCard> blueHand = model.getBluePlayer().getHandView();
+    deck.addAll(redHand);
+    deck.addAll(blueHand);
+
+    PackedGameState state = new PackedGameState(grid, deck);
+    for (int i = 0; i < cells.size(); i++) {
+      state.place(cells.get(i), i, deck.get(i).getColor() == Colors.RED ? RED : BLUE);
+    }
+    for (int i = 0; i < redHand.size(); i++) {
+      state.appendToHand(RED, cells.size() + i);
+    }
+    for (int i = 0; i < blueHand.size(); i++) {
+      state.appendToHand(BLUE, cells.size() + redHand.size() + i);
+    }
+    state.turn = model.getPlayerInTurn().getColor() == Colors.RED ? RED : BLUE;
+    return state;
+  }
+
+  private int linkTo(int r, int c) {
+    if (r < 0 || r >= rows || c < 0 || c >= cols) {
+      return -1;
+    }
+    int cell = r * cols + c;
+    return isHole(cell) ? -1 : cell;
+  }
+
+  private static boolean testBit(long[] mask, int cell) {
+    return (mask[cell >>> 6] & (1L << cell)) != 0;
+  }
+
+  /**
+   * Appends the supplied deck card to the end of a player's hand.
+   *
+   * @param player RED or BLUE
+   * @param cardId index of the card in the deck
+   */
+  public void appendToHand(int player, int cardId) {
+    hands[player][handSizes[player]++] = cardId;
+  }
+
+  /**
+   * Places the card at the supplied hand index of the player in turn on the supplied cell,
+   * resolves the battle and combo phase, then passes the turn.
+   * The move is assumed legal, see {@link #isLegal(int, int)}.
+   *
+   * @param cell      cell index to play to
+   * @param handIndex index into the hand of the player in turn
+   * @return number of opposing cards flipped by the move
+   */
+  public int playMove(int cell, int handIndex) {
+    int player = turn;
+    int cardId = removeFromHand(player, handIndex);
+    place(cell, cardId, player);
+    int flipped = battle(cell, player);
+    turn = 1 - player;
+    return flipped;
+  }
+
+  /**
+   * Computes how many opposing cards would be flipped if the player in turn played the card at
+   * the supplied hand index to the supplied cell. The state is left unchanged.
+   *
+   * @param cell      cell index to play to
+   * @param handIndex index into the hand of the player in turn
+   * @return number of opposing cards that would be flipped
+   */
+  public int simulateFlips(int cell, int handIndex) {
+    int player = turn;
+    place(cell, hands[player][handIndex], player);
+    int flipped = battle(cell, player);
+
+    // Revert the flips recorded in the queue, then lift the placed card back off the board
+    for (int i = 1; i < queueTail; i++) {
+      setOwner(queue[i], 1 - player);
+    }
+    boardCounts[player] -= flipped;
+    boardCounts[1 - player] += flipped;
+    unplace(cell, player);
+    return flipped;
+  }
+
+  private int removeFromHand(int player, int handIndex) {
+    int[] hand = hands[player];
+    int cardId = hand[handIndex];
+    System.arraycopy(hand, handIndex + 1, hand, handIndex, handSizes[player] - handIndex - 1);
+    handSizes[player]--;
+    return cardId;
+  }
+
+  private void place(int cell, int cardId, int player) {
+    occupied[cell >>> 6] |= 1L << cell;
+    setOwner(cell, player);
+    System.arraycopy(cardValues, cardId * 4, cellValues, cell * 4, 4);
+    cellCard[cell] = cardId;
+    boardCounts[player]++;
+    numOccupied++;
+  }
+
+  private void unplace(int cell, int player) {
+    occupied[cell >>> 6] &= ~(1L << cell);
+    redOwned[cell >>> 6] &= ~(1L << cell);
+    cellCard[cell] = -1;
+    boardCounts[player]--;
+    numOccupied--;
+  }
+
+  private void setOwner(int cell, int player) {
+    if (player == RED) {
+      redOwned[cell >>> 6] |= 1L << cell;
+    } else {
+      redOwned[cell >>> 6] &= ~(1L << cell);
+    }
+  }
+
+  private int battle(int start, int player) {
+    // Breadth first flood from the placed card. Every flipped card becomes a new battle center.
+    queue[0] = start;
+    queueTail = 1;
+    int head = 0;
+    while (head < queueTail) {
+      int center = queue[head++];
+      for (int dir = 0; dir < 4; dir++) {
+        int adj = neighbors[center * 4 + dir];
+        if (adj < 0 || !testBit(occupied, adj) || getOwner(adj) == player) {
+          continue;
+        }
+        // Opposite direction of N/S and E/W pairs differs only in the lowest bit
+        if (cellValues[center * 4 + dir] > cellValues[adj * 4 + (dir ^ 1)]) {
+          setOwner(adj, player);
+          queue[queueTail++] = adj;
+        }
+      }
+    }
+    int flipped = queueTail - 1;
+    boardCounts[player] += flipped;
+    boardCounts[1 - player] -= flipped;
+    return flipped;
+  }
+
+  /**
+   * Checks whether the player in turn may play the card at the supplied hand index to the
+   * supplied cell.
+   *
+   * @param cell      cell index to play to
+   * @param handIndex index into the hand of the player in turn
+   * @return true if the cell is an empty card cell and the hand index is valid
+   */
+  public boolean isLegal(int cell, int handIndex) {
+    return cell >= 0 && cell < rows * cols && !isHole(cell) && !isOccupied(cell)
+            && handIndex >= 0 && handIndex < handSizes[turn];
+  }
+
+  /**
+   * Gets the owner of the card in the supplied cell.
+   *
+   * @param cell cell index
+   * @return RED, BLUE, or NO_OWNER if the cell holds no card
+   */
+  public int getOwner(int cell) {
+    if (!testBit(occupied, cell)) {
+      return NO_OWNER;
+    }
+    return testBit(redOwned, cell) ? RED : BLUE;
+  }
+
+  /**
+   * Predicate for whether the supplied cell is a hole.
+   *
+   * @param cell cell index
+   * @return true if the cell is a hole
+   */
+  public boolean isHole(int cell) {
+    return testBit(holes, cell);
+  }
+
+  /**
+   * Predicate for whether the supplied cell holds a card.
+   *
+   * @param cell cell index
+   * @return true if a card has been played to the cell
+   */
+  public boolean isOccupied(int cell) {
+    return testBit(occupied, cell);
+  }
+
+  /**
+   * Gets the deck index of the card in the supplied cell.
+   *
+   * @param cell cell index
+   * @return deck index of the card, or -1 if the cell holds no card
+   */
+  public int getCardId(int cell) {
+    return cellCard[cell];
+  }
+
+  /**
+   * Gets the value of a deck card on one side.
+   *
+   * @param cardId deck index of the card
+   * @param pos    side of the card
+   * @return value of that side, 1 through 10
+   */
+  public int getCardValue(int cardId, Positions pos) {
+    return cardValues[cardId * 4 + pos.ordinal()];
+  }
+
+  /**
+   * Gets the neighbor of a cell in a direction.
+   *
+   * @param cell cell index
+   * @param pos  direction of the neighbor
+   * @return neighboring card cell index, or -1 if that neighbor is a hole or off the grid
+   */
+  public int getNeighbor(int cell, Positions pos) {
+    return neighbors[cell * 4 + pos.ordinal()];
+  }
+
+  /**
+   * Gets the deck index of a card in a player's hand.
+   *
+   * @param player    RED or BLUE
+   * @param handIndex index into that player's hand
+   * @return deck index of the card
+   */
+  public int getHandCard(int player, int handIndex) {
+    return hands[player][handIndex];
+  }
+
+  /**
+   * Gets the number of cards in a player's hand.
+   *
+   * @param player RED or BLUE
+   * @return hand size
+   */
+  public int getHandSize(int player) {
+    return handSizes[player];
+  }
+
+  /**
+   * Gets the score of a player, being the cards they own on the grid plus the cards in hand.
+   *
+   * @param player RED or BLUE
+   * @return score of the player
+   */
+  public int getScore(int player) {
+    return boardCounts[player] + handSizes[player];
+  }
+
+  /**
+   * Gets the player in turn.
+   *
+   * @return RED or BLUE
+   */
+  public int getTurn() {
+    return turn;
+  }
+
+  /**
+   * Predicate for whether every card cell has been filled.
+   *
+   * @return true if the game is over
+   */
+  public boolean isGameOver() {
+    return numOccupied == numCardCells;
+  }
+
+  /**
+   * Gets the number of card cells (non holes) on the grid.
+   *
+   * @return number of card cells
+   */
+  public int getNumCardCells() {
+    return numCardCells;
+  }
+
+  /**
+   * Gets the number of card cells that are still empty.
+   *
+   * @return number of empty card cells
+   */
+  public int getNumEmptyCells() {
+    return numCardCells - numOccupied;
+  }
+
+  public int getRows() {
+    return rows;
+  }
+
+  public int getCols() {
+    return cols;
+  }
+}
@@ -0,0 +1,372 @@
+package model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import controller.ModelFeatures;
+import model.card.Card;
+import model.card.CardInterface;
+import model.card.Colors;
+import model.card.OwnedCard;
+import model.card.Positions;
+import model.card.ReadOnlyCard;
+import model.cell.CardCell;
+import model.cell.Cell;
+import model.cell.HoleCell;
+import model.filereader.ConfigLoader;
+import model.filereader.GameConfig;
+import player.GameMoveData;
+import player.Player;
+import player.ReadOnlyPlayer;
+
+/**
+ * ThreeTriosModel backed by a {@link PackedGameState} rather than a grid of cell objects.
+ * Plays by the same rules as ThreeTriosGameModel, but playMove, potentialCardsFlipped and
+ * getPlayerScore run without allocating. The supplied players' hands are kept in sync so
+ * views and players observe the same game as with ThreeTriosGameModel.
+ */
+public class PackedThreeTriosModel implements ThreeTriosModel {
+  private final List<CardInterface> deck;
+  private final PackedGameState state;
+  private final int rows;
+  private final int cols;
+  private final Random rand;
+  private final List<ModelFeatures> triggerController;
+  private Player redPlayer;
+  private Player bluePlayer;
+  private boolean isGameStarted;
+  private int newlyPlacedCardId;
+  // Immutable copy of every deck card for each owner, indexed by cardId * 2 + owner
+  private final OwnedCard[] ownedCards;
+  private final ReadOnlyGrid gridView;
+  private final CellIndex cellIndex;
+
+  /**
+   * Constructor that initializes the packed grid and deck by reading
+   * in values from the supplied config files.
+   *
+   * @param gridConfigFilePath path to grid config file
+   * @param cardConfigFilePath path to card config file
+   * @throws IllegalStateException    if reading from the config files produces an IOException
+   * @throws IllegalArgumentException if any parameter is null
+   */
+  public PackedThreeTriosModel(String gridConfigFilePath, String cardConfigFilePath) {
+    this(gridConfigFilePath, cardConfigFilePath, new Random());
+  }
+
+  /**
+   * Same constructor with additional param for presetting random for testing.
+   *
+   * @param gridConfigFilePath path to grid config file
+   * @param cardConfigFilePath path to card config file
+   * @param rand               Random object which can be preset for testing
+   * @throws IllegalStateException    if reading from the config files produces an IOException
+   * @throws IllegalArgumentException if any parameter is null
+   */
+  public PackedThreeTriosModel(String gridConfigFilePath, String cardConfigFilePath,
+                               Random rand) {
+    if (gridConfigFilePath == null || cardConfigFilePath == null) {
+      throw new IllegalArgumentException("Constructor does not take null parameters.");
+    }
+
+    Cell[][] grid;
+    try {
+      GameConfig config = new ConfigLoader(gridConfigFilePath, cardConfigFilePath).load();
+      this.deck = config.getDeck();
+      grid = config.getGrid();
+    } catch (IOException e) {
+      throw new IllegalStateException("Error reading from config files: " + e.getMessage());
+    }
+
+    this.state = new PackedGameState(grid, deck);
+    this.rows = grid.length;
+    this.cols = grid[0].length;
+    this.rand = rand;
+    this.triggerController = new ArrayList<>();
+    this.isGameStarted = false;
+    this.newlyPlacedCardId = -1;
+    this.ownedCards = new OwnedCard[deck.size() * 2];
+    for (int i = 0; i < deck.size(); i++) {
+      ownedCards[i * 2 + PackedGameState.RED] = new OwnedCard(deck.get(i), Colors.RED);
+      ownedCards[i * 2 + PackedGameState.BLUE] = new OwnedCard(deck.get(i), Colors.BLUE);
+    }
+    this.gridView = new GridView();
+    this.cellIndex = new CellIndex(gridView);
+  }
+
+  private int[] shuffledOrder() {
+    // Same swap sequence as ThreeTriosGameModel.shuffle so seeded games deal identically
+    int[] order = new int[deck.size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    for (int i = 0; i < order.length - 1; i++) {
+      int randomIndex = i + 1 + rand.nextInt(order.length - i - 1);
+      int temp = order[i];
+      order[i] = order[randomIndex];
+      order[randomIndex] = temp;
+    }
+    return order;
+  }
+
+  @Override
+  public void startGame(Player redPlayer, Player bluePlayer, boolean shuffle) {
+    if (isGameStarted) {
+      throw new IllegalStateException("Cannot start game. Game is over or already started.");
+    } else if (redPlayer == null || bluePlayer == null) {
+      throw new IllegalArgumentException("Supplied player cannot be null.");
+    } else if (deck.size() < state.getNumCardCells() + 1) {
+      throw new IllegalArgumentException(String.format("Not enough cards to start game. "
+              + "Deck size = %d. NumCardCells = %d", deck.size(), state.getNumCardCells()));
+    }
+
+    int[] order;
+    if (shuffle) {
+      order = shuffledOrder();
+    } else {
+      order = new int[deck.size()];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+      }
+    }
+
+    this.redPlayer = redPlayer;
+    this.bluePlayer = bluePlayer;
+
+    // Deal out half the cards to each player (alternating player for each card dealt)
+    for (int i = 0; i < order.length; i++) {
+      CardInterface card = deck.get(order[i]);
+      if (i % 2 == 0) {
+        card.setColor(Colors.RED);
+        redPlayer.appendToHand(card);
+        state.appendToHand(PackedGameState.RED, order[i]);
+      } else {
+        card.setColor(Colors.BLUE);
+        bluePlayer.appendToHand(card);
+        state.appendToHand(PackedGameState.BLUE, order[i]);
+      }
+    }
+
+    isGameStarted = true;
+    featureCallHelper(PackedGameState.RED);
+  }
+
+  @Override
+  public void playMove(GameMoveData move) {
+    isLegalPlay(move.getCardIndex(), move.getGridRow(), move.getGridCol());
+
+    Player player = currentPlayer();
+    int handIndex = move.getCardIndex();
+    newlyPlacedCardId = state.getHandCard(state.getTurn(), handIndex);
+    player.pop(handIndex);
+    state.playMove(move.getGridRow() * cols + move.getGridCol(), handIndex);
+    cellIndex.fill(move.getGridRow() * cols + move.getGridCol());
+
+    // The turn has already passed inside the packed state
+    featureCallHelper(state.getTurn());
+  }
+
+  private void featureCallHelper(int playerIdx) {
+    // Indexed loop so that dispatch does not allocate an iterator
+    for (int i = 0; i < triggerController.size(); i++) {
+      triggerController.get(i).playerTurn(playerIdx);
+    }
+  }
+
+  @Override
+  public void addFeatures(ModelFeatures features) {
+    this.triggerController.add(Objects.requireNonNull(features));
+  }
+
+  private Player currentPlayer() {
+    return state.getTurn() == PackedGameState.RED ? redPlayer : bluePlayer;
+  }
+
+  private boolean onGrid(int row, int col) {
+    return row >= 0 && row < rows && col >= 0 && col < cols;
+  }
+
+  @Override
+  public boolean isGameOver() {
+    if (!isGameStarted) {
+      throw new IllegalStateException("Game hasn't started.");
+    }
+    return state.isGameOver();
+  }
+
+  @Override
+  public boolean isGameStarted() {
+    return isGameStarted;
+  }
+
+  @Override
+  public Player[] getWinner() {
+    if (!isGameStarted || !state.isGameOver()) {
+      throw new IllegalStateException("Cannot get winner: game hasn't started or isn't over");
+    }
+
+    int redTally = state.getScore(PackedGameState.RED);
+    int blueTally = state.getScore(PackedGameState.BLUE);
+    if (redTally > blueTally) {
+      return new Player[]{redPlayer};
+    } else if (blueTally > redTally) {
+      return new Player[]{bluePlayer};
+    } else {
+      return new Player[]{redPlayer, bluePlayer};
+    }
+  }
+
+  @Override
+  public Cell[][] getGrid() {
+    Cell[][] copyGrid = new Cell[rows][cols];
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) {
+        int cell = i * cols + j;
+        if (state.isHole(cell)) {
+          copyGrid[i][j] = new HoleCell();
+        } else if (state.isOccupied(cell)) {
+          copyGrid[i][j] = new CardCell(getGridCellCard(i, j));
+        } else {
+          copyGrid[i][j] = new CardCell();
+        }
+      }
+    }
+    return copyGrid;
+  }
+
+  @Override
+  public ReadOnlyGrid getGridView() {
+    return gridView;
+  }
+
+  /**
+   * View of the packed grid, handing out the shared immutable copy of each card for its owner.
+   */
+  private final class GridView implements ReadOnlyGrid {
+    @Override
+    public int getNumRows() {
+      return rows;
+    }
+
+    @Override
+    public int getNumCols() {
+      return cols;
+    }
+
+    @Override
+    public boolean isCardCell(int row, int col) {
+      return onGrid(row, col) && !state.isHole(row * cols + col);
+    }
+
+    @Override
+    public ReadOnlyCard getCard(int row, int col) {
+      if (!onGrid(row, col) || !state.isOccupied(row * cols + col)) {
+        return null;
+      }
+      int cell = row * cols + col;
+      return ownedCards[state.getCardId(cell) * 2 + state.getOwner(cell)];
+    }
+  }
+
+  @Override
+  public ReadOnlyCellIndex getCellIndex() {
+    return cellIndex;
+  }
+
+  @Override
+  public ReadOnlyPlayer getPlayerInTurn() {
+    return isGameStarted ? currentPlayer() : null;
+  }
+
+  @Override
+  public List<ReadOnlyPlayer> getPlayers() {
+    return List.of(redPlayer, bluePlayer);
+  }
+
+  @Override
+  public int[] getGridSize() {
+    return new int[]{rows, cols};
+  }
+
+  @Override
+  public CardInterface getGridCellCard(int row, int col) {
+    if (!onGrid(row, col)) {
+      return null;
+    }
+    int cell = row * cols + col;
+    if (!state.isOccupied(cell)) {
+      return null;
+    }
+
+    // Hand out a copy so the interned deck card can't be modified through the grid
+    CardInterface interned = deck.get(state.getCardId(cell));
+    CardInterface copy = new Card(interned.getName(),
+            interned.getValueFromPos(Positions.NORTH),
+            interned.getValueFromPos(Positions.SOUTH),
+            interned.getValueFromPos(Positions.EAST),
+            interned.getValueFromPos(Positions.WEST));
+    copy.setColor(state.getOwner(cell) == PackedGameState.RED ? Colors.RED : Colors.BLUE);
+    return copy;
+  }
+
+  @Override
+  public void isLegalPlay(int handIndex, int gridRow, int gridCol) {
+    if (!isGameStarted || state.isGameOver()) {
+      throw new IllegalStateException("Cannot playToCell: game is over or hasn't started.");
+    } else if (handIndex < 0 || handIndex >= state.getHandSize(state.getTurn())) {
+      throw new IllegalArgumentException("Invalid handIndex: not a valid index of player hand.");
+    } else if (!onGrid(gridRow, gridCol) || state.isHole(gridRow * cols + gridCol)) {
+      throw new IllegalArgumentException("Invalid grid location: desired cell is "
+              + "a hole or not on grid");
+    } else if (state.isOccupied(gridRow * cols + gridCol)) {
+      throw new IllegalArgumentException("Invalid grid location: desired grid location "
+              + "already occupied.");
+    }
+  }
+
+  @Override
+  public Player getOwnerAtCell(int gridRow, int gridCol) {
+    if (!onGrid(gridRow, gridCol)) {
+      return null;
+    }
+    int owner = state.getOwner(gridRow * cols + gridCol);
+    if (owner == PackedGameState.RED) {
+      return redPlayer;
+    } else if (owner == PackedGameState.BLUE) {
+      return bluePlayer;
+    }
+    return null;
+  }
+
+  @Override
+  public int potentialCardsFlipped(GameMoveData move) {
+    isLegalPlay(move.getCardIndex(), move.getGridRow(), move.getGridCol());
+
+    // Score difference includes the placed card itself, as in ThreeTriosGameModel
+    return state.simulateFlips(move.getGridRow() * cols + move.getGridCol(),
+            move.getCardIndex()) + 1;
+  }
+
+  @Override
+  public int getPlayerScore(boolean isRedPlayer) {
+    return state.getScore(isRedPlayer ? PackedGameState.RED : PackedGameState.BLUE);
+  }
+
+  @Override
+  public CardInterface getNewlyPlacedCard() {
+    return newlyPlacedCardId < 0 ? null : deck.get(newlyPlacedCardId);
+  }
+
+  @Override
+  public ReadOnlyPlayer getRedPlayer() {
+    return redPlayer;
+  }
+
+  @Override
+  public ReadOnlyPlayer getBluePlayer() {
+    return bluePlayer;
+  }
+}
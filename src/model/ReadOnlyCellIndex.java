@@ -0,0 +1,76 @@
+package model;
+
+/**
+ * Read-only index of the card cells of a game grid. Cells are identified by their row-major
+ * index, row * numCols + col. The index keeps the set of empty card cells and the frontier,
+ * the empty card cells next to at least one card, up to date as the game goes on, along with
+ * per-cell data of the grid layout that never changes during a game. Reading from it doesn't
+ * allocate, so legal moves can be generated in time proportional to the number of empty cells.
+ */
+public interface ReadOnlyCellIndex {
+
+  /**
+   * Gets the number of columns of the grid, for converting cell indexes to rows and columns.
+   * @return number of columns
+   */
+  int getNumCols();
+
+  /**
+   * Gets the number of empty card cells.
+   * @return number of empty card cells
+   */
+  int getNumEmptyCells();
+
+  /**
+   * Gets an empty card cell. Empty cells are kept in no particular order, and the order
+   * changes as cards are placed, but moves that are taken back again restore it.
+   * @param i index between 0 and getNumEmptyCells() - 1
+   * @return row-major index of the cell
+   * @throws IndexOutOfBoundsException if i is out of range
+   */
+  int getEmptyCell(int i);
+
+  /**
+   * Gets the number of empty card cells that have a card next to them.
+   * @return number of frontier cells
+   */
+  int getNumFrontierCells();
+
+  /**
+   * Gets an empty card cell that has a card next to it, in no particular order.
+   * @param i index between 0 and getNumFrontierCells() - 1
+   * @return row-major index of the cell
+   * @throws IndexOutOfBoundsException if i is out of range
+   */
+  int getFrontierCell(int i);
+
+  /**
+   * Predicate for whether a cell is an empty card cell.
+   * @param cell row-major index of the cell
+   * @return true if the cell is a card cell without a card
+   */
+  boolean isEmptyCell(int cell);
+
+  /**
+   * Gets the number of sides of a cell that don't lead to a card cell, because the neighbor
+   * is a hole or off the grid.
+   * @param cell row-major index of the cell
+   * @return number of closed sides, between 0 and 4
+   */
+  int getHoleNeighborCount(int cell);
+
+  /**
+   * Gets the sides of a cell that lead to a card cell, as a bit mask with bit
+   * Positions.ordinal() set for every open side.
+   * @param cell row-major index of the cell
+   * @return open sides of the cell
+   */
+  int getOpenSides(int cell);
+
+  /**
+   * Predicate for whether a cell is one of the four corners of the grid.
+   * @param cell row-major index of the cell
+   * @return true if the cell is a corner of the grid
+   */
+  boolean isCorner(int cell);
+}
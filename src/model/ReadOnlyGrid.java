@@ -0,0 +1,51 @@
+package model;
+
+import model.card.ReadOnlyCard;
+
+/**
+ * Read-only view of a game grid. Unlike ReadOnlyThreeTriosModel.getGrid, a view isn't a copy:
+ * it always shows the current state of the grid it was obtained from, and reading from it
+ * doesn't allocate.
+ */
+public interface ReadOnlyGrid {
+
+  /**
+   * Gets the number of rows of the grid.
+   * @return number of rows
+   */
+  int getNumRows();
+
+  /**
+   * Gets the number of columns of the grid.
+   * @return number of columns
+   */
+  int getNumCols();
+
+  /**
+   * Predicate for whether a location is a card cell of the grid, empty or not.
+   * @param row desired row idx on the grid
+   * @param col desired col idx on the grid
+   * @return true if the location is on the grid and isn't a hole
+   */
+  boolean isCardCell(int row, int col);
+
+  /**
+   * Gets the card, if any, at the supplied location on the grid.
+   * @param row desired row idx on the grid
+   * @param col desired col idx on the grid
+   * @return the card at the location, or null if no card at that location (including holes
+   *         and off grid locations)
+   */
+  ReadOnlyCard getCard(int row, int col);
+
+  /**
+   * Predicate for whether there is a card at the supplied location on the grid. Views that
+   * create card objects on demand override this to answer without creating one.
+   * @param row desired row idx on the grid
+   * @param col desired col idx on the grid
+   * @return true if getCard would return a card for the location
+   */
+  default boolean hasCard(int row, int col) {
+    return getCard(row, col) != null;
+  }
+}
@@ -34,11 +34,25 @@ public interface ReadOnlyThreeTriosModel {
   Player[] getWinner();
 
   /**
-   * Gets a deep copy of the game grid.
+   * Gets a deep copy of the game grid. Prefer getGridView when the grid is only read.
    * @return a copy of the grid which can be modified without impacting the game.
    */
   Cell[][] getGrid();
 
+  /**
+   * Gets a read-only view of the game grid. The view isn't a copy, so it keeps showing the
+   * grid as the game goes on, and the cards it hands out are the game's own.
+   * @return view of the grid
+   */
+  ReadOnlyGrid getGridView();
+
+  /**
+   * Gets a read-only index of the empty and frontier card cells of the game grid, along with
+   * the per-cell data of the grid layout. Like getGridView, the index isn't a copy.
+   * @return index of the grid's card cells
+   */
+  ReadOnlyCellIndex getCellIndex();
+
   /**
    * Gets the player whose turn it currently is.
    * @return the player whose turn it is to play in the game
@@ -88,7 +102,8 @@ public interface ReadOnlyThreeTriosModel {
 
   /**
    * Returns the number of cards that would be flipped if
-   * the supplied card was played at the supplied coordinate.
+   * the supplied card was played at the supplied coordinate. The model isn't changed, not
+   * even for a moment, so other threads may read it meanwhile.
    *
    * @param move GameMoveData object containing the card index in hand, and grid position of
    *             desired move.
@@ -1,33 +1,44 @@
 package model;
 
+import java.awt.Point;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Random;
 
 import controller.ModelFeatures;
+import model.card.Card;
+import model.card.CardCatalog;
 import model.card.Colors;
 import model.card.Positions;
+import model.card.ReadOnlyCard;
 import model.cell.CardCell;
 import model.cell.HoleCell;
-import model.filereader.CardConfigFileReader;
-import model.filereader.GridConfigFileReader;
+import model.event.CardPlaced;
+import model.event.CardsFlipped;
+import model.event.GameOver;
+import model.event.ModelEventBus;
+import model.event.TurnChanged;
+import model.filereader.ConfigLoader;
+import model.filereader.GameConfig;
 import player.GameMoveData;
 import player.Player;
 import player.ReadOnlyPlayer;
+import player.UserPlayer;
 import model.card.CardInterface;
-import model.card.Card;
 import model.cell.Cell;
 
 /**
  * Represents a ThreeTriosModel which maintains the game data, preserves game rules,
  * and offers methods for interacting with the game.
  */
-public class ThreeTriosGameModel implements ThreeTriosModel {
+public class ThreeTriosGameModel implements ThreeTriosModel, UndoableThreeTriosModel {
   protected Cell[][] grid;
-  // Grid is row, col indexed i.e. grid[row][col] = cell
+  // Grid is row, col indexed i.e. grid[row][col] = cell. Only holds the layout of holes and
+  // card cells, the cards on the grid are tracked by id in cellCardIds.
   protected Player playerTurn;
   // Class invariant: playerTurn is always equal to either redPlayer or bluePlayer
   protected boolean isGameOver;
@@ -37,10 +48,65 @@ public class ThreeTriosGameModel implements ThreeTriosModel {
   private int numCardCells;
   private int numOccupiedCardCells;
   private CardInterface newlyPlacedCard;
-  private int[] newlyPlacedCardLocation;
   private final List<CardInterface> deck;
+  // Distinct cards of the deck, interned at load. Cards on the grid and in hands are tracked by
+  // their catalog id, and their owner is tracked apart from the card.
+  private final CardCatalog catalog;
+  // Catalog id of each card of the deck, in deck order
+  private int[] deckIds;
   private Random rand;
+  // Seed rand was created with, if known, so that a deal can be logged as just the seed, and
+  // the number of shuffles drawn from it since, so that a snapshot can pick up where it is
+  private boolean seeded;
+  private long seed;
+  private int shuffles;
+  // Log of the game, started along with it
+  private MoveLog moveLog;
   private List<ModelFeatures> triggerController;
+  // Bus the events of played moves are published to, if any
+  private ModelEventBus eventBus;
+  // Flat, row-major catalog id of the card in each cell (-1 if empty) and its owner (0 for
+  // red, 1 for blue), indexed by row * numCols + col
+  private int[] cellCardIds;
+  private byte[] cellOwners;
+  // Catalog ids of the cards in the red (0) and blue (1) hands, in the same order as the
+  // players' hands
+  private int[][] handIds;
+  // Read-only view of the cells handed out by getGridView
+  private ReadOnlyGrid gridView;
+  // Empty and frontier card cells, updated on every placement and undo
+  private CellIndex emptyCellIndex;
+  // Four neighbor indexes per cell in Positions order, -1 for holes and off grid locations
+  private int[] neighbors;
+  // Reusable work queue for battle resolution, sized to the board
+  private int[] battleQueue;
+  // Reusable queue for counting flips without playing, and the stamp of the count that last
+  // queued each cell, so a cell is queued once per count without clearing marks between counts
+  private int[] flipQueue;
+  private int[] flipStamps;
+  private int flipStamp;
+  // Hand sizes of the red (0) and blue (1) players, tracked so legality checks don't copy hands
+  private final int[] handSizes;
+  // Cards owned on the grid by red (0) and blue (1), updated on every placement and flip so
+  // that scoring doesn't scan the grid
+  private final int[] boardCounts;
+  // Zobrist hash of the current position, updated on every placement, flip and turn change
+  private long positionHash;
+  // Move journal for applyMove/undoMove, one entry per applied move. The cells flipped by
+  // each entry are stored contiguously in flipLog starting at journalFlipStarts[entry].
+  private int journalDepth;
+  private int[] journalCells;
+  private int[] journalHandIndexes;
+  private int[] journalFlipStarts;
+  // Cards popped from the players' hands, handed back to them on undo
+  private CardInterface[] journalCards;
+  private CardInterface[] journalPreviousPlaced;
+  private int[] flipLog;
+  private int flipLogSize;
+  // Moves that were undone and can be redone, most recent last
+  private int redoDepth;
+  private int[] redoCells;
+  private int[] redoHandIndexes;
 
   /**
    * Constructor that initializes the game grid and deck by reading
@@ -52,27 +118,24 @@ public class ThreeTriosGameModel implements ThreeTriosModel {
    * @throws IllegalArgumentException if any parameter is null
    */
   public ThreeTriosGameModel(String gridConfigFilePath, String cardConfigFilePath) {
-    if (gridConfigFilePath == null || cardConfigFilePath == null) {
-      throw new IllegalArgumentException("Constructor does not take null parameters.");
-    }
-
-    CardConfigFileReader cardConfigReader = new CardConfigFileReader(cardConfigFilePath);
-    GridConfigFileReader gridConfigReader = new GridConfigFileReader(gridConfigFilePath);
-    try {
-      this.deck = cardConfigReader.readCards();
-      this.grid = gridConfigReader.readGrid();
-    } catch (IOException e) {
-      throw new IllegalStateException("Error reading from config files: " + e.getMessage());
-    }
+    // Shuffle with a seed of our own, so the move log can redo the deal from the seed
+    this(gridConfigFilePath, cardConfigFilePath, new Random().nextLong());
+  }
 
-    this.numCardCells = gridConfigReader.getNumCardCells();
-    this.rand = new Random();
-    this.numOccupiedCardCells = 0;
-    this.newlyPlacedCard = null;
-    this.newlyPlacedCardLocation = new int[2];
-    this.isGameStarted = false;
-    this.isGameOver = false;
-    this.triggerController = new ArrayList<>();
+  /**
+   * Same constructor with an additional seed for the source of randomness, so that games are
+   * reproducible and their move logs can redo the deal from the seed.
+   *
+   * @param gridConfigFilePath path to grid config file
+   * @param cardConfigFilePath path to card config file
+   * @param seed               seed of the source of randomness used to shuffle the deck
+   * @throws IllegalStateException    if reading from the config files produces an IOException
+   * @throws IllegalArgumentException if any parameter is null
+   */
+  public ThreeTriosGameModel(String gridConfigFilePath, String cardConfigFilePath, long seed) {
+    this(gridConfigFilePath, cardConfigFilePath, new Random(seed));
+    this.seeded = true;
+    this.seed = seed;
   }
 
   /**
@@ -89,30 +152,329 @@ public class ThreeTriosGameModel implements ThreeTriosModel {
       throw new IllegalArgumentException("Constructor does not take null parameters.");
     }
 
-    CardConfigFileReader cardConfigReader = new CardConfigFileReader(cardConfigFilePath);
-    GridConfigFileReader gridConfigReader = new GridConfigFileReader(gridConfigFilePath);
+    GameConfig config;
     try {
-      this.deck = cardConfigReader.readCards();
-      this.grid = gridConfigReader.readGrid();
+      config = new ConfigLoader(gridConfigFilePath, cardConfigFilePath).load();
     } catch (IOException e) {
       throw new IllegalStateException("Error reading from config files: " + e.getMessage());
     }
 
-    this.numCardCells = gridConfigReader.getNumCardCells();
+    this.deck = config.getDeck();
+    this.grid = config.getGrid();
+    this.catalog = config.getCatalog();
+    this.numCardCells = config.getNumCardCells();
     this.rand = rand;
     this.numOccupiedCardCells = 0;
     this.newlyPlacedCard = null;
-    this.newlyPlacedCardLocation = new int[2];
     this.isGameStarted = false;
     this.isGameOver = false;
     this.triggerController = new ArrayList<>();
+    this.handSizes = new int[2];
+    this.boardCounts = new int[2];
+    this.deckIds = new int[deck.size()];
+    for (int i = 0; i < deckIds.length; i++) {
+      deckIds[i] = catalog.idOf(deck.get(i));
+    }
+    initLookupTables();
+    this.emptyCellIndex = new CellIndex(gridView);
+  }
+
+  /**
+   * Copy constructor creating an independent model in the same position as the supplied one,
+   * so that it can be searched on another thread. Cards and players are copied, the copy's
+   * players are UserPlayers holding copies of the original hands. Registered features, the
+   * move journal and the source of randomness are not copied.
+   *
+   * @param other model to copy
+   * @throws IllegalArgumentException if other is null
+   */
+  public ThreeTriosGameModel(ThreeTriosGameModel other) {
+    if (other == null) {
+      throw new IllegalArgumentException("Constructor does not take null parameters.");
+    }
+
+    this.deck = new ArrayList<>();
+    for (CardInterface card : other.deck) {
+      deck.add(copyOf(card));
+    }
+    // The catalog is immutable, so it is shared rather than copied
+    this.catalog = other.catalog;
+    this.deckIds = other.deckIds.clone();
+
+    this.grid = new Cell[other.grid.length][other.grid[0].length];
+    for (int row = 0; row < grid.length; row++) {
+      for (int col = 0; col < grid[0].length; col++) {
+        grid[row][col] = other.grid[row][col] instanceof HoleCell ? new HoleCell()
+                : new CardCell();
+      }
+    }
+
+    this.numCardCells = other.numCardCells;
+    this.rand = new Random();
+    this.numOccupiedCardCells = other.numOccupiedCardCells;
+    this.newlyPlacedCard = other.newlyPlacedCard == null ? null
+            : copyOf(other.newlyPlacedCard);
+    this.isGameStarted = other.isGameStarted;
+    this.isGameOver = other.isGameOver;
+    this.triggerController = new ArrayList<>();
+    this.handSizes = other.handSizes.clone();
+    this.boardCounts = other.boardCounts.clone();
+    initLookupTables();
+    System.arraycopy(other.cellCardIds, 0, cellCardIds, 0, cellCardIds.length);
+    System.arraycopy(other.cellOwners, 0, cellOwners, 0, cellOwners.length);
+    this.emptyCellIndex = new CellIndex(gridView);
+    this.positionHash = other.positionHash;
+
+    if (isGameStarted) {
+      restorePlayers(other.handIds, other.turnIndex());
+    }
+  }
+
+  /**
+   * Constructor restoring a game from a snapshot. The grid, deck and cards are created anew
+   * from the snapshot, and if the game was started its players are UserPlayers holding the
+   * snapshot's hands, like the players of a copy.
+   */
+  private ThreeTriosGameModel(GameSnapshot snapshot) {
+    this.catalog = snapshot.getCatalog();
+    this.grid = new Cell[snapshot.getRows()][snapshot.getCols()];
+    int cols = snapshot.getCols();
+    for (int cell = 0; cell < grid.length * cols; cell++) {
+      if (snapshot.isHole(cell)) {
+        grid[cell / cols][cell % cols] = new HoleCell();
+      } else {
+        grid[cell / cols][cell % cols] = new CardCell();
+        numCardCells++;
+      }
+    }
+
+    this.isGameStarted = snapshot.isStarted();
+    this.deckIds = snapshot.getDeckIds().clone();
+    this.deck = new ArrayList<>(deckIds.length);
+    for (int i = 0; i < deckIds.length; i++) {
+      // Dealing colors the deck, red getting the cards at even indexes
+      deck.add(catalog.newCard(deckIds[i], !isGameStarted ? Colors.EMPTY
+              : i % 2 == 0 ? Colors.RED : Colors.BLUE));
+    }
+    this.handSizes = new int[]{snapshot.getHand(0).length, snapshot.getHand(1).length};
+    this.boardCounts = new int[2];
+    this.seeded = snapshot.isSeeded();
+    if (seeded) {
+      // Draw the shuffles already made, so the source of randomness goes on where it was
+      this.seed = snapshot.getSeed();
+      this.rand = new Random(seed);
+      for (int i = 0; i < snapshot.getShuffles(); i++) {
+        drawShuffle(rand, deckIds.length);
+      }
+      this.shuffles = snapshot.getShuffles();
+    } else {
+      this.rand = new Random();
+    }
+    this.triggerController = new ArrayList<>();
+    initLookupTables();
+
+    int turn = snapshot.getTurn();
+    int[] cardIds = snapshot.getCellCardIds();
+    byte[] owners = snapshot.getCellOwners();
+    for (int cell = 0; cell < cardIds.length; cell++) {
+      if (cardIds[cell] >= 0) {
+        cellCardIds[cell] = cardIds[cell];
+        cellOwners[cell] = owners[cell];
+        boardCounts[owners[cell]]++;
+        numOccupiedCardCells++;
+        positionHash ^= ZobristKeys.key(cell, cardIds[cell], owners[cell], catalog.size());
+      }
+    }
+    if (turn == 1) {
+      positionHash ^= ZobristKeys.BLUE_TO_MOVE;
+    }
+    int numCards = numOccupiedCardCells + handSizes[0] + handSizes[1];
+    if (!isGameStarted && numCards > 0 || isGameStarted && numCards != deck.size()) {
+      throw new IllegalArgumentException(String.format("Snapshot holds %d cards on the grid "
+              + "and in hands, expected %d", numCards, isGameStarted ? deck.size() : 0));
+    }
+    this.emptyCellIndex = new CellIndex(gridView);
+    this.isGameOver = isGameStarted && numOccupiedCardCells == numCardCells;
+    this.newlyPlacedCard = snapshot.getNewlyPlacedId() < 0 ? null
+            : catalog.newCard(snapshot.getNewlyPlacedId(),
+            snapshot.getNewlyPlacedOwner() == 0 ? Colors.RED : Colors.BLUE);
+
+    if (isGameStarted) {
+      restorePlayers(new int[][]{snapshot.getHand(0), snapshot.getHand(1)}, turn);
+      assert countersMatchGrid();
+    }
+  }
+
+  /**
+   * Restores a game from a snapshot taken by {@link #snapshot()}, possibly of another model
+   * or in another process. A started game is restored with UserPlayers holding the hands of
+   * the snapshot, an unstarted one can be started with any players. Registered features and
+   * the move journal are not part of a snapshot, so the restored model can't undo moves made
+   * before the snapshot.
+   *
+   * @param snapshot snapshot to restore
+   * @return new model in the position of the snapshot
+   * @throws IllegalArgumentException if snapshot is null or doesn't describe a valid game
+   */
+  public static ThreeTriosGameModel fromSnapshot(GameSnapshot snapshot) {
+    if (snapshot == null) {
+      throw new IllegalArgumentException("Snapshot cannot be null.");
+    }
+    return new ThreeTriosGameModel(snapshot);
+  }
+
+  /**
+   * Takes a snapshot of the game, which can be written out in a compact binary format and
+   * restored with {@link #fromSnapshot(GameSnapshot)}. Taking it leaves the game as it is. If
+   * the model was created with a seed, the seed and the shuffles made with it are part of the
+   * snapshot, so models restored from it shuffle the same way as this one. Otherwise restored
+   * models shuffle with a source of randomness of their own.
+   *
+   * @return snapshot of the game
+   * @throws IllegalStateException if applied moves are not undone, as the game is then in a
+   *                               simulated position
+   */
+  public GameSnapshot snapshot() {
+    if (journalDepth > 0) {
+      throw new IllegalStateException("Cannot snapshot while applied moves are not undone.");
+    }
+    int rows = grid.length;
+    int cols = grid[0].length;
+    boolean[] holes = new boolean[rows * cols];
+    for (int cell = 0; cell < holes.length; cell++) {
+      holes[cell] = grid[cell / cols][cell % cols] instanceof HoleCell;
+    }
+    int[][] hands = {Arrays.copyOf(handIds[0], handSizes[0]),
+        Arrays.copyOf(handIds[1], handSizes[1])};
+    int placedId = newlyPlacedCard == null ? -1 : catalog.idOf(newlyPlacedCard);
+    int placedOwner = newlyPlacedCard != null && newlyPlacedCard.getColor() == Colors.BLUE
+            ? 1 : 0;
+    return new GameSnapshot(rows, cols, holes, catalog, deckIds.clone(), isGameStarted,
+            isGameStarted ? turnIndex() : 0, cellCardIds.clone(), cellOwners.clone(), hands,
+            placedId, placedOwner, seeded, seeded ? seed : 0, seeded ? shuffles : 0);
+  }
+
+  /**
+   * Gets the log of the game, which grows by a record for every move played with playMove.
+   * Moves applied with applyMove are simulations and aren't logged. A game restored from a
+   * snapshot or copied after it started has no log, as the moves before it are unknown.
+   *
+   * @return the live log of the game, or null if the game wasn't started by this model
+   */
+  public MoveLog getMoveLog() {
+    return moveLog;
+  }
+
+  long deckHash() {
+    return MoveLog.hashDeck(catalog, deckIds);
+  }
+
+  /**
+   * Puts the deck in the supplied order, so that a game can be dealt as logged.
+   *
+   * @param order catalog ids of the deck's cards in the order to deal them
+   * @throws IllegalStateException    if the game has started
+   * @throws IllegalArgumentException if order isn't an ordering of the deck
+   */
+  void setDeckOrder(int[] order) {
+    if (isGameStarted) {
+      throw new IllegalStateException("Cannot reorder the deck of a started game.");
+    }
+    int[] counts = new int[catalog.size()];
+    for (int id : deckIds) {
+      counts[id]++;
+    }
+    for (int id : order) {
+      if (id < 0 || id >= counts.length || --counts[id] < 0) {
+        throw new IllegalArgumentException("Order doesn't hold the cards of the deck.");
+      }
+    }
+    if (order.length != deckIds.length) {
+      throw new IllegalArgumentException("Order doesn't hold the cards of the deck.");
+    }
+    for (int i = 0; i < order.length; i++) {
+      deckIds[i] = order[i];
+      deck.set(i, catalog.newCard(order[i], Colors.EMPTY));
+    }
+  }
+
+  private void restorePlayers(int[][] hands, int turn) {
+    this.redPlayer = new UserPlayer(this, Colors.RED);
+    this.bluePlayer = new UserPlayer(this, Colors.BLUE);
+    for (int player = 0; player < 2; player++) {
+      System.arraycopy(hands[player], 0, handIds[player], 0, handSizes[player]);
+      Colors color = player == 0 ? Colors.RED : Colors.BLUE;
+      for (int i = 0; i < handSizes[player]; i++) {
+        (player == 0 ? redPlayer : bluePlayer).appendToHand(
+                catalog.newCard(handIds[player][i], color));
+      }
+    }
+    this.playerTurn = turn == 0 ? redPlayer : bluePlayer;
+  }
+
+  private static CardInterface copyOf(CardInterface card) {
+    CardInterface copy = new Card(card.getName(), card.getValueFromPos(Positions.NORTH),
+            card.getValueFromPos(Positions.SOUTH), card.getValueFromPos(Positions.EAST),
+            card.getValueFromPos(Positions.WEST));
+    copy.setColor(card.getColor());
+    return copy;
+  }
+
+  private void initLookupTables() {
+    int rows = grid.length;
+    int cols = grid[0].length;
+    this.cellCardIds = new int[rows * cols];
+    Arrays.fill(cellCardIds, -1);
+    this.cellOwners = new byte[rows * cols];
+    this.handIds = new int[2][deck.size()];
+    this.gridView = new GridView();
+    this.battleQueue = new int[rows * cols];
+    this.flipQueue = new int[rows * cols];
+    this.flipStamps = new int[rows * cols];
+    this.neighbors = new int[rows * cols * 4];
+    this.journalCells = new int[numCardCells];
+    this.journalHandIndexes = new int[numCardCells];
+    this.journalFlipStarts = new int[numCardCells];
+    this.journalCards = new CardInterface[numCardCells];
+    this.journalPreviousPlaced = new CardInterface[numCardCells];
+    this.flipLog = new int[rows * cols];
+    this.redoCells = new int[numCardCells];
+    this.redoHandIndexes = new int[numCardCells];
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < cols; col++) {
+        int base = (row * cols + col) * 4;
+        neighbors[base + Positions.NORTH.ordinal()] = cardCellIndex(row - 1, col);
+        neighbors[base + Positions.SOUTH.ordinal()] = cardCellIndex(row + 1, col);
+        neighbors[base + Positions.EAST.ordinal()] = cardCellIndex(row, col + 1);
+        neighbors[base + Positions.WEST.ordinal()] = cardCellIndex(row, col - 1);
+      }
+    }
+  }
+
+  private int cardCellIndex(int row, int col) {
+    if (row < 0 || row >= grid.length || col < 0 || col >= grid[0].length
+            || grid[row][col] instanceof HoleCell) {
+      return -1;
+    }
+    return row * grid[0].length + col;
   }
 
   protected void shuffle() {
+    shuffles++;
     for (int i = 0; i < deck.size() - 1; i++) {
       // Generate random integer between i+1 inclusive and deck.size()-1 inclusive
       int randomIndex = i + 1 + rand.nextInt(deck.size() - i - 1);
       Collections.swap(deck, i, randomIndex);
+      int id = deckIds[i];
+      deckIds[i] = deckIds[randomIndex];
+      deckIds[randomIndex] = id;
+    }
+  }
+
+  private static void drawShuffle(Random rand, int deckSize) {
+    // Same draws as shuffle, without moving any cards
+    for (int i = 0; i < deckSize - 1; i++) {
+      rand.nextInt(deckSize - i - 1);
     }
   }
 
@@ -127,9 +489,13 @@ public class ThreeTriosGameModel implements ThreeTriosModel {
               + "Deck size = %d. NumCardCells = %d", deck.size(), numCardCells));
     }
 
+    long deckHash = deckHash();
     if (shuffle) {
       shuffle();
     }
+    moveLog = new MoveLog(shuffle, seeded, seed, MoveLog.hashGrid(gridView), deckHash,
+            grid.length, grid[0].length, shuffle && !seeded ? deckIds.clone() : null,
+            numCardCells);
 
     // store each player for easy access throughout the game
     this.redPlayer = redPlayer;
@@ -137,17 +503,17 @@ public class ThreeTriosGameModel implements ThreeTriosModel {
 
     // Deal out half the cards to each player (alternating player for each card dealt)
     for (int i = 0; i < deck.size(); i++) {
-      if (i % 2 == 0) {
-        deck.get(i).setColor(Colors.RED);
-        redPlayer.appendToHand(deck.get(i));
-      } else {
-        deck.get(i).setColor(Colors.BLUE);
-        bluePlayer.appendToHand(deck.get(i));
-      }
+      int player = i % 2;
+      deck.get(i).setColor(player == 0 ? Colors.RED : Colors.BLUE);
+      (player == 0 ? redPlayer : bluePlayer).appendToHand(deck.get(i));
+      handIds[player][handSizes[player]++] = deckIds[i];
     }
 
     isGameStarted = true;
     playerTurn = redPlayer;  // Red always starts
+    if (eventBus != null) {
+      eventBus.publish(new TurnChanged(0, 0));
+    }
     for (ModelFeatures f : triggerController) {
       f.playerTurn(0);
     }
@@ -155,89 +521,217 @@ public class ThreeTriosGameModel implements ThreeTriosModel {
 
   @Override
   public void playMove(GameMoveData move) {
-    isLegalPlay(move.getCardIndex(), move.getGridRow(), move.getGridCol());
+    if (journalDepth > 0) {
+      throw new IllegalStateException("Cannot play a move while applied moves are not undone.");
+    }
+    checkMove(move);
 
-    try {
-      newlyPlacedCard = playerTurn.pop(move.getCardIndex());
-      setGridCellCard(this.grid, move.getGridRow(), move.getGridCol(), newlyPlacedCard);
-      newlyPlacedCardLocation[0] = move.getGridRow();
-      newlyPlacedCardLocation[1] = move.getGridCol();
-      this.numOccupiedCardCells++;  // New card added to grid, increment tally accordingly
-    } catch (IllegalArgumentException e) {
+    int flipped = battlePhase(move.getGridRow(), move.getGridCol(), move.getCardIndex());
+    redoDepth = 0;
+    if (moveLog != null) {
+      moveLog.append(move.getGridRow() * grid[0].length + move.getGridCol(),
+              move.getCardIndex(), flipped);
+    }
+    if (eventBus != null) {
+      publishMove(move.getGridRow(), move.getGridCol(), flipped);
+    }
+    featureCallHelper(turnIndex());
+  }
+
+  private void checkMove(GameMoveData move) {
+    isLegalPlay(move.getCardIndex(), move.getGridRow(), move.getGridCol());
+    if (cardCellIndex(move.getGridRow(), move.getGridCol()) < 0) {
       throw new IllegalArgumentException("Invalid grid location: desired cell is "
               + "a hole or not on grid");
-    } catch (IndexOutOfBoundsException e) {
-      throw new IllegalArgumentException("Invalid hand index! " + move.getCardIndex() + " " + e);
     }
+  }
 
-    // Continue to the battle phase which will complete the move
-    battlePhase();
+  @Override
+  public void applyMove(GameMoveData move) {
+    checkMove(move);
+    applyJournaled(move.getGridRow(), move.getGridCol(), move.getCardIndex());
+    redoDepth = 0;
   }
 
   @Override
-  public void addFeatures(ModelFeatures features) {
-    this.triggerController.add(Objects.requireNonNull(features));
+  public void undoMove() {
+    if (journalDepth == 0) {
+      throw new IllegalStateException("No applied move to undo.");
+    }
+    int handIndex = journalHandIndexes[journalDepth - 1];
+    redoCells[redoDepth] = undoJournaled();
+    redoHandIndexes[redoDepth] = handIndex;
+    redoDepth++;
   }
 
-  private boolean battleComparison(CardInterface card1, CardInterface card2,
-                                   Positions adjacentPosition) {
-    if (card1 == null) {
-      throw new IllegalArgumentException("Card1 is assumed the battleCenterCard "
-              + "and shouldn't be null.");
-    } else if (card2 == null) {
-      return false;
+  @Override
+  public void redoMove() {
+    if (redoDepth == 0) {
+      throw new IllegalStateException("No undone move to redo.");
     }
-    return card1.determineWin(card2, adjacentPosition);
+    redoDepth--;
+    int cols = grid[0].length;
+    applyJournaled(redoCells[redoDepth] / cols, redoCells[redoDepth] % cols,
+            redoHandIndexes[redoDepth]);
   }
 
-  private void comboBattleComparison(Cell[][] desiredGrid, CardInterface center,
-                                     CardInterface adj, int[] adjLocation,
-                                     Positions adjPosition) {
-    // Only do battle with adjacent cards if they are of the opposing color.
-    // Recursive calls to cards that have been switched offers the combo phase functionality
-    if (adj != null) {
-      if (center.getColor() != adj.getColor()) {
-        if (battleComparison(center, adj, adjPosition)) {
-          comboBattleStep(desiredGrid, adjLocation);
-        }
-      }
+  @Override
+  public int getJournalDepth() {
+    return journalDepth;
+  }
+
+  @Override
+  public long getPositionHash() {
+    return positionHash;
+  }
+
+  @Override
+  public UndoableThreeTriosModel copy() {
+    return new ThreeTriosGameModel(this);
+  }
+
+  private int applyJournaled(int gridRow, int gridCol, int handIndex) {
+    CardInterface previousPlaced = newlyPlacedCard;
+    int flipped = battlePhase(gridRow, gridCol, handIndex);
+
+    // Record the placed card and the cells flipped by it (left in battleQueue[1..flipped])
+    if (flipLogSize + flipped > flipLog.length) {
+      flipLog = Arrays.copyOf(flipLog, Math.max(flipLog.length * 2, flipLogSize + flipped));
     }
+    System.arraycopy(battleQueue, 1, flipLog, flipLogSize, flipped);
+    journalCells[journalDepth] = gridRow * grid[0].length + gridCol;
+    journalHandIndexes[journalDepth] = handIndex;
+    journalFlipStarts[journalDepth] = flipLogSize;
+    journalCards[journalDepth] = newlyPlacedCard;
+    journalPreviousPlaced[journalDepth] = previousPlaced;
+    flipLogSize += flipped;
+    journalDepth++;
+    return flipped;
   }
 
-  private void comboBattleStep(Cell[][] desiredGrid, int[] centerLocation) {
-    CardInterface battleCenterCard = getGridSpecificCellCard(desiredGrid, centerLocation[0],
-            centerLocation[1]);
+  private int undoJournaled() {
+    journalDepth--;
+    for (int i = journalFlipStarts[journalDepth]; i < flipLogSize; i++) {
+      cellOwners[flipLog[i]] ^= 1;
+      positionHash ^= flipKey(flipLog[i]);
+    }
+    // The move was made by the player who isn't in turn, and it flipped cards to them
+    int mover = turnIndex() ^ 1;
+    int flipped = flipLogSize - journalFlipStarts[journalDepth];
+    boardCounts[mover] -= flipped + 1;
+    boardCounts[mover ^ 1] += flipped;
+    flipLogSize = journalFlipStarts[journalDepth];
+
+    int cellIndex = journalCells[journalDepth];
+    int cardId = cellCardIds[cellIndex];
+    cellCardIds[cellIndex] = -1;
+    emptyCellIndex.clear(cellIndex);
+    numOccupiedCardCells--;
+    isGameOver = false;
+
+    // Hand the turn back to the player who made the move, along with their card
+    playerTurn = (playerTurn == redPlayer) ? bluePlayer : redPlayer;
+    positionHash ^= ZobristKeys.BLUE_TO_MOVE
+            ^ ZobristKeys.key(cellIndex, cardId, mover, catalog.size());
+    int handIndex = journalHandIndexes[journalDepth];
+    playerTurn.insertToHand(handIndex, journalCards[journalDepth]);
+    int[] hand = handIds[mover];
+    System.arraycopy(hand, handIndex, hand, handIndex + 1, handSizes[mover] - handIndex);
+    hand[handIndex] = cardId;
+    handSizes[mover]++;
+    newlyPlacedCard = journalPreviousPlaced[journalDepth];
+    journalCards[journalDepth] = null;
+    journalPreviousPlaced[journalDepth] = null;
+    assert countersMatchGrid();
+    return cellIndex;
+  }
 
-    int[] adjNorthLocation = new int[]{centerLocation[0] - 1, centerLocation[1]};
-    int[] adjSouthLocation = new int[]{centerLocation[0] + 1, centerLocation[1]};
-    int[] adjEastLocation = new int[]{centerLocation[0], centerLocation[1] + 1};
-    int[] adjWestLocation = new int[]{centerLocation[0], centerLocation[1] - 1};
+  private void publishMove(int row, int col, int flipped) {
+    int numMoves = numOccupiedCardCells;
+    int mover = turnIndex() ^ 1;
+    eventBus.publish(new CardPlaced(numMoves, row, col, mover,
+            catalog.getName(cellCardIds[row * grid[0].length + col])));
+    if (flipped > 0) {
+      // The cells flipped by the move are left in battleQueue[1..flipped]
+      List<Point> cells = new ArrayList<>(flipped);
+      for (int i = 1; i <= flipped; i++) {
+        cells.add(new Point(battleQueue[i] / grid[0].length, battleQueue[i] % grid[0].length));
+      }
+      eventBus.publish(new CardsFlipped(numMoves, cells, mover));
+    }
+    if (isGameOver) {
+      eventBus.publish(new GameOver(numMoves, getPlayerScore(true), getPlayerScore(false)));
+    } else {
+      eventBus.publish(new TurnChanged(numMoves, turnIndex()));
+    }
+  }
 
-    CardInterface adjacentNorth = getGridSpecificCellCard(desiredGrid, adjNorthLocation[0],
-            adjNorthLocation[1]);
-    CardInterface adjacentSouth = getGridSpecificCellCard(desiredGrid, adjSouthLocation[0],
-            adjSouthLocation[1]);
-    CardInterface adjacentEast = getGridSpecificCellCard(desiredGrid, adjEastLocation[0],
-            adjEastLocation[1]);
-    CardInterface adjacentWest = getGridSpecificCellCard(desiredGrid, adjWestLocation[0],
-            adjWestLocation[1]);
+  /**
+   * Publishes the events of every move played from now on, and of the start of the game, to
+   * a bus. Moves applied with applyMove are simulations and aren't published. Events are
+   * published on the thread playing the move, before the registered features are called.
+   *
+   * @param bus bus to publish to, or null to stop publishing
+   */
+  public void setEventBus(ModelEventBus bus) {
+    this.eventBus = bus;
+  }
 
-    comboBattleComparison(desiredGrid, battleCenterCard, adjacentNorth, adjNorthLocation,
-            Positions.NORTH);
-    comboBattleComparison(desiredGrid, battleCenterCard, adjacentSouth, adjSouthLocation,
-            Positions.SOUTH);
-    comboBattleComparison(desiredGrid, battleCenterCard, adjacentEast, adjEastLocation,
-            Positions.EAST);
-    comboBattleComparison(desiredGrid, battleCenterCard, adjacentWest, adjWestLocation,
-            Positions.WEST);
+  @Override
+  public void addFeatures(ModelFeatures features) {
+    this.triggerController.add(Objects.requireNonNull(features));
+  }
+
+  private int comboBattle(int startIndex) {
+    // Iterative flood from the placed card. Each card flipped becomes a new battle center,
+    // which offers the combo phase functionality without recursing once per flip.
+    battleQueue[0] = startIndex;
+    int tail = 1;
+    int head = 0;
+    byte owner = cellOwners[startIndex];
+    while (head < tail) {
+      int center = battleQueue[head++];
+      int centerId = cellCardIds[center];
+      for (int dir = 0; dir < 4; dir++) {
+        int adjIndex = neighbors[center * 4 + dir];
+        if (adjIndex < 0) {
+          continue;
+        }
+        int adjId = cellCardIds[adjIndex];
+        // Only do battle with adjacent cards of the opposing player. Positions are ordered
+        // N, S, E, W, so dir ^ 1 is the side of the adjacent card facing the center.
+        if (adjId >= 0 && cellOwners[adjIndex] != owner
+                && catalog.getValue(centerId, dir) > catalog.getValue(adjId, dir ^ 1)) {
+          cellOwners[adjIndex] = owner;
+          battleQueue[tail++] = adjIndex;
+          positionHash ^= flipKey(adjIndex);
+        }
+      }
+    }
+    // Cells flipped by this battle are left in battleQueue[1..tail)
+    return tail - 1;
   }
 
-  private void battlePhase() {
+  private int battlePhase(int gridRow, int gridCol, int handIndex) {
     if (!isGameStarted || isGameOver) {
       throw new IllegalStateException("Cannot conduct battlePhase: game is over or hasn't started");
     }
 
-    comboBattleStep(this.grid, newlyPlacedCardLocation);
+    // The popped card is no longer referenced by the hand, so it is placed without copying
+    int mover = turnIndex();
+    newlyPlacedCard = playerTurn.pop(handIndex);
+    int[] hand = handIds[mover];
+    int cardId = hand[handIndex];
+    handSizes[mover]--;
+    System.arraycopy(hand, handIndex + 1, hand, handIndex, handSizes[mover] - handIndex);
+    int cellIndex = gridRow * grid[0].length + gridCol;
+    placeCard(cellIndex, cardId, mover);
+    this.numOccupiedCardCells++;  // New card added to grid, increment tally accordingly
+
+    int flipped = comboBattle(cellIndex);
+    // Every card flipped goes to the player who placed the card
+    boardCounts[mover] += flipped + 1;
+    boardCounts[mover ^ 1] -= flipped;
 
     // If board is full then game is over
     if (numOccupiedCardCells == numCardCells) {
@@ -246,54 +740,82 @@ public class ThreeTriosGameModel implements ThreeTriosModel {
     // At this point player has finished their turn so transition to next player
     if (playerTurn == redPlayer) {
       playerTurn = bluePlayer;
-      featureCallHelper(1);
     } else {
       playerTurn = redPlayer;
-      featureCallHelper(0);
     }
+    positionHash ^= ZobristKeys.BLUE_TO_MOVE;
+    assert countersMatchGrid();
+    return flipped;
+  }
+
+  /**
+   * Cross-checks the hand and board ownership counters against the players' hands and a full
+   * scan of the cells. Called in assert statements after every move and undo, so running with
+   * assertions enabled (-ea, the default for the tests) validates the counters throughout.
+   *
+   * @return true if the counters match
+   * @throws IllegalStateException if a counter doesn't match the scan
+   */
+  private boolean countersMatchGrid() {
+    int[] scanned = new int[2];
+    for (int i = 0; i < cellCardIds.length; i++) {
+      if (cellCardIds[i] >= 0) {
+        scanned[cellOwners[i]]++;
+      }
+    }
+    int[] hands = {redPlayer.getHandView().size(), bluePlayer.getHandView().size()};
+    if (!Arrays.equals(scanned, boardCounts) || !Arrays.equals(hands, handSizes)) {
+      throw new IllegalStateException(String.format("Score counters out of sync: board %s, "
+                      + "scanned %s, hand sizes %s, hands %s", Arrays.toString(boardCounts),
+              Arrays.toString(scanned), Arrays.toString(handSizes), Arrays.toString(hands)));
+    }
+    for (int player = 0; player < 2; player++) {
+      List<ReadOnlyCard> hand = (player == 0 ? redPlayer : bluePlayer).getHandView();
+      for (int i = 0; i < handSizes[player]; i++) {
+        if (catalog.idOf(hand.get(i)) != handIds[player][i]) {
+          throw new IllegalStateException(String.format("Hand ids out of sync at %d of "
+                  + "player %d", i, player));
+        }
+      }
+    }
+    return true;
   }
 
   private void featureCallHelper(int playerIdx) {
-    for (ModelFeatures f : triggerController) {
-      f.playerTurn(playerIdx);
+    // Indexed loop so that dispatch does not allocate an iterator
+    for (int i = 0; i < triggerController.size(); i++) {
+      triggerController.get(i).playerTurn(playerIdx);
     }
   }
 
+  private long flipKey(int cellIndex) {
+    // Moving a card between owners removes its key for one owner and adds it for the other
+    return ZobristKeys.key(cellIndex, cellCardIds[cellIndex], 0, catalog.size())
+            ^ ZobristKeys.key(cellIndex, cellCardIds[cellIndex], 1, catalog.size());
+  }
+
+  private int turnIndex() {
+    return playerTurn == redPlayer ? 0 : 1;
+  }
+
   @Override
   public boolean isGameStarted() {
     return isGameStarted;
   }
 
-  private void setGridCellCard(Cell[][] desiredGrid, int gridRow, int gridCol,
-                               CardInterface card) {
-    if (card == null) {
-      throw new IllegalArgumentException("Supplied card cannot be null.");
-    } else if (isGameOver || !isGameStarted) {
+  private void placeCard(int cellIndex, int cardId, int owner) {
+    if (isGameOver || !isGameStarted) {
       throw new IllegalStateException("Game hasn't started or is over.");
     }
+    cellCardIds[cellIndex] = cardId;
+    cellOwners[cellIndex] = (byte) owner;
+    emptyCellIndex.fill(cellIndex);
+    positionHash ^= ZobristKeys.key(cellIndex, cardId, owner, catalog.size());
+  }
 
-    if (gridRow < 0 || gridRow >= desiredGrid.length || gridCol < 0 ||
-            gridCol >= desiredGrid[0].length) {
-      throw new IllegalArgumentException("Supplied grid location not on grid.");
-    }
-
-    Cell desiredCell = desiredGrid[gridRow][gridCol];
-
-    if (desiredCell instanceof HoleCell) {
-      throw new IllegalArgumentException("Supplied grid location is a HoleCell.");
-    } else {
-      if (((CardCell) desiredCell).getCard().isPresent()) {
-        throw new IllegalArgumentException("Supplied grid location is an already filled CardCell");
-      } else {
-        CardInterface cardDeepCopy = new Card(card.getName(),
-                card.getValueFromPos(Positions.NORTH),
-                card.getValueFromPos(Positions.SOUTH),
-                card.getValueFromPos(Positions.EAST),
-                card.getValueFromPos(Positions.WEST));
-        cardDeepCopy.setColor(card.getColor());
-        ((CardCell) desiredCell).setCard(cardDeepCopy);
-      }
-    }
+  private CardInterface newCardAt(int cellIndex) {
+    return catalog.newCard(cellCardIds[cellIndex], cellOwners[cellIndex] == 0
+            ? Colors.RED : Colors.BLUE);
   }
 
   @Override
@@ -309,25 +831,9 @@ public class ThreeTriosGameModel implements ThreeTriosModel {
     if (!isGameOver || !isGameStarted) {
       throw new IllegalStateException("Cannot get winner: game hasn't started or isn't over");
     } else {
-      int redPlayerTally = 0;
-      int bluePlayerTally = 0;
-
       // Whoever owns more total when the game is over wins
-      for (Cell[] row : grid) {
-        for (Cell cell : row) {
-          if (cell instanceof CardCell) {
-            if (((CardCell) cell).getCard().isPresent()) {
-              if (Objects.equals(((CardCell) cell).getCard().get().getColor(), Colors.BLUE)) {
-                bluePlayerTally++;
-              } else {
-                redPlayerTally++;
-              }
-            }
-          }
-        }
-      }
-      redPlayerTally += redPlayer.getHandCopy().size();
-      bluePlayerTally += bluePlayer.getHandCopy().size();
+      int redPlayerTally = getPlayerScore(true);
+      int bluePlayerTally = getPlayerScore(false);
 
       if (redPlayerTally > bluePlayerTally) {
         return new Player[]{redPlayer};
@@ -342,22 +848,18 @@ public class ThreeTriosGameModel implements ThreeTriosModel {
   @Override
   public Cell[][] getGrid() {
     Cell[][] copyGrid = new Cell[grid.length][grid[0].length];
+    int cols = grid[0].length;
 
     for (int i = 0; i < grid.length; i++) {
-      for (int j = 0; j < grid[0].length; j++) {
-        Cell oldCell = grid[i][j];
-        if (oldCell instanceof CardCell) {
-          if (((CardCell) oldCell).getCard().isEmpty()) {
-            copyGrid[i][j] = new CardCell();
-          } else {
-            CardCell newCell = new CardCell();
-            if (((CardCell) oldCell).getCard().isPresent()) {
-              newCell.setCard(((CardCell) oldCell).getCard().get());
-            }
-            copyGrid[i][j] = newCell;
-          }
-        } else if (oldCell instanceof HoleCell) {
+      for (int j = 0; j < cols; j++) {
+        if (grid[i][j] instanceof HoleCell) {
           copyGrid[i][j] = new HoleCell();
+        } else {
+          CardCell newCell = new CardCell();
+          if (cellCardIds[i * cols + j] >= 0) {
+            newCell.setCard(newCardAt(i * cols + j));
+          }
+          copyGrid[i][j] = newCell;
         }
       }
     }
@@ -365,6 +867,51 @@ public class ThreeTriosGameModel implements ThreeTriosModel {
     return copyGrid;
   }
 
+  @Override
+  public ReadOnlyGrid getGridView() {
+    return gridView;
+  }
+
+  /**
+   * View of the grid reading straight from the flat cell arrays of the model.
+   */
+  private final class GridView implements ReadOnlyGrid {
+    @Override
+    public int getNumRows() {
+      return grid.length;
+    }
+
+    @Override
+    public int getNumCols() {
+      return grid[0].length;
+    }
+
+    @Override
+    public boolean isCardCell(int row, int col) {
+      return cardCellIndex(row, col) >= 0;
+    }
+
+    @Override
+    public ReadOnlyCard getCard(int row, int col) {
+      int cellIndex = cardCellIndex(row, col);
+      if (cellIndex < 0 || cellCardIds[cellIndex] < 0) {
+        return null;
+      }
+      return catalog.getCard(cellCardIds[cellIndex], cellOwners[cellIndex]);
+    }
+
+    @Override
+    public boolean hasCard(int row, int col) {
+      int cellIndex = cardCellIndex(row, col);
+      return cellIndex >= 0 && cellCardIds[cellIndex] >= 0;
+    }
+  }
+
+  @Override
+  public ReadOnlyCellIndex getCellIndex() {
+    return emptyCellIndex;
+  }
+
   @Override
   public ReadOnlyPlayer getPlayerInTurn() {
     return playerTurn;
@@ -382,47 +929,23 @@ public class ThreeTriosGameModel implements ThreeTriosModel {
 
   @Override
   public CardInterface getGridCellCard(int row, int col) {
-    if (row < 0 || row >= grid.length || col < 0 || col >= grid[0].length) {
-      return null;
-    }
-
-    Cell desiredCell = grid[row][col];
-
-    if (desiredCell instanceof HoleCell) {
-      return null;
-    } else {
-      if (((CardCell) desiredCell).getCard().isPresent()) {
-        return ((CardCell) desiredCell).getCard().get();
-      }
-      return null;
-    }
-  }
-
-  private CardInterface getGridSpecificCellCard(Cell[][] desiredGrid, int row, int col) {
-    if (row < 0 || row >= desiredGrid.length || col < 0 || col >= desiredGrid[0].length) {
-      return null;
-    }
-
-    Cell desiredCell = desiredGrid[row][col];
-
-    if (desiredCell instanceof HoleCell) {
-      return null;
-    } else {
-      if (((CardCell) desiredCell).getActualCard().isPresent()) {
-        return ((CardCell) desiredCell).getActualCard().get();
-      }
+    int cellIndex = cardCellIndex(row, col);
+    if (cellIndex < 0 || cellCardIds[cellIndex] < 0) {
       return null;
     }
+    // Cards on the grid are only ids and owners, so callers get a copy they may modify
+    return newCardAt(cellIndex);
   }
 
   @Override
   public void isLegalPlay(int handIndex, int gridRow, int gridCol) {
     if (isGameOver || !isGameStarted) {
       throw new IllegalStateException("Cannot playToCell: game is over or hasn't started.");
-    } else if (handIndex >= playerTurn.getHandCopy().size() || handIndex < 0) {
+    } else if (handIndex >= handSizes[turnIndex()] || handIndex < 0) {
       throw new IllegalArgumentException("Invalid handIndex: not a valid index of player hand.");
     } else {
-      if (getGridCellCard(gridRow, gridCol) != null) {
+      int cellIndex = cardCellIndex(gridRow, gridCol);
+      if (cellIndex >= 0 && cellCardIds[cellIndex] >= 0) {
         throw new IllegalArgumentException("Invalid grid location: desired grid location "
                 + "already occupied.");
       }
@@ -431,95 +954,62 @@ public class ThreeTriosGameModel implements ThreeTriosModel {
 
   @Override
   public Player getOwnerAtCell(int gridRow, int gridCol) {
-    CardInterface desiredCard = getGridCellCard(gridRow, gridCol);
-
-    if (desiredCard != null) {
-      if (desiredCard.getColor() == Colors.RED) {
-        return redPlayer;
-      } else if (desiredCard.getColor() == Colors.BLUE) {
-        return bluePlayer;
-      }
+    int cellIndex = cardCellIndex(gridRow, gridCol);
+    if (cellIndex < 0 || cellCardIds[cellIndex] < 0) {
+      return null;
     }
-    return null;
+    return cellOwners[cellIndex] == 0 ? redPlayer : bluePlayer;
   }
 
   @Override
   public int potentialCardsFlipped(GameMoveData move) {
-    isLegalPlay(move.getCardIndex(), move.getGridRow(), move.getGridCol());
-
-    // Find number of cards player owns
-    Colors playerColor = playerTurn.getColor();
-    boolean isRed;
-    int cardsOwnedBefore;
-    if (playerColor == Colors.RED) {
-      isRed = true;
-    } else {
-      isRed = false;
-    }
+    checkMove(move);
 
-    // Simulate the move being played
-    Cell[][] copyGrid = getGrid();
-    cardsOwnedBefore = getPlayerScore(copyGrid, isRed);
-    newlyPlacedCard = playerTurn.getHandCopy().get(move.getCardIndex());
-    setGridCellCard(copyGrid, move.getGridRow(), move.getGridCol(), newlyPlacedCard);
-    comboBattleStep(copyGrid, new int[]{move.getGridRow(), move.getGridCol()});
+    // Count the flood without placing the card, so the grid, hands and turn stay as they are
+    // for every other reader of the model
+    int mover = turnIndex();
+    int flipped = countFlips(move.getGridRow() * grid[0].length + move.getGridCol(),
+            handIds[mover][move.getCardIndex()], mover);
 
-    // Find number of cards player now owns and return the difference
-    int cardsOwnedAfter = getPlayerScore(copyGrid, isRed);
-    return cardsOwnedAfter - cardsOwnedBefore;
+    // Score difference for the player includes the placed card itself
+    return flipped + 1;
   }
 
-  @Override
-  public int getPlayerScore(boolean isRedPlayer) {
-    Player player;
-    if (isRedPlayer) {
-      player = redPlayer;
-    } else {
-      player = bluePlayer;
-    }
-    int score = player.getHandCopy().size();
-
-    // Increment score for every card player owns on the grid
-    Colors playerColor = player.getColor();
-    for (Cell[] row : grid) {
-      for (Cell cell : row) {
-        if (cell instanceof CardCell) {
-          if (((CardCell) cell).getCard().isPresent()) {
-            if (Objects.equals(((CardCell) cell).getCard().get().getColor(), playerColor)) {
-              score++;
-            }
-          }
-        }
-      }
+  private int countFlips(int startIndex, int startId, int owner) {
+    // Same flood as comboBattle, reading the cells only. A cell counts as the mover's once
+    // its stamp matches this count's, so the grid itself is left untouched.
+    if (++flipStamp == 0) {
+      Arrays.fill(flipStamps, 0);
+      flipStamp = 1;
     }
-
-    return score;
-  }
-
-  private int getPlayerScore(Cell[][] desiredGrid, boolean isRedPlayer) {
-    Player player;
-    if (isRedPlayer) {
-      player = redPlayer;
-    } else {
-      player = bluePlayer;
-    }
-    int score = player.getHandCopy().size();
-
-    // Increment score for every card player owns on the grid
-    Colors playerColor = player.getColor();
-    for (Cell[] row : desiredGrid) {
-      for (Cell cell : row) {
-        if (cell instanceof CardCell) {
-          if (((CardCell) cell).getCard().isPresent()) {
-            if (Objects.equals(((CardCell) cell).getCard().get().getColor(), playerColor)) {
-              score++;
-            }
-          }
+    int tail = 0;
+    // -1 stands for the placed card, which isn't on the grid
+    int head = -1;
+    while (head < tail) {
+      int center = head < 0 ? startIndex : flipQueue[head];
+      int centerId = head < 0 ? startId : cellCardIds[center];
+      head++;
+      for (int dir = 0; dir < 4; dir++) {
+        int adjIndex = neighbors[center * 4 + dir];
+        if (adjIndex < 0) {
+          continue;
+        }
+        int adjId = cellCardIds[adjIndex];
+        if (adjId >= 0 && cellOwners[adjIndex] != owner && flipStamps[adjIndex] != flipStamp
+                && catalog.getValue(centerId, dir) > catalog.getValue(adjId, dir ^ 1)) {
+          flipStamps[adjIndex] = flipStamp;
+          flipQueue[tail++] = adjIndex;
         }
       }
     }
+    return tail;
+  }
 
-    return score;
+  @Override
+  public int getPlayerScore(boolean isRedPlayer) {
+    // Cards in hand plus cards owned on the grid, both kept up to date as moves are played
+    int player = isRedPlayer ? 0 : 1;
+    return handSizes[player] + boardCounts[player];
   }
 
   @Override
@@ -0,0 +1,64 @@
+package model;
+
+import player.GameMoveData;
+
+/**
+ * A model that can play hypothetical moves in place and take them back again. Moves applied
+ * through this interface are recorded in a journal holding the placed card and the cells it
+ * flipped, so undoing a move costs O(flips) rather than a copy of the whole grid.
+ * Applied moves do not notify any registered features.
+ *
+ * <p>An applied move changes the model like a played one, including the players' hands and
+ * whose turn it is, until it is undone. Moves should therefore only be applied to a model
+ * nobody else reads meanwhile, such as one made with {@link #copy()} for a search.
+ */
+public interface UndoableThreeTriosModel extends ReadOnlyThreeTriosModel {
+  /**
+   * Plays the supplied move for the player in turn and records it in the journal.
+   * Clears any moves that could previously have been redone.
+   *
+   * @param move the data for the desired move to be made
+   * @throws IllegalArgumentException if desired play is considered illegal
+   * @throws IllegalStateException if game hasn't started or is over
+   */
+  void applyMove(GameMoveData move);
+
+  /**
+   * Takes back the most recently applied move, restoring the grid, hands and turn.
+   *
+   * @throws IllegalStateException if there is no applied move to undo
+   */
+  void undoMove();
+
+  /**
+   * Re-applies the most recently undone move.
+   *
+   * @throws IllegalStateException if there is no undone move to redo
+   */
+  void redoMove();
+
+  /**
+   * Gets the number of applied moves that can currently be undone.
+   *
+   * @return depth of the move journal
+   */
+  int getJournalDepth();
+
+  /**
+   * Gets the Zobrist hash of the current position: the cards on the grid, who owns them and
+   * whose turn it is. Kept up to date incrementally as moves are played, applied and undone,
+   * so equal positions reached through different move orders hash equally.
+   *
+   * @return 64-bit hash of the current position
+   */
+  long getPositionHash();
+
+  /**
+   * Creates an independent model in the current position. Moves applied to the copy don't
+   * affect this model, so copies can be searched on other threads while this one is left
+   * untouched. The copy has an empty move journal and no registered features.
+   *
+   * @return copy of the current position
+   */
+  UndoableThreeTriosModel copy();
+}
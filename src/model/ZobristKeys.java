@@ -0,0 +1,40 @@
+package model;
+
+/**
+ * Zobrist keys for hashing Three Trios positions. A position hash is the XOR of the key of
+ * every (cell, card id, owner) triple on the grid, XORed with {@link #BLUE_TO_MOVE} when it is
+ * blue's turn. Keys are derived on the fly by mixing the triple's index, so no table sized
+ * cells x cards x owners has to be kept in memory.
+ */
+public final class ZobristKeys {
+  /**
+   * Key XORed into the hash whenever it is the blue player's turn.
+   */
+  public static final long BLUE_TO_MOVE = mix(0x5DEECE66DL);
+
+  private static final long SEED = 0x9E3779B97F4A7C15L;
+
+  private ZobristKeys() {
+  }
+
+  /**
+   * Gets the key for a card owned by a player in a cell.
+   *
+   * @param cell     cell index, row * numCols + col
+   * @param cardId   catalog id of the card
+   * @param owner    0 for red, 1 for blue
+   * @param deckSize number of card ids, the size of the catalog
+   * @return pseudo random key for the triple
+   */
+  public static long key(int cell, int cardId, int owner, int deckSize) {
+    long index = ((long) cell * deckSize + cardId) * 2 + owner;
+    return mix(SEED + index * SEED);
+  }
+
+  // SplitMix64 finalizer: cheap, and every input bit affects every output bit
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -28,7 +28,7 @@ public class Card implements CardInterface {
   public Card(String nm, Value n, Value s, Value e, Value w) {
     if (nm.isEmpty()) {
       throw new IllegalArgumentException("Name can not be empty");
-    } else if (nm.split(" ").length > 1) {
+    } else if (hasSecondWord(nm)) {
       throw new IllegalArgumentException("Name can not have more than one word");
     }
     name = Objects.requireNonNull(nm);
@@ -39,6 +39,17 @@ public class Card implements CardInterface {
     this.color = Colors.EMPTY;
   }
 
+  // Same as nm.split(" ").length > 1, a space followed by anything but spaces, without
+  // allocating, since cards are created in bulk when games are loaded and copied
+  private static boolean hasSecondWord(String nm) {
+    for (int i = nm.indexOf(' ') + 1; i > 0 && i < nm.length(); i++) {
+      if (nm.charAt(i) != ' ') {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public String getName() {
     return name;
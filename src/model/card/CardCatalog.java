@@ -0,0 +1,274 @@
+package model.card;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable catalog of the distinct cards of a deck, built once when the deck is loaded. Each
+ * distinct (name, north, south, east, west) tuple is interned once and given a small int id,
+ * so models can keep card ids in their grid and hands, track ownership apart from the cards,
+ * compare cards by id and battle on precomputed values.
+ */
+public final class CardCatalog {
+  private static final Positions[] POSITIONS = Positions.values();
+  private static final Value[] VALUES = Value.values();
+  private final String[] names;
+  // Values of each card, indexed by id * 4 + Positions ordinal
+  private final byte[] values;
+  // Shared immutable view of each card for each owner, indexed by id * 2 + owner. Views are
+  // created on first use; a race between threads can only create an equal view twice.
+  private final OwnedCard[] ownedCards;
+  // Lookup table for idOf, built on first use if the catalog wasn't built from cards. A race
+  // between threads can only build an equal table twice.
+  private volatile Map<Key, Integer> ids;
+
+  private CardCatalog(String[] names, byte[] values, Map<Key, Integer> ids) {
+    this.names = names;
+    this.values = values;
+    this.ownedCards = new OwnedCard[names.length * 2];
+    this.ids = ids;
+  }
+
+  /**
+   * Interns every distinct card of a deck. Ids are assigned in the order cards first appear in
+   * the deck, so a deck without duplicates gets the ids 0 to deck size - 1 in deck order.
+   *
+   * @param deck cards to intern
+   * @return catalog of the distinct cards
+   * @throws IllegalArgumentException if deck is null or holds a null card
+   */
+  public static CardCatalog of(List<? extends ReadOnlyCard> deck) {
+    if (deck == null) {
+      throw new IllegalArgumentException("Deck cannot be null.");
+    }
+    Builder builder = new Builder();
+    for (ReadOnlyCard card : deck) {
+      builder.add(card);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Restores a catalog from the names and values of its cards, as read back from getName and
+   * getValue, so that every card keeps its id. The lookup table for idOf is only built when a
+   * card is first looked up, so catalogs that are only read by id are restored in one pass.
+   *
+   * @param names  name of each card, indexed by id
+   * @param values values of each card between 1 and 10, indexed by id * 4 + Positions ordinal
+   * @return catalog of the cards
+   * @throws IllegalArgumentException if either array is null, their lengths don't match, a
+   *                                  name isn't a valid card name or a value is out of range
+   */
+  public static CardCatalog fromValues(String[] names, byte[] values) {
+    if (names == null || values == null || values.length != names.length * 4) {
+      throw new IllegalArgumentException("Expected four values for each of the names.");
+    }
+    for (int id = 0; id < names.length; id++) {
+      if (names[id] == null || names[id].isEmpty() || names[id].indexOf(' ') >= 0) {
+        throw new IllegalArgumentException("Invalid card name: " + names[id]);
+      }
+    }
+    for (byte value : values) {
+      if (value < 1 || value > VALUES.length) {
+        throw new IllegalArgumentException("Invalid card value: " + value);
+      }
+    }
+    return new CardCatalog(names.clone(), values.clone(), null);
+  }
+
+  private Map<Key, Integer> buildIds() {
+    Map<Key, Integer> built = new HashMap<>(names.length * 2);
+    for (int id = 0; id < names.length; id++) {
+      int packed = 0;
+      for (int dir = 0; dir < 4; dir++) {
+        packed = packed << 4 | (values[id * 4 + dir] - 1);
+      }
+      built.putIfAbsent(new Key(names[id], packed), id);
+    }
+    return built;
+  }
+
+  /**
+   * Builds a catalog one card at a time, so that a deck can be interned while it is read.
+   * A builder builds a single catalog.
+   */
+  public static final class Builder {
+    private Map<Key, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private byte[] values = new byte[64];
+
+    /**
+     * Interns a card, unless a card with the same name and values was added before.
+     *
+     * @param card card to intern
+     * @return id of the card
+     * @throws IllegalArgumentException if card is null
+     * @throws IllegalStateException    if the catalog has already been built
+     */
+    public int add(ReadOnlyCard card) {
+      if (card == null) {
+        throw new IllegalArgumentException("Deck cannot hold null cards.");
+      } else if (ids == null) {
+        throw new IllegalStateException("Catalog has already been built.");
+      }
+      int next = names.size();
+      Integer id = ids.putIfAbsent(keyOf(card), next);
+      if (id != null) {
+        return id;
+      }
+      names.add(card.getName());
+      if (values.length < (next + 1) * 4) {
+        values = Arrays.copyOf(values, values.length * 2);
+      }
+      for (Positions pos : POSITIONS) {
+        values[next * 4 + pos.ordinal()] = (byte) card.getValueFromPos(pos).toInt();
+      }
+      return next;
+    }
+
+    /**
+     * Builds the catalog of every card added.
+     *
+     * @return catalog of the distinct cards
+     * @throws IllegalStateException if the catalog has already been built
+     */
+    public CardCatalog build() {
+      if (ids == null) {
+        throw new IllegalStateException("Catalog has already been built.");
+      }
+      // The lookup table is handed over rather than copied, so the builder can't add to it
+      Map<Key, Integer> built = ids;
+      ids = null;
+      return new CardCatalog(names.toArray(new String[0]),
+              Arrays.copyOf(values, names.size() * 4), built);
+    }
+  }
+
+  private static Key keyOf(ReadOnlyCard card) {
+    int values = 0;
+    for (Positions pos : POSITIONS) {
+      values = values << 4 | card.getValueFromPos(pos).ordinal();
+    }
+    return new Key(card.getName(), values);
+  }
+
+  /**
+   * Name and values of a card, the values packed four bits each in Positions order.
+   */
+  private static final class Key {
+    private final String name;
+    private final int values;
+
+    Key(String name, int values) {
+      this.name = name;
+      this.values = values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return values == that.values && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(name) * 31 + values;
+    }
+  }
+
+  /**
+   * Gets the number of distinct cards in the catalog.
+   *
+   * @return number of ids, ids run from 0 to size - 1
+   */
+  public int size() {
+    return names.length;
+  }
+
+  /**
+   * Gets the id of the card with the same name and values as the supplied card.
+   *
+   * @param card card to look up, its color is ignored
+   * @return id of the card
+   * @throws IllegalArgumentException if card is null or not in the catalog
+   */
+  public int idOf(ReadOnlyCard card) {
+    if (card == null) {
+      throw new IllegalArgumentException("Card cannot be null.");
+    }
+    Map<Key, Integer> lookup = ids;
+    if (lookup == null) {
+      lookup = buildIds();
+      ids = lookup;
+    }
+    Integer id = lookup.get(keyOf(card));
+    if (id == null) {
+      throw new IllegalArgumentException("Card is not in the catalog: " + card.getName());
+    }
+    return id;
+  }
+
+  /**
+   * Gets a value of a card as an int between 1 and 10.
+   *
+   * @param id  id of the card
+   * @param dir ordinal of the position of the value
+   * @return value of the card at the position
+   */
+  public int getValue(int id, int dir) {
+    return values[id * 4 + dir];
+  }
+
+  /**
+   * Gets the name of a card.
+   *
+   * @param id id of the card
+   * @return name of the card
+   */
+  public String getName(int id) {
+    return names[id];
+  }
+
+  /**
+   * Gets the shared immutable view of a card owned by a player.
+   *
+   * @param id    id of the card
+   * @param owner 0 for red, 1 for blue
+   * @return the card with the owner's color
+   */
+  public ReadOnlyCard getCard(int id, int owner) {
+    OwnedCard card = ownedCards[id * 2 + owner];
+    if (card == null) {
+      Colors color = owner == 0 ? Colors.RED : Colors.BLUE;
+      card = new OwnedCard(newCard(id, color), color);
+      ownedCards[id * 2 + owner] = card;
+    }
+    return card;
+  }
+
+  /**
+   * Creates a new, mutable Card with the name and values of a card, for APIs handing out
+   * cards that may be modified.
+   *
+   * @param id    id of the card
+   * @param color color to give the new card
+   * @return new card
+   */
+  public CardInterface newCard(int id, Colors color) {
+    Card copy = new Card(names[id], valueOf(id, Positions.NORTH), valueOf(id, Positions.SOUTH),
+            valueOf(id, Positions.EAST), valueOf(id, Positions.WEST));
+    copy.setColor(color);
+    return copy;
+  }
+
+  private Value valueOf(int id, Positions pos) {
+    return VALUES[values[id * 4 + pos.ordinal()] - 1];
+  }
+}
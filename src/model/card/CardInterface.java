@@ -3,7 +3,7 @@ package model.card;
 /**
  * Interface representing all functionality required by a Card.
  * */
-public interface CardInterface {
+public interface CardInterface extends ReadOnlyCard {
 
   /**
    * Determines if this card is winning compared to an inputted card that is assumed adjacent.
@@ -22,23 +22,6 @@ public interface CardInterface {
    */
   void setColor(Colors color);
 
-  /**
-   * Gets color value of card.
-   * @return color value of card
-   */
-  Colors getColor();
-
-  /**
-   * Gets name of card.
-   * */
-  String getName();
-
-  /**
-   * Gets the value of the card at the desired position.
-   * @param pos the desired position of the value of the card we're trying to get.
-   * */
-  Value getValueFromPos(Positions pos);
-
   /**
    * Switches current color of card to be inverse.
    * */
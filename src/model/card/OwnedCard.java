@@ -0,0 +1,92 @@
+package model.card;
+
+import java.util.Objects;
+
+/**
+ * Immutable card together with the color of its owner. As neither can change, a single
+ * instance can be shared by every view showing the same card with the same owner, so models
+ * that track ownership apart from their cards can hand out cards without allocating.
+ */
+public final class OwnedCard implements ReadOnlyCard {
+  private final String name;
+  private final Value north;
+  private final Value south;
+  private final Value east;
+  private final Value west;
+  private final Colors color;
+
+  /**
+   * Constructor for initializing an OwnedCard with the name and values of a card.
+   *
+   * @param card  card to take the name and values of
+   * @param color color of the card's owner
+   * @throws IllegalArgumentException if either parameter is null
+   */
+  public OwnedCard(ReadOnlyCard card, Colors color) {
+    if (card == null || color == null) {
+      throw new IllegalArgumentException("Card and color cannot be null.");
+    }
+    this.name = card.getName();
+    this.north = card.getValueFromPos(Positions.NORTH);
+    this.south = card.getValueFromPos(Positions.SOUTH);
+    this.east = card.getValueFromPos(Positions.EAST);
+    this.west = card.getValueFromPos(Positions.WEST);
+    this.color = color;
+  }
+
+  @Override
+  public Colors getColor() {
+    return color;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Value getValueFromPos(Positions pos) {
+    switch (pos) {
+      case NORTH:
+        return north;
+      case SOUTH:
+        return south;
+      case EAST:
+        return east;
+      case WEST:
+        return west;
+      default:
+        throw new IllegalArgumentException("Invalid position");
+    }
+  }
+
+  @Override
+  public String toString() {
+    // Same form as Card, so views render either the same way
+    if (color == Colors.RED) {
+      return "R";
+    } else if (color == Colors.BLUE) {
+      return "B";
+    } else {
+      return "EMPTY";
+    }
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof OwnedCard)) {
+      return false;
+    }
+    OwnedCard other = (OwnedCard) obj;
+    return name.equals(other.name) && north == other.north && south == other.south
+            && east == other.east && west == other.west && color == other.color;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, north, south, east, west, color);
+  }
+}
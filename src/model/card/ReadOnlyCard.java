@@ -0,0 +1,26 @@
+package model.card;
+
+/**
+ * Interface representing the observable parts of a card: its name, values and owner. Used by
+ * the read-only views of the grid and hands, which hand out the cards held by the game rather
+ * than copies of them.
+ */
+public interface ReadOnlyCard {
+
+  /**
+   * Gets color value of card.
+   * @return color value of card
+   */
+  Colors getColor();
+
+  /**
+   * Gets name of card.
+   * */
+  String getName();
+
+  /**
+   * Gets the value of the card at the desired position.
+   * @param pos the desired position of the value of the card we're trying to get.
+   * */
+  Value getValueFromPos(Positions pos);
+}
@@ -0,0 +1,56 @@
+package model.event;
+
+/**
+ * A card was placed on the grid.
+ */
+public final class CardPlaced implements GameEvent {
+  private final int moveNumber;
+  private final int row;
+  private final int col;
+  private final int owner;
+  private final String cardName;
+
+  /**
+   * Constructor for initializing a CardPlaced event.
+   *
+   * @param moveNumber number of moves played, counting this one
+   * @param row        row of the cell the card was placed in
+   * @param col        column of the cell the card was placed in
+   * @param owner      0 if red placed the card, 1 if blue did
+   * @param cardName   name of the card placed
+   */
+  public CardPlaced(int moveNumber, int row, int col, int owner, String cardName) {
+    this.moveNumber = moveNumber;
+    this.row = row;
+    this.col = col;
+    this.owner = owner;
+    this.cardName = cardName;
+  }
+
+  @Override
+  public int getMoveNumber() {
+    return moveNumber;
+  }
+
+  public int getRow() {
+    return row;
+  }
+
+  public int getCol() {
+    return col;
+  }
+
+  public int getOwner() {
+    return owner;
+  }
+
+  public String getCardName() {
+    return cardName;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CardPlaced(%d: %s at %d,%d by %d)", moveNumber, cardName, row, col,
+            owner);
+  }
+}
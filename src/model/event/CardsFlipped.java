@@ -0,0 +1,52 @@
+package model.event;
+
+import java.awt.Point;
+import java.util.List;
+
+/**
+ * Cards on the grid were flipped to the player who placed a card, by the placed card or by
+ * the combos following it.
+ */
+public final class CardsFlipped implements GameEvent {
+  private final int moveNumber;
+  private final List<Point> cells;
+  private final int newOwner;
+
+  /**
+   * Constructor for initializing a CardsFlipped event.
+   *
+   * @param moveNumber number of moves played, counting the one flipping the cards
+   * @param cells      cells of the flipped cards in the order they were flipped, as points of
+   *                   row, col
+   * @param newOwner   0 if the cards now belong to red, 1 if to blue
+   */
+  public CardsFlipped(int moveNumber, List<Point> cells, int newOwner) {
+    this.moveNumber = moveNumber;
+    this.cells = List.copyOf(cells);
+    this.newOwner = newOwner;
+  }
+
+  @Override
+  public int getMoveNumber() {
+    return moveNumber;
+  }
+
+  /**
+   * Gets the cells of the flipped cards. Points are row, col.
+   *
+   * @return unmodifiable list of the cells, in the order they were flipped
+   */
+  public List<Point> getCells() {
+    return cells;
+  }
+
+  public int getNewOwner() {
+    return newOwner;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("CardsFlipped(%d: %d cards to %d)", moveNumber, cells.size(),
+            newOwner);
+  }
+}
@@ -0,0 +1,14 @@
+package model.event;
+
+/**
+ * Something that happened in a game, published by the model to a ModelEventBus after the
+ * model has changed. Events are immutable, so they can be read on any thread.
+ */
+public interface GameEvent {
+  /**
+   * Gets the number of moves played when the event happened, counting the move causing it.
+   *
+   * @return number of moves played, 0 for events at the start of the game
+   */
+  int getMoveNumber();
+}
@@ -0,0 +1,27 @@
+package model.event;
+
+import java.util.List;
+
+/**
+ * Receives the events of a game from a ModelEventBus, a frame's worth at a time.
+ */
+public interface GameEventListener {
+  /**
+   * Called with the events published since the previous call, in the order they were
+   * published. A turn change followed by another turn change or the end of the game in the
+   * same batch is left out.
+   *
+   * @param events the events, never empty
+   */
+  void onEvents(List<GameEvent> events);
+
+  /**
+   * Called when the listener fell so far behind that events were overwritten before it read
+   * them, before the events read after them are delivered. Listeners keeping state derived
+   * from events should rebuild it from the model.
+   *
+   * @param count number of events lost
+   */
+  default void onEventsDropped(long count) {
+  }
+}
@@ -0,0 +1,41 @@
+package model.event;
+
+/**
+ * The last card cell was filled and the game ended.
+ */
+public final class GameOver implements GameEvent {
+  private final int moveNumber;
+  private final int redScore;
+  private final int blueScore;
+
+  /**
+   * Constructor for initializing a GameOver event.
+   *
+   * @param moveNumber number of moves played in the game
+   * @param redScore   final score of red
+   * @param blueScore  final score of blue
+   */
+  public GameOver(int moveNumber, int redScore, int blueScore) {
+    this.moveNumber = moveNumber;
+    this.redScore = redScore;
+    this.blueScore = blueScore;
+  }
+
+  @Override
+  public int getMoveNumber() {
+    return moveNumber;
+  }
+
+  public int getRedScore() {
+    return redScore;
+  }
+
+  public int getBlueScore() {
+    return blueScore;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("GameOver(%d: %d to %d)", moveNumber, redScore, blueScore);
+  }
+}
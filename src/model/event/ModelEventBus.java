@@ -0,0 +1,292 @@
+package model.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Carries the events of a game from the thread playing it to any number of listeners, without
+ * ever blocking the publisher. Events go into a bounded ring buffer, which each subscription
+ * reads from its own cursor once per frame, handing the events of the frame to its listener
+ * as one batch on the listener's executor. A subscription whose previous batch hasn't been
+ * handled yet skips the frame, so a slow listener gets fewer, larger batches, and one that
+ * falls a whole ring behind loses the oldest events rather than holding up the game.
+ *
+ * <p>Events are published by a single thread at a time, the thread the model is played on.
+ * The ring is lock-free: the publisher writes a slot and then advances the published count,
+ * and readers check the sequence number stored with each slot to detect being overtaken.</p>
+ */
+public final class ModelEventBus implements AutoCloseable {
+  private final int capacity;
+  private final int mask;
+  private final AtomicReferenceArray<Entry> ring;
+  // Number of events ever published, the sequence number of the next one
+  private final AtomicLong published = new AtomicLong();
+  private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+  private final ScheduledExecutorService frames;
+
+  /**
+   * A published event, with its sequence number and the time it was published.
+   */
+  private static final class Entry {
+    private final long sequence;
+    private final long publishedNanos;
+    private final GameEvent event;
+
+    Entry(long sequence, long publishedNanos, GameEvent event) {
+      this.sequence = sequence;
+      this.publishedNanos = publishedNanos;
+      this.event = event;
+    }
+  }
+
+  /**
+   * A listener's position in the ring and the metrics of its deliveries. Cursors are only
+   * moved by the thread dispatching frames, and metrics are read from any thread.
+   */
+  public final class Subscription {
+    private final GameEventListener listener;
+    private final Executor executor;
+    private volatile long cursor;
+    private volatile boolean inFlight;
+    private volatile boolean cancelled;
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long lastLagNanos;
+    private volatile long maxLagNanos;
+
+    Subscription(GameEventListener listener, Executor executor, long cursor) {
+      this.listener = listener;
+      this.executor = executor;
+      this.cursor = cursor;
+    }
+
+    /**
+     * Gets the number of events published that the listener hasn't been handed yet.
+     *
+     * @return events the listener is behind
+     */
+    public long getBacklog() {
+      return Math.max(published.get() - cursor, 0);
+    }
+
+    /**
+     * Gets the time between publishing the oldest event of the latest batch and the listener
+     * starting to handle the batch.
+     *
+     * @return lag of the latest batch in nanoseconds, 0 before the first
+     */
+    public long getLastLagNanos() {
+      return lastLagNanos;
+    }
+
+    /**
+     * Gets the longest time between publishing the oldest event of a batch and the listener
+     * starting to handle it.
+     *
+     * @return worst lag in nanoseconds, 0 before the first batch
+     */
+    public long getMaxLagNanos() {
+      return maxLagNanos;
+    }
+
+    /**
+     * Gets the number of events handed to the listener, after coalescing.
+     *
+     * @return events delivered
+     */
+    public long getDelivered() {
+      return delivered.get();
+    }
+
+    /**
+     * Gets the number of events overwritten before the listener read them.
+     *
+     * @return events lost
+     */
+    public long getDropped() {
+      return dropped.get();
+    }
+
+    /**
+     * Stops delivering events to the listener. A batch already being handled is finished.
+     */
+    public void cancel() {
+      cancelled = true;
+      subscriptions.remove(this);
+    }
+
+    private void dispatch() {
+      if (inFlight || cancelled) {
+        return;
+      }
+      long end = published.get();
+      long from = cursor;
+      long lost = 0;
+      if (end - from > capacity) {
+        lost = end - capacity - from;
+        from = end - capacity;
+      }
+      List<Entry> entries = new ArrayList<>((int) (end - from));
+      for (long seq = from; seq < end; seq++) {
+        Entry entry = ring.get((int) (seq & mask));
+        if (entry == null || entry.sequence != seq) {
+          // Overtaken by the publisher while reading
+          lost++;
+        } else {
+          entries.add(entry);
+        }
+      }
+      cursor = end;
+      if (entries.isEmpty() && lost == 0) {
+        return;
+      }
+      List<GameEvent> batch = coalesce(entries);
+      long oldest = entries.isEmpty() ? 0 : entries.get(0).publishedNanos;
+      long lostEvents = lost;
+      inFlight = true;
+      try {
+        executor.execute(() -> deliver(batch, oldest, lostEvents));
+      } catch (RejectedExecutionException e) {
+        // The listener's executor was shut down, so there is no one left to deliver to
+        inFlight = false;
+        cancel();
+      }
+    }
+
+    private void deliver(List<GameEvent> batch, long oldest, long lostEvents) {
+      try {
+        if (!batch.isEmpty()) {
+          long lag = System.nanoTime() - oldest;
+          lastLagNanos = lag;
+          maxLagNanos = Math.max(maxLagNanos, lag);
+        }
+        if (lostEvents > 0) {
+          dropped.addAndGet(lostEvents);
+          listener.onEventsDropped(lostEvents);
+        }
+        if (!batch.isEmpty()) {
+          delivered.addAndGet(batch.size());
+          listener.onEvents(batch);
+        }
+      } finally {
+        inFlight = false;
+      }
+    }
+  }
+
+  /**
+   * Constructor for initializing a ModelEventBus that dispatches a frame every frameMillis.
+   *
+   * @param capacity    number of events the ring holds, a power of two
+   * @param frameMillis time between frames
+   * @throws IllegalArgumentException if capacity isn't a positive power of two or frameMillis
+   *                                  isn't positive
+   */
+  public ModelEventBus(int capacity, long frameMillis) {
+    if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+    } else if (frameMillis < 1) {
+      throw new IllegalArgumentException("Frame time must be positive.");
+    }
+    this.capacity = capacity;
+    this.mask = capacity - 1;
+    this.ring = new AtomicReferenceArray<>(capacity);
+    this.frames = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "model-event-frames");
+      thread.setDaemon(true);
+      return thread;
+    });
+    frames.scheduleAtFixedRate(this::dispatchFrame, frameMillis, frameMillis,
+            TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Publishes an event. Never blocks; the event overwrites the oldest in the ring once it is
+   * full. Only one thread may publish at a time.
+   *
+   * @param event event to publish
+   * @throws IllegalArgumentException if event is null
+   */
+  public void publish(GameEvent event) {
+    if (event == null) {
+      throw new IllegalArgumentException("Event cannot be null.");
+    }
+    long seq = published.get();
+    ring.set((int) (seq & mask), new Entry(seq, System.nanoTime(), event));
+    // Readers only look at slots below the published count, so the slot is written first
+    published.set(seq + 1);
+  }
+
+  /**
+   * Subscribes a listener to the events published from now on.
+   *
+   * @param listener listener to hand batches of events to
+   * @param executor runs the listener, e.g. SwingUtilities::invokeLater for a view
+   * @return the subscription, to read its metrics or cancel it
+   * @throws IllegalArgumentException if either parameter is null
+   */
+  public Subscription subscribe(GameEventListener listener, Executor executor) {
+    if (listener == null || executor == null) {
+      throw new IllegalArgumentException("Listener and executor cannot be null.");
+    }
+    Subscription subscription = new Subscription(listener, executor, published.get());
+    subscriptions.add(subscription);
+    return subscription;
+  }
+
+  /**
+   * Gets the number of events published so far.
+   *
+   * @return events published
+   */
+  public long getPublished() {
+    return published.get();
+  }
+
+  /**
+   * Hands every subscription the events published since its previous batch, unless it is
+   * still handling that batch. Called every frame; calling it directly flushes the ring
+   * sooner. Dispatching locks out other dispatchers, never the publisher.
+   */
+  public synchronized void dispatchFrame() {
+    for (Subscription subscription : subscriptions) {
+      subscription.dispatch();
+    }
+  }
+
+  private static List<GameEvent> coalesce(List<Entry> entries) {
+    // Walk backwards so a turn change is kept only if nothing later supersedes it
+    List<GameEvent> reversed = new ArrayList<>(entries.size());
+    boolean superseded = false;
+    for (int i = entries.size() - 1; i >= 0; i--) {
+      GameEvent event = entries.get(i).event;
+      if (event instanceof TurnChanged && superseded) {
+        continue;
+      } else if (event instanceof TurnChanged || event instanceof GameOver) {
+        superseded = true;
+      }
+      reversed.add(event);
+    }
+    List<GameEvent> batch = new ArrayList<>(reversed.size());
+    for (int i = reversed.size() - 1; i >= 0; i--) {
+      batch.add(reversed.get(i));
+    }
+    return batch;
+  }
+
+  /**
+   * Stops dispatching frames. Events published afterwards are never delivered.
+   */
+  @Override
+  public void close() {
+    frames.shutdownNow();
+  }
+}
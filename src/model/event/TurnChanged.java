@@ -0,0 +1,34 @@
+package model.event;
+
+/**
+ * A player's turn began.
+ */
+public final class TurnChanged implements GameEvent {
+  private final int moveNumber;
+  private final int playerIndex;
+
+  /**
+   * Constructor for initializing a TurnChanged event.
+   *
+   * @param moveNumber  number of moves played before the turn
+   * @param playerIndex 0 if it is red's turn, 1 if blue's
+   */
+  public TurnChanged(int moveNumber, int playerIndex) {
+    this.moveNumber = moveNumber;
+    this.playerIndex = playerIndex;
+  }
+
+  @Override
+  public int getMoveNumber() {
+    return moveNumber;
+  }
+
+  public int getPlayerIndex() {
+    return playerIndex;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("TurnChanged(%d: player %d)", moveNumber, playerIndex);
+  }
+}
@@ -28,16 +28,16 @@ public class CardConfigFileReader extends AbstractConfigFileReader {
    * @throws IOException If errors ran into while reading files.
    */
   public List<CardInterface> readCards() throws IOException {
-    FileReader fileReader = new FileReader(this.path);
-    BufferedReader bufferedReader = new BufferedReader(fileReader);
     List<CardInterface> cards = new ArrayList<>();
 
-    String line;
-    // Read each subsequent line until the end of the file
-    while ((line = bufferedReader.readLine()) != null) {
-      String[] cardData = line.split(" "); // Split line by spaces
-      cards.add(new Card(cardData[0],stringToValue(cardData[1]), stringToValue(cardData[2]),
-              stringToValue(cardData[3]), stringToValue(cardData[4])));
+    try (BufferedReader bufferedReader = new BufferedReader(new FileReader(this.path))) {
+      String line;
+      // Read each subsequent line until the end of the file
+      while ((line = bufferedReader.readLine()) != null) {
+        String[] cardData = line.split(" "); // Split line by spaces
+        cards.add(new Card(cardData[0],stringToValue(cardData[1]), stringToValue(cardData[2]),
+                stringToValue(cardData[3]), stringToValue(cardData[4])));
+      }
     }
 
     return cards;
@@ -0,0 +1,54 @@
+package model.filereader;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Thrown when config files can be read but don't follow the config format. Describes every
+ * problem found, each prefixed with the file, line and column it was found at.
+ */
+public class ConfigFormatException extends IOException {
+  private static final long serialVersionUID = 1L;
+
+  private final List<String> errors;
+  private final int numErrors;
+
+  /**
+   * Constructs a ConfigFormatException from the problems found in the config files.
+   * @param errors    descriptions of the problems, in the order they were found
+   * @param numErrors number of problems found, which may be more than were described
+   */
+  public ConfigFormatException(List<String> errors, int numErrors) {
+    super(describe(errors, numErrors));
+    this.errors = List.copyOf(errors);
+    this.numErrors = numErrors;
+  }
+
+  private static String describe(List<String> errors, int numErrors) {
+    StringBuilder message = new StringBuilder(String.format("%d error%s in config files:",
+            numErrors, numErrors == 1 ? "" : "s"));
+    for (String error : errors) {
+      message.append('\n').append(error);
+    }
+    if (numErrors > errors.size()) {
+      message.append(String.format("%n... and %d more", numErrors - errors.size()));
+    }
+    return message.toString();
+  }
+
+  /**
+   * Gets the descriptions of the problems found, formatted as path:line:column: message.
+   * @return descriptions of the problems, in the order they were found
+   */
+  public List<String> getErrors() {
+    return errors;
+  }
+
+  /**
+   * Gets the number of problems found, including any that weren't described.
+   * @return number of problems found
+   */
+  public int getNumErrors() {
+    return numErrors;
+  }
+}
@@ -0,0 +1,325 @@
+package model.filereader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.card.Card;
+import model.card.CardCatalog;
+import model.card.CardInterface;
+import model.card.Value;
+import model.cell.CardCell;
+import model.cell.Cell;
+import model.cell.HoleCell;
+
+/**
+ * Loads a grid config and a card config, reading each file once. Files are read through NIO,
+ * memory-mapped when they are big, and parsed straight from their bytes without splitting
+ * lines into Strings, and the catalog of the deck is built while the cards are read. Unlike
+ * the line based readers, the loader doesn't stop at the first problem: every problem found in
+ * either file is reported, with its line and column, in a single ConfigFormatException.
+ */
+public final class ConfigLoader {
+  // Files at least this big are memory-mapped rather than read onto the heap
+  static final long MAP_THRESHOLD = 1 << 20;
+  // Problems beyond this many are counted but not described
+  private static final int MAX_REPORTED_ERRORS = 100;
+  // Largest number of cells a grid can have, so that per-cell tables of four ints fit an array
+  private static final long MAX_CELLS = Integer.MAX_VALUE / 4;
+  private static final Value[] VALUES = Value.values();
+
+  private final String gridConfigFilePath;
+  private final String cardConfigFilePath;
+  private final List<String> errors;
+  private int numErrors;
+  // Parse state of the file being read: its bytes, position, and the line the position is on
+  private String path;
+  private ByteBuffer buf;
+  private int pos;
+  private int line;
+  private int lineStart;
+  // Values of the card being read, and scratch space for copying names out of mapped files
+  private final Value[] cardValues;
+  private byte[] nameBytes;
+
+  /**
+   * Constructs a ConfigLoader for a pair of config files.
+   * @param gridConfigFilePath path to grid config file
+   * @param cardConfigFilePath path to card config file
+   * @throws IllegalArgumentException if any parameter is null
+   */
+  public ConfigLoader(String gridConfigFilePath, String cardConfigFilePath) {
+    if (gridConfigFilePath == null || cardConfigFilePath == null) {
+      throw new IllegalArgumentException("Constructor does not take null parameters.");
+    }
+    this.gridConfigFilePath = gridConfigFilePath;
+    this.cardConfigFilePath = cardConfigFilePath;
+    this.errors = new ArrayList<>();
+    this.cardValues = new Value[4];
+    this.nameBytes = new byte[32];
+  }
+
+  /**
+   * Loads the grid and the deck from the config files.
+   * @return the grid, deck and catalog of the deck
+   * @throws ConfigFormatException if either file doesn't follow its config format, describing
+   *                               every problem found in both files
+   * @throws IOException           if either file can't be read
+   */
+  public GameConfig load() throws IOException {
+    errors.clear();
+    numErrors = 0;
+
+    open(gridConfigFilePath);
+    int[] numCardCells = new int[1];
+    Cell[][] grid = parseGrid(numCardCells);
+
+    open(cardConfigFilePath);
+    List<CardInterface> deck = new ArrayList<>();
+    CardCatalog.Builder catalog = new CardCatalog.Builder();
+    parseCards(deck, catalog);
+    buf = null;
+
+    if (numErrors > 0) {
+      throw new ConfigFormatException(errors, numErrors);
+    }
+    return new GameConfig(grid, numCardCells[0], deck, catalog.build());
+  }
+
+  private void open(String filePath) throws IOException {
+    try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException(filePath + " is too big to load: " + size + " bytes");
+      }
+      if (size >= MAP_THRESHOLD) {
+        // The mapping stays valid after the channel is closed
+        buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      } else {
+        buf = ByteBuffer.allocate((int) size);
+        while (buf.hasRemaining() && channel.read(buf) >= 0) {
+          // Keep reading until the whole file is in the buffer
+        }
+        buf.flip();
+      }
+    }
+    path = filePath;
+    pos = 0;
+    line = 1;
+    lineStart = 0;
+  }
+
+  private Cell[][] parseGrid(int[] numCardCells) {
+    skipBlanks();
+    int rows = parseDimension("number of rows");
+    skipBlanks();
+    int cols = parseDimension("number of columns");
+    skipBlanks();
+    if (rows <= 0 || cols <= 0) {
+      // Rows can't be told apart from other lines without the dimensions
+      return null;
+    } else if ((long) rows * cols > MAX_CELLS) {
+      error(lineStart, String.format("grid of %d x %d cells is too big", rows, cols));
+      return null;
+    } else if (!atLineEnd()) {
+      error(pos, "unexpected characters after the grid dimensions");
+    }
+    nextLine();
+
+    Cell[][] grid = new Cell[rows][cols];
+    for (int row = 0; row < rows; row++) {
+      if (atEnd()) {
+        error(pos, String.format("expected %d grid rows, found %d", rows, row));
+        break;
+      }
+      int col = 0;
+      boolean tooLong = false;
+      for (; !atLineEnd(); pos++, col++) {
+        if (col >= cols) {
+          // Trailing blanks are allowed, anything else past the last column is reported once
+          if (!tooLong && !isBlank(buf.get(pos))) {
+            error(pos, String.format("row has more than %d cells", cols));
+            tooLong = true;
+          }
+          continue;
+        }
+        byte cellType = buf.get(pos);
+        if (cellType == 'C') {
+          grid[row][col] = new CardCell();
+          numCardCells[0]++;
+        } else if (cellType == 'X') {
+          grid[row][col] = new HoleCell();
+        } else {
+          error(pos, String.format("invalid cell type '%c', expected C or X",
+                  (char) (cellType & 0xFF)));
+        }
+      }
+      if (col < cols) {
+        error(pos, String.format("row has %d cells, expected %d", col, cols));
+      }
+      nextLine();
+    }
+    expectOnlyBlankLines("unexpected content after the last grid row");
+    return grid;
+  }
+
+  private int parseDimension(String what) {
+    int start = pos;
+    long value = 0;
+    while (!atLineEnd() && isDigit(buf.get(pos))) {
+      value = Math.min(value * 10 + (buf.get(pos) - '0'), Integer.MAX_VALUE);
+      pos++;
+    }
+    if (pos == start || (!atLineEnd() && !isBlank(buf.get(pos)))) {
+      error(start, "expected " + what + " as a positive integer");
+      skipToken();
+      return -1;
+    } else if (value == 0) {
+      error(start, what + " must be positive");
+      return -1;
+    }
+    return (int) value;
+  }
+
+  private void parseCards(List<CardInterface> deck, CardCatalog.Builder catalog) {
+    while (!atEnd()) {
+      skipBlanks();
+      if (atLineEnd()) {
+        // Blank lines between cards are allowed
+        nextLine();
+        continue;
+      }
+      int nameStart = pos;
+      skipToken();
+      int nameLength = pos - nameStart;
+
+      int found = 0;
+      boolean valid = true;
+      while (true) {
+        skipBlanks();
+        if (atLineEnd()) {
+          break;
+        }
+        int tokenStart = pos;
+        skipToken();
+        if (found == 4) {
+          error(tokenStart, "unexpected characters after the four card values");
+          valid = false;
+          skipToEndOfLine();
+          break;
+        }
+        Value value = pos - tokenStart == 1 ? parseValue(buf.get(tokenStart)) : null;
+        if (value == null) {
+          error(tokenStart, String.format("invalid card value '%s', expected 1-9 or A",
+                  decode(tokenStart, pos - tokenStart)));
+          valid = false;
+        }
+        cardValues[found++] = value;
+      }
+      if (found < 4) {
+        error(pos, String.format("expected 4 card values, found %d", found));
+        valid = false;
+      }
+
+      if (valid) {
+        Card card = new Card(decode(nameStart, nameLength), cardValues[0], cardValues[1],
+                cardValues[2], cardValues[3]);
+        deck.add(card);
+        catalog.add(card);
+      }
+      nextLine();
+    }
+  }
+
+  private static Value parseValue(byte b) {
+    if (b >= '1' && b <= '9') {
+      return VALUES[b - '1'];
+    } else if (b == 'A') {
+      return Value.TEN;
+    }
+    return null;
+  }
+
+  private String decode(int start, int length) {
+    if (buf.hasArray()) {
+      return new String(buf.array(), buf.arrayOffset() + start, length, StandardCharsets.UTF_8);
+    }
+    if (nameBytes.length < length) {
+      nameBytes = new byte[Math.max(length, nameBytes.length * 2)];
+    }
+    for (int i = 0; i < length; i++) {
+      nameBytes[i] = buf.get(start + i);
+    }
+    return new String(nameBytes, 0, length, StandardCharsets.UTF_8);
+  }
+
+  private void expectOnlyBlankLines(String message) {
+    while (!atEnd()) {
+      skipBlanks();
+      if (!atLineEnd()) {
+        error(pos, message);
+        return;
+      }
+      nextLine();
+    }
+  }
+
+  private void error(int at, String message) {
+    numErrors++;
+    if (errors.size() < MAX_REPORTED_ERRORS) {
+      errors.add(String.format("%s:%d:%d: %s", path, line, at - lineStart + 1, message));
+    }
+  }
+
+  private boolean atEnd() {
+    return pos >= buf.limit();
+  }
+
+  private boolean atLineEnd() {
+    return atEnd() || buf.get(pos) == '\n' || buf.get(pos) == '\r';
+  }
+
+  private void nextLine() {
+    skipToEndOfLine();
+    // Lines end in \n, optionally preceded by \r
+    if (!atEnd() && buf.get(pos) == '\r') {
+      pos++;
+    }
+    if (!atEnd() && buf.get(pos) == '\n') {
+      pos++;
+    }
+    line++;
+    lineStart = pos;
+  }
+
+  private void skipToEndOfLine() {
+    while (!atLineEnd()) {
+      pos++;
+    }
+  }
+
+  private void skipBlanks() {
+    while (!atLineEnd() && isBlank(buf.get(pos))) {
+      pos++;
+    }
+  }
+
+  private void skipToken() {
+    while (!atLineEnd() && !isBlank(buf.get(pos))) {
+      pos++;
+    }
+  }
+
+  private static boolean isBlank(byte b) {
+    return b == ' ' || b == '\t';
+  }
+
+  private static boolean isDigit(byte b) {
+    return b >= '0' && b <= '9';
+  }
+}
@@ -0,0 +1,58 @@
+package model.filereader;
+
+import java.util.List;
+
+import model.card.CardCatalog;
+import model.card.CardInterface;
+import model.cell.Cell;
+
+/**
+ * Grid and deck loaded from a pair of config files, along with the catalog of the deck's
+ * distinct cards. The grid and deck are handed over as loaded, the caller takes ownership of
+ * them.
+ */
+public final class GameConfig {
+  private final Cell[][] grid;
+  private final int numCardCells;
+  private final List<CardInterface> deck;
+  private final CardCatalog catalog;
+
+  GameConfig(Cell[][] grid, int numCardCells, List<CardInterface> deck, CardCatalog catalog) {
+    this.grid = grid;
+    this.numCardCells = numCardCells;
+    this.deck = deck;
+    this.catalog = catalog;
+  }
+
+  /**
+   * Getter for the grid loaded, row, col indexed.
+   * @return the grid of cells matching the grid config
+   */
+  public Cell[][] getGrid() {
+    return grid;
+  }
+
+  /**
+   * Getter for the number of card cells in the grid.
+   * @return the number of card cells read from the grid config
+   */
+  public int getNumCardCells() {
+    return numCardCells;
+  }
+
+  /**
+   * Getter for the deck loaded, in the order of the card config. The list can be modified.
+   * @return the cards read from the card config
+   */
+  public List<CardInterface> getDeck() {
+    return deck;
+  }
+
+  /**
+   * Getter for the catalog of the deck's distinct cards, built while the deck was read.
+   * @return the catalog of the deck
+   */
+  public CardCatalog getCatalog() {
+    return catalog;
+  }
+}
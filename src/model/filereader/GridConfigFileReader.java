@@ -29,27 +29,27 @@ public class GridConfigFileReader extends AbstractConfigFileReader {
    * @throws IOException If file reading fails.
    */
   public Cell[][] readGrid() throws IOException {
-    FileReader fileReader = new FileReader(this.path);
-    BufferedReader bufferedReader = new BufferedReader(fileReader);
     Cell[][] grid = null;
 
-    // Read the first line for ROWS and COLS
-    String firstLine = bufferedReader.readLine();
-    if (firstLine != null) {
-      String[] dimensions = firstLine.split(" ");
-      int rows = Integer.parseInt(dimensions[0]);
-      int cols = Integer.parseInt(dimensions[1]);
+    try (BufferedReader bufferedReader = new BufferedReader(new FileReader(this.path))) {
+      // Read the first line for ROWS and COLS
+      String firstLine = bufferedReader.readLine();
+      if (firstLine != null) {
+        String[] dimensions = firstLine.split(" ");
+        int rows = Integer.parseInt(dimensions[0]);
+        int cols = Integer.parseInt(dimensions[1]);
 
-      // Initialize the grid with the specified dimensions
-      grid = new Cell[rows][cols];
+        // Initialize the grid with the specified dimensions
+        grid = new Cell[rows][cols];
 
-      // Read each subsequent line to populate the grid
-      for (int i = 0; i < rows; i++) {
-        String row = bufferedReader.readLine();
-        if (row != null) {
-          for (int j = 0; j < cols; j++) {
-            char cellType = row.charAt(j);
-            grid[i][j] = createCell(cellType);
+        // Read each subsequent line to populate the grid
+        for (int i = 0; i < rows; i++) {
+          String row = bufferedReader.readLine();
+          if (row != null) {
+            for (int j = 0; j < cols; j++) {
+              char cellType = row.charAt(j);
+              grid[i][j] = createCell(cellType);
+            }
           }
         }
       }
@@ -1,13 +1,20 @@
 package model.mock;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
 import model.card.Card;
 import model.card.CardInterface;
+import model.CellGridView;
+import model.CellIndex;
+import model.ReadOnlyCellIndex;
+import model.ReadOnlyGrid;
 import model.ReadOnlyThreeTriosModel;
 import model.card.Colors;
 import model.card.Positions;
+import model.card.ReadOnlyCard;
 import model.cell.CardCell;
 import model.cell.Cell;
 import model.cell.HoleCell;
@@ -22,6 +29,7 @@ public class ReadOnlyMockModel implements ReadOnlyThreeTriosModel {
   boolean isGameStarted;
   boolean isGameOver;
   model.cell.Cell[][] grid;
+  ReadOnlyGrid gridView;
   ReadOnlyPlayer playerTurn;
   CardInterface newlyPlacedCard;
   ReadOnlyPlayer redPlayer;
@@ -36,6 +44,7 @@ public class ReadOnlyMockModel implements ReadOnlyThreeTriosModel {
     this.isGameStarted = model.isGameStarted();
     this.isGameOver = model.isGameOver();
     this.grid = model.getGrid();
+    this.gridView = new CellGridView(grid);
     this.playerTurn = model.getPlayerInTurn();
     this.newlyPlacedCard = model.getNewlyPlacedCard();
     this.redPlayer = model.getRedPlayer();
@@ -87,6 +96,17 @@ public class ReadOnlyMockModel implements ReadOnlyThreeTriosModel {
     return copyGrid;
   }
 
+  @Override
+  public ReadOnlyGrid getGridView() {
+    return gridView;
+  }
+
+  @Override
+  public ReadOnlyCellIndex getCellIndex() {
+    // Mocks index the grid from scratch each time rather than keeping an index up to date
+    return new CellIndex(gridView);
+  }
+
   @Override
   public ReadOnlyPlayer getPlayerInTurn() {
     return playerTurn;
@@ -94,7 +114,7 @@ public class ReadOnlyMockModel implements ReadOnlyThreeTriosModel {
 
   @Override
   public List<ReadOnlyPlayer> getPlayers() {
-    return null;
+    return redPlayer == null || bluePlayer == null ? null : List.of(redPlayer, bluePlayer);
   }
 
   @Override
@@ -124,7 +144,7 @@ public class ReadOnlyMockModel implements ReadOnlyThreeTriosModel {
   public void isLegalPlay(int handIndex, int gridRow, int gridCol) {
     if (isGameOver || !isGameStarted) {
       throw new IllegalStateException("Cannot playToCell: game is over or hasn't started.");
-    } else if (handIndex >= playerTurn.getHandCopy().size() || handIndex < 0) {
+    } else if (handIndex >= playerTurn.getHandView().size() || handIndex < 0) {
       throw new IllegalArgumentException("Invalid handIndex: not a valid index of player hand.");
     } else {
       if (getGridCellCard(gridRow, gridCol) != null) {
@@ -172,12 +192,42 @@ public class ReadOnlyMockModel implements ReadOnlyThreeTriosModel {
 
   @Override
   public ReadOnlyPlayer getRedPlayer() {
-    return null;
+    return redPlayer;
   }
 
   @Override
   public ReadOnlyPlayer getBluePlayer() {
-    return null;
+    return bluePlayer;
+  }
+
+  /**
+   * Plays a move of the player in turn on the mock as the real model would: the card is
+   * placed, battles its neighbors, leaves the mover's hand, and the turn passes to the
+   * opponent. The game is over once every card cell is filled. The real players are left as
+   * they were.
+   *
+   * @param move the move to simulate
+   * @throws IllegalArgumentException if the move isn't legal
+   * @throws IllegalStateException    if the game hasn't started or is over, or the model the
+   *                                  mock was made from didn't expose both players
+   */
+  public void simulateMove(GameMoveData move) {
+    isLegalPlay(move.getCardIndex(), move.getGridRow(), move.getGridCol());
+    if (redPlayer == null || bluePlayer == null) {
+      throw new IllegalStateException("Both players are needed to simulate a move.");
+    }
+    setGridCellCard(grid, move.getGridRow(), move.getGridCol(),
+            playerTurn.getHandView().get(move.getCardIndex()));
+    comboBattleStep(grid, new int[]{move.getGridRow(), move.getGridCol()});
+    ReadOnlyPlayer mover = new SimulatedPlayer(playerTurn, move.getCardIndex());
+    if (mover.getColor() == Colors.RED) {
+      redPlayer = mover;
+      playerTurn = bluePlayer;
+    } else {
+      bluePlayer = mover;
+      playerTurn = redPlayer;
+    }
+    isGameOver = new CellIndex(gridView).getNumEmptyCells() == 0;
   }
 
   /**
@@ -189,7 +239,7 @@ public class ReadOnlyMockModel implements ReadOnlyThreeTriosModel {
    * @param card        card we want to set cell to
    */
   public void setGridCellCard(model.cell.Cell[][] desiredGrid, int gridRow, int gridCol,
-                              CardInterface card) {
+                              ReadOnlyCard card) {
     if (card == null) {
       throw new IllegalArgumentException("Supplied card cannot be null.");
     } else if (isGameOver || !isGameStarted) {
@@ -232,7 +282,7 @@ public class ReadOnlyMockModel implements ReadOnlyThreeTriosModel {
     } else {
       player = bluePlayer;
     }
-    int score = player.getHandCopy().size();
+    int score = player.getHandView().size();
 
     // Increment score for every card player owns on the grid
     Colors playerColor = player.getColor();
@@ -330,4 +380,48 @@ public class ReadOnlyMockModel implements ReadOnlyThreeTriosModel {
   public Cell[][] getActualGrid() {
     return this.grid;
   }
+
+  /**
+   * A player's hand as it is after the mock played one of its cards, without the real player.
+   */
+  private static final class SimulatedPlayer implements ReadOnlyPlayer {
+    private final Colors color;
+    private final List<ReadOnlyCard> hand;
+
+    SimulatedPlayer(ReadOnlyPlayer player, int playedIndex) {
+      this.color = player.getColor();
+      List<ReadOnlyCard> remaining = new ArrayList<>(player.getHandView());
+      remaining.remove(playedIndex);
+      this.hand = Collections.unmodifiableList(remaining);
+    }
+
+    @Override
+    public GameMoveData getNextPlacement() {
+      throw new IllegalStateException("Simulated players don't choose moves.");
+    }
+
+    @Override
+    public List<CardInterface> getHandCopy() {
+      List<CardInterface> copyHand = new ArrayList<>();
+      for (ReadOnlyCard oldCard : hand) {
+        Card copyCard = new Card(oldCard.getName(), oldCard.getValueFromPos(Positions.NORTH),
+                oldCard.getValueFromPos(Positions.SOUTH),
+                oldCard.getValueFromPos(Positions.EAST),
+                oldCard.getValueFromPos(Positions.WEST));
+        copyCard.setColor(oldCard.getColor());
+        copyHand.add(copyCard);
+      }
+      return copyHand;
+    }
+
+    @Override
+    public List<ReadOnlyCard> getHandView() {
+      return hand;
+    }
+
+    @Override
+    public Colors getColor() {
+      return color;
+    }
+  }
 }
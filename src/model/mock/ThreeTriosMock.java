@@ -7,7 +7,11 @@ import java.util.Random;
 import controller.ModelFeatures;
 import model.card.Card;
 import model.card.CardInterface;
+import model.CellIndex;
+import model.ReadOnlyCellIndex;
+import model.ReadOnlyGrid;
 import model.ThreeTriosModel;
+import model.card.ReadOnlyCard;
 import model.card.Value;
 import model.cell.CardCell;
 import model.cell.Cell;
@@ -23,6 +27,7 @@ public class ThreeTriosMock implements ThreeTriosModel {
   private List<String> log = new ArrayList<>();
   private List<ReadOnlyPlayer> players = new ArrayList<>();
   private ReadOnlyPlayer currentPlayer;
+  private final ReadOnlyGrid gridView = new GridView();
 
   @Override
   public boolean isGameOver() {
@@ -44,6 +49,46 @@ public class ThreeTriosMock implements ThreeTriosModel {
     return grid;
   }
 
+  @Override
+  public ReadOnlyGrid getGridView() {
+    return gridView;
+  }
+
+  @Override
+  public ReadOnlyCellIndex getCellIndex() {
+    // Mocks index the grid from scratch each time rather than keeping an index up to date
+    return new CellIndex(gridView);
+  }
+
+  /**
+   * View of the mock grid. Only getGridCellCard calls are logged, not reads through the view.
+   */
+  private final class GridView implements ReadOnlyGrid {
+    @Override
+    public int getNumRows() {
+      return 3;
+    }
+
+    @Override
+    public int getNumCols() {
+      return 3;
+    }
+
+    @Override
+    public boolean isCardCell(int row, int col) {
+      return row >= 0 && row < 3 && col >= 0 && col < 3
+              && grid[row][col] instanceof model.cell.CardCell;
+    }
+
+    @Override
+    public ReadOnlyCard getCard(int row, int col) {
+      if (!isCardCell(row, col)) {
+        return null;
+      }
+      return ((model.cell.CardCell) grid[row][col]).getActualCard().orElse(null);
+    }
+  }
+
   @Override
   public ReadOnlyPlayer getPlayerInTurn() {
     return currentPlayer;
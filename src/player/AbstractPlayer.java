@@ -1,6 +1,7 @@
 package player;
 
 import java.util.ArrayList;
+import java.util.Collections;
 
 import model.ReadOnlyThreeTriosModel;
 import java.util.List;
@@ -9,6 +10,7 @@ import model.card.Card;
 import model.card.CardInterface;
 import model.card.Colors;
 import model.card.Positions;
+import model.card.ReadOnlyCard;
 
 /**
  * Abstract player class implementing the PlayerInterface that defines some required methods
@@ -19,12 +21,15 @@ public abstract class AbstractPlayer implements Player {
   protected List<CardInterface> hand;
   protected ReadOnlyThreeTriosModel model;
   protected final Colors color;
+  private final List<ReadOnlyCard> handView;
 
   /**
    * Constructor which simply initializes an empty hand.
    */
   public AbstractPlayer(ReadOnlyThreeTriosModel model, Colors color) {
     hand = new ArrayList<>();
+    // Created once, the view reads through to the hand as it changes
+    handView = Collections.unmodifiableList(hand);
     this.model = model;
     this.color = color;
   }
@@ -63,6 +68,11 @@ public abstract class AbstractPlayer implements Player {
     return copyHand;
   }
 
+  @Override
+  public List<ReadOnlyCard> getHandView() {
+    return handView;
+  }
+
 
   @Override
   public void appendToHand(CardInterface card) {
@@ -74,6 +84,15 @@ public abstract class AbstractPlayer implements Player {
   }
 
 
+  @Override
+  public void insertToHand(int idx, CardInterface card) {
+    if (card == null) {
+      throw new IllegalArgumentException("Card cannot be null.");
+    }
+
+    this.hand.add(idx, card);
+  }
+
   @Override
   public CardInterface pop(int idx) {
     CardInterface card = hand.get(idx);
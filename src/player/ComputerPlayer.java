@@ -3,9 +3,20 @@ package player;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import model.ReadOnlyCellIndex;
 import model.ReadOnlyThreeTriosModel;
+import model.UndoableThreeTriosModel;
 import model.card.Colors;
+import player.strategy.AbstractStrategy;
+import player.strategy.EndgameSolver;
+import player.strategy.EvaluationCache;
 import player.strategy.Strategy;
 
 /**
@@ -14,7 +25,20 @@ import player.strategy.Strategy;
  * plays the most agreed point. If there is a tie, tiebreak it like usual.
  * */
 public class ComputerPlayer extends AbstractPlayer {
+  // Moves the evaluation cache holds, enough for the replies to every move on the bundled
+  // boards, which is as deep as positions are cached
+  private static final int CACHE_CAPACITY = 1 << 16;
+  private static final int CACHE_DEPTH = 1;
+
   List<Strategy> strategies;
+  // Evaluations shared by the strategies during a turn, null if the model can't hash positions
+  private final EvaluationCache cache;
+  // Runs the strategies at the same time when set, otherwise they run one after another
+  private final ExecutorService executor;
+  private final long strategyTimeoutNanos;
+  private int lastTimedOut;
+  // Takes over from the strategies once few enough cells are empty, null if never
+  private EndgameSolver endgameSolver;
 
   /**
    * Constructor which allows for one or more strategies to be used.
@@ -31,7 +55,50 @@ public class ComputerPlayer extends AbstractPlayer {
               + " null or empty.");
     }
 
-    this.strategies = strategy;
+    this.cache = model instanceof UndoableThreeTriosModel ? new EvaluationCache(
+            (UndoableThreeTriosModel) model, CACHE_CAPACITY, CACHE_DEPTH) : null;
+    this.executor = null;
+    this.strategyTimeoutNanos = 0;
+    setStrategies(strategy);
+  }
+
+  /**
+   * Constructor for a ComputerPlayer which runs its strategies at the same time. Every turn
+   * each strategy is copied onto its own snapshot of the model and run on the executor, and
+   * the votes of those that finish within the timeout are tallied in the order of the list,
+   * so the move chosen doesn't depend on which strategy finishes first. A strategy that runs
+   * out of time is interrupted and left out of the vote. Strategies that can't be copied run
+   * on the model itself, on the calling thread, without a timeout. Only the searching
+   * strategies stop when interrupted. Corner, MaxCardsFlip and LeastFlippable look one move
+   * ahead and a MiniMax scoring on a pool finishes its split, so these keep their executor
+   * thread until they return, and later turns may queue behind them when it is bounded.
+   *
+   * @param strategy              list of strategies that will make up some overall strategy
+   * @param model                 model to play on, copied for every strategy each turn
+   * @param clr                   color of the player
+   * @param executor              runs the strategies, bounded to limit how many run at once
+   * @param strategyTimeoutMillis wall-clock time each strategy is given per move
+   * @throws IllegalArgumentException if strategy is null or empty, the model can't be copied,
+   *                                  executor is null or the timeout isn't positive
+   */
+  public ComputerPlayer(List<Strategy> strategy, ReadOnlyThreeTriosModel model, Colors clr,
+                        ExecutorService executor, long strategyTimeoutMillis) {
+    super(model, clr);
+    if (strategy == null || strategy.isEmpty()) {
+      throw new IllegalArgumentException("Strategy passed to ComputerPlayer cannot be"
+              + " null or empty.");
+    } else if (!(model instanceof UndoableThreeTriosModel)) {
+      throw new IllegalArgumentException("Model must support snapshots to run strategies "
+              + "concurrently.");
+    } else if (executor == null || strategyTimeoutMillis < 1) {
+      throw new IllegalArgumentException("Executor cannot be null and timeout must be "
+              + "positive.");
+    }
+    this.cache = new EvaluationCache((UndoableThreeTriosModel) model, CACHE_CAPACITY,
+            CACHE_DEPTH);
+    this.executor = executor;
+    this.strategyTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(strategyTimeoutMillis);
+    setStrategies(strategy);
   }
 
   /**
@@ -41,14 +108,113 @@ public class ComputerPlayer extends AbstractPlayer {
    */
   public void setStrategies(List<Strategy> strategies) {
     this.strategies = strategies;
+    for (Strategy strategy : strategies == null ? List.<Strategy>of() : strategies) {
+      if (strategy instanceof AbstractStrategy) {
+        ((AbstractStrategy) strategy).setEvaluationCache(cache);
+      }
+    }
+  }
+
+  /**
+   * Setter for the solver that plays instead of the strategies once few enough cells are left
+   * empty, so the rest of the game is played perfectly. Its threshold decides when it takes
+   * over.
+   *
+   * @param solver solver on this player's model, or null to play with the strategies only
+   * @throws IllegalArgumentException if the solver doesn't play on this player's model
+   */
+  public void setEndgameSolver(EndgameSolver solver) {
+    if (solver != null && solver.getModel() != model) {
+      throw new IllegalArgumentException("Endgame solver must play on the player's model.");
+    }
+    this.endgameSolver = solver;
+    if (solver != null) {
+      solver.setEvaluationCache(cache);
+    }
+  }
+
+  /**
+   * Predicate for whether the player can be copied onto another model, so that its move can
+   * be chosen on a snapshot of the game while the game itself is read elsewhere.
+   *
+   * @return true if every strategy can be copied
+   */
+  public boolean supportsCopy() {
+    for (Strategy strategy : strategies) {
+      if (!strategy.supportsCopy()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Creates a player of the same color choosing moves the same way, reading from another
+   * model. Its strategies and endgame solver are copies bound to that model, and it runs
+   * them on the same executor, if any.
+   *
+   * @param model model the copy reads from and simulates moves on
+   * @return a player for the model, or null if a strategy can't be copied
+   * @throws IllegalArgumentException if model is null
+   */
+  public ComputerPlayer copyFor(UndoableThreeTriosModel model) {
+    if (model == null) {
+      throw new IllegalArgumentException("Model cannot be null.");
+    } else if (!supportsCopy()) {
+      return null;
+    }
+    List<Strategy> copies = new ArrayList<>();
+    for (Strategy strategy : strategies) {
+      copies.add(strategy.copyFor(model));
+    }
+    ComputerPlayer copy = executor == null ? new ComputerPlayer(copies, model, color)
+            : new ComputerPlayer(copies, model, color, executor,
+            TimeUnit.NANOSECONDS.toMillis(strategyTimeoutNanos));
+    if (endgameSolver != null) {
+      copy.setEndgameSolver((EndgameSolver) endgameSolver.copyFor(model));
+    }
+    return copy;
+  }
+
+  /**
+   * Gets the cache of move evaluations the strategies share, to read its hit rates.
+   *
+   * @return the cache, or null if the model can't identify positions by hash
+   */
+  public EvaluationCache getEvaluationCache() {
+    return cache;
+  }
+
+  /**
+   * Gets the number of strategies left out of the vote on the latest move because they ran
+   * out of time or the executor had no room for them.
+   *
+   * @return strategies that didn't vote, always 0 when strategies run one after another
+   */
+  public int getLastTimedOut() {
+    return lastTimedOut;
   }
 
   @Override
   public GameMoveData getNextPlacement() {
     checkIfLegal();
+    if (endgameSolver != null && endgameSolver.canSolve()) {
+      // Every move the solver returns leads to the same final margin
+      return tieBreak(endgameSolver.execute());
+    }
     List<GameMoveData> bestMoves = new ArrayList<>();
-    for (Strategy strategy : strategies) {
-      bestMoves.addAll(strategy.execute());
+    if (executor == null) {
+      for (Strategy strategy : strategies) {
+        bestMoves.addAll(strategy.execute());
+      }
+    } else {
+      bestMoves = executeConcurrently();
+      if (bestMoves.isEmpty()) {
+        // No strategy voted in time, so any legal move will do
+        ReadOnlyCellIndex cells = model.getCellIndex();
+        int cell = cells.getEmptyCell(0);
+        return new GameMoveData(cell / cells.getNumCols(), cell % cells.getNumCols(), 0);
+      }
     }
 
     // Populate hashmap of every potential bestMove and tally how many times it was recommended
@@ -78,6 +244,74 @@ public class ComputerPlayer extends AbstractPlayer {
     return tieBreak(maxBestMoves);
   }
 
+  private List<GameMoveData> executeConcurrently() {
+    long deadline = System.nanoTime() + strategyTimeoutNanos;
+    List<Future<List<GameMoveData>>> running = new ArrayList<>();
+    List<List<GameMoveData>> votes = new ArrayList<>();
+    List<Integer> uncopied = new ArrayList<>();
+    int timedOut = 0;
+    // Every strategy simulates moves in place, so each one that can be copied gets a snapshot
+    // of its own
+    for (Strategy strategy : strategies) {
+      Strategy copy = strategy.supportsCopy()
+              ? strategy.copyFor(((UndoableThreeTriosModel) model).copy()) : null;
+      Future<List<GameMoveData>> future = null;
+      if (copy == null) {
+        uncopied.add(running.size());
+      } else {
+        try {
+          future = executor.submit(copy::execute);
+        } catch (RejectedExecutionException e) {
+          timedOut++;
+        }
+      }
+      running.add(future);
+      votes.add(null);
+    }
+    for (int i : uncopied) {
+      votes.set(i, strategies.get(i).execute());
+    }
+
+    try {
+      for (int i = 0; i < running.size(); i++) {
+        Future<List<GameMoveData>> future = running.get(i);
+        if (future == null) {
+          continue;
+        }
+        try {
+          votes.set(i, future.get(Math.max(0, deadline - System.nanoTime()),
+                  TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+          future.cancel(true);
+          timedOut++;
+        } catch (ExecutionException e) {
+          if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+          }
+          throw new IllegalStateException("Strategy failed.", e.getCause());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while choosing a move.");
+    } finally {
+      for (Future<List<GameMoveData>> future : running) {
+        if (future != null) {
+          future.cancel(true);
+        }
+      }
+    }
+    lastTimedOut = timedOut;
+
+    List<GameMoveData> bestMoves = new ArrayList<>();
+    for (List<GameMoveData> vote : votes) {
+      if (vote != null) {
+        bestMoves.addAll(vote);
+      }
+    }
+    return bestMoves;
+  }
+
   private GameMoveData tieBreak(List<GameMoveData> moves) {
     // Assumes list of moves is never null
     GameMoveData bestMove = moves.get(0);
@@ -21,5 +21,15 @@ public interface Player extends ReadOnlyPlayer {
    * */
   CardInterface pop(int idx);
 
+  /**
+   * Inserts a card back into the hand at the given index, shifting later cards right.
+   * Reverses a previous pop when a move is undone.
+   * @param idx the index the card should occupy within the hand.
+   * @param card card to be inserted
+   * @throws IllegalArgumentException card is null
+   * @throws IndexOutOfBoundsException if idx is outside 0 and the hand size inclusive
+   * */
+  void insertToHand(int idx, CardInterface card);
+
 
 }
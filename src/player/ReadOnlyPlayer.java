@@ -4,6 +4,7 @@ import java.util.List;
 
 import model.card.CardInterface;
 import model.card.Colors;
+import model.card.ReadOnlyCard;
 
 /**
  * Public interface representing the methods seen inside a read only version of a player class.
@@ -23,6 +24,16 @@ public interface ReadOnlyPlayer {
    * */
   List<CardInterface> getHandCopy();
 
+  /**
+   * Gets an unmodifiable view of the hand. The view isn't a copy, so it keeps showing the hand
+   * as cards are played. Only the list is read-only: the cards it holds are the player's own
+   * live cards, typed as ReadOnlyCard but mutable underneath, so callers must not cast them to
+   * change them and should use getHandCopy to keep cards past the turn. Used to read the hand
+   * without copying it, e.g. by strategies.
+   * @return read-only view of the player's hand
+   * */
+  List<ReadOnlyCard> getHandView();
+
   /**
    * Gets the color of player.
    * @return Colors object
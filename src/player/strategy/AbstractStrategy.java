@@ -5,9 +5,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
-import model.cell.CardCell;
-import model.cell.Cell;
+import model.BoardSymmetry;
+import model.ReadOnlyCellIndex;
 import model.ReadOnlyThreeTriosModel;
+import model.UndoableThreeTriosModel;
+import player.GameMoveData;
 
 /**
  * Abstract strategy class that groups together common code for any strategies.
@@ -15,7 +17,10 @@ import model.ReadOnlyThreeTriosModel;
 public abstract class AbstractStrategy implements Strategy {
   protected ReadOnlyThreeTriosModel model;
   protected int bestMoveValue;
-
+  // Shared with the other strategies of the player, null to always ask the model
+  protected EvaluationCache cache;
+  // Symmetries of the model's grid, found on first use as the layout never changes
+  private BoardSymmetry symmetry;
 
   /**
    * Constructor for initializing an AbstractStrategy with a ReadOnly Model.
@@ -32,6 +37,30 @@ public abstract class AbstractStrategy implements Strategy {
     return this.bestMoveValue;
   }
 
+  /**
+   * Sets the cache to look up move evaluations in, shared by the strategies of a player. The
+   * cache is only used while it answers for this strategy's model.
+   *
+   * @param cache cache of move evaluations, or null for none
+   */
+  public void setEvaluationCache(EvaluationCache cache) {
+    this.cache = cache;
+  }
+
+  /**
+   * Gets the number of cards a move would flip, from the shared cache if there is one.
+   *
+   * @param move move to evaluate
+   * @return cards gained by the move, including the placed card
+   * @throws IllegalArgumentException if the move isn't legal
+   */
+  protected int potentialCardsFlipped(GameMoveData move) {
+    if (cache != null && cache.answersFor(model)) {
+      return cache.potentialCardsFlipped((UndoableThreeTriosModel) model, move);
+    }
+    return model.potentialCardsFlipped(move);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -50,22 +79,48 @@ public abstract class AbstractStrategy implements Strategy {
   }
 
   protected List<Point> getEmptyCardCellsPositions() {
-    Cell[][] grid = model.getGrid();
-    List<Point> cellPoints = new ArrayList<>();
-    int[] dims = model.getGridSize();
-    for (int i = 0; i < dims[0]; i++) {
-      // row
-      for (int j = 0; j < dims[1]; j++) {
-        // col
-        if (grid[i][j] instanceof CardCell) {
-          CardCell cell = (CardCell) grid[i][j];
-          if (cell.getCard().isEmpty()) {
-            cellPoints.add(new Point(i, j));
-            // Points are row, col
-          }
-        }
-      }
+    if (cache != null && cache.answersFor(model)) {
+      return cache.getEmptyCells((UndoableThreeTriosModel) model);
+    }
+    // The model keeps the empty cells indexed, so this doesn't scan the grid
+    ReadOnlyCellIndex cells = model.getCellIndex();
+    int cols = cells.getNumCols();
+    List<Point> cellPoints = new ArrayList<>(cells.getNumEmptyCells());
+    for (int i = 0; i < cells.getNumEmptyCells(); i++) {
+      int cell = cells.getEmptyCell(i);
+      cellPoints.add(new Point(cell / cols, cell % cols));
+      // Points are row, col
     }
     return cellPoints;
   }
+
+  /**
+   * Gets the rotations and reflections mapping the model's grid onto itself.
+   *
+   * @return symmetries of the grid
+   */
+  protected BoardSymmetry getBoardSymmetry() {
+    if (symmetry == null) {
+      symmetry = new BoardSymmetry(model.getGridView());
+    }
+    return symmetry;
+  }
+
+  /**
+   * Adds a move to a cell and the moves of the same card to every cell the position's
+   * symmetries map it to, which are just as good. Used to report every best move when only one
+   * move of each set of symmetric ones was searched.
+   *
+   * @param moves      list to add the moves to
+   * @param symmetries symmetries of the position, from BoardSymmetry.symmetriesOf
+   * @param cell       cell of the move searched, row * numCols + col
+   * @param cardIndex  hand index of the move searched
+   */
+  protected void addSymmetricMoves(List<GameMoveData> moves, int[] symmetries, int cell,
+                                   int cardIndex) {
+    int cols = model.getGridView().getNumCols();
+    for (int image : getBoardSymmetry().orbitOf(symmetries, cell)) {
+      moves.add(new GameMoveData(image / cols, image % cols, cardIndex));
+    }
+  }
 }
@@ -0,0 +1,367 @@
+package player.strategy;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.UndoableThreeTriosModel;
+import model.card.Colors;
+import player.GameMoveData;
+
+/**
+ * Represents the functionality for executing the AlphaBetaStrategy.
+ * Searches the game tree with negamax and alpha-beta pruning, deepening one ply at a time until
+ * the maximum depth is reached or the time budget for the move runs out. Positions are scored
+ * as the score of the player to move minus the score of their opponent. Moves are simulated in
+ * place on the model through its move journal. An optional transposition table, keyed by the
+ * model's position hash, lets positions reached through different move orders be searched once
+ * and can be shared across the moves of a game.
+ */
+public class AlphaBetaStrategy extends AbstractStrategy {
+  private static final int INFINITY = Integer.MAX_VALUE / 2;
+  // How many nodes are searched between checks of the clock
+  private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+  private final UndoableThreeTriosModel simModel;
+  private final int maxDepth;
+  private final long timeBudgetNanos;
+  private final TranspositionTable table;
+
+  // Search state, reset on every execute
+  private int[] emptyRows;
+  private int[] emptyCols;
+  private int numCols;
+  private boolean[] filled;
+  private final int[] handSizes;
+  private int[][] moveBuffers;
+  private int[][] orderBuffers;
+  // Symmetries mapping the root position onto itself
+  private int[] rootSymmetries;
+  private long deadline;
+  private boolean timeUp;
+  private long nodeCount;
+  private int completedDepth;
+
+  /**
+   * Constructor for initializing an AlphaBetaStrategy.
+   *
+   * @param model          model to search, moves are applied to it and undone again
+   * @param maxDepth       deepest number of plies to search
+   * @param timeBudgetMillis wall-clock time allowed per move, deeper iterations are abandoned
+   *                         once it runs out
+   * @throws IllegalArgumentException if maxDepth or timeBudgetMillis is not positive
+   */
+  public AlphaBetaStrategy(UndoableThreeTriosModel model, int maxDepth, long timeBudgetMillis) {
+    this(model, maxDepth, timeBudgetMillis, null);
+  }
+
+  /**
+   * Constructor for initializing an AlphaBetaStrategy that shares a transposition table.
+   *
+   * @param model          model to search, moves are applied to it and undone again
+   * @param maxDepth       deepest number of plies to search
+   * @param timeBudgetMillis wall-clock time allowed per move, deeper iterations are abandoned
+   *                         once it runs out
+   * @param table          table to store and look up searched positions in, may be null
+   * @throws IllegalArgumentException if maxDepth or timeBudgetMillis is not positive
+   */
+  public AlphaBetaStrategy(UndoableThreeTriosModel model, int maxDepth, long timeBudgetMillis,
+                           TranspositionTable table) {
+    super(model);
+    if (maxDepth < 1 || timeBudgetMillis < 1) {
+      throw new IllegalArgumentException("Depth and time budget must be positive.");
+    }
+    this.simModel = model;
+    this.maxDepth = maxDepth;
+    this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+    this.handSizes = new int[2];
+    this.table = table;
+  }
+
+  @Override
+  public boolean supportsCopy() {
+    return true;
+  }
+
+  @Override
+  public Strategy copyFor(UndoableThreeTriosModel model) {
+    return new AlphaBetaStrategy(model, maxDepth, timeBudgetNanos / 1_000_000L, table);
+  }
+
+  @Override
+  public List<GameMoveData> execute() {
+    deadline = System.nanoTime() + timeBudgetNanos;
+    timeUp = false;
+    nodeCount = 0;
+    completedDepth = 0;
+    if (table != null) {
+      // Positions stored for earlier moves are behind this one and may be overwritten
+      table.newSearch();
+    }
+    initSearch();
+
+    List<GameMoveData> bestMoves = new ArrayList<>();
+    int[] rootMoves = generateMoves(0, sideToMove());
+    int numRootMoves = dropSymmetricMoves(rootMoves);
+    for (int depth = 1; depth <= maxDepth; depth++) {
+      List<GameMoveData> iterationBest = new ArrayList<>();
+      int iterationValue = searchRoot(rootMoves, numRootMoves, depth, iterationBest);
+      if (timeUp) {
+        break;
+      }
+      bestMoves = iterationBest;
+      bestMoveValue = iterationValue;
+      completedDepth = depth;
+      if (depth >= emptyRows.length) {
+        // The whole game tree has been searched, deeper iterations can't change anything
+        break;
+      }
+      // Search the best moves of this iteration first in the next one
+      promote(rootMoves, numRootMoves, iterationBest);
+    }
+
+    if (bestMoves.isEmpty()) {
+      // Out of time before even depth one finished: fall back to the first legal move
+      int move = rootMoves[1];
+      bestMoves.add(new GameMoveData(emptyRows[move >>> 16], emptyCols[move >>> 16],
+              move & 0xFFFF));
+    }
+    return bestMoves;
+  }
+
+  private void initSearch() {
+    List<Point> empty = getEmptyCardCellsPositions();
+    emptyRows = new int[empty.size()];
+    emptyCols = new int[empty.size()];
+    for (int i = 0; i < empty.size(); i++) {
+      emptyRows[i] = empty.get(i).x;
+      emptyCols[i] = empty.get(i).y;
+    }
+    filled = new boolean[empty.size()];
+    numCols = model.getGridSize()[1];
+    handSizes[0] = model.getPlayers().get(0).getHandView().size();
+    handSizes[1] = model.getPlayers().get(1).getHandView().size();
+
+    int maxMoves = empty.size() * Math.max(handSizes[0], handSizes[1]) + 1;
+    moveBuffers = new int[maxDepth + 1][maxMoves];
+    orderBuffers = new int[maxDepth + 1][maxMoves];
+  }
+
+  private int dropSymmetricMoves(int[] rootMoves) {
+    // Moves the position's symmetries map onto each other are worth the same, so only the
+    // one to the smallest cell is searched
+    rootSymmetries = getBoardSymmetry().symmetriesOf(model);
+    if (rootSymmetries.length == 1) {
+      return rootMoves[0];
+    }
+    int kept = 0;
+    for (int i = 1; i <= rootMoves[0]; i++) {
+      if (getBoardSymmetry().isRepresentative(rootSymmetries, gridCellOf(rootMoves[i]))) {
+        rootMoves[++kept] = rootMoves[i];
+      }
+    }
+    rootMoves[0] = kept;
+    return kept;
+  }
+
+  private int sideToMove() {
+    return model.getPlayerInTurn().getColor() == Colors.RED ? 0 : 1;
+  }
+
+  private int searchRoot(int[] rootMoves, int numRootMoves, int depth,
+                         List<GameMoveData> iterationBest) {
+    int side = sideToMove();
+    int best = -INFINITY;
+    for (int i = 1; i <= numRootMoves; i++) {
+      int move = rootMoves[i];
+      // Window starts just below the best value so that every tied move gets an exact score
+      int value = -searchChild(move, side, depth - 1, -INFINITY, -(best - 1), 1);
+      if (timeUp) {
+        return best;
+      }
+      if (value > best) {
+        best = value;
+        iterationBest.clear();
+        addSymmetricMoves(iterationBest, rootSymmetries, gridCellOf(move), move & 0xFFFF);
+      } else if (value == best) {
+        addSymmetricMoves(iterationBest, rootSymmetries, gridCellOf(move), move & 0xFFFF);
+      }
+    }
+    return best;
+  }
+
+  private int searchChild(int move, int side, int depth, int alpha, int beta, int ply) {
+    int cell = move >>> 16;
+    simModel.applyMove(new GameMoveData(emptyRows[cell], emptyCols[cell], move & 0xFFFF));
+    filled[cell] = true;
+    handSizes[side]--;
+    try {
+      return negamax(depth, alpha, beta, ply);
+    } finally {
+      handSizes[side]++;
+      filled[cell] = false;
+      simModel.undoMove();
+    }
+  }
+
+  private int negamax(int depth, int alpha, int beta, int ply) {
+    nodeCount++;
+    if (nodeCount % CLOCK_CHECK_INTERVAL == 0 && (System.nanoTime() > deadline
+            || Thread.currentThread().isInterrupted())) {
+      // An interrupted search stops like one out of time, with the last completed iteration
+      timeUp = true;
+    }
+    if (timeUp) {
+      return 0;
+    }
+    if (depth == 0 || simModel.isGameOver()) {
+      return evaluate();
+    }
+
+    long key = simModel.getPositionHash();
+    int alphaOrig = alpha;
+    int hintCell = -1;
+    if (table != null) {
+      long entry = table.probe(key);
+      if (entry != TranspositionTable.NOT_FOUND) {
+        hintCell = TranspositionTable.moveOf(entry);
+        if (TranspositionTable.depthOf(entry) >= depth) {
+          int value = TranspositionTable.valueOf(entry);
+          int bound = TranspositionTable.boundOf(entry);
+          if (bound == TranspositionTable.EXACT
+                  || bound == TranspositionTable.LOWER_BOUND && value >= beta
+                  || bound == TranspositionTable.UPPER_BOUND && value <= alpha) {
+            return value;
+          }
+        }
+      }
+    }
+
+    int side = sideToMove();
+    int[] moves = generateMoves(ply, side);
+    int numMoves = moves[0];
+    if (depth > 1) {
+      orderMoves(moves, numMoves, ply);
+    }
+    if (hintCell >= 0) {
+      promoteCell(moves, numMoves, hintCell);
+    }
+
+    int best = -INFINITY;
+    int bestCell = -1;
+    for (int i = 1; i <= numMoves; i++) {
+      int value = -searchChild(moves[i], side, depth - 1, -beta, -alpha, ply + 1);
+      if (timeUp) {
+        return 0;
+      }
+      if (value > best) {
+        best = value;
+        bestCell = gridCellOf(moves[i]);
+        if (value > alpha) {
+          alpha = value;
+          if (alpha >= beta) {
+            break;
+          }
+        }
+      }
+    }
+
+    if (table != null) {
+      int bound = best <= alphaOrig ? TranspositionTable.UPPER_BOUND
+              : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+      table.store(key, depth, bound, best, bestCell);
+    }
+    return best;
+  }
+
+  private int gridCellOf(int move) {
+    int cell = move >>> 16;
+    return emptyRows[cell] * numCols + emptyCols[cell];
+  }
+
+  private void promoteCell(int[] moves, int numMoves, int gridCell) {
+    // Moves to the cell that was best when this position was last searched go first
+    int front = 1;
+    for (int i = 1; i <= numMoves; i++) {
+      int move = moves[i];
+      if (gridCellOf(move) == gridCell) {
+        System.arraycopy(moves, front, moves, front + 1, i - front);
+        moves[front++] = move;
+      }
+    }
+  }
+
+  private int evaluate() {
+    boolean isRed = sideToMove() == 0;
+    return model.getPlayerScore(isRed) - model.getPlayerScore(!isRed);
+  }
+
+  // Moves are encoded as (index into the empty cell list << 16) | hand index. The count of
+  // moves is kept in slot 0 of the buffer.
+  private int[] generateMoves(int ply, int side) {
+    int[] moves = moveBuffers[ply];
+    int count = 0;
+    for (int cell = 0; cell < filled.length; cell++) {
+      if (!filled[cell]) {
+        for (int card = 0; card < handSizes[side]; card++) {
+          moves[++count] = (cell << 16) | card;
+        }
+      }
+    }
+    moves[0] = count;
+    return moves;
+  }
+
+  private void orderMoves(int[] moves, int numMoves, int ply) {
+    // Most cards flipped first, which tends to produce cutoffs early
+    int[] keys = orderBuffers[ply];
+    for (int i = 1; i <= numMoves; i++) {
+      int cell = moves[i] >>> 16;
+      keys[i] = potentialCardsFlipped(new GameMoveData(emptyRows[cell], emptyCols[cell],
+              moves[i] & 0xFFFF));
+    }
+    // Insertion sort keeps equal keys in generation order, so the search stays deterministic
+    for (int i = 2; i <= numMoves; i++) {
+      int key = keys[i];
+      int move = moves[i];
+      int j = i - 1;
+      while (j >= 1 && keys[j] < key) {
+        keys[j + 1] = keys[j];
+        moves[j + 1] = moves[j];
+        j--;
+      }
+      keys[j + 1] = key;
+      moves[j + 1] = move;
+    }
+  }
+
+  private void promote(int[] rootMoves, int numRootMoves, List<GameMoveData> best) {
+    int front = 1;
+    for (int i = 1; i <= numRootMoves; i++) {
+      int move = rootMoves[i];
+      int cell = move >>> 16;
+      if (best.contains(new GameMoveData(emptyRows[cell], emptyCols[cell], move & 0xFFFF))) {
+        System.arraycopy(rootMoves, front, rootMoves, front + 1, i - front);
+        rootMoves[front++] = move;
+      }
+    }
+  }
+
+  /**
+   * Gets the number of positions visited by the most recent execute.
+   *
+   * @return node count of the last search
+   */
+  public long getNodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Gets the deepest iteration the most recent execute completed within its time budget.
+   *
+   * @return completed search depth in plies
+   */
+  public int getCompletedDepth() {
+    return completedDepth;
+  }
+}
@@ -6,12 +6,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import model.card.CardInterface;
 import model.card.Positions;
-import model.cell.CardCell;
-import model.cell.Cell;
-import model.cell.HoleCell;
+import model.card.ReadOnlyCard;
+import model.ReadOnlyCellIndex;
+import model.ReadOnlyGrid;
 import model.ReadOnlyThreeTriosModel;
+import model.UndoableThreeTriosModel;
 import player.GameMoveData;
 
 /**
@@ -28,15 +28,26 @@ public class CornerStrategy extends AbstractStrategy {
     super(model);
   }
 
+  @Override
+  public boolean supportsCopy() {
+    return true;
+  }
+
+  @Override
+  public Strategy copyFor(UndoableThreeTriosModel model) {
+    return new CornerStrategy(model);
+  }
+
   @Override
   public List<GameMoveData> execute() {
     List<Point> points = getCornerCells();
-    Cell[][] grid = model.getGrid();
+    ReadOnlyGrid grid = model.getGridView();
+    ReadOnlyCellIndex cells = model.getCellIndex();
     Map<Point, List<Positions>> scores = new HashMap<>();
 
     for (int i = 0; i < points.size(); i++) {
       Point p = points.get(i);
-      if (grid[p.x][p.y] instanceof HoleCell) {
+      if (!grid.isCardCell(p.x, p.y)) {
         // If is hole cell, skip
         continue;
       } else if (model.getGridCellCard(p.x, p.y) != null) {
@@ -48,11 +59,11 @@ public class CornerStrategy extends AbstractStrategy {
         Positions pos1 = Positions.SOUTH;
         if (i == 0) {
           List<Positions> potentialOpenPos = List.of(pos1, Positions.EAST);
-          List<Positions> openPos = getOpenSidesOfCell(grid, p, potentialOpenPos);
+          List<Positions> openPos = getOpenSidesOfCell(cells, p, potentialOpenPos);
           scores.put(p, openPos);
         } else {
           List<Positions> potentialOpenPos = List.of(pos1, Positions.WEST);
-          List<Positions> openPos = getOpenSidesOfCell(grid, p, potentialOpenPos);
+          List<Positions> openPos = getOpenSidesOfCell(cells, p, potentialOpenPos);
           scores.put(p, openPos);
         }
       } else {
@@ -60,11 +71,11 @@ public class CornerStrategy extends AbstractStrategy {
         Positions pos1 = Positions.NORTH;
         if (i == 2) {
           List<Positions> potentialOpenPos = List.of(pos1, Positions.EAST);
-          List<Positions> openPos = getOpenSidesOfCell(grid, p, potentialOpenPos);
+          List<Positions> openPos = getOpenSidesOfCell(cells, p, potentialOpenPos);
           scores.put(p, openPos);
         } else {
           List<Positions> potentialOpenPos = List.of(pos1, Positions.WEST);
-          List<Positions> openPos = getOpenSidesOfCell(grid, p, potentialOpenPos);
+          List<Positions> openPos = getOpenSidesOfCell(cells, p, potentialOpenPos);
           scores.put(p, openPos);
         }
       }
@@ -78,8 +89,11 @@ public class CornerStrategy extends AbstractStrategy {
     if (bestMoves.isEmpty()) {
       bestMoveValue = 0;
       // If no corners are available, return uppermost-leftmost open cell
-      Point p = this.getEmptyCardCellsPositions().get(0);
-      return List.of(new GameMoveData(p.x, p.y, 0));
+      int first = Integer.MAX_VALUE;
+      for (int i = 0; i < cells.getNumEmptyCells(); i++) {
+        first = Math.min(first, cells.getEmptyCell(i));
+      }
+      return List.of(new GameMoveData(first / cells.getNumCols(), first % cells.getNumCols(), 0));
     }
 
     return bestMoves;
@@ -89,14 +103,14 @@ public class CornerStrategy extends AbstractStrategy {
                                              Map<Point, List<Positions>> scores) {
     int score = 0;
     List<GameMoveData> possibleMoves = new ArrayList<>();
-    List<CardInterface> hand = model.getPlayerInTurn().getHandCopy();
+    List<ReadOnlyCard> hand = model.getPlayerInTurn().getHandView();
 
     for (Point p : bestPoints) {
       // for each possible point
       List<Positions> openPoss = scores.get(p);
       for (int i = 0; i < hand.size(); i++) {
         // check to find best value(s) relevant to its open position(s) for each card in hand
-        CardInterface c = hand.get(i);
+        ReadOnlyCard c = hand.get(i);
         int tempScore = 0;
         for (Positions pos : openPoss) {
           tempScore = tempScore + c.getValueFromPos(pos).toInt();
@@ -134,39 +148,16 @@ public class CornerStrategy extends AbstractStrategy {
     return result;
   }
 
-  private Point getAdjacentPointInDirection(Point basePoint, Positions direction) {
-    int row = basePoint.x;
-    int col = basePoint.y;
-    switch (direction) {
-      case NORTH:
-        row = row - 1;
-        break;
-      case EAST:
-        col = col + 1;
-        break;
-      case SOUTH:
-        row = row + 1;
-        break;
-      case WEST:
-        col = col - 1;
-        break;
-      default:
-        throw new IllegalArgumentException("Invalid position");
-    }
-    return new Point(row, col);
-  }
-
-  private List<Positions> getOpenSidesOfCell(Cell[][] grid, Point p,
-                                                  List<Positions> openPoss) {
+  private List<Positions> getOpenSidesOfCell(ReadOnlyCellIndex cells, Point p,
+                                             List<Positions> openPoss) {
     // For a position on the grid at point p,
-    // Check if the cell one further in the direction of pos1 or pos2 is a hole card cell
-    // If yes, increment by one, if no, continue
+    // Check if the cell one further in the direction of pos1 or pos2 is a card cell,
+    // using the open sides the index worked out from the grid config
+    int openSides = cells.getOpenSides(p.x * cells.getNumCols() + p.y);
     List<Positions> positions = new ArrayList<>();
 
     for (Positions pos : openPoss) {
-      Point adjP = getAdjacentPointInDirection(p, pos);
-      Cell adjCell = grid[adjP.x][adjP.y];
-      if (adjCell instanceof CardCell) {
+      if ((openSides & (1 << pos.ordinal())) != 0) {
         positions.add(pos);
       }
     }
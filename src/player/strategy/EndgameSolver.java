@@ -0,0 +1,341 @@
+package player.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.ReadOnlyCellIndex;
+import model.UndoableThreeTriosModel;
+import model.card.Colors;
+import model.card.Positions;
+import model.card.ReadOnlyCard;
+import player.GameMoveData;
+
+/**
+ * Represents the functionality for executing the EndgameSolver.
+ * Once few enough cells are left empty, searches every line of play to the end of the game,
+ * so the moves recommended are provably optimal and the best move value is the final score
+ * margin they lead to against best play, the player's score minus their opponent's. The search
+ * is negamax with alpha-beta pruning, without a depth limit or time budget, memoized in a
+ * transposition table keyed by the model's position hash. Cards in hand with the same values
+ * play the same, so only one of them is tried.
+ */
+public class EndgameSolver extends AbstractStrategy {
+  private static final int INFINITY = Integer.MAX_VALUE / 2;
+  // How many nodes are searched between checks for an interrupt
+  private static final int INTERRUPT_CHECK_INTERVAL = 1024;
+  // Positions remembered by default, 16 bytes each
+  private static final int DEFAULT_TABLE_ENTRIES = 1 << 18;
+  // Below this many empty cells ordering moves costs more than it prunes
+  private static final int MIN_EMPTY_CELLS_TO_ORDER = 3;
+  // Depths stored in the table are one byte
+  private static final int MAX_EMPTY_CELLS = 255;
+
+  private final UndoableThreeTriosModel simModel;
+  private final int maxEmptyCells;
+  private final TranspositionTable table;
+
+  // Search state, reset on every execute
+  private int rootSide;
+  private int[][] moveBuffers;
+  private int[][] orderBuffers;
+  private long nodeCount;
+  private long elapsedNanos;
+
+  /**
+   * Constructor for initializing an EndgameSolver with a table of its own.
+   *
+   * @param model         model to solve, moves are applied to it and undone again
+   * @param maxEmptyCells most empty cells a position may have to be solved
+   * @throws IllegalArgumentException if maxEmptyCells isn't between 1 and 255
+   */
+  public EndgameSolver(UndoableThreeTriosModel model, int maxEmptyCells) {
+    this(model, maxEmptyCells, new TranspositionTable(DEFAULT_TABLE_ENTRIES));
+  }
+
+  /**
+   * Constructor for initializing an EndgameSolver that shares a transposition table. Positions
+   * it solves are stored searched to the end of the game, so an AlphaBetaStrategy sharing the
+   * table can use them at any depth.
+   *
+   * @param model         model to solve, moves are applied to it and undone again
+   * @param maxEmptyCells most empty cells a position may have to be solved
+   * @param table         table to memoize solved positions in
+   * @throws IllegalArgumentException if maxEmptyCells isn't between 1 and 255 or table is null
+   */
+  public EndgameSolver(UndoableThreeTriosModel model, int maxEmptyCells,
+                       TranspositionTable table) {
+    super(model);
+    if (maxEmptyCells < 1 || maxEmptyCells > MAX_EMPTY_CELLS) {
+      throw new IllegalArgumentException("Empty cell threshold must be between 1 and "
+              + MAX_EMPTY_CELLS + ": " + maxEmptyCells);
+    } else if (table == null) {
+      throw new IllegalArgumentException("Table cannot be null.");
+    }
+    this.simModel = model;
+    this.maxEmptyCells = maxEmptyCells;
+    this.table = table;
+  }
+
+  /**
+   * Predicate for whether the game is in progress with few enough empty cells to be solved.
+   *
+   * @return true if execute would solve the current position
+   */
+  public boolean canSolve() {
+    return model.isGameStarted() && !model.isGameOver()
+            && model.getCellIndex().getNumEmptyCells() <= maxEmptyCells;
+  }
+
+  /**
+   * Gets the model the solver plays moves on.
+   *
+   * @return the model
+   */
+  public UndoableThreeTriosModel getModel() {
+    return simModel;
+  }
+
+  /**
+   * Gets the most empty cells a position may have to be solved.
+   *
+   * @return empty cell threshold
+   */
+  public int getMaxEmptyCells() {
+    return maxEmptyCells;
+  }
+
+  @Override
+  public boolean supportsCopy() {
+    return true;
+  }
+
+  @Override
+  public Strategy copyFor(UndoableThreeTriosModel model) {
+    return new EndgameSolver(model, maxEmptyCells, table);
+  }
+
+  /**
+   * Solves the current position.
+   *
+   * @return every move leading to the best final score margin
+   * @throws IllegalStateException if the game isn't in progress, has too many empty cells to
+   *                               solve, or the thread is interrupted while solving
+   */
+  @Override
+  public List<GameMoveData> execute() {
+    if (!canSolve()) {
+      throw new IllegalStateException("Position can't be solved: game isn't in progress or "
+              + "has more than " + maxEmptyCells + " empty cells.");
+    }
+    long start = System.nanoTime();
+    nodeCount = 0;
+    rootSide = model.getPlayerInTurn().getColor() == Colors.RED ? 0 : 1;
+    int empty = model.getCellIndex().getNumEmptyCells();
+    int maxMoves = empty * Math.max(handSize(0), handSize(1)) + 1;
+    moveBuffers = new int[empty + 1][maxMoves];
+    orderBuffers = new int[empty + 1][maxMoves];
+
+    int[] rootMoves = generateMoves(0);
+    // Moves the position's symmetries map onto each other are worth the same, so only the one
+    // to the smallest cell is solved
+    int[] symmetries = getBoardSymmetry().symmetriesOf(model);
+    if (symmetries.length > 1) {
+      int kept = 0;
+      for (int i = 1; i <= rootMoves[0]; i++) {
+        if (getBoardSymmetry().isRepresentative(symmetries, rootMoves[i] >>> 16)) {
+          rootMoves[++kept] = rootMoves[i];
+        }
+      }
+      rootMoves[0] = kept;
+    }
+    orderMoves(rootMoves, 0);
+    List<GameMoveData> bestMoves = new ArrayList<>();
+    int best = -INFINITY;
+    for (int i = 1; i <= rootMoves[0]; i++) {
+      // Window starts just below the best value so that every tied move gets an exact score
+      int value = -solveChild(rootMoves[i], -INFINITY, -(best - 1), 1);
+      if (value > best) {
+        best = value;
+        bestMoves.clear();
+      }
+      if (value == best) {
+        addSymmetricMoves(bestMoves, symmetries, rootMoves[i] >>> 16, rootMoves[i] & 0xFFFF);
+      }
+    }
+    bestMoveValue = best;
+    elapsedNanos = System.nanoTime() - start;
+    return bestMoves;
+  }
+
+  private int solveChild(int move, int alpha, int beta, int ply) {
+    simModel.applyMove(toMoveData(move));
+    try {
+      return solve(alpha, beta, ply);
+    } finally {
+      simModel.undoMove();
+    }
+  }
+
+  private int solve(int alpha, int beta, int ply) {
+    nodeCount++;
+    if (nodeCount % INTERRUPT_CHECK_INTERVAL == 0 && Thread.currentThread().isInterrupted()) {
+      throw new IllegalStateException("Interrupted before solving the position.");
+    }
+    if (simModel.isGameOver()) {
+      return evaluate(ply);
+    }
+
+    long key = simModel.getPositionHash();
+    int empty = simModel.getCellIndex().getNumEmptyCells();
+    int alphaOrig = alpha;
+    int hintCell = -1;
+    long entry = table.probe(key);
+    if (entry != TranspositionTable.NOT_FOUND) {
+      hintCell = TranspositionTable.moveOf(entry);
+      // Only entries searched to the end of the game are exact final margins
+      if (TranspositionTable.depthOf(entry) >= empty) {
+        int value = TranspositionTable.valueOf(entry);
+        int bound = TranspositionTable.boundOf(entry);
+        if (bound == TranspositionTable.EXACT
+                || bound == TranspositionTable.LOWER_BOUND && value >= beta
+                || bound == TranspositionTable.UPPER_BOUND && value <= alpha) {
+          return value;
+        }
+      }
+    }
+
+    int[] moves = generateMoves(ply);
+    if (empty >= MIN_EMPTY_CELLS_TO_ORDER) {
+      orderMoves(moves, ply);
+    }
+    if (hintCell >= 0) {
+      promoteCell(moves, hintCell);
+    }
+
+    int best = -INFINITY;
+    int bestCell = -1;
+    for (int i = 1; i <= moves[0]; i++) {
+      int value = -solveChild(moves[i], -beta, -alpha, ply + 1);
+      if (value > best) {
+        best = value;
+        bestCell = moves[i] >>> 16;
+        if (value > alpha) {
+          alpha = value;
+          if (alpha >= beta) {
+            break;
+          }
+        }
+      }
+    }
+
+    int bound = best <= alphaOrig ? TranspositionTable.UPPER_BOUND
+            : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+    table.store(key, empty, bound, best, bestCell);
+    return best;
+  }
+
+  private int evaluate(int ply) {
+    // Moves alternate, so the player to move is known from the ply even once the game is over
+    boolean isRed = (rootSide ^ (ply & 1)) == 0;
+    return model.getPlayerScore(isRed) - model.getPlayerScore(!isRed);
+  }
+
+  private int handSize(int side) {
+    return model.getPlayers().get(side).getHandView().size();
+  }
+
+  // Moves are encoded as (grid cell << 16) | hand index. The count of moves is kept in slot 0
+  // of the buffer. Of several cards in hand with the same values only the first is tried.
+  private int[] generateMoves(int ply) {
+    int[] moves = moveBuffers[ply];
+    List<ReadOnlyCard> hand = model.getPlayerInTurn().getHandView();
+    int[] distinct = orderBuffers[ply];
+    int numDistinct = 0;
+    for (int card = 0; card < hand.size(); card++) {
+      int values = packValues(hand.get(card));
+      boolean seen = false;
+      for (int i = 0; i < numDistinct && !seen; i++) {
+        seen = (distinct[i] & 0xFFFF) == values;
+      }
+      if (!seen) {
+        distinct[numDistinct++] = card << 16 | values;
+      }
+    }
+    ReadOnlyCellIndex cells = model.getCellIndex();
+    int count = 0;
+    for (int e = 0; e < cells.getNumEmptyCells(); e++) {
+      int cell = cells.getEmptyCell(e);
+      for (int i = 0; i < numDistinct; i++) {
+        moves[++count] = cell << 16 | distinct[i] >>> 16;
+      }
+    }
+    moves[0] = count;
+    return moves;
+  }
+
+  private static int packValues(ReadOnlyCard card) {
+    int packed = 0;
+    for (Positions pos : Positions.values()) {
+      packed = packed << 4 | card.getValueFromPos(pos).ordinal();
+    }
+    return packed;
+  }
+
+  private void orderMoves(int[] moves, int ply) {
+    // Most cards flipped first, which tends to produce cutoffs early
+    int[] keys = orderBuffers[ply];
+    int numMoves = moves[0];
+    for (int i = 1; i <= numMoves; i++) {
+      keys[i] = potentialCardsFlipped(toMoveData(moves[i]));
+    }
+    // Insertion sort keeps equal keys in generation order, so the search stays deterministic
+    for (int i = 2; i <= numMoves; i++) {
+      int key = keys[i];
+      int move = moves[i];
+      int j = i - 1;
+      while (j >= 1 && keys[j] < key) {
+        keys[j + 1] = keys[j];
+        moves[j + 1] = moves[j];
+        j--;
+      }
+      keys[j + 1] = key;
+      moves[j + 1] = move;
+    }
+  }
+
+  private static void promoteCell(int[] moves, int gridCell) {
+    // Moves to the cell that was best when this position was last searched go first
+    int front = 1;
+    for (int i = 1; i <= moves[0]; i++) {
+      int move = moves[i];
+      if (move >>> 16 == gridCell) {
+        System.arraycopy(moves, front, moves, front + 1, i - front);
+        moves[front++] = move;
+      }
+    }
+  }
+
+  private GameMoveData toMoveData(int move) {
+    int cols = model.getCellIndex().getNumCols();
+    int cell = move >>> 16;
+    return new GameMoveData(cell / cols, cell % cols, move & 0xFFFF);
+  }
+
+  /**
+   * Gets the number of positions visited by the most recent execute.
+   *
+   * @return node count of the last solve
+   */
+  public long getNodeCount() {
+    return nodeCount;
+  }
+
+  /**
+   * Gets the wall-clock time the most recent execute took.
+   *
+   * @return solve time in nanoseconds
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+}
@@ -0,0 +1,331 @@
+package player.strategy;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import model.ReadOnlyCellIndex;
+import model.ReadOnlyThreeTriosModel;
+import model.UndoableThreeTriosModel;
+import player.GameMoveData;
+
+/**
+ * Caches evaluations of moves for the strategies of one player during one turn, so strategies
+ * searching the same positions share the work: the number of cards a move flips, or that it
+ * is illegal, and the empty cells of a position. Entries are keyed by the model's position
+ * hash and the move, so positions the strategies simulate are cached as well as the real one.
+ * The cache drops everything once a real move has been played, which it notices by the number
+ * of empty cells plus simulated moves going down.
+ *
+ * <p>Only positions a few simulated moves from the real one are cached, as those are the
+ * ones every strategy and every iteration of a deepening search come back to. Flip counts are
+ * kept in a fixed-size table; a full bucket keeps the entries closest to the real position.
+ * The cache isn't thread-safe, and only answers for the model it was created for and the copy
+ * of it a strategy simulates on, if it was shared with one.</p>
+ */
+public final class EvaluationCache {
+  // Entries probed for a key before one is overwritten
+  private static final int BUCKET_SIZE = 4;
+  private static final long EMPTY = 0L;
+  // Value stored for moves the model rejected
+  private static final int ILLEGAL = -1;
+  // Positions whose empty cells are kept at most, before the list cache starts over
+  private static final int MAX_EMPTY_CELL_LISTS = 4096;
+
+  private final UndoableThreeTriosModel model;
+  // Copy of the model a strategy simulates on instead, at the same real position, or null
+  private UndoableThreeTriosModel copy;
+  private final int mask;
+  private final int maxDepth;
+  // Allocated on the first lookup, as players are often created for a single move
+  private long[] keys;
+  private int[] values;
+  // Simulated moves deep each entry was stored at
+  private byte[] depths;
+  private final Map<Long, List<Point>> emptyCells = new HashMap<>();
+  // Empty cells plus simulated moves, constant until a real move is played
+  private int turnMarker = -1;
+
+  private long flipHits;
+  private long flipMisses;
+  private long emptyCellHits;
+  private long emptyCellMisses;
+  private long turnsDropped;
+
+  /**
+   * Constructor for initializing an EvaluationCache of a model.
+   *
+   * @param model    model whose moves to evaluate
+   * @param capacity number of moves the table holds, a power of two
+   * @param maxDepth most simulated moves a position may be away from the real one to be
+   *                 cached; deeper positions are rarely looked up twice and are passed to the
+   *                 model
+   * @throws IllegalArgumentException if model is null, capacity isn't a power of two of at
+   *                                  least the bucket size or maxDepth is negative
+   */
+  public EvaluationCache(UndoableThreeTriosModel model, int capacity, int maxDepth) {
+    if (model == null) {
+      throw new IllegalArgumentException("Model cannot be null.");
+    } else if (capacity < BUCKET_SIZE || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two of at least "
+              + BUCKET_SIZE + ": " + capacity);
+    } else if (maxDepth < 0) {
+      throw new IllegalArgumentException("Depth cannot be negative.");
+    }
+    this.model = model;
+    this.mask = capacity - 1;
+    this.maxDepth = maxDepth;
+  }
+
+  /**
+   * Gets the model the cache evaluates moves on.
+   *
+   * @return the model
+   */
+  public UndoableThreeTriosModel getModel() {
+    return model;
+  }
+
+  /**
+   * Lets the cache answer for a copy of its model as well, so a strategy simulating moves on
+   * the copy shares evaluations with those reading the model. The copy replaces any earlier
+   * one, and must have been made at the model's real position, with no moves applied.
+   *
+   * @param copy copy of the model, or null to answer for the model only
+   */
+  public void shareWith(UndoableThreeTriosModel copy) {
+    this.copy = copy;
+  }
+
+  /**
+   * Predicate for whether the cache answers for a model: its own, or the copy it is shared
+   * with.
+   *
+   * @param other model to look up evaluations for
+   * @return true if lookups may be made for other
+   */
+  public boolean answersFor(ReadOnlyThreeTriosModel other) {
+    return other == model || (other != null && other == copy);
+  }
+
+  /**
+   * Gets the number of cards a move would flip in the model's current position, including the
+   * placed card, as ReadOnlyThreeTriosModel.potentialCardsFlipped does.
+   *
+   * @param move move to evaluate
+   * @return cards gained by the move
+   * @throws IllegalArgumentException if the move isn't legal
+   * @throws IllegalStateException    if the game is over or hasn't started
+   */
+  public int potentialCardsFlipped(GameMoveData move) {
+    return potentialCardsFlipped(model, move);
+  }
+
+  /**
+   * Gets the number of cards a move would flip in the current position of the model or the
+   * copy it is shared with.
+   *
+   * @param position model or copy to evaluate the move on
+   * @param move     move to evaluate
+   * @return cards gained by the move
+   * @throws IllegalArgumentException if the move isn't legal, or the cache doesn't answer for
+   *                                  position
+   * @throws IllegalStateException    if the game is over or hasn't started
+   */
+  public int potentialCardsFlipped(UndoableThreeTriosModel position, GameMoveData move) {
+    checkPosition(position);
+    if (position.getJournalDepth() > maxDepth) {
+      return position.potentialCardsFlipped(move);
+    }
+    checkTurn(position);
+    long key = keyOf(position, move);
+    int slot = find(key);
+    if (slot >= 0 && values[slot] >= 0) {
+      flipHits++;
+      return values[slot];
+    } else if (slot >= 0 && values[slot] == ILLEGAL) {
+      flipHits++;
+      // The model rejects the move before simulating it, with the reason
+      return position.potentialCardsFlipped(move);
+    }
+    flipMisses++;
+    int flipped;
+    try {
+      flipped = position.potentialCardsFlipped(move);
+    } catch (IllegalArgumentException e) {
+      store(position, key, ILLEGAL);
+      throw e;
+    }
+    store(position, key, flipped);
+    return flipped;
+  }
+
+  /**
+   * Gets the empty card cells of the model's current position, in the order of its cell index.
+   *
+   * @return unmodifiable list of (row, col) points
+   */
+  public List<Point> getEmptyCells() {
+    return getEmptyCells(model);
+  }
+
+  /**
+   * Gets the empty card cells of the current position of the model or the copy it is shared
+   * with.
+   *
+   * @param position model or copy to read the empty cells of
+   * @return unmodifiable list of (row, col) points
+   * @throws IllegalArgumentException if the cache doesn't answer for position
+   */
+  public List<Point> getEmptyCells(UndoableThreeTriosModel position) {
+    checkPosition(position);
+    boolean cached = position.getJournalDepth() <= maxDepth;
+    long hash = position.getPositionHash();
+    if (cached) {
+      checkTurn(position);
+      List<Point> cells = emptyCells.get(hash);
+      if (cells != null) {
+        emptyCellHits++;
+        return cells;
+      }
+      emptyCellMisses++;
+    }
+    ReadOnlyCellIndex index = position.getCellIndex();
+    int cols = index.getNumCols();
+    List<Point> points = new ArrayList<>(index.getNumEmptyCells());
+    for (int i = 0; i < index.getNumEmptyCells(); i++) {
+      int cell = index.getEmptyCell(i);
+      points.add(new Point(cell / cols, cell % cols));
+    }
+    List<Point> cells = Collections.unmodifiableList(points);
+    if (cached) {
+      if (emptyCells.size() >= MAX_EMPTY_CELL_LISTS) {
+        emptyCells.clear();
+      }
+      emptyCells.put(hash, cells);
+    }
+    return cells;
+  }
+
+  /**
+   * Gets the fraction of lookups answered from the cache, over all kinds and turns.
+   *
+   * @return hits over lookups, 0 before the first lookup
+   */
+  public double getHitRate() {
+    long hits = flipHits + emptyCellHits;
+    long lookups = hits + flipMisses + emptyCellMisses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  /**
+   * Gets the number of flip count lookups answered from the cache.
+   *
+   * @return flip count hits
+   */
+  public long getFlipHits() {
+    return flipHits;
+  }
+
+  /**
+   * Gets the number of flip count lookups the model had to answer.
+   *
+   * @return flip count misses
+   */
+  public long getFlipMisses() {
+    return flipMisses;
+  }
+
+  /**
+   * Gets the number of turns whose entries were dropped because a move was played.
+   *
+   * @return turns dropped
+   */
+  public long getTurnsDropped() {
+    return turnsDropped;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("flips %d/%d, empty cells %d/%d hits, %.1f%% overall",
+            flipHits, flipHits + flipMisses, emptyCellHits, emptyCellHits + emptyCellMisses,
+            getHitRate() * 100);
+  }
+
+  private void checkPosition(UndoableThreeTriosModel position) {
+    if (!answersFor(position)) {
+      throw new IllegalArgumentException("Cache doesn't answer for this model.");
+    }
+  }
+
+  private void checkTurn(UndoableThreeTriosModel position) {
+    // The same for the model and a copy made at its real position
+    int marker = position.getCellIndex().getNumEmptyCells() + position.getJournalDepth();
+    if (marker != turnMarker) {
+      if (turnMarker >= 0) {
+        turnsDropped++;
+      }
+      turnMarker = marker;
+      if (keys == null) {
+        keys = new long[mask + 1];
+        values = new int[mask + 1];
+        depths = new byte[mask + 1];
+      }
+      Arrays.fill(keys, EMPTY);
+      emptyCells.clear();
+    }
+  }
+
+  private long keyOf(UndoableThreeTriosModel position, GameMoveData move) {
+    long moveCode = (long) (move.getGridRow() * position.getCellIndex().getNumCols()
+            + move.getGridCol()) << 32 | (move.getCardIndex() & 0xFFFFFFFFL);
+    // SplitMix64 finalizer, so that moves differing in one bit land far apart
+    long z = position.getPositionHash() ^ (moveCode + 0x9E3779B97F4A7C15L);
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    z ^= z >>> 31;
+    return z == EMPTY ? 1 : z;
+  }
+
+  private int find(long key) {
+    int start = (int) key & mask & ~(BUCKET_SIZE - 1);
+    for (int i = start; i < start + BUCKET_SIZE; i++) {
+      if (keys[i] == key) {
+        return i;
+      } else if (keys[i] == EMPTY) {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  private void store(UndoableThreeTriosModel position, long key, int value) {
+    int start = (int) key & mask & ~(BUCKET_SIZE - 1);
+    for (int i = start; i < start + BUCKET_SIZE; i++) {
+      if (keys[i] == EMPTY || keys[i] == key) {
+        keys[i] = key;
+        values[i] = value;
+        depths[i] = (byte) Math.min(position.getJournalDepth(), Byte.MAX_VALUE);
+        return;
+      }
+    }
+    // Full bucket: replace the entry deepest in the search, unless the new one is deeper.
+    // Positions near the real one are looked up again by every deeper search.
+    int depth = position.getJournalDepth();
+    int deepest = start;
+    for (int i = start + 1; i < start + BUCKET_SIZE; i++) {
+      if (depths[i] > depths[deepest]) {
+        deepest = i;
+      }
+    }
+    if (depths[deepest] >= depth) {
+      keys[deepest] = key;
+      values[deepest] = value;
+      depths[deepest] = (byte) Math.min(depth, Byte.MAX_VALUE);
+    }
+  }
+}
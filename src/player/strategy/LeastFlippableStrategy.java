@@ -6,13 +6,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import model.card.CardInterface;
 import model.card.Colors;
 import model.card.Positions;
-import model.cell.CardCell;
-import model.cell.HoleCell;
-import model.cell.Cell;
+import model.card.ReadOnlyCard;
+import model.ReadOnlyCellIndex;
 import model.ReadOnlyThreeTriosModel;
+import model.UndoableThreeTriosModel;
 import player.GameMoveData;
 
 /**
@@ -29,18 +28,28 @@ public class LeastFlippableStrategy extends AbstractStrategy {
     super(model);
   }
 
+  @Override
+  public boolean supportsCopy() {
+    return true;
+  }
+
+  @Override
+  public Strategy copyFor(UndoableThreeTriosModel model) {
+    return new LeastFlippableStrategy(model);
+  }
+
   @Override
   public List<GameMoveData> execute() {
     List<Point> candidateCells = getCellsWithMostHoleNeighbors();
-    List<CardInterface> opponentHand;
+    List<ReadOnlyCard> opponentHand;
     if (model.getPlayerInTurn().getColor() == Colors.RED) {
-      opponentHand = model.getPlayers().get(1).getHandCopy();
+      opponentHand = model.getPlayers().get(1).getHandView();
     } else {
-      opponentHand = model.getPlayers().get(0).getHandCopy();
+      opponentHand = model.getPlayers().get(0).getHandView();
     }
 
     Map<GameMoveData, Integer> moveScores = new HashMap<>();
-    List<CardInterface> hand = model.getPlayerInTurn().getHandCopy();
+    List<ReadOnlyCard> hand = model.getPlayerInTurn().getHandView();
 
     // For each candidate cell and each card, calculate the 'flippable' score
     for (Point cell : candidateCells) {
@@ -50,7 +59,7 @@ public class LeastFlippableStrategy extends AbstractStrategy {
       }
 
       for (int cardIndex = 0; cardIndex < hand.size(); cardIndex++) {
-        CardInterface card = hand.get(cardIndex);
+        ReadOnlyCard card = hand.get(cardIndex);
         int flipScore = 0;
 
         for (Positions side : openSides) {
@@ -79,29 +88,21 @@ public class LeastFlippableStrategy extends AbstractStrategy {
   }
 
   private List<Point> getCellsWithMostHoleNeighbors() {
-    Map<Point, Integer> cellHoleCounts = new HashMap<>();
-    Cell[][] grid = model.getGrid();
-    int[] gridSize = model.getGridSize();
-
-    for (Point p : getEmptyCardCellsPositions()) {
-      int holeCount = 0;
-
-      for (Positions dir : Positions.values()) {
-        Point adj = getAdjacentPoint(p, dir);
-        if (!isValidCell(adj, gridSize) || grid[adj.x][adj.y] instanceof HoleCell) {
-          holeCount++;
-        }
-      }
-
-      cellHoleCounts.put(p, holeCount);
-    }
-
-    int maxHoleCount = cellHoleCounts.values().stream().max(Integer::compareTo).orElse(0);
+    // Hole neighbor counts are worked out once from the grid config by the model's index
+    ReadOnlyCellIndex cells = model.getCellIndex();
+    int cols = cells.getNumCols();
+    int maxHoleCount = 0;
     List<Point> bestCells = new ArrayList<>();
 
-    for (Map.Entry<Point, Integer> entry : cellHoleCounts.entrySet()) {
-      if (entry.getValue() == maxHoleCount) {
-        bestCells.add(entry.getKey());
+    for (int i = 0; i < cells.getNumEmptyCells(); i++) {
+      int cell = cells.getEmptyCell(i);
+      int holeCount = cells.getHoleNeighborCount(cell);
+      if (holeCount > maxHoleCount) {
+        maxHoleCount = holeCount;
+        bestCells.clear();
+      }
+      if (holeCount == maxHoleCount) {
+        bestCells.add(new Point(cell / cols, cell % cols));
       }
     }
 
@@ -110,12 +111,11 @@ public class LeastFlippableStrategy extends AbstractStrategy {
 
   private List<Positions> getOpenSidesOfCell(Point p) {
     List<Positions> openSides = new ArrayList<>();
-    Cell[][] grid = model.getGrid();
-    int[] gridSize = model.getGridSize();
+    ReadOnlyCellIndex cells = model.getCellIndex();
+    int openMask = cells.getOpenSides(p.x * cells.getNumCols() + p.y);
 
     for (Positions dir : Positions.values()) {
-      Point adj = getAdjacentPoint(p, dir);
-      if (isValidCell(adj, gridSize) && grid[adj.x][adj.y] instanceof CardCell) {
+      if ((openMask & (1 << dir.ordinal())) != 0) {
         openSides.add(dir);
       }
     }
@@ -123,13 +123,13 @@ public class LeastFlippableStrategy extends AbstractStrategy {
     return openSides;
   }
 
-  private int calculateFlipScoreForSide(CardInterface card, Positions side,
-                                        List<CardInterface> opponentHand) {
+  private int calculateFlipScoreForSide(ReadOnlyCard card, Positions side,
+                                        List<ReadOnlyCard> opponentHand) {
     int flipScore = 0;
     int cardValue = card.getValueFromPos(side).toInt();
     Positions opponentSide = getOppositeSide(side);
 
-    for (CardInterface opponentCard : opponentHand) {
+    for (ReadOnlyCard opponentCard : opponentHand) {
       int opponentValue = opponentCard.getValueFromPos(opponentSide).toInt();
       if (opponentValue > cardValue) {
         flipScore++;
@@ -148,18 +148,4 @@ public class LeastFlippableStrategy extends AbstractStrategy {
       default: throw new IllegalArgumentException("Invalid side");
     }
   }
-
-  private Point getAdjacentPoint(Point p, Positions dir) {
-    switch (dir) {
-      case NORTH: return new Point(p.x - 1, p.y);
-      case SOUTH: return new Point(p.x + 1, p.y);
-      case EAST:  return new Point(p.x, p.y + 1);
-      case WEST:  return new Point(p.x, p.y - 1);
-      default: throw new IllegalArgumentException("Invalid direction");
-    }
-  }
-
-  private boolean isValidCell(Point p, int[] gridSize) {
-    return p.x >= 0 && p.x < gridSize[0] && p.y >= 0 && p.y < gridSize[1];
-  }
 }
@@ -1,10 +1,11 @@
 package player.strategy;
 
-import java.awt.Point;
 import java.util.ArrayList;
 import java.util.List;
 
+import model.ReadOnlyCellIndex;
 import model.ReadOnlyThreeTriosModel;
+import model.UndoableThreeTriosModel;
 import player.GameMoveData;
 
 /**
@@ -20,22 +21,35 @@ public class MaxCardsFlipStrategy extends AbstractStrategy {
     super(model);
   }
 
+  @Override
+  public boolean supportsCopy() {
+    return true;
+  }
+
+  @Override
+  public Strategy copyFor(UndoableThreeTriosModel model) {
+    return new MaxCardsFlipStrategy(model);
+  }
+
   @Override
   public List<GameMoveData> execute() {
     // Iterate through all cards in hand
     // For each card, calculate its potential score in all battle-phase afflicting cells
     // return maximum score
 
-    int handSize = model.getPlayerInTurn().getHandCopy().size();
+    int handSize = model.getPlayerInTurn().getHandView().size();
     int maxScore = 0;
-    List<Point> emptyCellPoss = getEmptyCardCellsPositions(); // Empty cell positions
+    ReadOnlyCellIndex cells = model.getCellIndex(); // Empty cell positions
+    int cols = cells.getNumCols();
     List<GameMoveData> potentialBestMoves = new ArrayList<>();
 
-    // Check each card in hand against each empty card cell in the grid
+    // Check each card in hand against each empty card cell in the grid. Flips are counted
+    // without placing the card, so the empty cells stay put while they are iterated.
     for (int i = 0; i < handSize; i++) {
-      for (Point p : emptyCellPoss) {
-        GameMoveData potentialMove = new GameMoveData(p.x, p.y, i);
-        int pmScore = model.potentialCardsFlipped(potentialMove); // potential move score
+      for (int e = 0; e < cells.getNumEmptyCells(); e++) {
+        int cell = cells.getEmptyCell(e);
+        GameMoveData potentialMove = new GameMoveData(cell / cols, cell % cols, i);
+        int pmScore = potentialCardsFlipped(potentialMove); // potential move score
         if (pmScore > maxScore) {
           // If pmScore is greater than maxScore, update max value, and update best move list
           maxScore = pmScore;
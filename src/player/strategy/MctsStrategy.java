@@ -0,0 +1,437 @@
+package player.strategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import model.PackedGameState;
+import model.ReadOnlyThreeTriosModel;
+import model.UndoableThreeTriosModel;
+import player.GameMoveData;
+
+/**
+ * Represents the functionality for executing the MctsStrategy.
+ * Monte Carlo tree search with UCT selection. Every playout copies the current position into a
+ * {@link PackedGameState}, walks down the tree, then plays the game out to the end with the
+ * chosen playout policy. With more than one thread the tree is shared: a node's visit is
+ * counted as soon as a thread selects it, acting as a virtual loss that steers the other
+ * threads to different branches until the playout's result is added. A node's children are
+ * added one per visit, in the order of its empty cells and hand cards, so a node of a big
+ * board only holds the moves that were tried from it. The calling thread
+ * searches too, and the other threads are borrowed from a pool kept across moves. Searching
+ * stops once the playout budget or the time budget runs out, or the calling thread is
+ * interrupted, and the most visited moves are recommended.
+ */
+public class MctsStrategy extends AbstractStrategy {
+  /**
+   * How moves are chosen during a playout.
+   */
+  public enum PlayoutPolicy {
+    /**
+     * Uniformly random empty cell and hand card.
+     */
+    RANDOM,
+    /**
+     * Of a few random candidate moves, the one flipping the most cards.
+     */
+    GREEDY
+  }
+
+  // Rewards are kept in half points so that draws stay integral
+  private static final int WIN = 2;
+  private static final int DRAW = 1;
+  private static final double EXPLORATION = Math.sqrt(2);
+  // Random moves compared by a greedy playout move
+  private static final int GREEDY_CANDIDATES = 4;
+  // Visits a leaf needs before its children are added to the tree
+  private static final int EXPANSION_THRESHOLD = 2;
+  // How long an idle thread of a strategy's own pool is kept
+  private static final long IDLE_WORKER_SECONDS = 60;
+
+  private final int threads;
+  private final long timeBudgetNanos;
+  private final long maxPlayouts;
+  private final PlayoutPolicy policy;
+  private final SplittableRandom seeds;
+  // Runs the threads other than the calling one, null when searching on one thread
+  private final ExecutorService workers;
+
+  private long playoutCount;
+  private long elapsedNanos;
+
+  /**
+   * Constructor for initializing a single threaded MctsStrategy with random playouts.
+   *
+   * @param model            model to be read from
+   * @param timeBudgetMillis wall-clock time allowed per move
+   * @param maxPlayouts      most playouts to run per move
+   * @throws IllegalArgumentException if either budget is not positive
+   */
+  public MctsStrategy(ReadOnlyThreeTriosModel model, long timeBudgetMillis, long maxPlayouts) {
+    this(model, 1, timeBudgetMillis, maxPlayouts, PlayoutPolicy.RANDOM,
+            new SplittableRandom().nextLong());
+  }
+
+  /**
+   * Constructor for initializing an MctsStrategy. With more than one thread, it creates a pool
+   * for the threads other than the calling one, shared with its copies, whose threads end
+   * once idle for a minute.
+   *
+   * @param model            model to be read from
+   * @param threads          number of threads searching the shared tree, the calling one
+   *                         included
+   * @param timeBudgetMillis wall-clock time allowed per move
+   * @param maxPlayouts      most playouts to run per move, across all threads
+   * @param policy           how moves are chosen during playouts
+   * @param seed             seed for the playouts, a single thread with a playout budget
+   *                         recommends the same moves for the same seed
+   * @throws IllegalArgumentException if threads or either budget is not positive, or policy
+   *                                  is null
+   */
+  public MctsStrategy(ReadOnlyThreeTriosModel model, int threads, long timeBudgetMillis,
+                      long maxPlayouts, PlayoutPolicy policy, long seed) {
+    this(model, threads, timeBudgetMillis, maxPlayouts, policy, seed,
+            threads > 1 ? ownWorkers(threads - 1) : null);
+  }
+
+  /**
+   * Constructor for initializing an MctsStrategy whose threads other than the calling one
+   * run on a pool of the caller's. They queue for the pool's threads if it is busy, and join
+   * the search late or not at all.
+   *
+   * @param model            model to be read from
+   * @param threads          number of threads searching the shared tree, the calling one
+   *                         included
+   * @param timeBudgetMillis wall-clock time allowed per move
+   * @param maxPlayouts      most playouts to run per move, across all threads
+   * @param policy           how moves are chosen during playouts
+   * @param seed             seed for the playouts, a single thread with a playout budget
+   *                         recommends the same moves for the same seed
+   * @param workers          pool to run the other threads on, may be null with one thread
+   * @throws IllegalArgumentException if threads or either budget is not positive, policy is
+   *                                  null, or workers is null with more than one thread
+   */
+  public MctsStrategy(ReadOnlyThreeTriosModel model, int threads, long timeBudgetMillis,
+                      long maxPlayouts, PlayoutPolicy policy, long seed,
+                      ExecutorService workers) {
+    super(model);
+    if (threads < 1 || timeBudgetMillis < 1 || maxPlayouts < 1) {
+      throw new IllegalArgumentException("Threads and budgets must be positive.");
+    } else if (policy == null) {
+      throw new IllegalArgumentException("Playout policy cannot be null.");
+    } else if (threads > 1 && workers == null) {
+      throw new IllegalArgumentException("Searching on several threads needs a pool.");
+    }
+    this.threads = threads;
+    this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+    this.maxPlayouts = maxPlayouts;
+    this.policy = policy;
+    this.seeds = new SplittableRandom(seed);
+    this.workers = workers;
+  }
+
+  private static ExecutorService ownWorkers(int size) {
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, IDLE_WORKER_SECONDS,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+              Thread thread = new Thread(runnable, "mcts-worker");
+              thread.setDaemon(true);
+              return thread;
+            });
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+
+  /**
+   * A move in the tree, with the statistics of the playouts that went through it. Children
+   * are added under the node's lock, and the array is published before the count, so readers
+   * see every child counted.
+   */
+  private static final class Node {
+    private final int cell;
+    private final int handIndex;
+    // Player who made the move leading to this node, rewards are from their point of view
+    private final int player;
+    private final AtomicInteger visits;
+    private final AtomicLong reward;
+    private volatile Node[] children;
+    private volatile int numChildren;
+    // Move the next child is added for, nextCell is -1 until the first child is added
+    private int nextCell = -1;
+    private int nextCard;
+    // Set once a child was added for every move
+    private volatile boolean expanded;
+
+    Node(int cell, int handIndex, int player) {
+      this.cell = cell;
+      this.handIndex = handIndex;
+      this.player = player;
+      this.visits = new AtomicInteger();
+      this.reward = new AtomicLong();
+    }
+  }
+
+  @Override
+  public boolean supportsCopy() {
+    return true;
+  }
+
+  @Override
+  public Strategy copyFor(UndoableThreeTriosModel model) {
+    return new MctsStrategy(model, threads, timeBudgetNanos / 1_000_000L, maxPlayouts, policy,
+            seeds.nextLong(), workers);
+  }
+
+  @Override
+  public List<GameMoveData> execute() {
+    // The budget covers reading the position too, which takes a while on big boards
+    long start = System.nanoTime();
+    long deadline = start + timeBudgetNanos;
+    PackedGameState rootState = PackedGameState.of(model);
+    Node root = new Node(-1, -1, 1 - rootState.getTurn());
+
+    AtomicLong budget = new AtomicLong();
+    AtomicLong completed = new AtomicLong();
+    // Set once any thread sees the search is over, so the others stop after their playout
+    AtomicBoolean stop = new AtomicBoolean();
+    List<Future<?>> helpers = new ArrayList<>();
+    try {
+      for (int i = 1; i < threads; i++) {
+        SplittableRandom rand = seeds.split();
+        helpers.add(workers.submit(() ->
+                search(root, rootState, budget, completed, deadline, stop, rand)));
+      }
+    } catch (RejectedExecutionException e) {
+      stop.set(true);
+      awaitHelpers(helpers, stop);
+      throw new IllegalStateException("Search threads' pool is shut down.", e);
+    }
+    search(root, rootState, budget, completed, deadline, stop, seeds.split());
+    awaitHelpers(helpers, stop);
+    elapsedNanos = System.nanoTime() - start;
+    playoutCount = completed.get();
+    if (root.numChildren == 0) {
+      // Out of time before the first playout, so the first move will do
+      addChild(root, rootState);
+    }
+
+    // Recommend the most visited moves, which are the ones the search trusts the most
+    int mostVisits = -1;
+    List<GameMoveData> bestMoves = new ArrayList<>();
+    int cols = rootState.getCols();
+    Node[] rootChildren = root.children;
+    for (int i = 0; i < root.numChildren; i++) {
+      Node child = rootChildren[i];
+      int visits = child.visits.get();
+      if (visits > mostVisits) {
+        mostVisits = visits;
+        bestMoves.clear();
+        bestMoveValue = (int) Math.round(50.0 * child.reward.get() / Math.max(1, visits));
+      }
+      if (visits == mostVisits) {
+        bestMoves.add(new GameMoveData(child.cell / cols, child.cell % cols, child.handIndex));
+      }
+    }
+    return bestMoves;
+  }
+
+  private void awaitHelpers(List<Future<?>> helpers, AtomicBoolean stop) {
+    // Helpers are waited for even if the calling thread is interrupted, so none of them is
+    // left searching the tree once execute returns
+    boolean interrupted = false;
+    RuntimeException failure = null;
+    for (Future<?> helper : helpers) {
+      while (true) {
+        try {
+          helper.get();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+          stop.set(true);
+        } catch (ExecutionException e) {
+          stop.set(true);
+          if (failure == null) {
+            failure = e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : new IllegalStateException("Search thread failed.", e.getCause());
+          }
+          break;
+        }
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void search(Node root, PackedGameState rootState, AtomicLong budget,
+                      AtomicLong completed, long deadline, AtomicBoolean stop,
+                      SplittableRandom rand) {
+    int[] emptyCells = new int[rootState.getRows() * rootState.getCols()];
+    Node[] path = new Node[rootState.getNumEmptyCells() + 1];
+    while (!stop.get()) {
+      if (budget.getAndIncrement() >= maxPlayouts || System.nanoTime() >= deadline
+              || Thread.currentThread().isInterrupted()) {
+        // An interrupted search stops like one out of budget, with the playouts run so far
+        stop.set(true);
+        break;
+      }
+      PackedGameState state = new PackedGameState(rootState);
+      root.visits.incrementAndGet();
+
+      // Selection, adding children to a leaf once it has been played out from often enough
+      int depth = 0;
+      Node node = root;
+      while (!state.isGameOver()) {
+        if (node != root && node.numChildren == 0
+                && node.visits.get() < EXPANSION_THRESHOLD) {
+          break;
+        }
+        node = select(node, state);
+        state.playMove(node.cell, node.handIndex);
+        path[depth++] = node;
+      }
+
+      playout(state, emptyCells, rand);
+      int red = state.getScore(PackedGameState.RED);
+      int blue = state.getScore(PackedGameState.BLUE);
+      int winner = red > blue ? PackedGameState.RED
+              : blue > red ? PackedGameState.BLUE : PackedGameState.NO_OWNER;
+      for (int i = 0; i < depth; i++) {
+        Node visited = path[i];
+        visited.reward.addAndGet(winner == PackedGameState.NO_OWNER ? DRAW
+                : winner == visited.player ? WIN : 0);
+      }
+      completed.incrementAndGet();
+    }
+  }
+
+  private Node addChild(Node node, PackedGameState state) {
+    synchronized (node) {
+      if (node.expanded) {
+        return null;
+      }
+      int player = state.getTurn();
+      if (node.nextCell < 0) {
+        node.nextCell = nextEmptyCell(state, 0);
+      }
+      Node child = new Node(node.nextCell, node.nextCard, player);
+      int count = node.numChildren;
+      Node[] children = node.children;
+      if (children == null || count == children.length) {
+        children = children == null ? new Node[4] : Arrays.copyOf(children, count * 2);
+        node.children = children;
+      }
+      children[count] = child;
+      node.numChildren = count + 1;
+
+      // Move on to the next card, or the first card at the next empty cell
+      if (++node.nextCard == state.getHandSize(player)) {
+        node.nextCard = 0;
+        node.nextCell = nextEmptyCell(state, node.nextCell + 1);
+        node.expanded = node.nextCell < 0;
+      }
+      return child;
+    }
+  }
+
+  private static int nextEmptyCell(PackedGameState state, int from) {
+    for (int cell = from; cell < state.getRows() * state.getCols(); cell++) {
+      if (!state.isHole(cell) && !state.isOccupied(cell)) {
+        return cell;
+      }
+    }
+    return -1;
+  }
+
+  private Node select(Node node, PackedGameState state) {
+    // Moves not tried yet come first, in order, as if unvisited children were picked first.
+    // Incrementing the visits right away is the virtual loss that keeps other threads from
+    // piling onto the same child.
+    Node best = node.expanded ? null : addChild(node, state);
+    if (best == null) {
+      // UCT over the children, trying first any that another thread added but hasn't visited
+      Node[] children = node.children;
+      int count = node.numChildren;
+      double logVisits = Math.log(Math.max(1, node.visits.get()));
+      double bestScore = Double.NEGATIVE_INFINITY;
+      for (int i = 0; i < count; i++) {
+        Node child = children[i];
+        int visits = child.visits.get();
+        if (visits == 0) {
+          best = child;
+          break;
+        }
+        double score = child.reward.get() / (2.0 * visits)
+                + EXPLORATION * Math.sqrt(logVisits / visits);
+        if (score > bestScore) {
+          bestScore = score;
+          best = child;
+        }
+      }
+    }
+    best.visits.incrementAndGet();
+    return best;
+  }
+
+  private void playout(PackedGameState state, int[] emptyCells, SplittableRandom rand) {
+    int numEmpty = 0;
+    for (int cell = 0; cell < emptyCells.length; cell++) {
+      if (!state.isHole(cell) && !state.isOccupied(cell)) {
+        emptyCells[numEmpty++] = cell;
+      }
+    }
+
+    while (numEmpty > 0) {
+      int handSize = state.getHandSize(state.getTurn());
+      int pick = rand.nextInt(numEmpty);
+      int handIndex = rand.nextInt(handSize);
+      if (policy == PlayoutPolicy.GREEDY) {
+        int mostFlips = state.simulateFlips(emptyCells[pick], handIndex);
+        for (int i = 1; i < GREEDY_CANDIDATES; i++) {
+          int candidate = rand.nextInt(numEmpty);
+          int candidateHand = rand.nextInt(handSize);
+          int flips = state.simulateFlips(emptyCells[candidate], candidateHand);
+          if (flips > mostFlips) {
+            mostFlips = flips;
+            pick = candidate;
+            handIndex = candidateHand;
+          }
+        }
+      }
+      state.playMove(emptyCells[pick], handIndex);
+      emptyCells[pick] = emptyCells[--numEmpty];
+    }
+  }
+
+  /**
+   * Gets the number of playouts run by the most recent execute.
+   *
+   * @return playout count of the last search
+   */
+  public long getPlayoutCount() {
+    return playoutCount;
+  }
+
+  /**
+   * Gets the playout throughput of the most recent execute, across all of its threads.
+   *
+   * @return playouts per second of the last search
+   */
+  public double getPlayoutsPerSecond() {
+    return elapsedNanos == 0 ? 0 : playoutCount / (elapsedNanos / 1e9);
+  }
+}
@@ -2,19 +2,29 @@ package player.strategy;
 
 import java.awt.Point;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
-import model.card.CardInterface;
 import model.mock.ReadOnlyMockModel;
 import model.ReadOnlyThreeTriosModel;
+import model.UndoableThreeTriosModel;
 import player.GameMoveData;
 
 /**
  * Represents the functionality for executing the MiniMaxStrategy.
+ * Every move is scored by the best response the opponent strategy finds to it, and the moves
+ * leaving the opponent the weakest response are chosen. Moves are simulated on a copy of the
+ * model, and can optionally be scored in parallel on a ForkJoinPool, each worker simulating on
+ * its own copy.
  */
 public class MiniMaxStrategy extends AbstractStrategy {
+  // Leaves per pool thread the root moves are split into, so idle workers can steal the rest
+  private static final int TASKS_PER_THREAD = 4;
+
   Strategy opponentStrategy;
+  private final TranspositionTable table;
+  private final ForkJoinPool pool;
 
   /**
    * Constructor for initializing a MiniMaxStrategy with a ReadOnly Model.
@@ -22,49 +32,222 @@ public class MiniMaxStrategy extends AbstractStrategy {
    * @param model ReadOnly Model to be read from
    */
   public MiniMaxStrategy(ReadOnlyThreeTriosModel model, Strategy opponentStrategy) {
+    this(model, opponentStrategy, null);
+  }
+
+  /**
+   * Constructor for initializing a MiniMaxStrategy which caches opponent responses in a
+   * transposition table. The table is only used when the model can simulate moves in place.
+   *
+   * @param model ReadOnly Model to be read from
+   * @param opponentStrategy strategy the opponent is assumed to respond with
+   * @param table table to store and look up opponent responses in, may be null
+   */
+  public MiniMaxStrategy(ReadOnlyThreeTriosModel model, Strategy opponentStrategy,
+                         TranspositionTable table) {
+    super(model);
+    this.opponentStrategy = opponentStrategy;
+    this.table = table;
+    this.pool = null;
+  }
+
+  /**
+   * Constructor for initializing a MiniMaxStrategy which scores the moves in parallel. The
+   * root moves are split across the pool and each worker simulates moves on its own copy of
+   * the model, so the chosen moves are the same as when searching sequentially.
+   *
+   * @param model model to be read from and copied for each worker
+   * @param opponentStrategy strategy the opponent is assumed to respond with
+   * @param table table to store and look up opponent responses in, shared by all workers,
+   *              may be null
+   * @param pool pool to score the moves on
+   * @throws IllegalArgumentException if pool is null
+   */
+  public MiniMaxStrategy(UndoableThreeTriosModel model, Strategy opponentStrategy,
+                         TranspositionTable table, ForkJoinPool pool) {
     super(model);
+    if (pool == null) {
+      throw new IllegalArgumentException("Pool cannot be null.");
+    }
     this.opponentStrategy = opponentStrategy;
+    this.table = table;
+    this.pool = pool;
+  }
+
+  @Override
+  public boolean supportsCopy() {
+    return true;
+  }
+
+  @Override
+  public Strategy copyFor(UndoableThreeTriosModel model) {
+    return pool == null ? new MiniMaxStrategy(model, opponentStrategy, table)
+            : new MiniMaxStrategy(model, opponentStrategy, table, pool);
   }
 
   @Override
   public List<GameMoveData> execute() {
     List<Point> potentialLocations = getEmptyCardCellsPositions();
-    HashMap<GameMoveData, Integer> potentialMoves = new HashMap<>();
-
+    int handSize = model.getPlayerInTurn().getHandView().size();
+    // Moves the position's symmetries map onto each other get the same response, so only the
+    // one to the smallest cell is scored. Mocks don't expose hands to check symmetry with.
+    int[] symmetries = model instanceof UndoableThreeTriosModel
+            ? getBoardSymmetry().symmetriesOf(model) : new int[]{0};
+    int cols = model.getGridView().getNumCols();
+    List<GameMoveData> potentialMoves = new ArrayList<>();
     for (Point location : potentialLocations) {
-      List<CardInterface> hand = model.getPlayerInTurn().getHandCopy();
-      for (int i = 0; i < hand.size(); i++) {
-        GameMoveData move = new GameMoveData(location.x, location.y, i);
-        ReadOnlyMockModel simModel = new ReadOnlyMockModel(model);
-        // Play proposed move to simModel
-        simModel.setGridCellCard(simModel.getActualGrid(), location.x, location.y, hand.get(i));
-
-        // Find opponents response
-        Strategy simOpponentStrategy = createStrategySimCopy(opponentStrategy, simModel);
-        simOpponentStrategy.execute();
-
-        // Add opponents response value to map
-        potentialMoves.put(move, simOpponentStrategy.getBestMoveValue());
+      int cell = location.x * cols + location.y;
+      if (symmetries.length > 1 && !getBoardSymmetry().isRepresentative(symmetries, cell)) {
+        continue;
+      }
+      for (int i = 0; i < handSize; i++) {
+        potentialMoves.add(new GameMoveData(location.x, location.y, i));
+      }
+    }
+
+    // Opponent response to each potential move, in the order the moves were generated
+    int[] responses = new int[potentialMoves.size()];
+    int scored = responses.length;
+    if (pool != null) {
+      int grain = Math.max(1, responses.length / (pool.getParallelism() * TASKS_PER_THREAD));
+      pool.invoke(new RootSplitTask(potentialMoves, responses, 0, responses.length, grain));
+    } else {
+      // Moves are simulated on a private copy, so readers of the model never see them
+      UndoableThreeTriosModel simModel = model instanceof UndoableThreeTriosModel
+              ? ((UndoableThreeTriosModel) model).copy() : null;
+      boolean shared = simModel != null && cache != null && cache.answersFor(model);
+      if (shared) {
+        // The opponent strategies simulated on the copy share the player's evaluations
+        cache.shareWith(simModel);
+      }
+      try {
+        for (int i = 0; i < responses.length; i++) {
+          if (Thread.currentThread().isInterrupted()) {
+            // An interrupted search stops early, choosing among the moves scored so far
+            scored = i;
+            break;
+          }
+          GameMoveData move = potentialMoves.get(i);
+          if (simModel != null) {
+            responses[i] = simulateInPlace(simModel, move);
+          } else {
+            responses[i] = simulateOnCopy(move);
+          }
+        }
+      } finally {
+        if (shared) {
+          cache.shareWith(null);
+        }
       }
     }
 
+    if (scored == 0 && responses.length > 0) {
+      throw new IllegalStateException("Interrupted before scoring a move.");
+    }
+
     // Find min opponent response value
     int minOppResponse = Integer.MAX_VALUE;
-    List<GameMoveData> bestMoves = new ArrayList<>();
-    for (HashMap.Entry<GameMoveData, Integer> entry : potentialMoves.entrySet()) {
-      minOppResponse = Math.min(minOppResponse, entry.getValue());
+    for (int i = 0; i < scored; i++) {
+      minOppResponse = Math.min(minOppResponse, responses[i]);
     }
 
     // Find all best moves that have the minOppResponse
-    for (HashMap.Entry<GameMoveData, Integer> entry : potentialMoves.entrySet()) {
-      if (entry.getValue() == minOppResponse) {
-        bestMoves.add(entry.getKey());
+    List<GameMoveData> bestMoves = new ArrayList<>();
+    for (int i = 0; i < scored; i++) {
+      GameMoveData move = potentialMoves.get(i);
+      if (responses[i] == minOppResponse) {
+        addSymmetricMoves(bestMoves, symmetries, move.getGridRow() * cols + move.getGridCol(),
+                move.getCardIndex());
       }
     }
 
     return bestMoves;
   }
 
+  /**
+   * Scores a range of the root moves, splitting it in half until it is small enough to score
+   * on a private copy of the model. Each task writes only to its own range of responses.
+   */
+  private class RootSplitTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<GameMoveData> moves;
+    private final int[] responses;
+    private final int from;
+    private final int to;
+    private final int grain;
+
+    RootSplitTask(List<GameMoveData> moves, int[] responses, int from, int to, int grain) {
+      this.moves = moves;
+      this.responses = responses;
+      this.from = from;
+      this.to = to;
+      this.grain = grain;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= grain) {
+        UndoableThreeTriosModel workerModel = ((UndoableThreeTriosModel) model).copy();
+        for (int i = from; i < to; i++) {
+          responses[i] = simulateInPlace(workerModel, moves.get(i));
+        }
+      } else {
+        int mid = (from + to) >>> 1;
+        invokeAll(new RootSplitTask(moves, responses, from, mid, grain),
+                new RootSplitTask(moves, responses, mid, to, grain));
+      }
+    }
+  }
+
+  private int simulateInPlace(UndoableThreeTriosModel simModel, GameMoveData move) {
+    // Play proposed move on the copy, find the opponents response, then take it back
+    simModel.applyMove(move);
+    try {
+      if (simModel.isGameOver()) {
+        return 0;
+      }
+
+      // Responses differ per opponent strategy, so its type is mixed into the key
+      long key = simModel.getPositionHash()
+              ^ opponentStrategy.getClass().getName().hashCode() * 0x9E3779B97F4A7C15L;
+      if (table != null) {
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.NOT_FOUND) {
+          return TranspositionTable.valueOf(entry);
+        }
+      }
+
+      Strategy simOpponentStrategy = createStrategySimCopy(opponentStrategy, simModel);
+      if (cache != null && cache.answersFor(simModel)) {
+        // Workers simulate on copies of their own, which the player's cache can't answer for
+        ((AbstractStrategy) simOpponentStrategy).setEvaluationCache(cache);
+      }
+      simOpponentStrategy.execute();
+      int response = simOpponentStrategy.getBestMoveValue();
+      if (table != null) {
+        table.store(key, 1, TranspositionTable.EXACT, response, -1);
+      }
+      return response;
+    } finally {
+      simModel.undoMove();
+    }
+  }
+
+  private int simulateOnCopy(GameMoveData move) {
+    // Play proposed move on a copy, battle and turn switch included, as simulateInPlace does
+    ReadOnlyMockModel simModel = new ReadOnlyMockModel(model);
+    simModel.simulateMove(move);
+    if (simModel.isGameOver()) {
+      return 0;
+    }
+
+    // Find opponents response
+    Strategy simOpponentStrategy = createStrategySimCopy(opponentStrategy, simModel);
+    simOpponentStrategy.execute();
+    return simOpponentStrategy.getBestMoveValue();
+  }
+
   private Strategy createStrategySimCopy(Strategy strat, ReadOnlyThreeTriosModel model) {
     if (strat instanceof CornerStrategy) {
       return new CornerStrategy(model);
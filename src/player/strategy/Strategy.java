@@ -2,6 +2,7 @@ package player.strategy;
 
 import java.util.List;
 
+import model.UndoableThreeTriosModel;
 import player.GameMoveData;
 
 /**
@@ -19,4 +20,23 @@ public interface Strategy {
    * @return value representing how great the bestMove the strategy would make is
    */
   int getBestMoveValue();
+
+  /**
+   * Creates a strategy choosing moves the same way, reading from another model. Lets a player
+   * run its strategies at the same time, each on its own snapshot of the game.
+   * @param model model the copy reads from and simulates moves on
+   * @return a strategy for the model, or null if this strategy can't be copied
+   */
+  default Strategy copyFor(UndoableThreeTriosModel model) {
+    return null;
+  }
+
+  /**
+   * Predicate for whether copyFor creates a copy, so callers can tell before making a
+   * snapshot of the game for it.
+   * @return true if copyFor returns a strategy rather than null
+   */
+  default boolean supportsCopy() {
+    return false;
+  }
 }
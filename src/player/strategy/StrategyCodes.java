@@ -0,0 +1,64 @@
+package player.strategy;
+
+import java.util.List;
+
+import model.ThreeTriosGameModel;
+
+/**
+ * Maps the strategy numbers accepted on the command line to strategies.
+ *  - Corner Strategy = 1
+ *  - Least Flippable Strategy = 2
+ *  - Max Cards Flip Strategy = 3
+ *  - Alpha Beta Search Strategy = 4 (searches up to 8 plies deep, 1 second per move)
+ *  - Monte Carlo Tree Search Strategy = 5 (1 second per move on every core)
+ */
+public final class StrategyCodes {
+  private static final int ALPHA_BETA_MAX_DEPTH = 8;
+  private static final long ALPHA_BETA_TIME_BUDGET_MILLIS = 1000;
+  // Kept for the whole game so later moves reuse positions searched on earlier ones
+  private static final int TRANSPOSITION_TABLE_ENTRIES = 1 << 20;
+  private static final long MCTS_TIME_BUDGET_MILLIS = 1000;
+  private static final List<String> CODES = List.of("1", "2", "3", "4", "5");
+
+  private StrategyCodes() {
+  }
+
+  /**
+   * Predicate for whether the supplied string is a strategy number.
+   *
+   * @param code string to check
+   * @return true if create accepts the code
+   */
+  public static boolean isValid(String code) {
+    return CODES.contains(code);
+  }
+
+  /**
+   * Creates the strategy with the supplied number, reading from the supplied model.
+   *
+   * @param code  strategy number, see the class documentation
+   * @param model model the strategy reads from and searches
+   * @return new strategy for the model
+   * @throws IllegalArgumentException if code isn't a strategy number
+   */
+  public static Strategy create(String code, ThreeTriosGameModel model) {
+    switch (code) {
+      case "1":
+        return new CornerStrategy(model);
+      case "2":
+        return new LeastFlippableStrategy(model);
+      case "3":
+        return new MaxCardsFlipStrategy(model);
+      case "4":
+        return new AlphaBetaStrategy(model, ALPHA_BETA_MAX_DEPTH, ALPHA_BETA_TIME_BUDGET_MILLIS,
+                new TranspositionTable(TRANSPOSITION_TABLE_ENTRIES));
+      case "5":
+        return new MctsStrategy(model, Runtime.getRuntime().availableProcessors(),
+                MCTS_TIME_BUDGET_MILLIS, Long.MAX_VALUE, MctsStrategy.PlayoutPolicy.GREEDY,
+                System.nanoTime());
+      default:
+        throw new IllegalArgumentException(String.format("Invalid number entered for "
+                + "strategy: %s", code));
+    }
+  }
+}
@@ -0,0 +1,246 @@
+package player.strategy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import model.ReadOnlyGrid;
+
+/**
+ * Read-only table of perfectly played positions, memory-mapped from a file written by
+ * {@link TablebaseGenerator}. Every entry holds the best move of a position and the final score
+ * margin it leads to, so looking a move up takes one hash and a probe or two.
+ *
+ * <p>Positions are keyed by the canonical key of {@link model.BoardSymmetry}, which covers what
+ * decides the rest of the game: the values and owner of every card on the grid, the player to
+ * move, and the values of the cards in each hand in order. Card names don't matter, and
+ * neither does the order the moves were played in, so positions reached by transposed moves
+ * or from different deals share an entry, as do positions that are rotations or reflections
+ * of each other. Moves are stored as played in the canonical form, and have to be mapped back
+ * by the symmetry that canonicalized the position. The table is tied to one grid layout,
+ * which its header identifies.</p>
+ *
+ * <p>The format is big-endian: a magic number, the format version, the grid layout hash, the
+ * fewest empty cells a stored position has, the number of entries and the number of slots,
+ * followed by {@value #SLOT_BYTES} bytes per slot holding the key and the packed entry.
+ * Slots are probed linearly and are at most half full. The table is safe to read from any
+ * number of threads.</p>
+ */
+public final class Tablebase {
+  /**
+   * Magic number every table starts with, "TTTB" in ASCII.
+   */
+  public static final int MAGIC = 0x54545442;
+  /**
+   * Version of the format written by this class.
+   */
+  public static final short VERSION = 2;
+  /**
+   * Returned by lookup when the table holds nothing for a position.
+   */
+  public static final int NOT_FOUND = 0;
+
+  static final int HEADER_BYTES = 28;
+  static final int SLOT_BYTES = 12;
+  // Entry layout: hand index in bits 0-7, cell in 8-15 and margin + 128 in 16-23, so that a
+  // stored entry is never equal to NOT_FOUND
+  private static final int MARGIN_BIAS = 128;
+
+  private final ByteBuffer slots;
+  private final int mask;
+  private final long layoutHash;
+  private final int minEmptyCells;
+  private final int size;
+
+  private Tablebase(ByteBuffer buffer) {
+    if (buffer.remaining() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("Not a tablebase.");
+    } else if (buffer.getShort(4) != VERSION) {
+      throw new IllegalArgumentException("Unsupported tablebase version " + buffer.getShort(4));
+    }
+    this.layoutHash = buffer.getLong(8);
+    this.minEmptyCells = buffer.getInt(16);
+    this.size = buffer.getInt(20);
+    int capacity = buffer.getInt(24);
+    if (capacity < 1 || Integer.bitCount(capacity) != 1
+            || buffer.remaining() != HEADER_BYTES + (long) capacity * SLOT_BYTES) {
+      throw new IllegalArgumentException("Tablebase is truncated or corrupt.");
+    }
+    this.slots = buffer;
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * Maps a table file into memory.
+   *
+   * @param path file written by the generator
+   * @return the table
+   * @throws IOException              if the file can't be read
+   * @throws IllegalArgumentException if the file isn't a table of a supported version
+   */
+  public static Tablebase open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      // The mapping stays valid once the channel is closed
+      return new Tablebase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Writes entries out as a table file.
+   *
+   * @param path          file to write, replaced if it exists
+   * @param entries       packed entries by position key
+   * @param layoutHash    hash of the grid layout the positions were played on
+   * @param minEmptyCells fewest empty cells a stored position has
+   * @throws IOException if the file can't be written
+   */
+  static void write(Path path, Map<Long, Integer> entries, long layoutHash, int minEmptyCells)
+          throws IOException {
+    int capacity = Integer.highestOneBit(Math.max(1, entries.size()) * 2 - 1) * 2;
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + capacity * SLOT_BYTES)
+            .order(ByteOrder.BIG_ENDIAN);
+    buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(layoutHash)
+            .putInt(minEmptyCells).putInt(entries.size()).putInt(capacity);
+    for (Map.Entry<Long, Integer> entry : entries.entrySet()) {
+      int slot = slotOf(entry.getKey(), capacity - 1);
+      while (buffer.getInt(offsetOf(slot) + 8) != NOT_FOUND) {
+        slot = (slot + 1) & (capacity - 1);
+      }
+      buffer.putLong(offsetOf(slot), entry.getKey());
+      buffer.putInt(offsetOf(slot) + 8, entry.getValue());
+    }
+    buffer.position(0);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+  }
+
+  private static int offsetOf(int slot) {
+    return HEADER_BYTES + slot * SLOT_BYTES;
+  }
+
+  private static int slotOf(long key, int mask) {
+    return (int) (mix(key) & mask);
+  }
+
+  /**
+   * Looks up a position.
+   *
+   * @param key canonical key of the position
+   * @return the packed entry, to be read with the static accessors, or NOT_FOUND
+   */
+  public int lookup(long key) {
+    for (int slot = slotOf(key, mask); ; slot = (slot + 1) & mask) {
+      int entry = slots.getInt(offsetOf(slot) + 8);
+      if (entry == NOT_FOUND || slots.getLong(offsetOf(slot)) == key) {
+        return entry;
+      }
+    }
+  }
+
+  /**
+   * Packs the best move of a position and the margin it leads to into an entry.
+   *
+   * @param cell   cell index of the move, row * numCols + col
+   * @param hand   hand index of the move
+   * @param margin final score of the player to move minus their opponent's
+   * @return the packed entry
+   * @throws IllegalArgumentException if a field doesn't fit the entry
+   */
+  static int entryOf(int cell, int hand, int margin) {
+    if (cell < 0 || cell > 0xFF || hand < 0 || hand > 0xFF
+            || margin <= -MARGIN_BIAS || margin >= MARGIN_BIAS) {
+      throw new IllegalArgumentException("Move or margin too large for a tablebase entry.");
+    }
+    return (margin + MARGIN_BIAS) << 16 | cell << 8 | hand;
+  }
+
+  /**
+   * Gets the cell of the best move from an entry.
+   *
+   * @param entry entry returned by lookup
+   * @return cell index, row * numCols + col
+   */
+  public static int cellOf(int entry) {
+    return entry >>> 8 & 0xFF;
+  }
+
+  /**
+   * Gets the hand index of the best move from an entry.
+   *
+   * @param entry entry returned by lookup
+   * @return hand index
+   */
+  public static int handOf(int entry) {
+    return entry & 0xFF;
+  }
+
+  /**
+   * Gets the final score margin of perfect play from an entry.
+   *
+   * @param entry entry returned by lookup
+   * @return score of the player to move minus their opponent's at the end of the game
+   */
+  public static int marginOf(int entry) {
+    return (entry >>> 16) - MARGIN_BIAS;
+  }
+
+  /**
+   * Hashes the layout of a grid, its size and which cells are holes.
+   *
+   * @param grid grid to hash
+   * @return 64-bit hash of the layout
+   */
+  public static long layoutHashOf(ReadOnlyGrid grid) {
+    long hash = mix(mix(grid.getNumRows()) ^ grid.getNumCols());
+    for (int row = 0; row < grid.getNumRows(); row++) {
+      for (int col = 0; col < grid.getNumCols(); col++) {
+        hash = mix(hash ^ (grid.isCardCell(row, col) ? 1 : 2));
+      }
+    }
+    return hash;
+  }
+
+  // SplitMix64 finalizer, so that every field affects every bit of the key
+  private static long mix(long z) {
+    z += 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Gets the hash of the grid layout the table's positions were played on.
+   *
+   * @return layout hash, as layoutHashOf computes it
+   */
+  public long getLayoutHash() {
+    return layoutHash;
+  }
+
+  /**
+   * Gets the fewest empty cells a stored position has. Positions with fewer are left to an
+   * endgame search.
+   *
+   * @return empty cell count of the deepest stored positions
+   */
+  public int getMinEmptyCells() {
+    return minEmptyCells;
+  }
+
+  /**
+   * Gets the number of positions stored.
+   *
+   * @return number of entries
+   */
+  public int size() {
+    return size;
+  }
+}
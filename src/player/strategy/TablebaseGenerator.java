@@ -0,0 +1,232 @@
+package player.strategy;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.BoardSymmetry;
+import model.ReadOnlyCellIndex;
+import model.ThreeTriosGameModel;
+import model.UndoableThreeTriosModel;
+import model.card.Colors;
+import player.GameMoveData;
+import player.UserPlayer;
+
+/**
+ * Solves every position reachable from a starting position down to a number of empty cells
+ * and writes the results out as a {@link Tablebase}. Positions with exactly that many empty
+ * cells are solved with an {@link EndgameSolver}; every position above them is then worked out
+ * backwards from the entries of its children, so each position is solved once however many
+ * move orders or rotations and reflections of the board lead to it. Meant for small boards,
+ * such as the 3x3 basic board, whose upper game tree fits in memory.
+ *
+ * <p>The work is split by the distinct positions a few moves from the start, each solved on
+ * its own copy of the model by a pool of threads. Solved positions go into one shared map, so
+ * subtrees reached from several of those positions are only solved by whichever thread gets
+ * there first.</p>
+ */
+public final class TablebaseGenerator {
+  // Moves from the start at which the work is split into tasks
+  private static final int SPLIT_PLIES = 2;
+  // Transposition table entries of each thread's endgame solver, 16 bytes each
+  private static final int SOLVER_TABLE_ENTRIES = 1 << 18;
+
+  private final int minEmptyCells;
+  private final int threads;
+
+  /**
+   * Constructor for initializing a TablebaseGenerator.
+   *
+   * @param minEmptyCells fewest empty cells a stored position has
+   * @param threads       number of threads to solve positions on
+   * @throws IllegalArgumentException if minEmptyCells or threads isn't positive
+   */
+  public TablebaseGenerator(int minEmptyCells, int threads) {
+    if (minEmptyCells < 1 || threads < 1) {
+      throw new IllegalArgumentException("Empty cells and threads must be positive.");
+    }
+    this.minEmptyCells = minEmptyCells;
+    this.threads = threads;
+  }
+
+  /**
+   * Solves every position reachable from the model's current position that has at least
+   * minEmptyCells empty cells. The model is left as it was.
+   *
+   * @param model model in the position to start from
+   * @return packed tablebase entries by position key
+   * @throws IllegalArgumentException if the game isn't in progress or has fewer empty cells
+   *                                  than minEmptyCells
+   * @throws IllegalStateException    if solving a position fails or is interrupted
+   */
+  public Map<Long, Integer> generate(UndoableThreeTriosModel model) {
+    if (!model.isGameStarted() || model.isGameOver()
+            || model.getCellIndex().getNumEmptyCells() < minEmptyCells) {
+      throw new IllegalArgumentException("Game must be in progress with at least "
+              + minEmptyCells + " empty cells.");
+    }
+    Map<Long, Integer> entries = new ConcurrentHashMap<>();
+    BoardSymmetry symmetry = new BoardSymmetry(model.getGridView());
+    int splitPlies = Math.min(SPLIT_PLIES,
+            model.getCellIndex().getNumEmptyCells() - minEmptyCells);
+    List<List<GameMoveData>> splits = new ArrayList<>();
+    collectSplits(model, symmetry, splitPlies, new ArrayList<>(), new HashSet<>(), splits);
+
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    // Each thread keeps its solver's table, as positions below the stored ones repeat
+    ThreadLocal<TranspositionTable> tables = ThreadLocal.withInitial(
+        () -> new TranspositionTable(SOLVER_TABLE_ENTRIES));
+    try {
+      List<Future<Integer>> tasks = new ArrayList<>();
+      for (List<GameMoveData> path : splits) {
+        tasks.add(pool.submit(() -> {
+          UndoableThreeTriosModel copy = model.copy();
+          for (GameMoveData move : path) {
+            copy.applyMove(move);
+          }
+          return solve(copy, new EndgameSolver(copy, minEmptyCells, tables.get()), symmetry,
+                  entries);
+        }));
+      }
+      for (Future<Integer> task : tasks) {
+        task.get();
+      }
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Failed to solve a position.", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while solving positions.", e);
+    } finally {
+      pool.shutdownNow();
+    }
+    // Everything below the split positions is solved, so this only fills in the top
+    UndoableThreeTriosModel copy = model.copy();
+    solve(copy, new EndgameSolver(copy, minEmptyCells), symmetry, entries);
+    return entries;
+  }
+
+  /**
+   * Solves positions as generate does and writes them out as a table file.
+   *
+   * @param model model in the position to start from
+   * @param path  file to write, replaced if it exists
+   * @return number of positions written
+   * @throws IOException              if the file can't be written
+   * @throws IllegalArgumentException if the game isn't in progress or has fewer empty cells
+   *                                  than minEmptyCells
+   * @throws IllegalStateException    if solving a position fails or is interrupted
+   */
+  public int generate(UndoableThreeTriosModel model, Path path) throws IOException {
+    Map<Long, Integer> entries = generate(model);
+    Tablebase.write(path, entries, Tablebase.layoutHashOf(model.getGridView()), minEmptyCells);
+    return entries.size();
+  }
+
+  private void collectSplits(UndoableThreeTriosModel model, BoardSymmetry symmetry, int plies,
+                             List<GameMoveData> path, Set<Long> seen,
+                             List<List<GameMoveData>> splits) {
+    if (!seen.add(symmetry.canonicalKey(model))) {
+      return;
+    } else if (plies == 0) {
+      splits.add(List.copyOf(path));
+      return;
+    }
+    for (GameMoveData move : moves(model)) {
+      model.applyMove(move);
+      path.add(move);
+      collectSplits(model, symmetry, plies - 1, path, seen, splits);
+      path.remove(path.size() - 1);
+      model.undoMove();
+    }
+  }
+
+  private static List<GameMoveData> moves(UndoableThreeTriosModel model) {
+    ReadOnlyCellIndex cells = model.getCellIndex();
+    int handSize = model.getPlayerInTurn().getHandView().size();
+    List<GameMoveData> moves = new ArrayList<>(cells.getNumEmptyCells() * handSize);
+    for (int i = 0; i < cells.getNumEmptyCells(); i++) {
+      int cell = cells.getEmptyCell(i);
+      for (int card = 0; card < handSize; card++) {
+        moves.add(new GameMoveData(cell / cells.getNumCols(), cell % cells.getNumCols(), card));
+      }
+    }
+    return moves;
+  }
+
+  // Gets the entry of the model's position, solving it and every position below it first.
+  // Entries hold the best move of the canonical form, mapped by the canonical symmetry.
+  private int solve(UndoableThreeTriosModel model, EndgameSolver solver, BoardSymmetry symmetry,
+                    Map<Long, Integer> entries) {
+    int canonical = symmetry.canonicalSymmetry(model);
+    long key = symmetry.keyOf(model, canonical);
+    Integer known = entries.get(key);
+    if (known != null) {
+      return known;
+    }
+    int cols = model.getCellIndex().getNumCols();
+    int entry;
+    if (model.getCellIndex().getNumEmptyCells() <= minEmptyCells) {
+      GameMoveData best = solver.execute().get(0);
+      entry = Tablebase.entryOf(symmetry.mapCell(canonical,
+              best.getGridRow() * cols + best.getGridCol()), best.getCardIndex(),
+              solver.getBestMoveValue());
+    } else {
+      boolean isRed = model.getPlayerInTurn().getColor() == Colors.RED;
+      int bestMargin = Integer.MIN_VALUE;
+      GameMoveData best = null;
+      for (GameMoveData move : moves(model)) {
+        model.applyMove(move);
+        int margin = model.isGameOver()
+                ? model.getPlayerScore(isRed) - model.getPlayerScore(!isRed)
+                : -Tablebase.marginOf(solve(model, solver, symmetry, entries));
+        model.undoMove();
+        if (margin > bestMargin) {
+          bestMargin = margin;
+          best = move;
+        }
+      }
+      entry = Tablebase.entryOf(symmetry.mapCell(canonical,
+              best.getGridRow() * cols + best.getGridCol()), best.getCardIndex(), bestMargin);
+    }
+    entries.put(key, entry);
+    return entry;
+  }
+
+  /**
+   * Generates the table of a deal from its config files.
+   *
+   * @param args grid config, card config, output file, and optionally the fewest empty cells
+   *             of a stored position (default 6), the number of threads (default one per
+   *             core) and the seed to shuffle the deck with (default unshuffled)
+   * @throws IOException if the table can't be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 3) {
+      throw new IllegalArgumentException("Usage: TablebaseGenerator grid_config card_config "
+              + "output [min_empty_cells] [threads] [seed]");
+    }
+    int minEmptyCells = args.length > 3 ? Integer.parseInt(args[3]) : 6;
+    int threads = args.length > 4 ? Integer.parseInt(args[4])
+            : Runtime.getRuntime().availableProcessors();
+    ThreeTriosGameModel model = args.length > 5
+            ? new ThreeTriosGameModel(args[0], args[1], new Random(Long.parseLong(args[5])))
+            : new ThreeTriosGameModel(args[0], args[1]);
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            args.length > 5);
+
+    long start = System.nanoTime();
+    int size = new TablebaseGenerator(minEmptyCells, threads).generate(model, Path.of(args[2]));
+    System.out.printf("%d positions solved in %.1f s on %d threads%n", size,
+            (System.nanoTime() - start) / 1e9, threads);
+  }
+}
@@ -0,0 +1,91 @@
+package player.strategy;
+
+import java.util.List;
+
+import model.BoardSymmetry;
+import model.UndoableThreeTriosModel;
+import player.GameMoveData;
+
+/**
+ * Represents the functionality for executing the TablebaseStrategy.
+ * Plays perfectly by looking the current position up in a precomputed {@link Tablebase}, so a
+ * move takes constant time however early in the game it is: a hash of the position under each
+ * symmetry of the board and a probe. Positions deeper than the table goes are handed to an
+ * endgame solver, which solves them quickly as few cells are left. The best move value is the
+ * final score margin the move leads to.
+ */
+public class TablebaseStrategy extends AbstractStrategy {
+  private final Tablebase table;
+  private final BoardSymmetry symmetry;
+  private final EndgameSolver fallback;
+
+  /**
+   * Constructor for initializing a TablebaseStrategy.
+   *
+   * @param model model to play on
+   * @param table table generated for the model's grid layout and deal
+   * @throws IllegalArgumentException if model or table is null, or the table was generated
+   *                                  for a different grid layout
+   */
+  public TablebaseStrategy(UndoableThreeTriosModel model, Tablebase table) {
+    super(model);
+    if (model == null || table == null) {
+      throw new IllegalArgumentException("Constructor does not take null parameters.");
+    } else if (table.getLayoutHash() != Tablebase.layoutHashOf(model.getGridView())) {
+      throw new IllegalArgumentException("Tablebase was generated for a different grid.");
+    }
+    this.table = table;
+    this.symmetry = new BoardSymmetry(model.getGridView());
+    // Positions missing from the table have fewer empty cells than the stored ones
+    this.fallback = table.getMinEmptyCells() > 1
+            ? new EndgameSolver(model, table.getMinEmptyCells() - 1) : null;
+  }
+
+  @Override
+  public boolean supportsCopy() {
+    return true;
+  }
+
+  @Override
+  public Strategy copyFor(UndoableThreeTriosModel model) {
+    return new TablebaseStrategy(model, table);
+  }
+
+  @Override
+  public void setEvaluationCache(EvaluationCache cache) {
+    super.setEvaluationCache(cache);
+    if (fallback != null) {
+      fallback.setEvaluationCache(cache);
+    }
+  }
+
+  /**
+   * Looks up the best move of the current position, or solves for it if the position is
+   * deeper than the table goes.
+   *
+   * @return the best move
+   * @throws IllegalStateException if the game isn't in progress, or the position is neither
+   *                               in the table nor deep enough to solve, as happens with a
+   *                               table generated for another deal
+   */
+  @Override
+  public List<GameMoveData> execute() {
+    if (!model.isGameStarted() || model.isGameOver()) {
+      throw new IllegalStateException("Game isn't in progress.");
+    }
+    int canonical = symmetry.canonicalSymmetry(model);
+    int entry = table.lookup(symmetry.keyOf(model, canonical));
+    if (entry != Tablebase.NOT_FOUND) {
+      bestMoveValue = Tablebase.marginOf(entry);
+      int cols = model.getCellIndex().getNumCols();
+      // The entry holds the move of the canonical form, which is mapped back onto this one
+      int cell = symmetry.unmapCell(canonical, Tablebase.cellOf(entry));
+      return List.of(new GameMoveData(cell / cols, cell % cols, Tablebase.handOf(entry)));
+    } else if (fallback != null && fallback.canSolve()) {
+      List<GameMoveData> moves = fallback.execute();
+      bestMoveValue = fallback.getBestMoveValue();
+      return moves;
+    }
+    throw new IllegalStateException("Position isn't in the tablebase.");
+  }
+}
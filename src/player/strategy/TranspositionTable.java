@@ -0,0 +1,238 @@
+package player.strategy;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size transposition table mapping position hashes to search results, so that positions
+ * reached through different move orders are only searched once. Safe to share between threads
+ * and between the moves of a game without locking: each slot stores the hash XORed with its
+ * data, so an entry torn by concurrent writers simply fails verification and reads as a miss.
+ * When two positions compete for a slot, the one searched deeper is kept, unless it was stored
+ * by an earlier search: cards never leave the grid, so positions searched for earlier moves
+ * of a game can't come up again, and they give way to anything the current search stores.
+ */
+public final class TranspositionTable {
+  /**
+   * Bound type for a value that is exact.
+   */
+  public static final int EXACT = 0;
+  /**
+   * Bound type for a value that is at least the stored value (search failed high).
+   */
+  public static final int LOWER_BOUND = 1;
+  /**
+   * Bound type for a value that is at most the stored value (search failed low).
+   */
+  public static final int UPPER_BOUND = 2;
+  /**
+   * Returned by probe when the table holds nothing for a position.
+   */
+  public static final long NOT_FOUND = 0;
+
+  // Data layout: value in bits 0-31, depth in 32-39, bound in 40-41, move hint in 42-54,
+  // search generation in 55-62 and a valid flag in bit 63 so that a stored entry is never
+  // equal to NOT_FOUND.
+  private static final int DEPTH_SHIFT = 32;
+  private static final int BOUND_SHIFT = 40;
+  private static final int MOVE_SHIFT = 42;
+  private static final long MOVE_MASK = (1L << 13) - 1;
+  private static final int GENERATION_SHIFT = 55;
+  private static final int GENERATION_MASK = 0xFF;
+  private static final long VALID = 1L << 63;
+
+  private final AtomicLongArray slots;
+  private final int indexMask;
+  // Search entries are stored for, wrapping around after 256 searches
+  private volatile int generation;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder collisions;
+
+  /**
+   * Constructs an empty table.
+   *
+   * @param capacity minimum number of entries, rounded up to a power of two. Each entry takes
+   *                 16 bytes.
+   * @throws IllegalArgumentException if capacity isn't positive or exceeds 2^30
+   */
+  public TranspositionTable(int capacity) {
+    if (capacity < 1 || capacity > (1 << 30)) {
+      throw new IllegalArgumentException("Capacity must be between 1 and 2^30.");
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size <<= 1;
+    }
+    this.slots = new AtomicLongArray(size * 2);
+    this.indexMask = size - 1;
+    this.hits = new LongAdder();
+    this.misses = new LongAdder();
+    this.collisions = new LongAdder();
+  }
+
+  private int slotOf(long key) {
+    // Mix high bits in so that keys differing only there still spread over the table
+    return (int) ((key ^ (key >>> 32)) & indexMask) * 2;
+  }
+
+  /**
+   * Looks up a position.
+   *
+   * @param key position hash
+   * @return the packed entry, to be read with the static accessors, or NOT_FOUND
+   */
+  public long probe(long key) {
+    int slot = slotOf(key);
+    long data = slots.get(slot + 1);
+    long check = slots.get(slot);
+    if (data == NOT_FOUND) {
+      misses.increment();
+      return NOT_FOUND;
+    } else if ((check ^ data) != key) {
+      // Slot holds a different position (or was torn by a concurrent write)
+      misses.increment();
+      collisions.increment();
+      return NOT_FOUND;
+    }
+    hits.increment();
+    return data;
+  }
+
+  /**
+   * Starts a new search, e.g. for the next move of a game. Entries stored before are still
+   * found by probe, but any entry of the new search may replace them however deep they were
+   * searched.
+   */
+  public void newSearch() {
+    generation = (generation + 1) & GENERATION_MASK;
+  }
+
+  /**
+   * Records the result of searching a position. An existing entry for a different position
+   * is only replaced if it was searched no deeper than this one or by an earlier search.
+   *
+   * @param key      position hash
+   * @param depth    remaining depth the position was searched to, 0 to 255
+   * @param bound    EXACT, LOWER_BOUND or UPPER_BOUND
+   * @param value    value of the position for the player to move
+   * @param moveHint non-negative hint about the best move, or -1 for none. Hints above
+   *                 2^13 - 2, such as most cells of a 100x100 board, don't fit in the entry
+   *                 and are stored as none rather than wrapped onto another move.
+   */
+  public void store(long key, int depth, int bound, int value, int moveHint) {
+    int slot = slotOf(key);
+    long existing = slots.get(slot + 1);
+    int current = generation;
+    if (existing != NOT_FOUND && (slots.get(slot) ^ existing) != key
+            && generationOf(existing) == current && depthOf(existing) > depth) {
+      return;
+    }
+    long move = moveHint + 1L > MOVE_MASK ? 0 : moveHint + 1L;
+    long data = VALID
+            | (long) current << GENERATION_SHIFT
+            | (move & MOVE_MASK) << MOVE_SHIFT
+            | (long) (bound & 3) << BOUND_SHIFT
+            | (long) (depth & 0xFF) << DEPTH_SHIFT
+            | (value & 0xFFFFFFFFL);
+    slots.set(slot, key ^ data);
+    slots.set(slot + 1, data);
+  }
+
+  /**
+   * Gets the value of a packed entry.
+   *
+   * @param entry entry returned by probe
+   * @return stored value
+   */
+  public static int valueOf(long entry) {
+    return (int) entry;
+  }
+
+  /**
+   * Gets the depth of a packed entry.
+   *
+   * @param entry entry returned by probe
+   * @return stored remaining depth
+   */
+  public static int depthOf(long entry) {
+    return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+  }
+
+  /**
+   * Gets the bound type of a packed entry.
+   *
+   * @param entry entry returned by probe
+   * @return EXACT, LOWER_BOUND or UPPER_BOUND
+   */
+  public static int boundOf(long entry) {
+    return (int) (entry >>> BOUND_SHIFT) & 3;
+  }
+
+  /**
+   * Gets the move hint of a packed entry.
+   *
+   * @param entry entry returned by probe
+   * @return stored move hint, or -1 if none was stored
+   */
+  public static int moveOf(long entry) {
+    return (int) ((entry >>> MOVE_SHIFT) & MOVE_MASK) - 1;
+  }
+
+  private static int generationOf(long entry) {
+    return (int) (entry >>> GENERATION_SHIFT) & GENERATION_MASK;
+  }
+
+  /**
+   * Empties the table and resets its counters, e.g. between games.
+   */
+  public void clear() {
+    for (int i = 0; i < slots.length(); i++) {
+      slots.set(i, 0);
+    }
+    generation = 0;
+    hits.reset();
+    misses.reset();
+    collisions.reset();
+  }
+
+  /**
+   * Gets the number of entries the table holds, the requested capacity rounded up to a power
+   * of two.
+   *
+   * @return entry count
+   */
+  public int getCapacity() {
+    return indexMask + 1;
+  }
+
+  /**
+   * Gets the number of probes that found the position, since the table was created or last
+   * cleared.
+   *
+   * @return hit count
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * Gets the number of probes that found nothing for the position, including collisions,
+   * since the table was created or last cleared.
+   *
+   * @return miss count
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * Gets the number of probes that found the slot occupied by a different position.
+   * These are also counted as misses.
+   *
+   * @return collision count
+   */
+  public long getCollisions() {
+    return collisions.sum();
+  }
+}
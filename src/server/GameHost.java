@@ -0,0 +1,429 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import model.ReadOnlyGrid;
+import model.ThreeTriosGameModel;
+import model.card.Colors;
+import model.card.Positions;
+import model.card.ReadOnlyCard;
+import player.ComputerPlayer;
+import player.GameMoveData;
+import player.UserPlayer;
+import tournament.Contestant;
+
+/**
+ * Hosts many games at once for remote clients, without a view. Each game is confined to a
+ * stripe, a single thread shared by every game whose id maps to it, so the moves of a game are
+ * applied in order without locks while games on other stripes run in parallel. Computer turns
+ * are chosen on a bounded pool of AI workers from a copy of the game, then applied back on the
+ * game's stripe, so a slow strategy never holds up the other games of its stripe.
+ *
+ * <p>Every operation on a game returns a future completed on the game's stripe with the state
+ * of the game as text: a line per field, the grid a line per row, holes as X, empty cells
+ * as _ and cards as the color of their owner, followed by the hand of the player in turn.</p>
+ */
+public final class GameHost implements AutoCloseable {
+  private static final long RETRY_DELAY_MILLIS = 5;
+
+  private final String gridConfigFilePath;
+  private final String cardConfigFilePath;
+  private final long seed;
+  private final ExecutorService[] stripes;
+  private final ThreadPoolExecutor aiWorkers;
+  private final ScheduledExecutorService retries;
+  private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+  private final AtomicLong nextId = new AtomicLong();
+  private final AtomicLong movesPlayed = new AtomicLong();
+  private volatile boolean closed;
+
+  /**
+   * A hosted game and the state only its stripe reads and writes.
+   */
+  private static final class Session {
+    private final long id;
+    private final ThreeTriosGameModel model;
+    // Contestant playing each color, indexed 0 for red and 1 for blue, null for a client
+    private final Contestant[] contestants;
+    private final ExecutorService stripe;
+    // Completed once a client is in turn again or the game is over
+    private final List<CompletableFuture<String>> waiting = new ArrayList<>();
+    private boolean removed;
+    private String failure;
+
+    Session(long id, ThreeTriosGameModel model, Contestant[] contestants,
+            ExecutorService stripe) {
+      this.id = id;
+      this.model = model;
+      this.contestants = contestants;
+      this.stripe = stripe;
+    }
+
+    int turn() {
+      return model.getPlayerInTurn().getColor() == Colors.RED ? 0 : 1;
+    }
+  }
+
+  /**
+   * Constructor for initializing a GameHost and starting its threads.
+   *
+   * @param gridConfigFilePath path to the grid config file every game is played on
+   * @param cardConfigFilePath path to the card config file every game is dealt from
+   * @param numStripes         number of threads the games are spread over
+   * @param aiThreads          number of threads choosing computer moves
+   * @param aiQueueCapacity    number of computer turns that can wait for an AI thread before
+   *                           further turns are retried later
+   * @param seed               seed the shuffle of every game is derived from
+   * @throws IllegalArgumentException if a path is null, a count isn't positive or the configs
+   *                                  are invalid
+   * @throws IllegalStateException    if reading from the config files produces an IOException
+   */
+  public GameHost(String gridConfigFilePath, String cardConfigFilePath, int numStripes,
+                  int aiThreads, int aiQueueCapacity, long seed) {
+    if (gridConfigFilePath == null || cardConfigFilePath == null) {
+      throw new IllegalArgumentException("Constructor does not take null parameters.");
+    } else if (numStripes < 1 || aiThreads < 1 || aiQueueCapacity < 1) {
+      throw new IllegalArgumentException("Stripes, AI threads and AI queue capacity must be "
+              + "positive.");
+    }
+    // Fail on bad configs now rather than on the first game
+    new ThreeTriosGameModel(gridConfigFilePath, cardConfigFilePath, seed);
+    this.gridConfigFilePath = gridConfigFilePath;
+    this.cardConfigFilePath = cardConfigFilePath;
+    this.seed = seed;
+    this.stripes = new ExecutorService[numStripes];
+    for (int i = 0; i < numStripes; i++) {
+      stripes[i] = Executors.newSingleThreadExecutor(daemonThreads("game-stripe-" + i));
+    }
+    this.aiWorkers = new ThreadPoolExecutor(aiThreads, aiThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(aiQueueCapacity), daemonThreads("game-ai"));
+    this.retries = Executors.newSingleThreadScheduledExecutor(daemonThreads("game-ai-retry"));
+  }
+
+  private static ThreadFactory daemonThreads(String name) {
+    AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, name + "-" + count.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * Creates and starts a game. Each color is played either by a client, given as "h", or by a
+   * computer, given as comma separated strategy numbers as accepted by ThreeTrios, e.g. "1,3".
+   * If red is a computer, its first move is chosen in the background.
+   *
+   * @param red  who plays red
+   * @param blue who plays blue
+   * @return id of the new game
+   * @throws IllegalArgumentException if either player is null or holds an invalid strategy
+   *                                  number
+   * @throws IllegalStateException    if the host is closed
+   */
+  public long createGame(String red, String blue) {
+    Contestant[] contestants = {parsePlayer(red), parsePlayer(blue)};
+    if (closed) {
+      throw new IllegalStateException("Host is closed.");
+    }
+    long id = nextId.getAndIncrement();
+    ThreeTriosGameModel model = new ThreeTriosGameModel(gridConfigFilePath, cardConfigFilePath,
+            seed * 31 + id);
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            true);
+    Session session = new Session(id, model, contestants,
+            stripes[(int) (id % stripes.length)]);
+    sessions.put(id, session);
+    session.stripe.execute(() -> advance(session));
+    return id;
+  }
+
+  private static Contestant parsePlayer(String player) {
+    if (player == null) {
+      throw new IllegalArgumentException("Player cannot be null.");
+    }
+    return player.equals("h") ? null : Contestant.fromCodes(player);
+  }
+
+  /**
+   * Gets the current state of a game.
+   *
+   * @param id id of the game
+   * @return future of the state, failed with NoSuchElementException if there is no such game
+   */
+  public CompletableFuture<String> getState(long id) {
+    return onStripe(id, (session, result) -> result.complete(describe(session)));
+  }
+
+  /**
+   * Waits until a client is in turn in a game or the game is over, then gets its state.
+   *
+   * @param id id of the game
+   * @return future of the state, failed with NoSuchElementException if there is no such game
+   *         or IllegalStateException if a computer player failed
+   */
+  public CompletableFuture<String> awaitTurn(long id) {
+    return onStripe(id, (session, result) -> {
+      session.waiting.add(result);
+      if (!session.model.isGameOver() && session.contestants[session.turn()] != null) {
+        return;
+      }
+      completeWaiting(session);
+    });
+  }
+
+  /**
+   * Plays a client's move and waits for the computer's reply, if the other color is played
+   * by a computer.
+   *
+   * @param id    id of the game
+   * @param color color the client plays
+   * @param move  the move to play
+   * @return future of the state once a client is in turn again or the game is over, failed
+   *         with NoSuchElementException if there is no such game, IllegalArgumentException if
+   *         the move is invalid or IllegalStateException if it isn't the color's turn or a
+   *         computer player failed
+   * @throws IllegalArgumentException if color or move is null
+   */
+  public CompletableFuture<String> playMove(long id, Colors color, GameMoveData move) {
+    if (color == null || move == null) {
+      throw new IllegalArgumentException("Color and move cannot be null.");
+    }
+    return onStripe(id, (session, result) -> {
+      if (session.model.isGameOver()) {
+        throw new IllegalStateException("Game is over.");
+      }
+      int turn = session.turn();
+      if ((turn == 0 ? Colors.RED : Colors.BLUE) != color
+              || session.contestants[turn] != null) {
+        throw new IllegalStateException("It is not " + color + "'s turn to move.");
+      }
+      session.model.playMove(move);
+      movesPlayed.incrementAndGet();
+      session.waiting.add(result);
+      advance(session);
+    });
+  }
+
+  /**
+   * Removes a game. Clients waiting on it are failed, and a computer move being chosen for it
+   * is dropped.
+   *
+   * @param id id of the game
+   * @return true if there was such a game
+   */
+  public boolean removeGame(long id) {
+    Session session = sessions.remove(id);
+    if (session == null) {
+      return false;
+    }
+    session.stripe.execute(() -> {
+      session.removed = true;
+      for (CompletableFuture<String> waiter : session.waiting) {
+        waiter.completeExceptionally(new NoSuchElementException("Game " + id + " was removed."));
+      }
+      session.waiting.clear();
+    });
+    return true;
+  }
+
+  /**
+   * Gets the number of games hosted, whether or not they are over.
+   *
+   * @return number of games not removed
+   */
+  public int getNumGames() {
+    return sessions.size();
+  }
+
+  /**
+   * Gets the number of moves played on every game hosted, by clients and computers.
+   *
+   * @return number of moves played since the host was created
+   */
+  public long getMovesPlayed() {
+    return movesPlayed.get();
+  }
+
+  /**
+   * Stops every thread of the host. Futures not yet completed are never completed.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    for (ExecutorService stripe : stripes) {
+      stripe.shutdownNow();
+    }
+    aiWorkers.shutdownNow();
+    retries.shutdownNow();
+  }
+
+  /**
+   * Work done on a game's stripe, which completes the result or throws to fail it.
+   */
+  private interface StripeTask {
+    void run(Session session, CompletableFuture<String> result);
+  }
+
+  private CompletableFuture<String> onStripe(long id, StripeTask task) {
+    CompletableFuture<String> result = new CompletableFuture<>();
+    Session session = sessions.get(id);
+    if (session == null) {
+      result.completeExceptionally(new NoSuchElementException("No game with id " + id));
+      return result;
+    }
+    try {
+      session.stripe.execute(() -> {
+        try {
+          if (session.removed) {
+            throw new NoSuchElementException("No game with id " + id);
+          } else if (session.failure != null) {
+            throw new IllegalStateException(session.failure);
+          }
+          task.run(session, result);
+        } catch (RuntimeException e) {
+          result.completeExceptionally(e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      result.completeExceptionally(new IllegalStateException("Host is closed."));
+    }
+    return result;
+  }
+
+  // Runs on the stripe after every move: wakes clients if one is in turn, or hands the turn
+  // to the AI workers
+  private void advance(Session session) {
+    if (session.model.isGameOver() || session.contestants[session.turn()] == null) {
+      completeWaiting(session);
+      return;
+    }
+    int turn = session.turn();
+    ThreeTriosGameModel copy = new ThreeTriosGameModel(session.model);
+    think(session, copy, session.contestants[turn], turn == 0 ? Colors.RED : Colors.BLUE);
+  }
+
+  private void think(Session session, ThreeTriosGameModel copy, Contestant contestant,
+                     Colors color) {
+    try {
+      aiWorkers.execute(() -> {
+        GameMoveData move = null;
+        RuntimeException error = null;
+        try {
+          move = new ComputerPlayer(contestant.createStrategies(copy), copy, color)
+                  .getNextPlacement();
+        } catch (RuntimeException e) {
+          error = e;
+        }
+        GameMoveData chosen = move;
+        RuntimeException thrown = error;
+        try {
+          session.stripe.execute(() -> playComputerMove(session, chosen, thrown));
+        } catch (RejectedExecutionException e) {
+          // The host was closed while the move was chosen
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      if (closed) {
+        return;
+      }
+      // Every AI worker is busy and the queue is full, so try again shortly
+      try {
+        retries.schedule(() -> think(session, copy, contestant, color), RETRY_DELAY_MILLIS,
+                TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException closing) {
+        // The host was closed meanwhile
+      }
+    }
+  }
+
+  private void playComputerMove(Session session, GameMoveData move, RuntimeException error) {
+    if (session.removed) {
+      return;
+    }
+    if (error == null) {
+      try {
+        session.model.playMove(move);
+        movesPlayed.incrementAndGet();
+        advance(session);
+        return;
+      } catch (IllegalArgumentException | IllegalStateException e) {
+        error = e;
+      }
+    }
+    session.failure = "Computer player failed: " + error.getMessage();
+    for (CompletableFuture<String> waiter : session.waiting) {
+      waiter.completeExceptionally(new IllegalStateException(session.failure));
+    }
+    session.waiting.clear();
+  }
+
+  private void completeWaiting(Session session) {
+    if (session.waiting.isEmpty()) {
+      return;
+    }
+    String state = describe(session);
+    for (CompletableFuture<String> waiter : session.waiting) {
+      waiter.complete(state);
+    }
+    session.waiting.clear();
+  }
+
+  private static String describe(Session session) {
+    ThreeTriosGameModel model = session.model;
+    StringBuilder output = new StringBuilder();
+    output.append("game ").append(session.id).append('\n');
+    boolean over = model.isGameOver();
+    output.append("status ").append(over ? "OVER" : model.getPlayerInTurn().getColor())
+            .append('\n');
+    output.append("moves ").append(model.getMoveLog().getNumMoves()).append('\n');
+    int redScore = model.getPlayerScore(true);
+    int blueScore = model.getPlayerScore(false);
+    output.append("score ").append(redScore).append(' ').append(blueScore).append('\n');
+    if (over) {
+      output.append("winner ").append(redScore > blueScore ? "RED"
+              : blueScore > redScore ? "BLUE" : "DRAW").append('\n');
+    }
+    ReadOnlyGrid grid = model.getGridView();
+    output.append("grid ").append(grid.getNumRows()).append(' ').append(grid.getNumCols())
+            .append('\n');
+    for (int row = 0; row < grid.getNumRows(); row++) {
+      for (int col = 0; col < grid.getNumCols(); col++) {
+        if (!grid.isCardCell(row, col)) {
+          output.append('X');
+        } else if (!grid.hasCard(row, col)) {
+          output.append('_');
+        } else {
+          output.append(grid.getCard(row, col).getColor() == Colors.RED ? 'R' : 'B');
+        }
+      }
+      output.append('\n');
+    }
+    if (!over) {
+      List<ReadOnlyCard> hand = model.getPlayerInTurn().getHandView();
+      output.append("hand ").append(hand.size()).append('\n');
+      for (ReadOnlyCard card : hand) {
+        output.append(card.getName());
+        for (Positions pos : Positions.values()) {
+          output.append(' ').append(card.getValueFromPos(pos));
+        }
+        output.append('\n');
+      }
+    }
+    return output.toString();
+  }
+}
@@ -0,0 +1,226 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import model.card.Colors;
+import player.GameMoveData;
+
+/**
+ * Serves the games of a GameHost over HTTP, with the JDK's built-in server. Requests and
+ * responses are plain text, every response being the state of a game as described by GameHost:
+ * <ul>
+ *   <li>POST /games?red=h&amp;blue=1,3 creates a game and responds once a client is in
+ *   turn</li>
+ *   <li>GET /games/{id} gets the state of a game, or waits for a client's turn with
+ *   ?wait=true</li>
+ *   <li>POST /games/{id}/moves?color=red&amp;row=0&amp;col=1&amp;hand=2 plays a move and
+ *   responds once a client is in turn again</li>
+ *   <li>DELETE /games/{id} removes a game</li>
+ * </ul>
+ * Invalid requests get 400, unknown games 404 and moves out of turn 409. Responses are sent
+ * when the host completes them, so no HTTP thread waits on a computer move.
+ */
+public final class GameServer implements AutoCloseable {
+  private static final String MAX_IDLE_CONNECTIONS = "sun.net.httpserver.maxIdleConnections";
+
+  private final GameHost host;
+  private final HttpServer server;
+  private final ExecutorService httpThreads;
+
+  /**
+   * Constructor for initializing a GameServer and starting to serve requests.
+   *
+   * @param host       host of the games served
+   * @param port       port to listen on, 0 for any free port
+   * @param numThreads number of threads parsing requests
+   * @throws IllegalArgumentException if host is null or numThreads isn't positive
+   * @throws IllegalStateException    if the port can't be listened on
+   */
+  public GameServer(GameHost host, int port, int numThreads) {
+    if (host == null) {
+      throw new IllegalArgumentException("Host cannot be null.");
+    } else if (numThreads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive.");
+    }
+    this.host = host;
+    try {
+      this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot listen on port " + port + ": " + e.getMessage());
+    }
+    this.httpThreads = Executors.newFixedThreadPool(numThreads);
+    server.setExecutor(httpThreads);
+    server.createContext("/games", this::handle);
+    server.start();
+  }
+
+  /**
+   * Gets the port the server listens on.
+   *
+   * @return the bound port
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Stops serving requests. The host is left running.
+   */
+  @Override
+  public void close() {
+    server.stop(0);
+    httpThreads.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) {
+    // "/games/3/moves" splits into "", "games", "3", "moves"
+    String[] path = exchange.getRequestURI().getPath().split("/");
+    int okStatus = path.length == 2 && exchange.getRequestMethod().equals("POST") ? 201 : 200;
+    CompletableFuture<String> response;
+    try {
+      response = route(exchange, path);
+    } catch (RuntimeException e) {
+      response = CompletableFuture.failedFuture(e);
+    }
+    response.whenComplete((body, error) -> respond(exchange, okStatus, body, error));
+  }
+
+  private CompletableFuture<String> route(HttpExchange exchange, String[] path) {
+    Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+    String method = exchange.getRequestMethod();
+    if (path.length == 2 && method.equals("POST")) {
+      long id = host.createGame(param(query, "red"), param(query, "blue"));
+      return host.awaitTurn(id);
+    } else if (path.length == 3 && method.equals("GET")) {
+      long id = parseId(path[2]);
+      return "true".equals(query.get("wait")) ? host.awaitTurn(id) : host.getState(id);
+    } else if (path.length == 3 && method.equals("DELETE")) {
+      long id = parseId(path[2]);
+      if (!host.removeGame(id)) {
+        throw new NoSuchElementException("No game with id " + id);
+      }
+      return CompletableFuture.completedFuture("removed " + id + "\n");
+    } else if (path.length == 4 && path[3].equals("moves") && method.equals("POST")) {
+      long id = parseId(path[2]);
+      Colors color;
+      try {
+        color = Colors.valueOf(param(query, "color").toUpperCase());
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Invalid color: " + query.get("color"));
+      }
+      GameMoveData move = new GameMoveData(parseInt(query, "row"), parseInt(query, "col"),
+              parseInt(query, "hand"));
+      return host.playMove(id, color, move);
+    }
+    throw new IllegalArgumentException("Unsupported request: " + method + " "
+            + exchange.getRequestURI().getPath());
+  }
+
+  private static Map<String, String> parseQuery(String rawQuery) {
+    Map<String, String> query = new HashMap<>();
+    if (rawQuery == null) {
+      return query;
+    }
+    for (String pair : rawQuery.split("&")) {
+      int eq = pair.indexOf('=');
+      if (eq > 0) {
+        query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+      }
+    }
+    return query;
+  }
+
+  private static String param(Map<String, String> query, String name) {
+    String value = query.get(name);
+    if (value == null) {
+      throw new IllegalArgumentException("Missing parameter: " + name);
+    }
+    return value;
+  }
+
+  private static int parseInt(Map<String, String> query, String name) {
+    try {
+      return Integer.parseInt(param(query, name));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid " + name + ": " + query.get(name));
+    }
+  }
+
+  private static long parseId(String id) {
+    try {
+      return Long.parseLong(id);
+    } catch (NumberFormatException e) {
+      throw new NoSuchElementException("No game with id " + id);
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int okStatus, String body,
+                              Throwable error) {
+    int status = okStatus;
+    if (error != null) {
+      Throwable cause = error instanceof CompletionException && error.getCause() != null
+              ? error.getCause() : error;
+      status = cause instanceof NoSuchElementException ? 404
+              : cause instanceof IllegalArgumentException ? 400
+              : cause instanceof IllegalStateException ? 409 : 500;
+      body = "error " + cause.getMessage() + "\n";
+    }
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    try (OutputStream out = exchange.getResponseBody()) {
+      exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+      exchange.sendResponseHeaders(status, bytes.length);
+      out.write(bytes);
+    } catch (IOException e) {
+      // The client went away, there is no one left to tell
+    } finally {
+      exchange.close();
+    }
+  }
+
+  /**
+   * Hosts games over HTTP from the command line until the process is killed.
+   * - First arg expected to be filepath to a grid config file.
+   * - Second arg expected to be filepath to a card config file.
+   * - Third arg expected to be the port to listen on.
+   * - Optional fourth arg is the number of stripes games are spread over, by default the
+   * number of processors.
+   * - Optional fifth arg is the number of threads choosing computer moves, by default the
+   * number of processors.
+   *
+   * @param args the strings describing the server
+   * @throws IllegalArgumentException if fewer than three args are supplied or an arg is invalid
+   */
+  public static void main(String[] args) {
+    if (args.length < 3) {
+      throw new IllegalArgumentException("Usage: GameServer grid_config card_config port "
+              + "[stripes] [ai_threads]");
+    }
+    // The built-in server keeps 200 idle connections by default and silently closes the
+    // rest, failing clients that reuse them, so keep as many as there are clients
+    if (System.getProperty(MAX_IDLE_CONNECTIONS) == null) {
+      System.setProperty(MAX_IDLE_CONNECTIONS, "100000");
+    }
+    int processors = Runtime.getRuntime().availableProcessors();
+    int stripes = args.length > 3 ? Integer.parseInt(args[3]) : processors;
+    int aiThreads = args.length > 4 ? Integer.parseInt(args[4]) : processors;
+    GameHost host = new GameHost(args[0], args[1], stripes, aiThreads, 4096,
+            System.nanoTime());
+    GameServer server = new GameServer(host, Integer.parseInt(args[2]), processors * 2);
+    System.out.println("Serving games on port " + server.getPort());
+  }
+}
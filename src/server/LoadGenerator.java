@@ -0,0 +1,251 @@
+package server;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Drives a GameServer with simulated clients, each playing red against a computer in one game
+ * after another and choosing random legal moves, and measures the server's throughput and the
+ * latency of each move from request to the computer's reply. Clients run asynchronously on the
+ * HTTP client's threads, so thousands of them don't need thousands of threads.
+ */
+public final class LoadGenerator {
+  private final HttpClient client;
+  private final String baseUri;
+  private final int numClients;
+  private final int gamesPerClient;
+  private final String opponent;
+  private final long seed;
+
+  /**
+   * Throughput and latency of a load run.
+   */
+  public static final class Result {
+    private final long games;
+    private final long elapsedNanos;
+    // Nanoseconds from sending each move to getting the state back, sorted
+    private final long[] latencies;
+
+    Result(long games, long elapsedNanos, long[] latencies) {
+      this.games = games;
+      this.elapsedNanos = elapsedNanos;
+      this.latencies = latencies;
+      Arrays.sort(latencies);
+    }
+
+    public long getGames() {
+      return games;
+    }
+
+    public long getMoves() {
+      return latencies.length;
+    }
+
+    /**
+     * Gets the number of client moves the server played per second of the run.
+     *
+     * @return client moves per second
+     */
+    public double getMovesPerSecond() {
+      return latencies.length * 1e9 / Math.max(elapsedNanos, 1);
+    }
+
+    /**
+     * Gets a percentile of the latency of client moves.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return latency in nanoseconds, 0 if no move was played
+     * @throws IllegalArgumentException if percentile is out of range
+     */
+    public long getLatencyPercentile(double percentile) {
+      if (percentile < 0 || percentile > 100) {
+        throw new IllegalArgumentException("Invalid percentile: " + percentile);
+      } else if (latencies.length == 0) {
+        return 0;
+      }
+      int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+      return latencies[Math.max(index, 0)];
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d games, %d moves in %.2f s: %.0f moves/s, latency p50 %.2f ms, "
+                      + "p99 %.2f ms, max %.2f ms%n", games, latencies.length,
+              elapsedNanos / 1e9, getMovesPerSecond(), getLatencyPercentile(50) / 1e6,
+              getLatencyPercentile(99) / 1e6, getLatencyPercentile(100) / 1e6);
+    }
+  }
+
+  /**
+   * One simulated client, playing its games one after another. Its fields are only touched
+   * by the callbacks of its own requests, which run one at a time.
+   */
+  private final class Client {
+    private final Random rand;
+    private long[] latencies = new long[64];
+    private int numMoves;
+    private int gamesLeft = gamesPerClient;
+
+    Client(long seed) {
+      this.rand = new Random(seed);
+    }
+
+    CompletableFuture<Void> playGames() {
+      if (gamesLeft-- == 0) {
+        return CompletableFuture.completedFuture(null);
+      }
+      return send("POST", "/games?red=h&blue=" + opponent)
+              .thenCompose(this::playFrom)
+              .thenCompose(unused -> playGames());
+    }
+
+    private CompletableFuture<Void> playFrom(String state) {
+      String[] lines = state.split("\n");
+      long id = Long.parseLong(field(lines, "game"));
+      if (field(lines, "status").equals("OVER")) {
+        return send("DELETE", "/games/" + id).thenApply(body -> null);
+      }
+      String[] size = field(lines, "grid").split(" ");
+      int rows = Integer.parseInt(size[0]);
+      int cols = Integer.parseInt(size[1]);
+      int gridLine = indexOf(lines, "grid") + 1;
+      int empty = 0;
+      int[] emptyCells = new int[rows * cols];
+      for (int row = 0; row < rows; row++) {
+        for (int col = 0; col < cols; col++) {
+          if (lines[gridLine + row].charAt(col) == '_') {
+            emptyCells[empty++] = row * cols + col;
+          }
+        }
+      }
+      int cell = emptyCells[rand.nextInt(empty)];
+      int hand = rand.nextInt(Integer.parseInt(field(lines, "hand")));
+      long start = System.nanoTime();
+      return send("POST", String.format("/games/%d/moves?color=red&row=%d&col=%d&hand=%d", id,
+              cell / cols, cell % cols, hand))
+              .thenCompose(next -> {
+                record(System.nanoTime() - start);
+                return playFrom(next);
+              });
+    }
+
+    private void record(long latency) {
+      if (numMoves == latencies.length) {
+        latencies = Arrays.copyOf(latencies, numMoves * 2);
+      }
+      latencies[numMoves++] = latency;
+    }
+  }
+
+  /**
+   * Constructor for initializing a LoadGenerator.
+   *
+   * @param baseUri        URI of the server, e.g. "http://localhost:8080"
+   * @param numClients     number of clients playing at the same time
+   * @param gamesPerClient number of games each client plays
+   * @param opponent       strategy numbers of the computer every client plays against
+   * @param seed           seed the moves of every client are derived from
+   * @throws IllegalArgumentException if baseUri or opponent is null, or a count isn't positive
+   */
+  public LoadGenerator(String baseUri, int numClients, int gamesPerClient, String opponent,
+                       long seed) {
+    if (baseUri == null || opponent == null) {
+      throw new IllegalArgumentException("Constructor does not take null parameters.");
+    } else if (numClients < 1 || gamesPerClient < 1) {
+      throw new IllegalArgumentException("Clients and games per client must be positive.");
+    }
+    this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    this.baseUri = baseUri;
+    this.numClients = numClients;
+    this.gamesPerClient = gamesPerClient;
+    this.opponent = opponent;
+    this.seed = seed;
+  }
+
+  /**
+   * Runs every client to the end of its games.
+   *
+   * @return throughput and latency of the run
+   * @throws IllegalStateException if a request fails or gets an error response
+   */
+  public Result run() {
+    Client[] clients = new Client[numClients];
+    CompletableFuture<?>[] done = new CompletableFuture<?>[numClients];
+    long start = System.nanoTime();
+    for (int i = 0; i < numClients; i++) {
+      clients[i] = new Client(seed * 31 + i);
+      done[i] = clients[i].playGames();
+    }
+    try {
+      CompletableFuture.allOf(done).join();
+    } catch (CompletionException e) {
+      throw new IllegalStateException("Load run failed: " + e.getCause().getMessage(),
+              e.getCause());
+    }
+    long elapsed = System.nanoTime() - start;
+
+    int total = 0;
+    for (Client client : clients) {
+      total += client.numMoves;
+    }
+    long[] latencies = new long[total];
+    int offset = 0;
+    for (Client client : clients) {
+      System.arraycopy(client.latencies, 0, latencies, offset, client.numMoves);
+      offset += client.numMoves;
+    }
+    return new Result((long) numClients * gamesPerClient, elapsed, latencies);
+  }
+
+  private CompletableFuture<String> send(String method, String path) {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUri + path))
+            .method(method, HttpRequest.BodyPublishers.noBody()).build();
+    return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .thenApply(response -> {
+              if (response.statusCode() >= 300) {
+                throw new IllegalStateException(method + " " + path + " got "
+                        + response.statusCode() + ": " + response.body().trim());
+              }
+              return response.body();
+            });
+  }
+
+  private static int indexOf(String[] lines, String name) {
+    for (int i = 0; i < lines.length; i++) {
+      if (lines[i].startsWith(name + " ")) {
+        return i;
+      }
+    }
+    throw new IllegalStateException("State has no " + name + " line.");
+  }
+
+  private static String field(String[] lines, String name) {
+    return lines[indexOf(lines, name)].substring(name.length() + 1);
+  }
+
+  /**
+   * Runs a load against a server from the command line and prints its results.
+   * - First arg expected to be the URI of the server, e.g. "http://localhost:8080".
+   * - Second arg expected to be the number of clients playing at the same time.
+   * - Third arg expected to be the number of games each client plays.
+   * - Optional fourth arg is the strategy numbers of the computer opponent, by default "3".
+   *
+   * @param args the strings describing the load
+   * @throws IllegalArgumentException if fewer than three args are supplied or an arg is invalid
+   */
+  public static void main(String[] args) {
+    if (args.length < 3) {
+      throw new IllegalArgumentException("Usage: LoadGenerator server_uri clients "
+              + "games_per_client [opponent]");
+    }
+    LoadGenerator generator = new LoadGenerator(args[0], Integer.parseInt(args[1]),
+            Integer.parseInt(args[2]), args.length > 3 ? args[3] : "3", System.nanoTime());
+    System.out.print(generator.run());
+  }
+}
@@ -0,0 +1,79 @@
+package tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import model.ThreeTriosGameModel;
+import player.strategy.Strategy;
+import player.strategy.StrategyCodes;
+
+/**
+ * A named AI configuration taking part in a tournament. Strategies are bound to the model they
+ * read from, so a contestant holds a recipe producing a fresh combination of strategies for
+ * each game rather than the strategies themselves.
+ */
+public final class Contestant {
+  private final String name;
+  private final Function<ThreeTriosGameModel, List<Strategy>> strategies;
+
+  /**
+   * Constructor for initializing a Contestant.
+   *
+   * @param name       name to report the contestant's results under
+   * @param strategies creates the strategies a ComputerPlayer combines for one game, given
+   *                   the model of that game
+   * @throws IllegalArgumentException if either parameter is null
+   */
+  public Contestant(String name, Function<ThreeTriosGameModel, List<Strategy>> strategies) {
+    if (name == null || strategies == null) {
+      throw new IllegalArgumentException("Name and strategies cannot be null.");
+    }
+    this.name = name;
+    this.strategies = strategies;
+  }
+
+  /**
+   * Creates a contestant from comma separated strategy numbers, as accepted on the command
+   * line by ThreeTrios, e.g. "1,3" for the corner and max cards flip strategies combined.
+   *
+   * @param codes comma separated strategy numbers
+   * @return contestant named after the codes
+   * @throws IllegalArgumentException if codes is null or holds an invalid strategy number
+   */
+  public static Contestant fromCodes(String codes) {
+    if (codes == null) {
+      throw new IllegalArgumentException("Codes cannot be null.");
+    }
+    String[] split = codes.split(",");
+    // Fail on bad codes now rather than on the first game
+    for (String code : split) {
+      if (!StrategyCodes.isValid(code)) {
+        throw new IllegalArgumentException(String.format("Invalid number entered for "
+                + "strategy: %s", code));
+      }
+    }
+    return new Contestant(codes, model -> {
+      List<Strategy> created = new ArrayList<>();
+      for (String code : split) {
+        created.add(StrategyCodes.create(code, model));
+      }
+      return created;
+    });
+  }
+
+  /**
+   * Creates the strategies for one game.
+   *
+   * @param model model of the game
+   * @return strategies reading from the model
+   */
+  public List<Strategy> createStrategies(ThreeTriosGameModel model) {
+    return Objects.requireNonNull(strategies.apply(model));
+  }
+
+  public String getName() {
+    return name;
+  }
+}
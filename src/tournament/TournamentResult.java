@@ -0,0 +1,141 @@
+package tournament;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Results of a tournament between contestants. Matrices are indexed [contestant][opponent]
+ * and count the games between the two with either color assignment, from the point of view
+ * of the contestant. Move latencies are the time a contestant's ComputerPlayer took to choose
+ * each of its moves.
+ */
+public final class TournamentResult {
+  private final List<String> names;
+  private final int[][] wins;
+  private final int[][] draws;
+  private final int[][] games;
+  private final long[][] scores;
+  private final long[][] latencies;
+
+  /**
+   * Constructor for initializing a TournamentResult. Takes ownership of the supplied arrays.
+   *
+   * @param names     contestant names, in the order the matrices are indexed
+   * @param wins      games won by the contestant against the opponent
+   * @param draws     games drawn between the two
+   * @param games     games played between the two
+   * @param scores    sum of the contestant's final scores against the opponent
+   * @param latencies nanoseconds taken for every move of each contestant, in any order
+   */
+  TournamentResult(List<String> names, int[][] wins, int[][] draws, int[][] games,
+                   long[][] scores, long[][] latencies) {
+    this.names = List.copyOf(names);
+    this.wins = wins;
+    this.draws = draws;
+    this.games = games;
+    this.scores = scores;
+    this.latencies = latencies;
+    for (long[] contestantLatencies : latencies) {
+      Arrays.sort(contestantLatencies);
+    }
+  }
+
+  public List<String> getNames() {
+    return names;
+  }
+
+  public int getWins(int contestant, int opponent) {
+    return wins[contestant][opponent];
+  }
+
+  public int getDraws(int contestant, int opponent) {
+    return draws[contestant][opponent];
+  }
+
+  public int getLosses(int contestant, int opponent) {
+    return games[contestant][opponent] - wins[contestant][opponent]
+            - draws[contestant][opponent];
+  }
+
+  public int getGames(int contestant, int opponent) {
+    return games[contestant][opponent];
+  }
+
+  /**
+   * Gets the average final score of a contestant in its games against an opponent.
+   *
+   * @param contestant index of the contestant
+   * @param opponent   index of the opponent
+   * @return average score, or 0 if the two didn't play
+   */
+  public double getAverageScore(int contestant, int opponent) {
+    int played = games[contestant][opponent];
+    return played == 0 ? 0 : (double) scores[contestant][opponent] / played;
+  }
+
+  /**
+   * Gets a percentile of the time a contestant took to choose its moves, using the nearest
+   * rank method.
+   *
+   * @param contestant index of the contestant
+   * @param percentile percentile between 0 and 100
+   * @return move latency in nanoseconds, or 0 if the contestant made no moves
+   * @throws IllegalArgumentException if percentile is outside of 0 to 100
+   */
+  public long getLatencyPercentile(int contestant, double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+    }
+    long[] sorted = latencies[contestant];
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+    return sorted[Math.max(0, rank - 1)];
+  }
+
+  public int getMoveCount(int contestant) {
+    return latencies[contestant].length;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder out = new StringBuilder();
+    appendMatrix(out, "Wins/draws/losses (row vs column)", (i, j) ->
+            String.format("%d/%d/%d", getWins(i, j), getDraws(i, j), getLosses(i, j)));
+    appendMatrix(out, "Average score (row vs column)", (i, j) ->
+            String.format("%.2f", getAverageScore(i, j)));
+
+    out.append("Move latency (ms)\n");
+    out.append(String.format("%-16s %8s %10s %10s %10s %10s%n", "", "moves", "p50", "p90",
+            "p99", "max"));
+    for (int i = 0; i < names.size(); i++) {
+      out.append(String.format("%-16s %8d %10.3f %10.3f %10.3f %10.3f%n", names.get(i),
+              getMoveCount(i), getLatencyPercentile(i, 50) / 1e6,
+              getLatencyPercentile(i, 90) / 1e6, getLatencyPercentile(i, 99) / 1e6,
+              getLatencyPercentile(i, 100) / 1e6));
+    }
+    return out.toString();
+  }
+
+  private interface CellFormat {
+    String format(int contestant, int opponent);
+  }
+
+  private void appendMatrix(StringBuilder out, String title, CellFormat cell) {
+    out.append(title).append('\n');
+    out.append(String.format("%-16s", ""));
+    for (String name : names) {
+      out.append(String.format(" %12s", name));
+    }
+    out.append('\n');
+    for (int i = 0; i < names.size(); i++) {
+      out.append(String.format("%-16s", names.get(i)));
+      for (int j = 0; j < names.size(); j++) {
+        out.append(String.format(" %12s", i == j ? "-" : cell.format(i, j)));
+      }
+      out.append('\n');
+    }
+    out.append('\n');
+  }
+}
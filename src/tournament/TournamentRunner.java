@@ -0,0 +1,225 @@
+package tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import model.ThreeTriosGameModel;
+import model.card.Colors;
+import player.ComputerPlayer;
+import player.GameMoveData;
+import player.Player;
+
+/**
+ * Plays every contestant against every other one, headless, on a pool of threads. Each ordered
+ * pairing plays the requested number of games with the first contestant as red, so every pair
+ * meets equally often with either color. Every game gets its own model, players and strategies,
+ * and a shuffle seed derived from the tournament seed and the game's index, so results don't
+ * depend on the number of threads or the order games finish in.
+ */
+public final class TournamentRunner {
+  private final String gridConfigFilePath;
+  private final String cardConfigFilePath;
+  private final List<Contestant> contestants;
+  private final int gamesPerPairing;
+  private final int threads;
+  private final long seed;
+
+  /**
+   * Constructor for initializing a TournamentRunner.
+   *
+   * @param gridConfigFilePath path to the grid config file every game is played on
+   * @param cardConfigFilePath path to the card config file every game is dealt from
+   * @param contestants        contestants to play against each other
+   * @param gamesPerPairing    games to play for every ordered pair of contestants
+   * @param threads            number of games to play at the same time
+   * @param seed               seed the shuffle of every game is derived from
+   * @throws IllegalArgumentException if a parameter is null, there are fewer than two
+   *                                  contestants, or gamesPerPairing or threads isn't positive
+   */
+  public TournamentRunner(String gridConfigFilePath, String cardConfigFilePath,
+                          List<Contestant> contestants, int gamesPerPairing, int threads,
+                          long seed) {
+    if (gridConfigFilePath == null || cardConfigFilePath == null || contestants == null) {
+      throw new IllegalArgumentException("Constructor does not take null parameters.");
+    } else if (contestants.size() < 2) {
+      throw new IllegalArgumentException("A tournament needs at least two contestants.");
+    } else if (gamesPerPairing < 1 || threads < 1) {
+      throw new IllegalArgumentException("Games per pairing and threads must be positive.");
+    }
+    this.gridConfigFilePath = gridConfigFilePath;
+    this.cardConfigFilePath = cardConfigFilePath;
+    this.contestants = List.copyOf(contestants);
+    this.gamesPerPairing = gamesPerPairing;
+    this.threads = threads;
+    this.seed = seed;
+  }
+
+  /**
+   * Outcome of a single game.
+   */
+  private static final class GameRecord {
+    private final int redScore;
+    private final int blueScore;
+    private final long[] redLatencies;
+    private final long[] blueLatencies;
+
+    GameRecord(int redScore, int blueScore, long[] redLatencies, long[] blueLatencies) {
+      this.redScore = redScore;
+      this.blueScore = blueScore;
+      this.redLatencies = redLatencies;
+      this.blueLatencies = blueLatencies;
+    }
+  }
+
+  /**
+   * Plays the tournament.
+   *
+   * @return the results of every game played
+   * @throws IllegalStateException if a game fails or the thread running the tournament is
+   *                               interrupted
+   */
+  public TournamentResult run() {
+    int n = contestants.size();
+    List<int[]> pairings = new ArrayList<>();
+    List<Future<GameRecord>> futures = new ArrayList<>();
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      int gameIndex = 0;
+      for (int red = 0; red < n; red++) {
+        for (int blue = 0; blue < n; blue++) {
+          if (red == blue) {
+            continue;
+          }
+          for (int game = 0; game < gamesPerPairing; game++) {
+            Contestant redContestant = contestants.get(red);
+            Contestant blueContestant = contestants.get(blue);
+            long gameSeed = seed * 31 + gameIndex++;
+            pairings.add(new int[]{red, blue});
+            futures.add(pool.submit(() -> playGame(redContestant, blueContestant, gameSeed)));
+          }
+        }
+      }
+
+      // Futures are collected in submission order, so the results are deterministic
+      int[][] wins = new int[n][n];
+      int[][] draws = new int[n][n];
+      int[][] games = new int[n][n];
+      long[][] scores = new long[n][n];
+      List<List<long[]>> latencies = new ArrayList<>();
+      for (int i = 0; i < n; i++) {
+        latencies.add(new ArrayList<>());
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        GameRecord record = futures.get(i).get();
+        int red = pairings.get(i)[0];
+        int blue = pairings.get(i)[1];
+        games[red][blue]++;
+        games[blue][red]++;
+        scores[red][blue] += record.redScore;
+        scores[blue][red] += record.blueScore;
+        if (record.redScore > record.blueScore) {
+          wins[red][blue]++;
+        } else if (record.blueScore > record.redScore) {
+          wins[blue][red]++;
+        } else {
+          draws[red][blue]++;
+          draws[blue][red]++;
+        }
+        latencies.get(red).add(record.redLatencies);
+        latencies.get(blue).add(record.blueLatencies);
+      }
+
+      List<String> names = new ArrayList<>();
+      long[][] flatLatencies = new long[n][];
+      for (int i = 0; i < n; i++) {
+        names.add(contestants.get(i).getName());
+        flatLatencies[i] = flatten(latencies.get(i));
+      }
+      return new TournamentResult(names, wins, draws, games, scores, flatLatencies);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while running tournament.");
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Tournament game failed: " + e.getCause(), e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private GameRecord playGame(Contestant redContestant, Contestant blueContestant,
+                              long gameSeed) {
+    ThreeTriosGameModel model = new ThreeTriosGameModel(gridConfigFilePath, cardConfigFilePath,
+            new Random(gameSeed));
+    Player red = new ComputerPlayer(redContestant.createStrategies(model), model, Colors.RED);
+    Player blue = new ComputerPlayer(blueContestant.createStrategies(model), model,
+            Colors.BLUE);
+    model.startGame(red, blue, true);
+
+    List<Long> redLatencies = new ArrayList<>();
+    List<Long> blueLatencies = new ArrayList<>();
+    while (!model.isGameOver()) {
+      Player inTurn = model.getPlayerInTurn() == red ? red : blue;
+      long start = System.nanoTime();
+      GameMoveData move = inTurn.getNextPlacement();
+      long elapsed = System.nanoTime() - start;
+      (inTurn == red ? redLatencies : blueLatencies).add(elapsed);
+      model.playMove(move);
+    }
+    return new GameRecord(model.getPlayerScore(true), model.getPlayerScore(false),
+            toArray(redLatencies), toArray(blueLatencies));
+  }
+
+  private static long[] toArray(List<Long> values) {
+    long[] array = new long[values.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = values.get(i);
+    }
+    return array;
+  }
+
+  private static long[] flatten(List<long[]> arrays) {
+    int length = 0;
+    for (long[] array : arrays) {
+      length += array.length;
+    }
+    long[] flat = new long[length];
+    int offset = 0;
+    for (long[] array : arrays) {
+      System.arraycopy(array, 0, flat, offset, array.length);
+      offset += array.length;
+    }
+    return flat;
+  }
+
+  /**
+   * Runs a tournament from the command line and prints its results.
+   * - First arg expected to be filepath to a grid config file.
+   * - Second arg expected to be filepath to a card config file.
+   * - Third arg expected to be the number of games per ordered pairing.
+   * - Fourth arg expected to be the number of games to play at the same time.
+   * - Fifth arg expected to be the seed for shuffling.
+   * - Any additional args (at least two) are contestants, each given as comma separated
+   * strategy numbers as accepted by ThreeTrios, e.g. "1,3".
+   *
+   * @param args the strings describing the tournament
+   * @throws IllegalArgumentException if fewer than seven args are supplied or an arg is invalid
+   */
+  public static void main(String[] args) {
+    if (args.length < 7) {
+      throw new IllegalArgumentException("Usage: TournamentRunner grid_config card_config "
+              + "games_per_pairing threads seed contestant contestant...");
+    }
+    List<Contestant> contestants = new ArrayList<>();
+    for (int i = 5; i < args.length; i++) {
+      contestants.add(Contestant.fromCodes(args[i]));
+    }
+    TournamentRunner runner = new TournamentRunner(args[0], args[1], contestants,
+            Integer.parseInt(args[2]), Integer.parseInt(args[3]), Long.parseLong(args[4]));
+    System.out.print(runner.run());
+  }
+}
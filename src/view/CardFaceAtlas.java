@@ -0,0 +1,180 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import model.card.Positions;
+import model.card.ReadOnlyCard;
+
+/**
+ * Cache of drawn card faces, so a card is drawn once per background color and size and then
+ * copied onto the screen. Faces of one size are tiles of a shared sheet image, which grows by
+ * whole rows of tiles as new faces are drawn, so the grid and the hands, whose cards differ in
+ * size, each have a sheet.
+ */
+final class CardFaceAtlas {
+  private static final int TILES_PER_ROW = 16;
+  // Resizing the window leaves sheets of old sizes behind, which are dropped past this many
+  private static final int MAX_SHEETS = 4;
+
+  // Sheets by tile width and height packed into a long
+  private final Map<Long, Sheet> sheets = new HashMap<>();
+
+  /**
+   * Name, values and background color of a face.
+   */
+  private static final class Key {
+    private final String name;
+    private final int values;
+    private final int rgb;
+
+    Key(ReadOnlyCard card, Color background) {
+      int packed = 0;
+      for (Positions pos : Positions.values()) {
+        packed = packed << 4 | card.getValueFromPos(pos).ordinal();
+      }
+      this.name = card.getName();
+      this.values = packed;
+      this.rgb = background.getRGB();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return values == that.values && rgb == that.rgb && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return (Objects.hashCode(name) * 31 + values) * 31 + rgb;
+    }
+  }
+
+  /**
+   * Faces of one size and the tile each is drawn in.
+   */
+  private static final class Sheet {
+    private final int tileWidth;
+    private final int tileHeight;
+    private final Map<Key, Integer> tiles = new HashMap<>();
+    private BufferedImage image;
+
+    Sheet(int tileWidth, int tileHeight) {
+      this.tileWidth = tileWidth;
+      this.tileHeight = tileHeight;
+    }
+
+    int tileOf(ReadOnlyCard card, Color background) {
+      Key key = new Key(card, background);
+      Integer tile = tiles.get(key);
+      if (tile == null) {
+        tile = tiles.size();
+        ensureCapacity(tile + 1);
+        Graphics2D g = image.createGraphics();
+        g.translate(tile % TILES_PER_ROW * tileWidth, tile / TILES_PER_ROW * tileHeight);
+        paintFace(g, card, background, tileWidth, tileHeight);
+        g.dispose();
+        tiles.put(key, tile);
+      }
+      return tile;
+    }
+
+    private void ensureCapacity(int numTiles) {
+      int rows = (numTiles + TILES_PER_ROW - 1) / TILES_PER_ROW;
+      if (image != null && image.getHeight() >= rows * tileHeight) {
+        return;
+      }
+      int grownRows = image == null ? rows
+              : Math.max(rows, image.getHeight() / tileHeight * 2);
+      BufferedImage grown = new BufferedImage(TILES_PER_ROW * tileWidth,
+              grownRows * tileHeight, BufferedImage.TYPE_INT_RGB);
+      if (image != null) {
+        Graphics2D copy = grown.createGraphics();
+        copy.drawImage(image, 0, 0, null);
+        copy.dispose();
+      }
+      image = grown;
+    }
+  }
+
+  /**
+   * Draws a card face at a position, drawing it into the atlas first if it isn't there yet.
+   *
+   * @param g          graphics to draw on
+   * @param card       card whose values to show
+   * @param background color of the face
+   * @param x          left edge to draw at
+   * @param y          top edge to draw at
+   * @param width      width of the face
+   * @param height     height of the face
+   */
+  void drawFace(Graphics g, ReadOnlyCard card, Color background, int x, int y, int width,
+                int height) {
+    if (width <= 0 || height <= 0) {
+      return;
+    }
+    long size = (long) width << 32 | height;
+    Sheet sheet = sheets.get(size);
+    if (sheet == null) {
+      if (sheets.size() >= MAX_SHEETS) {
+        sheets.clear();
+      }
+      sheet = new Sheet(width, height);
+      sheets.put(size, sheet);
+    }
+    int tile = sheet.tileOf(card, background);
+    int sx = tile % TILES_PER_ROW * width;
+    int sy = tile / TILES_PER_ROW * height;
+    g.drawImage(sheet.image, x, y, x + width, y + height, sx, sy, sx + width, sy + height,
+            null);
+  }
+
+  /**
+   * Gets the number of faces drawn into the atlas, over all sizes.
+   *
+   * @return number of cached faces
+   */
+  int size() {
+    int size = 0;
+    for (Sheet sheet : sheets.values()) {
+      size += sheet.tiles.size();
+    }
+    return size;
+  }
+
+  /**
+   * Draws a card face: the background with the north, south, east and west values on the
+   * matching sides.
+   */
+  static void paintFace(Graphics2D g, ReadOnlyCard card, Color background, int width,
+                        int height) {
+    g.setColor(background);
+    g.fillRect(0, 0, width, height);
+    g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+            RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    // Full size on the usual boards, smaller on boards with many small cells
+    g.setFont(new Font("Arial", Font.BOLD, Math.max(1, Math.min(20, Math.min(width, height)
+            / 4))));
+    g.setColor(Color.BLACK);
+    FontMetrics fm = g.getFontMetrics();
+    String north = card.getValueFromPos(Positions.NORTH).toString();
+    String south = card.getValueFromPos(Positions.SOUTH).toString();
+    String east = card.getValueFromPos(Positions.EAST).toString();
+    String west = card.getValueFromPos(Positions.WEST).toString();
+    g.drawString(north, (width - fm.stringWidth(north)) / 2, fm.getAscent());
+    g.drawString(south, (width - fm.stringWidth(south)) / 2, height - fm.getDescent());
+    g.drawString(west, 5, (height + fm.getAscent()) / 2);
+    g.drawString(east, width - fm.stringWidth(east) - 5, (height + fm.getAscent()) / 2);
+  }
+}
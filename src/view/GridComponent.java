@@ -0,0 +1,156 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+
+import javax.swing.JComponent;
+
+import model.ReadOnlyGrid;
+import model.card.Colors;
+import model.card.Positions;
+import model.card.ReadOnlyCard;
+
+/**
+ * Component drawing a game grid, which remembers the card shown in every cell so that after a
+ * move only the cells that changed, the placed card and the cards it flipped, are repainted.
+ */
+final class GridComponent extends JComponent {
+  private static final long serialVersionUID = 1L;
+
+  private final ReadOnlyGrid grid;
+  private final CardFaceAtlas atlas;
+  private final int rows;
+  private final int cols;
+  // Card shown in each cell, row-major, null for holes and empty cells
+  private final ReadOnlyCard[] shown;
+  private final Colors[] shownColors;
+
+  /**
+   * Constructor for initializing a GridComponent showing a grid as it is now.
+   *
+   * @param grid  view of the grid to draw
+   * @param atlas card faces to draw cards with
+   * @throws IllegalArgumentException if either parameter is null
+   */
+  GridComponent(ReadOnlyGrid grid, CardFaceAtlas atlas) {
+    if (grid == null || atlas == null) {
+      throw new IllegalArgumentException("Grid and atlas cannot be null.");
+    }
+    this.grid = grid;
+    this.atlas = atlas;
+    this.rows = grid.getNumRows();
+    this.cols = grid.getNumCols();
+    this.shown = new ReadOnlyCard[rows * cols];
+    this.shownColors = new Colors[rows * cols];
+    setPreferredSize(new Dimension(600, 600));
+    sync();
+  }
+
+  /**
+   * Compares the grid with what is shown and repaints the cells that changed.
+   *
+   * @return bounds of the changed cells, empty if none changed
+   */
+  Rectangle sync() {
+    Rectangle dirty = new Rectangle();
+    for (int row = 0; row < rows; row++) {
+      for (int col = 0; col < cols; col++) {
+        int idx = row * cols + col;
+        ReadOnlyCard card = grid.getCard(row, col);
+        Colors color = card == null ? null : card.getColor();
+        if (sameFace(shown[idx], shownColors[idx], card, color)) {
+          continue;
+        }
+        shown[idx] = card;
+        shownColors[idx] = color;
+        Rectangle cell = cellBounds(row, col);
+        repaint(cell);
+        if (dirty.isEmpty()) {
+          dirty.setBounds(cell);
+        } else {
+          dirty.add(cell);
+        }
+      }
+    }
+    return dirty;
+  }
+
+  /**
+   * Gets the cell at a point of the component.
+   *
+   * @param x horizontal coordinate
+   * @param y vertical coordinate
+   * @return row and column of the cell, or null if the point isn't on a cell
+   */
+  int[] cellAt(int x, int y) {
+    int width = getWidth() / cols;
+    int height = getHeight() / rows;
+    if (x < 0 || y < 0 || width == 0 || height == 0 || x >= width * cols
+            || y >= height * rows) {
+      return null;
+    }
+    return new int[]{y / height, x / width};
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    int width = getWidth() / cols;
+    int height = getHeight() / rows;
+    if (width == 0 || height == 0) {
+      return;
+    }
+    // Only the cells the clip touches, which after a move are the ones that changed
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+    int firstRow = Math.max(0, clip.y / height);
+    int lastRow = Math.min(rows - 1, (clip.y + clip.height - 1) / height);
+    int firstCol = Math.max(0, clip.x / width);
+    int lastCol = Math.min(cols - 1, (clip.x + clip.width - 1) / width);
+    for (int row = firstRow; row <= lastRow; row++) {
+      for (int col = firstCol; col <= lastCol; col++) {
+        int x = col * width;
+        int y = row * height;
+        ReadOnlyCard card = shown[row * cols + col];
+        if (card != null) {
+          atlas.drawFace(g, card, shownColors[row * cols + col] == Colors.RED ? Color.RED
+                  : Color.BLUE, x, y, width, height);
+        } else {
+          g.setColor(grid.isCardCell(row, col) ? Color.YELLOW : Color.GRAY);
+          g.fillRect(x, y, width, height);
+        }
+        g.setColor(Color.BLACK);
+        g.drawRect(x, y, width - 1, height - 1);
+      }
+    }
+  }
+
+  private Rectangle cellBounds(int row, int col) {
+    int width = getWidth() / cols;
+    int height = getHeight() / rows;
+    return new Rectangle(col * width, row * height, width, height);
+  }
+
+  /**
+   * Predicate for whether two cards look the same. Cards on the grid are usually shared views,
+   * compared by identity, but other grids may create a card on every read.
+   */
+  static boolean sameFace(ReadOnlyCard shown, Colors shownColor, ReadOnlyCard card,
+                          Colors color) {
+    if (shown == card) {
+      return shownColor == color;
+    } else if (shown == null || card == null || shownColor != color
+            || !shown.getName().equals(card.getName())) {
+      return false;
+    }
+    for (Positions pos : Positions.values()) {
+      if (shown.getValueFromPos(pos) != card.getValueFromPos(pos)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,171 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JComponent;
+
+import model.card.Colors;
+import model.card.ReadOnlyCard;
+
+/**
+ * Component drawing a player's hand as a column of cards, which remembers the card shown in
+ * every slot so that only slots that changed are repainted. Playing a card shifts the cards
+ * below it up a slot, so those are repainted too, and the slot left empty at the bottom.
+ */
+final class HandComponent extends JComponent {
+  private static final long serialVersionUID = 1L;
+  private static final int CARD_SIZE = 100;
+
+  private final CardFaceAtlas atlas;
+  private final List<ReadOnlyCard> shown = new ArrayList<>();
+  private final List<Colors> shownColors = new ArrayList<>();
+  private int numSlots;
+  private int highlighted = -1;
+
+  /**
+   * Constructor for initializing a HandComponent showing a hand as it is now.
+   *
+   * @param hand  cards of the hand
+   * @param atlas card faces to draw cards with
+   * @throws IllegalArgumentException if either parameter is null
+   */
+  HandComponent(List<ReadOnlyCard> hand, CardFaceAtlas atlas) {
+    if (hand == null || atlas == null) {
+      throw new IllegalArgumentException("Hand and atlas cannot be null.");
+    }
+    this.atlas = atlas;
+    sync(hand);
+  }
+
+  /**
+   * Compares a hand with what is shown and repaints the slots that changed.
+   *
+   * @param hand cards of the hand now
+   * @return bounds of the changed slots, empty if none changed
+   */
+  Rectangle sync(List<ReadOnlyCard> hand) {
+    if (hand.size() > numSlots) {
+      numSlots = hand.size();
+      setPreferredSize(new Dimension(CARD_SIZE, CARD_SIZE * numSlots));
+      revalidate();
+    }
+    Rectangle dirty = new Rectangle();
+    int slots = Math.max(hand.size(), shown.size());
+    for (int i = 0; i < slots; i++) {
+      ReadOnlyCard card = i < hand.size() ? hand.get(i) : null;
+      Colors color = card == null ? null : card.getColor();
+      ReadOnlyCard before = i < shown.size() ? shown.get(i) : null;
+      Colors beforeColor = i < shown.size() ? shownColors.get(i) : null;
+      if (GridComponent.sameFace(before, beforeColor, card, color)) {
+        continue;
+      }
+      if (i == highlighted) {
+        // The highlighted card was played or moved, so the highlight goes with it
+        highlighted = -1;
+      }
+      Rectangle slot = slotBounds(i);
+      repaint(slot);
+      if (dirty.isEmpty()) {
+        dirty.setBounds(slot);
+      } else {
+        dirty.add(slot);
+      }
+    }
+    shown.clear();
+    shownColors.clear();
+    for (ReadOnlyCard card : hand) {
+      shown.add(card);
+      shownColors.add(card.getColor());
+    }
+    return dirty;
+  }
+
+  /**
+   * Highlights a card, or removes the highlight.
+   *
+   * @param index index of the card in the hand, or -1 for none
+   * @throws IllegalArgumentException if index isn't a card of the hand or -1
+   */
+  void setHighlighted(int index) {
+    if (index < -1 || index >= shown.size()) {
+      throw new IllegalArgumentException("Invalid card chosen");
+    }
+    if (index == highlighted) {
+      return;
+    }
+    if (highlighted >= 0) {
+      repaint(slotBounds(highlighted));
+    }
+    highlighted = index;
+    if (index >= 0) {
+      repaint(slotBounds(index));
+    }
+  }
+
+  /**
+   * Gets the highlighted card.
+   *
+   * @return index of the highlighted card in the hand, or -1 for none
+   */
+  int getHighlighted() {
+    return highlighted;
+  }
+
+  /**
+   * Gets the card at a point of the component.
+   *
+   * @param x horizontal coordinate
+   * @param y vertical coordinate
+   * @return index of the card in the hand, or -1 if the point isn't on a card
+   */
+  int cardAt(int x, int y) {
+    int height = slotHeight();
+    if (x < 0 || x >= getWidth() || y < 0 || height == 0) {
+      return -1;
+    }
+    int index = y / height;
+    return index < shown.size() ? index : -1;
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    int height = slotHeight();
+    if (height == 0) {
+      return;
+    }
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+    int first = Math.max(0, clip.y / height);
+    int last = Math.min(numSlots - 1, (clip.y + clip.height - 1) / height);
+    for (int i = first; i <= last; i++) {
+      int y = i * height;
+      if (i >= shown.size()) {
+        g.setColor(getBackground() == null ? Color.LIGHT_GRAY : getBackground());
+        g.fillRect(0, y, getWidth(), height);
+        continue;
+      }
+      boolean red = shownColors.get(i) == Colors.RED;
+      Color background = i == highlighted ? (red ? Color.PINK : Color.CYAN)
+              : (red ? Color.RED : Color.BLUE);
+      atlas.drawFace(g, shown.get(i), background, 0, y, getWidth(), height);
+      g.setColor(Color.BLACK);
+      g.drawRect(0, y, getWidth() - 1, height - 1);
+    }
+  }
+
+  private int slotHeight() {
+    return numSlots == 0 ? 0 : Math.min(CARD_SIZE, getHeight() / numSlots);
+  }
+
+  private Rectangle slotBounds(int index) {
+    int height = slotHeight();
+    return new Rectangle(0, index * height, getWidth(), height);
+  }
+}
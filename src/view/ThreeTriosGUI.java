@@ -33,4 +33,12 @@ public interface ThreeTriosGUI extends ThreeTriosView {
    */
   void showMessage(String message);
 
+  /**
+   * Displays a short status, such as the progress of a computer player choosing its move,
+   * without interrupting the user. Views without a place for it ignore it.
+   * @param status the status to display
+   */
+  default void showStatus(String status) {
+  }
+
 }
@@ -3,10 +3,10 @@ package view;
 import java.io.IOException;
 import java.util.List;
 
-import model.card.CardInterface;
 import model.card.Positions;
-import model.cell.Cell;
+import model.card.ReadOnlyCard;
 import model.card.Colors;
+import model.ReadOnlyGrid;
 import model.ThreeTriosModel;
 import player.ReadOnlyPlayer;
 
@@ -28,14 +28,21 @@ public class ThreeTriosTextualView implements ThreeTriosView {
     this.appendableOutput = appendable;
   }
 
-  private String gridToString(Cell[][] grid) {
+  private String gridToString(ReadOnlyGrid grid) {
     StringBuilder output = new StringBuilder();
 
-    for (int i = 0; i < grid.length; i++) {
-      for (int j = 0; j < grid[0].length; j++) {
-        output.append(grid[i][j].toString());
+    for (int i = 0; i < grid.getNumRows(); i++) {
+      for (int j = 0; j < grid.getNumCols(); j++) {
+        // Same symbols as the toString of the cells: holes are blank, empty cells underscores
+        if (!grid.isCardCell(i, j)) {
+          output.append(' ');
+        } else if (grid.getCard(i, j) == null) {
+          output.append('_');
+        } else {
+          output.append(grid.getCard(i, j));
+        }
       }
-      if ((i + 1) < grid.length) {
+      if ((i + 1) < grid.getNumRows()) {
         output.append("\n");
       }
     }
@@ -43,11 +50,11 @@ public class ThreeTriosTextualView implements ThreeTriosView {
     return output.toString();
   }
 
-  private String handToString(List<CardInterface> hand) {
+  private String handToString(List<ReadOnlyCard> hand) {
     StringBuilder handView = new StringBuilder();
 
     for (int i = 0; i < hand.size(); i++) {
-      CardInterface card = hand.get(i);
+      ReadOnlyCard card = hand.get(i);
 
       handView.append(card.getName()).append(" ");
       handView.append(card.getValueFromPos(Positions.NORTH)).append(" ");
@@ -64,10 +71,10 @@ public class ThreeTriosTextualView implements ThreeTriosView {
   }
 
   private String buildPlayerView(ReadOnlyPlayer player) {
-    Colors playerColor = player.getHandCopy().get(0).getColor();
+    Colors playerColor = player.getHandView().get(0).getColor();
 
-    return String.format("Player: %s\n", playerColor) + gridToString(model.getGrid()) + "\n"
-            + "Hand:\n" + handToString(player.getHandCopy());
+    return String.format("Player: %s\n", playerColor) + gridToString(model.getGridView())
+            + "\n" + "Hand:\n" + handToString(player.getHandView());
   }
 
   @Override
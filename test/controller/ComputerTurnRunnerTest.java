@@ -0,0 +1,294 @@
+package controller;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import model.ThreeTriosGameModel;
+import model.UndoableThreeTriosModel;
+import model.card.Colors;
+import player.ComputerPlayer;
+import player.GameMoveData;
+import player.UserPlayer;
+import player.strategy.MaxCardsFlipStrategy;
+import player.strategy.Strategy;
+import view.ThreeTriosGUI;
+
+/**
+ * Tests choosing computer moves in the background and playing them on the model thread.
+ */
+public class ComputerTurnRunnerTest {
+  private static final String GRID = "resources/NoHolesBoardConfig.txt";
+  private static final String CARDS = "resources/BigDeckCardConfig.txt";
+
+  /**
+   * Strategy taking ten seconds to recommend the last cell, unless interrupted, when it either
+   * recommends it right away, fails or keeps on sleeping. Records every model it is copied
+   * onto.
+   */
+  private static final class SlowStrategy implements Strategy {
+    private final boolean failOnInterrupt;
+    private final boolean ignoreInterrupt;
+    private final List<UndoableThreeTriosModel> copiedOnto;
+
+    SlowStrategy(boolean failOnInterrupt) {
+      this(failOnInterrupt, false, new ArrayList<>());
+    }
+
+    SlowStrategy(boolean failOnInterrupt, boolean ignoreInterrupt,
+                 List<UndoableThreeTriosModel> copiedOnto) {
+      this.failOnInterrupt = failOnInterrupt;
+      this.ignoreInterrupt = ignoreInterrupt;
+      this.copiedOnto = copiedOnto;
+    }
+
+    @Override
+    public List<GameMoveData> execute() {
+      long wakeUp = System.nanoTime() + 10_000_000_000L;
+      while (System.nanoTime() < wakeUp) {
+        try {
+          Thread.sleep(Math.max(1, (wakeUp - System.nanoTime()) / 1_000_000));
+        } catch (InterruptedException e) {
+          if (ignoreInterrupt) {
+            continue;
+          }
+          Thread.currentThread().interrupt();
+          if (failOnInterrupt) {
+            throw new IllegalStateException("Interrupted before choosing a move.");
+          }
+          break;
+        }
+      }
+      return List.of(new GameMoveData(3, 4, 0));
+    }
+
+    @Override
+    public int getBestMoveValue() {
+      return 0;
+    }
+
+    @Override
+    public boolean supportsCopy() {
+      return true;
+    }
+
+    @Override
+    public Strategy copyFor(UndoableThreeTriosModel model) {
+      copiedOnto.add(model);
+      return new SlowStrategy(failOnInterrupt, ignoreInterrupt, copiedOnto);
+    }
+  }
+
+  /**
+   * View ignoring everything but statuses.
+   */
+  private static final class StatusView implements ThreeTriosGUI {
+    private final AtomicInteger statuses = new AtomicInteger();
+
+    @Override
+    public void addFeatures(ViewFeatures f) {
+      // Nothing to click
+    }
+
+    @Override
+    public void highlightCardPanel(int playerIndex, int cardIndex) {
+      // Nothing to highlight
+    }
+
+    @Override
+    public void unhighlightCardPanel(int playerIndex, int cardIndex) {
+      // Nothing to highlight
+    }
+
+    @Override
+    public void showMessage(String message) {
+      // Nowhere to show it
+    }
+
+    @Override
+    public void showStatus(String status) {
+      statuses.incrementAndGet();
+    }
+
+    @Override
+    public void render() {
+      // Nothing to render
+    }
+  }
+
+  private static ThreeTriosGameModel startedModel() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel(GRID, CARDS, 3L);
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            false);
+    return model;
+  }
+
+  @Test
+  public void testDeadlineInterruptsSearch() throws Exception {
+    ThreeTriosGameModel model = startedModel();
+    AtomicInteger ticks = new AtomicInteger();
+    try (ComputerTurnRunner turns = new ComputerTurnRunner(Runnable::run, 300, 50)) {
+      ComputerPlayer player = new ComputerPlayer(List.of(new SlowStrategy(false)), model,
+              Colors.RED);
+      long start = System.nanoTime();
+      CompletableFuture<GameMoveData> move = turns.chooseMove(player, model,
+              elapsed -> ticks.incrementAndGet());
+      Assert.assertTrue(turns.isBusy());
+      Assert.assertThrows(IllegalStateException.class,
+              () -> turns.chooseMove(player, model, null));
+      // The interrupted search still gets to answer
+      Assert.assertEquals(new GameMoveData(3, 4, 0), move.get(5, TimeUnit.SECONDS));
+      Assert.assertTrue(System.nanoTime() - start < 5_000_000_000L);
+      Assert.assertFalse(turns.isBusy());
+      Assert.assertTrue(ticks.get() > 0);
+
+      ComputerPlayer failing = new ComputerPlayer(List.of(new SlowStrategy(true)), model,
+              Colors.RED);
+      Assert.assertEquals(new GameMoveData(0, 0, 0),
+              turns.chooseMove(failing, model, null).get(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testDeadlineFallsBackWhenSearchIgnoresInterrupt() throws Exception {
+    ThreeTriosGameModel model = startedModel();
+    List<UndoableThreeTriosModel> copiedOnto = new ArrayList<>();
+    try (ComputerTurnRunner turns = new ComputerTurnRunner(Runnable::run, 300, 50)) {
+      ComputerPlayer player = new ComputerPlayer(List.of(new SlowStrategy(false, true,
+              copiedOnto)), model, Colors.RED);
+      long start = System.nanoTime();
+      CompletableFuture<GameMoveData> move = turns.chooseMove(player, model, null);
+      // The search is on a copy, so the model can be read while it runs
+      Assert.assertEquals(1, copiedOnto.size());
+      Assert.assertNotSame(model, copiedOnto.get(0));
+      Assert.assertEquals(new GameMoveData(0, 0, 0), move.get(5, TimeUnit.SECONDS));
+      Assert.assertTrue(System.nanoTime() - start < 5_000_000_000L);
+      Assert.assertFalse(turns.isBusy());
+      Assert.assertEquals(0, model.getJournalDepth());
+    }
+  }
+
+  @Test
+  public void testFailedSearchFallsBackAndFreesRunnerOnModelThread() throws Exception {
+    ThreeTriosGameModel model = startedModel();
+    Strategy failing = new Strategy() {
+      @Override
+      public List<GameMoveData> execute() {
+        throw new IllegalStateException("No move found.");
+      }
+
+      @Override
+      public int getBestMoveValue() {
+        return 0;
+      }
+
+      @Override
+      public boolean supportsCopy() {
+        return true;
+      }
+
+      @Override
+      public Strategy copyFor(UndoableThreeTriosModel model) {
+        return this;
+      }
+    };
+    LinkedBlockingQueue<Runnable> modelTasks = new LinkedBlockingQueue<>();
+    try (ComputerTurnRunner turns = new ComputerTurnRunner(modelTasks::add, 10_000, 10_000)) {
+      CompletableFuture<GameMoveData> move = turns.chooseMove(new ComputerPlayer(
+              List.of(failing), model, Colors.RED), model, null);
+      // The move is handed over on the model thread, until which the runner stays busy
+      Runnable handOver = modelTasks.poll(5, TimeUnit.SECONDS);
+      Assert.assertNotNull(handOver);
+      Assert.assertTrue(turns.isBusy());
+      Assert.assertFalse(move.isDone());
+      handOver.run();
+      Assert.assertFalse(turns.isBusy());
+      Assert.assertEquals(new GameMoveData(0, 0, 0), move.getNow(null));
+    }
+  }
+
+  @Test
+  public void testPlayerWithUncopiedStrategyIsRejected() {
+    ThreeTriosGameModel model = startedModel();
+    Strategy uncopied = new Strategy() {
+      @Override
+      public List<GameMoveData> execute() {
+        return List.of(new GameMoveData(0, 0, 0));
+      }
+
+      @Override
+      public int getBestMoveValue() {
+        return 0;
+      }
+    };
+    try (ComputerTurnRunner turns = new ComputerTurnRunner(Runnable::run, 300, 50)) {
+      Assert.assertThrows(IllegalArgumentException.class, () -> turns.chooseMove(
+              new ComputerPlayer(List.of(uncopied), model, Colors.RED), model, null));
+      Assert.assertFalse(turns.isBusy());
+    }
+  }
+
+  @Test
+  public void testCancelledMoveIsNeverPlayed() throws Exception {
+    ThreeTriosGameModel model = startedModel();
+    try (ComputerTurnRunner turns = new ComputerTurnRunner(Runnable::run, 10_000, 50)) {
+      CompletableFuture<GameMoveData> move = turns.chooseMove(new ComputerPlayer(
+              List.of(new SlowStrategy(false)), model, Colors.RED), model, null);
+      Assert.assertTrue(move.cancel(true));
+      Assert.assertThrows(CancellationException.class, move::get);
+      // The interrupted search returns promptly and frees the runner
+      long waitUntil = System.nanoTime() + 5_000_000_000L;
+      while (turns.isBusy() && System.nanoTime() < waitUntil) {
+        Thread.sleep(10);
+      }
+      Assert.assertFalse(turns.isBusy());
+    }
+  }
+
+  @Test
+  public void testControllerPlaysComputerMovesOnModelThread() throws Exception {
+    ExecutorService modelThread = Executors.newSingleThreadExecutor();
+    try (ComputerTurnRunner turns = new ComputerTurnRunner(modelThread, 5000, 10)) {
+      ThreeTriosGameModel model = new ThreeTriosGameModel(GRID, CARDS, 3L);
+      ComputerPlayer red = new ComputerPlayer(List.of(new MaxCardsFlipStrategy(model)), model,
+              Colors.RED);
+      UserPlayer blue = new UserPlayer(model, Colors.BLUE);
+      new ThreeTriosController(model, red, new StatusView(), turns);
+      new ThreeTriosController(model, blue, new StatusView(), turns);
+      CountDownLatch bluesTurn = new CountDownLatch(1);
+      model.addFeatures(new ModelFeatures() {
+        @Override
+        public void playerTurn(int playerIndex) {
+          Assert.assertFalse(Thread.currentThread().getName().startsWith("computer-turn"));
+          if (playerIndex == 1) {
+            bluesTurn.countDown();
+          }
+        }
+
+        @Override
+        public void gameEnd() {
+          // The game doesn't get that far
+        }
+      });
+      modelThread.submit(() -> model.startGame(red, blue, false)).get();
+      Assert.assertTrue(bluesTurn.await(5, TimeUnit.SECONDS));
+      Assert.assertEquals(1, modelThread.submit(() -> model.getMoveLog().getNumMoves()).get()
+              .intValue());
+    } catch (ExecutionException e) {
+      throw new AssertionError(e.getCause());
+    } finally {
+      modelThread.shutdownNow();
+    }
+  }
+}
@@ -10,8 +10,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+import model.card.Card;
+import model.card.CardCatalog;
 import model.card.CardInterface;
 import model.card.Colors;
+import model.card.Positions;
+import model.card.ReadOnlyCard;
 import model.card.Value;
 import model.cell.CardCell;
 import model.cell.Cell;
@@ -296,6 +300,344 @@ public abstract class AbstractThreeTriosModelTest {
     Assert.assertEquals(bluePlayer, model.getPlayerInTurn());
   }
 
+  @Test
+  public void testApplyAndUndoMoveRestoresGame() {
+    model = createModel(generatePath("NoHolesBoardConfig.txt"),
+            generatePath("BigDeckCardConfig.txt"), rand);
+    model.startGame(redPlayer, bluePlayer, false);
+    model.playMove(new GameMoveData(1, 1, 0));
+    String gridBefore = gridToString(model.getGrid());
+    int redScore = model.getPlayerScore(true);
+    int blueScore = model.getPlayerScore(false);
+    int blueHandSize = bluePlayer.getHandCopy().size();
+
+    // Apply a few moves around the placed card, then take them all back
+    model.applyMove(new GameMoveData(1, 2, 0));
+    model.applyMove(new GameMoveData(0, 1, 2));
+    model.applyMove(new GameMoveData(2, 1, 1));
+    Assert.assertEquals(3, model.getJournalDepth());
+    Assert.assertSame(redPlayer, model.getPlayerInTurn());
+    model.undoMove();
+    model.undoMove();
+    model.undoMove();
+
+    Assert.assertEquals(0, model.getJournalDepth());
+    Assert.assertEquals(gridBefore, gridToString(model.getGrid()));
+    Assert.assertEquals(redScore, model.getPlayerScore(true));
+    Assert.assertEquals(blueScore, model.getPlayerScore(false));
+    Assert.assertEquals(blueHandSize, bluePlayer.getHandCopy().size());
+    Assert.assertSame(bluePlayer, model.getPlayerInTurn());
+    Assert.assertNull(model.getGridCellCard(1, 2));
+  }
+
+  private int scanScore(Colors color, Player player) {
+    int score = player.getHandCopy().size();
+    for (Cell[] row : model.getGrid()) {
+      for (Cell cell : row) {
+        if (cell instanceof CardCell && ((CardCell) cell).getCard().isPresent()
+                && ((CardCell) cell).getCard().get().getColor() == color) {
+          score++;
+        }
+      }
+    }
+    return score;
+  }
+
+  @Test
+  public void testScoresMatchGridScanThroughoutGame() {
+    model = createModel(generatePath("NoHolesBoardConfig.txt"),
+            generatePath("BigDeckCardConfig.txt"), rand);
+    model.startGame(redPlayer, bluePlayer, true);
+    for (int row = 0; row < 4; row++) {
+      for (int col = 0; col < 5; col++) {
+        // Look ahead at a move and take it back before playing it
+        int lastCard = model.getPlayerInTurn().getHandCopy().size() - 1;
+        model.applyMove(new GameMoveData(row, col, lastCard));
+        model.undoMove();
+        model.playMove(new GameMoveData(row, col, 0));
+        Assert.assertEquals(scanScore(Colors.RED, redPlayer), model.getPlayerScore(true));
+        Assert.assertEquals(scanScore(Colors.BLUE, bluePlayer), model.getPlayerScore(false));
+      }
+    }
+    Assert.assertEquals(21, model.getPlayerScore(true) + model.getPlayerScore(false));
+    Assert.assertEquals(model.getPlayerScore(true) >= model.getPlayerScore(false),
+            List.of(model.getWinner()).contains(redPlayer));
+  }
+
+  @Test
+  public void testViewsTrackGameWithoutCopying() {
+    model = createModel(generatePath("NoHolesBoardConfig.txt"),
+            generatePath("BigDeckCardConfig.txt"), rand);
+    model.startGame(redPlayer, bluePlayer, false);
+    ReadOnlyGrid grid = model.getGridView();
+    List<ReadOnlyCard> redHand = redPlayer.getHandView();
+    ReadOnlyCard played = redHand.get(0);
+    Assert.assertEquals(11, redHand.size());
+    Assert.assertNull(grid.getCard(1, 1));
+
+    model.playMove(new GameMoveData(1, 1, 0));
+    // Views obtained before the move show the game after it
+    Assert.assertEquals(10, redHand.size());
+    Assert.assertEquals(played.getName(), grid.getCard(1, 1).getName());
+    Assert.assertSame(grid.getCard(1, 1), model.getGridView().getCard(1, 1));
+    Assert.assertSame(redHand, redPlayer.getHandView());
+    Assert.assertTrue(grid.isCardCell(3, 4));
+    Assert.assertFalse(grid.isCardCell(4, 0));
+    Assert.assertNull(grid.getCard(-1, 0));
+    Assert.assertEquals(model.getGrid()[1][1].toString(), grid.getCard(1, 1).toString());
+    Assert.assertThrows(UnsupportedOperationException.class, () -> redHand.remove(0));
+  }
+
+  @Test
+  public void testCardCatalogInternsDistinctCards() {
+    Card first = new Card("a", Value.ONE, Value.TWO, Value.THREE, Value.TEN);
+    Card duplicate = new Card("a", Value.ONE, Value.TWO, Value.THREE, Value.TEN);
+    duplicate.setColor(Colors.BLUE);
+    Card other = new Card("a", Value.ONE, Value.TWO, Value.THREE, Value.NINE);
+    CardCatalog catalog = CardCatalog.of(List.of(first, duplicate, other));
+
+    Assert.assertEquals(2, catalog.size());
+    Assert.assertEquals(0, catalog.idOf(duplicate));
+    Assert.assertEquals(1, catalog.idOf(other));
+    Assert.assertEquals(10, catalog.getValue(0, Positions.WEST.ordinal()));
+    Assert.assertEquals(9, catalog.getValue(1, Positions.WEST.ordinal()));
+    Assert.assertSame(catalog.getCard(0, 1), catalog.getCard(0, 1));
+    Assert.assertEquals(Colors.BLUE, catalog.getCard(0, 1).getColor());
+
+    CardInterface copy = catalog.newCard(1, Colors.RED);
+    Assert.assertEquals(Value.NINE, copy.getValueFromPos(Positions.WEST));
+    Assert.assertEquals("a", copy.getName());
+    copy.switchColor();
+    Assert.assertEquals(Colors.RED, catalog.getCard(1, 0).getColor());
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            catalog.idOf(new Card("b", Value.ONE, Value.TWO, Value.THREE, Value.TEN)));
+  }
+
+  @Test
+  public void testGridCardsCannotChangeGame() {
+    model = createModel(generatePath("NoHolesBoardConfig.txt"),
+            generatePath("BigDeckCardConfig.txt"), rand);
+    model.startGame(redPlayer, bluePlayer, false);
+    model.playMove(new GameMoveData(1, 1, 0));
+
+    // Ownership is kept by the model, so switching a handed out card doesn't flip it
+    model.getGridCellCard(1, 1).switchColor();
+    Assert.assertEquals(Colors.RED, model.getGridCellCard(1, 1).getColor());
+    Assert.assertSame(redPlayer, model.getOwnerAtCell(1, 1));
+    Assert.assertEquals(11, model.getPlayerScore(true));
+  }
+
+  @Test
+  public void testCellIndexTracksEmptyAndFrontierCells() {
+    model = createModel(generatePath("AllCardsReachableBoardConfig.txt"),
+            generatePath("BigDeckCardConfig.txt"), rand);
+    model.startGame(redPlayer, bluePlayer, false);
+    ReadOnlyCellIndex cells = model.getCellIndex();
+    Assert.assertEquals(4, cells.getNumCols());
+    Assert.assertEquals(7, cells.getNumEmptyCells());
+    Assert.assertEquals(0, cells.getNumFrontierCells());
+    // Cell (0, 0) only opens south, (1, 1) has a hole north, (2, 3) only opens north
+    Assert.assertEquals(3, cells.getHoleNeighborCount(0));
+    Assert.assertEquals(1 << Positions.SOUTH.ordinal(), cells.getOpenSides(0));
+    Assert.assertEquals(1, cells.getHoleNeighborCount(5));
+    Assert.assertEquals(14, cells.getOpenSides(5));
+    Assert.assertTrue(cells.isCorner(0));
+    Assert.assertTrue(cells.isCorner(11));
+    Assert.assertFalse(cells.isCorner(5));
+    Assert.assertFalse(cells.isEmptyCell(1));
+
+    model.playMove(new GameMoveData(1, 1, 0));
+    Assert.assertSame(cells, model.getCellIndex());
+    Assert.assertEquals(6, cells.getNumEmptyCells());
+    Assert.assertFalse(cells.isEmptyCell(5));
+    List<Integer> frontier = new ArrayList<>();
+    for (int i = 0; i < cells.getNumFrontierCells(); i++) {
+      frontier.add(cells.getFrontierCell(i));
+    }
+    frontier.sort(null);
+    Assert.assertEquals(List.of(4, 6, 9), frontier);
+
+    // Taking a move back restores the exact order of both sets
+    List<Integer> emptyBefore = new ArrayList<>();
+    for (int i = 0; i < cells.getNumEmptyCells(); i++) {
+      emptyBefore.add(cells.getEmptyCell(i));
+    }
+    List<Integer> frontierBefore = new ArrayList<>();
+    for (int i = 0; i < cells.getNumFrontierCells(); i++) {
+      frontierBefore.add(cells.getFrontierCell(i));
+    }
+    model.applyMove(new GameMoveData(1, 2, 0));
+    model.applyMove(new GameMoveData(2, 3, 0));
+    Assert.assertEquals(4, cells.getNumEmptyCells());
+    Assert.assertFalse(cells.isEmptyCell(11));
+    model.undoMove();
+    model.undoMove();
+    for (int i = 0; i < emptyBefore.size(); i++) {
+      Assert.assertEquals((int) emptyBefore.get(i), cells.getEmptyCell(i));
+    }
+    for (int i = 0; i < frontierBefore.size(); i++) {
+      Assert.assertEquals((int) frontierBefore.get(i), cells.getFrontierCell(i));
+    }
+    Assert.assertEquals(frontierBefore.size(), cells.getNumFrontierCells());
+    Assert.assertThrows(IndexOutOfBoundsException.class, () -> cells.getEmptyCell(6));
+  }
+
+  @Test
+  public void testRedoMoveMatchesPlayedMove() {
+    model = createModel(generatePath("NoHolesBoardConfig.txt"),
+            generatePath("BigDeckCardConfig.txt"), rand);
+    model.startGame(redPlayer, bluePlayer, false);
+    model.playMove(new GameMoveData(0, 0, 0));
+    model.applyMove(new GameMoveData(0, 1, 3));
+    String gridAfterMove = gridToString(model.getGrid());
+    int redScore = model.getPlayerScore(true);
+
+    model.undoMove();
+    model.redoMove();
+    Assert.assertEquals(gridAfterMove, gridToString(model.getGrid()));
+    Assert.assertEquals(redScore, model.getPlayerScore(true));
+    Assert.assertThrows(IllegalStateException.class, () -> model.redoMove());
+  }
+
+  @Test
+  public void testUndoWithoutAppliedMove() {
+    model = createModel(generatePath("NoHolesBoardConfig.txt"),
+            generatePath("BigDeckCardConfig.txt"), rand);
+    model.startGame(redPlayer, bluePlayer, false);
+    Assert.assertThrows(IllegalStateException.class, () -> model.undoMove());
+  }
+
+  @Test
+  public void testPlayMoveDuringSimulation() {
+    model = createModel(generatePath("NoHolesBoardConfig.txt"),
+            generatePath("BigDeckCardConfig.txt"), rand);
+    model.startGame(redPlayer, bluePlayer, false);
+    model.applyMove(new GameMoveData(0, 0, 0));
+    Assert.assertThrows(IllegalStateException.class, () ->
+            model.playMove(new GameMoveData(0, 1, 0)));
+  }
+
+  @Test
+  public void testPotentialCardsFlippedLeavesGameUnchanged() {
+    model = createModel(generatePath("NoHolesBoardConfig.txt"),
+            generatePath("BigDeckCardConfig.txt"), rand);
+    model.startGame(redPlayer, bluePlayer, false);
+    model.playMove(new GameMoveData(1, 1, 0));
+    String gridBefore = gridToString(model.getGrid());
+
+    int flipped = model.potentialCardsFlipped(new GameMoveData(1, 2, 0));
+    Assert.assertTrue(flipped >= 1);
+    Assert.assertEquals(gridBefore, gridToString(model.getGrid()));
+    Assert.assertEquals(0, model.getJournalDepth());
+    Assert.assertSame(bluePlayer, model.getPlayerInTurn());
+  }
+
+  @Test
+  public void testPotentialCardsFlippedNeverTouchesHands() {
+    model = createModel(generatePath("NoHolesBoardConfig.txt"),
+            generatePath("BigDeckCardConfig.txt"), rand);
+    List<String> handChanges = new ArrayList<>();
+    Player red = new player.UserPlayer(model, Colors.RED) {
+      @Override
+      public CardInterface pop(int idx) {
+        handChanges.add("pop " + idx);
+        return super.pop(idx);
+      }
+
+      @Override
+      public void insertToHand(int idx, CardInterface card) {
+        handChanges.add("insert " + idx);
+        super.insertToHand(idx, card);
+      }
+    };
+    model.startGame(red, bluePlayer, false);
+    for (int row = 0; row < 4; row++) {
+      for (int col = 0; col < 5; col++) {
+        model.potentialCardsFlipped(new GameMoveData(row, col, 0));
+      }
+    }
+    Assert.assertEquals(List.of(), handChanges);
+    Assert.assertSame(red, model.getPlayerInTurn());
+  }
+
+  @Test
+  public void testPositionHashIgnoresMoveOrder() {
+    model = createModel(generatePath("NoHolesBoardConfig.txt"),
+            generatePath("BigDeckCardConfig.txt"), new Random(5));
+    model.startGame(redPlayer, bluePlayer, false);
+    long startHash = model.getPositionHash();
+    // Corners far apart, so no battles happen and both orders reach the same position
+    model.applyMove(new GameMoveData(0, 0, 0));
+    model.applyMove(new GameMoveData(3, 4, 0));
+    model.applyMove(new GameMoveData(0, 4, 0));
+    long firstOrder = model.getPositionHash();
+    model.undoMove();
+    model.undoMove();
+    model.undoMove();
+    Assert.assertEquals(startHash, model.getPositionHash());
+
+    model.applyMove(new GameMoveData(0, 4, 1));
+    model.applyMove(new GameMoveData(3, 4, 0));
+    Assert.assertNotEquals(firstOrder, model.getPositionHash());
+    model.applyMove(new GameMoveData(0, 0, 0));
+    Assert.assertEquals(firstOrder, model.getPositionHash());
+  }
+
+  @Test
+  public void testPositionHashTracksFlips() {
+    model = createModel(generatePath("NoHolesBoardConfig.txt"),
+            generatePath("BigDeckCardConfig.txt"), rand);
+    model.startGame(redPlayer, bluePlayer, false);
+    model.playMove(new GameMoveData(1, 1, 0));
+    long before = model.getPositionHash();
+    model.applyMove(new GameMoveData(1, 2, 0));
+    long after = model.getPositionHash();
+    Assert.assertNotEquals(before, after);
+    model.undoMove();
+    Assert.assertEquals(before, model.getPositionHash());
+    model.redoMove();
+    Assert.assertEquals(after, model.getPositionHash());
+    model.undoMove();
+    Assert.assertEquals(before, model.getPositionHash());
+  }
+
+  @Test
+  public void testCopyIsIndependent() {
+    model = createModel(generatePath("NoHolesBoardConfig.txt"),
+            generatePath("BigDeckCardConfig.txt"), rand);
+    model.startGame(redPlayer, bluePlayer, true);
+    model.playMove(new GameMoveData(1, 1, 0));
+    model.playMove(new GameMoveData(1, 2, 3));
+    model.playMove(new GameMoveData(2, 2, 1));
+
+    UndoableThreeTriosModel copy = model.copy();
+    Assert.assertEquals(gridToString(model.getGrid()), gridToString(copy.getGrid()));
+    Assert.assertEquals(model.getPositionHash(), copy.getPositionHash());
+    Assert.assertEquals(Colors.BLUE, copy.getPlayerInTurn().getColor());
+    Assert.assertEquals(bluePlayer.getHandCopy(), copy.getPlayerInTurn().getHandCopy());
+    Assert.assertEquals(model.getPlayerScore(true), copy.getPlayerScore(true));
+
+    // Moves on the copy leave the original alone, and the same move gives the same position
+    copy.applyMove(new GameMoveData(2, 1, 2));
+    Assert.assertNull(model.getGridCellCard(2, 1));
+    Assert.assertEquals(0, model.getJournalDepth());
+    model.playMove(new GameMoveData(2, 1, 2));
+    Assert.assertEquals(gridToString(model.getGrid()), gridToString(copy.getGrid()));
+    Assert.assertEquals(model.getPositionHash(), copy.getPositionHash());
+    Assert.assertEquals(redPlayer.getHandCopy(), copy.getPlayerInTurn().getHandCopy());
+  }
+
+  private String gridToString(Cell[][] grid) {
+    StringBuilder output = new StringBuilder();
+    for (Cell[] row : grid) {
+      for (Cell cell : row) {
+        output.append(cell.toString());
+      }
+      output.append("\n");
+    }
+    return output.toString();
+  }
+
   // Helper method to find the next empty card cell in the grid
   private Point getNextEmptyCell(model.cell.Cell[][] grid) {
     for (int y = 0; y < grid.length; y++) {
@@ -0,0 +1,94 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import model.card.Colors;
+import model.card.Positions;
+import model.filereader.GridConfigFileReader;
+import player.GameMoveData;
+import player.UserPlayer;
+
+/**
+ * Tests finding the symmetries of grid layouts and keying positions under them.
+ */
+public class BoardSymmetryTest {
+
+  private BoardSymmetry symmetryOf(String gridConfig) throws IOException {
+    return BoardSymmetry.of(new GridConfigFileReader("resources/" + gridConfig).readGrid());
+  }
+
+  private ThreeTriosGameModel startedModel(String gridConfig, String cardConfig) {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/" + gridConfig,
+            "resources/" + cardConfig, new Random(22));
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            false);
+    return model;
+  }
+
+  @Test
+  public void testFindsSymmetriesOfLayouts() throws IOException {
+    // A square grid without holes has all eight, a rectangular one four
+    Assert.assertEquals(8, symmetryOf("basicBoardConfig.txt").size());
+    Assert.assertEquals(4, symmetryOf("NoHolesBoardConfig.txt").size());
+    Assert.assertEquals(4, symmetryOf("DisjointCardsBoardConfig.txt").size());
+    // Holes can break every symmetry but the identity
+    Assert.assertEquals(1, symmetryOf("AllCardsReachableBoardConfig.txt").size());
+    Assert.assertEquals(1, symmetryOf("PotentialFourFlipBoardConfig.txt").size());
+    Assert.assertThrows(IllegalArgumentException.class, () -> new BoardSymmetry(null));
+  }
+
+  @Test
+  public void testMapsCellsAndSides() throws IOException {
+    BoardSymmetry symmetry = symmetryOf("basicBoardConfig.txt");
+    for (int s = 0; s < symmetry.size(); s++) {
+      for (int cell = 0; cell < 9; cell++) {
+        Assert.assertEquals(cell, symmetry.unmapCell(s, symmetry.mapCell(s, cell)));
+      }
+      // Opposite sides stay opposite however the card is turned
+      Positions north = symmetry.mapSide(s, Positions.NORTH);
+      Positions south = symmetry.mapSide(s, Positions.SOUTH);
+      Assert.assertNotEquals(north, south);
+      Assert.assertEquals(north == Positions.NORTH || north == Positions.SOUTH,
+              south == Positions.NORTH || south == Positions.SOUTH);
+    }
+    // The centre stays put, and a quarter turn clockwise takes the top left corner to the top
+    // right one and a card's north side to the east
+    boolean foundQuarterTurn = false;
+    for (int s = 0; s < symmetry.size(); s++) {
+      Assert.assertEquals(4, symmetry.mapCell(s, 4));
+      if (symmetry.mapCell(s, 0) == 2 && symmetry.mapCell(s, 2) == 8) {
+        foundQuarterTurn = true;
+        Assert.assertEquals(Positions.EAST, symmetry.mapSide(s, Positions.NORTH));
+        Assert.assertEquals(Positions.SOUTH, symmetry.mapSide(s, Positions.EAST));
+      }
+    }
+    Assert.assertTrue(foundQuarterTurn);
+  }
+
+  @Test
+  public void testMirroredPositionsShareCanonicalKey() {
+    // Every card of this deck has the same value on each side, so turning them changes nothing
+    ThreeTriosGameModel model = startedModel("basicBoardConfig.txt", "FlippablesCardConfig.txt");
+    ThreeTriosGameModel mirrored = startedModel("basicBoardConfig.txt",
+            "FlippablesCardConfig.txt");
+    BoardSymmetry symmetry = new BoardSymmetry(model.getGridView());
+    Assert.assertEquals(symmetry.keyOf(model, 0), symmetry.keyOf(mirrored, 0));
+    Assert.assertEquals(8, symmetry.symmetriesOf(model).length);
+
+    model.applyMove(new GameMoveData(0, 0, 0));
+    mirrored.applyMove(new GameMoveData(0, 2, 0));
+    Assert.assertNotEquals(symmetry.keyOf(model, 0), symmetry.keyOf(mirrored, 0));
+    Assert.assertEquals(symmetry.canonicalKey(model), symmetry.canonicalKey(mirrored));
+    // Only the reflection through the corner's diagonal still fixes the position
+    int[] fixing = symmetry.symmetriesOf(model);
+    Assert.assertEquals(2, fixing.length);
+    Assert.assertTrue(symmetry.isRepresentative(fixing, 1));
+    Assert.assertFalse(symmetry.isRepresentative(fixing, 3));
+    Assert.assertArrayEquals(new int[]{1, 3}, symmetry.orbitOf(fixing, 3));
+    Assert.assertArrayEquals(new int[]{4}, symmetry.orbitOf(fixing, 4));
+  }
+}
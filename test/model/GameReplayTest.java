@@ -0,0 +1,123 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import model.card.Colors;
+import model.cell.Cell;
+import player.GameMoveData;
+import player.UserPlayer;
+
+/**
+ * Tests logging games as they are played and replaying them from their logs.
+ */
+public class GameReplayTest {
+  private static final String GRID = "resources/NoHolesBoardConfig.txt";
+  private static final String CARDS = "resources/BigDeckCardConfig.txt";
+
+  @Test
+  public void testReplayRebuildsEveryPosition() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel(GRID, CARDS, 17L);
+    List<String> positions = playRandomGame(model, new Random(4));
+    MoveLog log = MoveLog.fromBytes(model.getMoveLog().toBytes());
+    Assert.assertTrue(log.isSeeded());
+    Assert.assertEquals(17L, log.getSeed());
+    Assert.assertEquals(positions.size() - 1, log.getNumMoves());
+    Assert.assertEquals(log.getHeaderSize() + log.getNumMoves() * MoveLog.RECORD_BYTES,
+            model.getMoveLog().toBytes().length);
+
+    GameReplay replay = new GameReplay(log, GRID, CARDS, 3);
+    for (int moves = 0; moves <= replay.getNumMoves(); moves++) {
+      Assert.assertEquals(positions.get(moves), describe(replay.positionAt(moves)));
+    }
+    Assert.assertTrue(replay.positionAt(replay.getNumMoves()).isGameOver());
+  }
+
+  @Test
+  public void testReplayDealsAsLoggedWithoutSeed() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel(GRID, CARDS, new Random(8));
+    List<String> positions = playRandomGame(model, new Random(5));
+    MoveLog log = model.getMoveLog();
+    Assert.assertFalse(log.isSeeded());
+    Assert.assertTrue(log.isShuffled());
+
+    GameReplay replay = new GameReplay(log, GRID, CARDS);
+    Assert.assertEquals(positions.get(0), describe(replay.positionAt(0)));
+    Assert.assertEquals(positions.get(7), describe(replay.positionAt(7)));
+  }
+
+  @Test
+  public void testRecordsAppendToWrittenLog() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel(GRID, CARDS, 3L);
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            true);
+    MoveLog log = model.getMoveLog();
+    ByteBuffer file = ByteBuffer.allocate(1024);
+    log.write(file);
+    model.playMove(new GameMoveData(0, 0, 0));
+    model.playMove(new GameMoveData(0, 1, 0));
+    model.applyMove(new GameMoveData(0, 2, 0));
+    log.writeRecords(file, 0);
+    Assert.assertEquals(2, log.getNumMoves());
+
+    MoveLog read = MoveLog.read(file.flip());
+    Assert.assertEquals(2, read.getNumMoves());
+    Assert.assertEquals(log.getMove(1).toString(), read.getMove(1).toString());
+    Assert.assertEquals(log.getFlips(1), read.getFlips(1));
+  }
+
+  @Test
+  public void testRejectsLogOfAnotherGame() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel(GRID, CARDS, 11L);
+    playRandomGame(model, new Random(6));
+    byte[] bytes = model.getMoveLog().toBytes();
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> new GameReplay(
+            MoveLog.fromBytes(bytes), "resources/AllCardsReachableBoardConfig.txt", CARDS));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new GameReplay(
+            MoveLog.fromBytes(bytes), GRID, "resources/FlippablesCardConfig.txt"));
+    // The flip count of the last move no longer matches
+    byte[] tampered = bytes.clone();
+    tampered[tampered.length - 1]++;
+    Assert.assertThrows(IllegalArgumentException.class, () -> new GameReplay(
+            MoveLog.fromBytes(tampered), GRID, CARDS));
+    byte[] partial = Arrays.copyOf(bytes, bytes.length - 1);
+    Assert.assertThrows(IllegalArgumentException.class, () -> MoveLog.fromBytes(partial));
+  }
+
+  private static List<String> playRandomGame(ThreeTriosGameModel model, Random moveRand) {
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            true);
+    List<String> positions = new ArrayList<>();
+    positions.add(describe(model));
+    while (!model.isGameOver()) {
+      ReadOnlyCellIndex index = model.getCellIndex();
+      int cell = index.getEmptyCell(moveRand.nextInt(index.getNumEmptyCells()));
+      int handIndex = moveRand.nextInt(model.getPlayerInTurn().getHandView().size());
+      model.playMove(new GameMoveData(cell / index.getNumCols(), cell % index.getNumCols(),
+              handIndex));
+      positions.add(describe(model));
+    }
+    return positions;
+  }
+
+  private static String describe(ThreeTriosGameModel model) {
+    StringBuilder output = new StringBuilder();
+    for (Cell[] row : model.getGrid()) {
+      for (Cell cell : row) {
+        output.append(cell.toString());
+      }
+      output.append("\n");
+    }
+    return output.append(model.getPlayerInTurn().getColor())
+            .append(model.getRedPlayer().getHandCopy())
+            .append(model.getBluePlayer().getHandCopy())
+            .append(model.getPositionHash()).toString();
+  }
+}
@@ -0,0 +1,199 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import model.card.Colors;
+import model.cell.Cell;
+import player.GameMoveData;
+import player.Player;
+import player.UserPlayer;
+
+/**
+ * Tests saving games to snapshots and restoring them, round-tripping games loaded from the
+ * text configs through the binary format.
+ */
+public class GameSnapshotTest {
+  private static final String[][] CONFIGS = {
+      {"NoHolesBoardConfig.txt", "BigDeckCardConfig.txt"},
+      {"AllCardsReachableBoardConfig.txt", "BigDeckCardConfig.txt"},
+      {"DisjointCardsBoardConfig.txt", "SmallDeckCardConfig.txt"},
+      {"basicBoardConfig.txt", "FlippablesCardConfig.txt"}};
+
+  @Test
+  public void testRoundTripMidGameFromTextConfigs() {
+    for (String[] config : CONFIGS) {
+      ThreeTriosGameModel model = startedModel(config);
+      for (int moves = 0; moves < 3 && !model.isGameOver(); moves++) {
+        playFirstEmptyCell(model);
+      }
+      ThreeTriosGameModel restored = ThreeTriosGameModel.fromSnapshot(
+              GameSnapshot.fromBytes(model.snapshot().toBytes()));
+      assertSameGame(model, restored);
+      Assert.assertEquals(model.getNewlyPlacedCard(), restored.getNewlyPlacedCard());
+      Assert.assertArrayEquals(model.snapshot().toBytes(), restored.snapshot().toBytes());
+
+      // Both games go on the same way, and can be played to the end
+      while (!model.isGameOver()) {
+        playFirstEmptyCell(model);
+        playFirstEmptyCell(restored);
+        assertSameGame(model, restored);
+      }
+      Assert.assertTrue(restored.isGameOver());
+      Assert.assertEquals(model.getWinner().length, restored.getWinner().length);
+    }
+  }
+
+  @Test
+  public void testRoundTripFinishedGameThroughBuffer() {
+    ThreeTriosGameModel model = startedModel(CONFIGS[0]);
+    while (!model.isGameOver()) {
+      playFirstEmptyCell(model);
+    }
+    GameSnapshot snapshot = model.snapshot();
+    ByteBuffer buf = ByteBuffer.allocateDirect(snapshot.getEncodedSize() + 3);
+    buf.put((byte) 7);
+    snapshot.write(buf);
+    Assert.assertEquals(1 + snapshot.getEncodedSize(), buf.position());
+    buf.flip().get();
+
+    ThreeTriosGameModel restored = ThreeTriosGameModel.fromSnapshot(GameSnapshot.read(buf));
+    Assert.assertFalse(buf.hasRemaining());
+    Assert.assertTrue(restored.isGameOver());
+    assertSameGame(model, restored);
+  }
+
+  @Test
+  public void testUnstartedGameShufflesTheSameWay() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/" + CONFIGS[0][0],
+            "resources/" + CONFIGS[0][1], 3L);
+    ThreeTriosGameModel restored = ThreeTriosGameModel.fromSnapshot(
+            GameSnapshot.fromBytes(model.snapshot().toBytes()));
+    Assert.assertFalse(restored.isGameStarted());
+
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            true);
+    restored.startGame(new UserPlayer(restored, Colors.RED),
+            new UserPlayer(restored, Colors.BLUE), true);
+    assertSameGame(model, restored);
+  }
+
+  @Test
+  public void testSnapshotDoesNotChangeLaterShuffles() {
+    ThreeTriosGameModel saved = new ThreeTriosGameModel("resources/" + CONFIGS[0][0],
+            "resources/" + CONFIGS[0][1], new Random(3));
+    ThreeTriosGameModel unsaved = new ThreeTriosGameModel("resources/" + CONFIGS[0][0],
+            "resources/" + CONFIGS[0][1], new Random(3));
+    saved.snapshot();
+    saved.startGame(new UserPlayer(saved, Colors.RED), new UserPlayer(saved, Colors.BLUE),
+            true);
+    unsaved.startGame(new UserPlayer(unsaved, Colors.RED),
+            new UserPlayer(unsaved, Colors.BLUE), true);
+    assertSameGame(unsaved, saved);
+  }
+
+  @Test
+  public void testSeededGameRestoresItsShuffles() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/" + CONFIGS[0][0],
+            "resources/" + CONFIGS[0][1], 5L);
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            true);
+    byte[] bytes = model.snapshot().toBytes();
+    Assert.assertArrayEquals(bytes, ThreeTriosGameModel.fromSnapshot(
+            GameSnapshot.fromBytes(bytes)).snapshot().toBytes());
+  }
+
+  @Test
+  public void testSnapshotOfSimulatedPositionFails() {
+    ThreeTriosGameModel model = startedModel(CONFIGS[0]);
+    model.applyMove(new GameMoveData(0, 0, 0));
+    Assert.assertThrows(IllegalStateException.class, model::snapshot);
+    model.undoMove();
+    Assert.assertNotNull(model.snapshot());
+  }
+
+  @Test
+  public void testReadsVersionOneSnapshots() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/" + CONFIGS[0][0],
+            "resources/" + CONFIGS[0][1], 3L);
+    byte[] bytes = model.snapshot().toBytes();
+    // Version 1 ends with the seed alone, without the flag before it and shuffles after it
+    ByteBuffer versionOne = ByteBuffer.allocate(bytes.length - 5);
+    versionOne.put(bytes, 0, bytes.length - 13).put(bytes, bytes.length - 12, 8);
+    versionOne.putShort(4, (short) 1);
+    ThreeTriosGameModel restored = ThreeTriosGameModel.fromSnapshot(
+            GameSnapshot.fromBytes(versionOne.array()));
+    Assert.assertArrayEquals(bytes, restored.snapshot().toBytes());
+  }
+
+  @Test
+  public void testRejectsInvalidSnapshots() {
+    byte[] bytes = startedModel(CONFIGS[2]).snapshot().toBytes();
+
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            GameSnapshot.fromBytes(Arrays.copyOf(bytes, bytes.length - 1)));
+    byte[] badMagic = bytes.clone();
+    badMagic[0] = 'X';
+    Assert.assertThrows(IllegalArgumentException.class, () -> GameSnapshot.fromBytes(badMagic));
+    byte[] badVersion = bytes.clone();
+    badVersion[5] = 3;
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            GameSnapshot.fromBytes(badVersion));
+    Assert.assertThrows(IllegalArgumentException.class, () -> GameSnapshot.fromBytes(null));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            ThreeTriosGameModel.fromSnapshot(null));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            GameSnapshot.fromBytes(bytes).write(ByteBuffer.allocate(bytes.length - 1)));
+  }
+
+  private static ThreeTriosGameModel startedModel(String[] config) {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/" + config[0],
+            "resources/" + config[1], new Random(42));
+    Player red = new UserPlayer(model, Colors.RED);
+    Player blue = new UserPlayer(model, Colors.BLUE);
+    model.startGame(red, blue, true);
+    return model;
+  }
+
+  private static void playFirstEmptyCell(ThreeTriosGameModel model) {
+    // The order of the index isn't part of a snapshot, so the first cell is found by scanning
+    ReadOnlyCellIndex index = model.getCellIndex();
+    int cell = Integer.MAX_VALUE;
+    for (int i = 0; i < index.getNumEmptyCells(); i++) {
+      cell = Math.min(cell, index.getEmptyCell(i));
+    }
+    int handIndex = model.getPlayerInTurn().getHandView().size() - 1;
+    model.playMove(new GameMoveData(cell / index.getNumCols(), cell % index.getNumCols(),
+            handIndex));
+  }
+
+  private static void assertSameGame(ThreeTriosGameModel expected, ThreeTriosGameModel actual) {
+    Assert.assertEquals(gridToString(expected.getGrid()), gridToString(actual.getGrid()));
+    Assert.assertEquals(expected.getPositionHash(), actual.getPositionHash());
+    Assert.assertEquals(expected.getPlayerInTurn().getColor(),
+            actual.getPlayerInTurn().getColor());
+    Assert.assertEquals(expected.getRedPlayer().getHandCopy(),
+            actual.getRedPlayer().getHandCopy());
+    Assert.assertEquals(expected.getBluePlayer().getHandCopy(),
+            actual.getBluePlayer().getHandCopy());
+    Assert.assertEquals(expected.getPlayerScore(true), actual.getPlayerScore(true));
+    Assert.assertEquals(expected.getPlayerScore(false), actual.getPlayerScore(false));
+    Assert.assertEquals(expected.getCellIndex().getNumFrontierCells(),
+            actual.getCellIndex().getNumFrontierCells());
+  }
+
+  private static String gridToString(Cell[][] grid) {
+    StringBuilder output = new StringBuilder();
+    for (Cell[] row : grid) {
+      for (Cell cell : row) {
+        output.append(cell.toString());
+      }
+      output.append("\n");
+    }
+    return output.toString();
+  }
+}
@@ -0,0 +1,197 @@
+package model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.card.CardInterface;
+import model.card.Colors;
+import model.card.Positions;
+import model.card.ReadOnlyCard;
+import player.GameMoveData;
+import player.Player;
+import player.UserPlayer;
+
+/**
+ * Replays random games on both ThreeTriosGameModel and PackedThreeTriosModel and checks that
+ * the two models stay in lockstep after every move.
+ */
+public class PackedThreeTriosModelParityTest {
+
+  private static final String[][] CONFIGS = {
+    {"resources/NoHolesBoardConfig.txt", "resources/BigDeckCardConfig.txt"},
+    {"resources/AllCardsReachableBoardConfig.txt", "resources/BigDeckCardConfig.txt"},
+    {"resources/PotentialFourFlipBoardConfig.txt", "resources/FlippablesCardConfig.txt"},
+    {"resources/PotentialFourFlipBoardConfig.txt", "resources/BigDeckCardConfig.txt"},
+    {"resources/DisjointCardsBoardConfig.txt", "resources/SmallDeckCardConfig.txt"},
+    {"resources/basicBoardConfig.txt", "resources/SmallDeckCardConfig.txt"}
+  };
+
+  private void assertSameCard(ReadOnlyCard expected, ReadOnlyCard actual) {
+    if (expected == null) {
+      Assert.assertNull(actual);
+      return;
+    }
+    Assert.assertNotNull(actual);
+    Assert.assertEquals(expected.getName(), actual.getName());
+    Assert.assertEquals(expected.getColor(), actual.getColor());
+    for (Positions pos : Positions.values()) {
+      Assert.assertEquals(expected.getValueFromPos(pos), actual.getValueFromPos(pos));
+    }
+  }
+
+  private void assertLockstep(ThreeTriosModel expected, ThreeTriosModel actual) {
+    int[] dims = expected.getGridSize();
+    Assert.assertArrayEquals(dims, actual.getGridSize());
+    for (int r = 0; r < dims[0]; r++) {
+      for (int c = 0; c < dims[1]; c++) {
+        assertSameCard(expected.getGridCellCard(r, c), actual.getGridCellCard(r, c));
+        assertSameCard(expected.getGridCellCard(r, c), actual.getGridView().getCard(r, c));
+        Assert.assertEquals(expected.getGridView().isCardCell(r, c),
+                actual.getGridView().isCardCell(r, c));
+        Assert.assertEquals(expected.getGrid()[r][c].toString(),
+                actual.getGrid()[r][c].toString());
+      }
+    }
+    Assert.assertEquals(expected.getPlayerScore(true), actual.getPlayerScore(true));
+    Assert.assertEquals(expected.getPlayerScore(false), actual.getPlayerScore(false));
+    Assert.assertEquals(expected.isGameOver(), actual.isGameOver());
+    Assert.assertEquals(expected.getPlayerInTurn().getColor(),
+            actual.getPlayerInTurn().getColor());
+
+    List<CardInterface> expectedHand = expected.getPlayerInTurn().getHandCopy();
+    List<CardInterface> actualHand = actual.getPlayerInTurn().getHandCopy();
+    Assert.assertEquals(expectedHand.size(), actualHand.size());
+    for (int i = 0; i < expectedHand.size(); i++) {
+      assertSameCard(expectedHand.get(i), actualHand.get(i));
+    }
+  }
+
+  private List<GameMoveData> legalMoves(ThreeTriosModel model) {
+    List<GameMoveData> moves = new ArrayList<>();
+    int[] dims = model.getGridSize();
+    int handSize = model.getPlayerInTurn().getHandCopy().size();
+    model.cell.Cell[][] grid = model.getGrid();
+    for (int r = 0; r < dims[0]; r++) {
+      for (int c = 0; c < dims[1]; c++) {
+        if (grid[r][c] instanceof model.cell.CardCell && model.getGridCellCard(r, c) == null) {
+          for (int i = 0; i < handSize; i++) {
+            moves.add(new GameMoveData(r, c, i));
+          }
+        }
+      }
+    }
+    return moves;
+  }
+
+  private void replayRandomGame(String gridPath, String cardPath, long seed) {
+    ThreeTriosModel expected = new ThreeTriosGameModel(gridPath, cardPath, new Random(seed));
+    ThreeTriosModel actual = new PackedThreeTriosModel(gridPath, cardPath, new Random(seed));
+    Player expectedRed = new UserPlayer(expected, Colors.RED);
+    Player expectedBlue = new UserPlayer(expected, Colors.BLUE);
+    Player actualRed = new UserPlayer(actual, Colors.RED);
+    Player actualBlue = new UserPlayer(actual, Colors.BLUE);
+    expected.startGame(expectedRed, expectedBlue, true);
+    actual.startGame(actualRed, actualBlue, true);
+    assertLockstep(expected, actual);
+
+    Random moveRand = new Random(seed * 31 + 7);
+    while (!expected.isGameOver()) {
+      List<GameMoveData> moves = legalMoves(expected);
+      for (GameMoveData move : moves) {
+        Assert.assertEquals(move.toString(), expected.potentialCardsFlipped(move),
+                actual.potentialCardsFlipped(move));
+      }
+      // Simulating must not have changed anything
+      assertLockstep(expected, actual);
+
+      GameMoveData move = moves.get(moveRand.nextInt(moves.size()));
+      expected.playMove(move);
+      actual.playMove(move);
+      assertLockstep(expected, actual);
+    }
+
+    Assert.assertTrue(actual.isGameOver());
+    Player[] expectedWinners = expected.getWinner();
+    Player[] actualWinners = actual.getWinner();
+    Assert.assertEquals(expectedWinners.length, actualWinners.length);
+    for (int i = 0; i < expectedWinners.length; i++) {
+      Assert.assertEquals(expectedWinners[i].getColor(), actualWinners[i].getColor());
+    }
+  }
+
+  @Test
+  public void testRandomGamesStayInLockstep() {
+    for (String[] config : CONFIGS) {
+      for (long seed = 0; seed < 25; seed++) {
+        replayRandomGame(config[0], config[1], seed);
+      }
+    }
+  }
+
+  @Test
+  public void testPackedFromGameInProgress() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+            "resources/BigDeckCardConfig.txt", new Random(3));
+    Assert.assertThrows(IllegalStateException.class, () -> PackedGameState.of(model));
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            true);
+    Random moveRand = new Random(3);
+    for (int i = 0; i < 7; i++) {
+      List<GameMoveData> moves = legalMoves(model);
+      model.playMove(moves.get(moveRand.nextInt(moves.size())));
+    }
+
+    PackedGameState state = PackedGameState.of(model);
+    Assert.assertEquals(PackedGameState.BLUE, state.getTurn());
+    Assert.assertEquals(model.getPlayerScore(true), state.getScore(PackedGameState.RED));
+    Assert.assertEquals(model.getPlayerScore(false), state.getScore(PackedGameState.BLUE));
+    for (int cell = 0; cell < 20; cell++) {
+      CardInterface card = model.getGridCellCard(cell / 5, cell % 5);
+      Assert.assertEquals(card == null ? PackedGameState.NO_OWNER
+              : card.getColor() == Colors.RED ? PackedGameState.RED : PackedGameState.BLUE,
+              state.getOwner(cell));
+    }
+
+    // Hand indexes carry over, so every move flips the same cards in both
+    for (GameMoveData move : legalMoves(model)) {
+      Assert.assertEquals(model.potentialCardsFlipped(move) - 1,
+              state.simulateFlips(move.getGridRow() * 5 + move.getGridCol(),
+                      move.getCardIndex()));
+    }
+  }
+
+  @Test
+  public void testIllegalMovesRejected() {
+    ThreeTriosModel model = new PackedThreeTriosModel(
+            "resources/AllCardsReachableBoardConfig.txt", "resources/BigDeckCardConfig.txt",
+            new Random(1));
+    Assert.assertThrows(IllegalStateException.class, () ->
+            model.playMove(new GameMoveData(0, 0, 0)));
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            false);
+
+    // Hole, off grid, bad hand index, then occupied cell
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            model.playMove(new GameMoveData(0, 1, 0)));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            model.playMove(new GameMoveData(5, 5, 0)));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            model.playMove(new GameMoveData(0, 0, -1)));
+    model.playMove(new GameMoveData(0, 0, 0));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            model.playMove(new GameMoveData(0, 0, 0)));
+  }
+
+  @Test
+  public void testStartGameDeckSizeInsufficient() {
+    ThreeTriosModel model = new PackedThreeTriosModel("resources/NoHolesBoardConfig.txt",
+            "resources/SmallDeckCardConfig.txt");
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            model.startGame(new UserPlayer(model, Colors.RED),
+                    new UserPlayer(model, Colors.BLUE), false));
+  }
+}
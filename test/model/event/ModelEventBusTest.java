@@ -0,0 +1,155 @@
+package model.event;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import model.ThreeTriosGameModel;
+import model.card.Colors;
+import player.GameMoveData;
+import player.UserPlayer;
+
+/**
+ * Tests publishing game events and delivering them in per-frame batches.
+ */
+public class ModelEventBusTest {
+  // Frames are dispatched by the tests, the timer never fires during one
+  private static final long NO_FRAMES = TimeUnit.HOURS.toMillis(1);
+
+  /**
+   * Listener recording every batch and drop it is handed.
+   */
+  private static final class Recorder implements GameEventListener {
+    private final List<List<GameEvent>> batches = new ArrayList<>();
+    private long dropped;
+
+    @Override
+    public void onEvents(List<GameEvent> events) {
+      batches.add(events);
+    }
+
+    @Override
+    public void onEventsDropped(long count) {
+      dropped += count;
+    }
+  }
+
+  @Test
+  public void testModelPublishesMovesInOrder() {
+    try (ModelEventBus bus = new ModelEventBus(64, NO_FRAMES)) {
+      Recorder recorder = new Recorder();
+      ModelEventBus.Subscription subscription = bus.subscribe(recorder, Runnable::run);
+      ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+              "resources/BigDeckCardConfig.txt", 1L);
+      model.setEventBus(bus);
+      model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+              false);
+      bus.dispatchFrame();
+      Assert.assertEquals("[TurnChanged(0: player 0)]", recorder.batches.get(0).toString());
+
+      model.playMove(new GameMoveData(0, 0, 0));
+      model.playMove(new GameMoveData(0, 1, 0));
+      Assert.assertTrue(subscription.getBacklog() >= 4);
+      bus.dispatchFrame();
+      List<GameEvent> batch = recorder.batches.get(1);
+      // The turn change between the two moves is superseded by the one after them
+      Assert.assertTrue(batch.get(0) instanceof CardPlaced);
+      Assert.assertTrue(batch.get(batch.size() - 1) instanceof TurnChanged);
+      Assert.assertEquals(1, batch.stream().filter(e -> e instanceof TurnChanged).count());
+      CardPlaced second = (CardPlaced) batch.stream().filter(e -> e instanceof CardPlaced)
+              .skip(1).findFirst().orElseThrow();
+      Assert.assertEquals(2, second.getMoveNumber());
+      Assert.assertEquals(1, second.getCol());
+      Assert.assertEquals(1, second.getOwner());
+      long flips = batch.stream().filter(e -> e instanceof CardsFlipped)
+              .mapToLong(e -> ((CardsFlipped) e).getCells().size()).sum();
+      Assert.assertEquals(model.getMoveLog().getFlips(0) + model.getMoveLog().getFlips(1),
+              flips);
+      Assert.assertEquals(0, subscription.getBacklog());
+      Assert.assertTrue(subscription.getMaxLagNanos() > 0);
+    }
+  }
+
+  @Test
+  public void testGameOverEndsTheStream() {
+    try (ModelEventBus bus = new ModelEventBus(1024, NO_FRAMES)) {
+      Recorder recorder = new Recorder();
+      bus.subscribe(recorder, Runnable::run);
+      ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+              "resources/BigDeckCardConfig.txt", 2L);
+      model.setEventBus(bus);
+      model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+              true);
+      for (int cell = 0; cell < 20; cell++) {
+        model.playMove(new GameMoveData(cell / 5, cell % 5, 0));
+      }
+      bus.dispatchFrame();
+      List<GameEvent> batch = recorder.batches.get(0);
+      GameOver over = (GameOver) batch.get(batch.size() - 1);
+      Assert.assertEquals(20, over.getMoveNumber());
+      Assert.assertEquals(model.getPlayerScore(true), over.getRedScore());
+      Assert.assertEquals(0, batch.stream().filter(e -> e instanceof TurnChanged).count());
+      Assert.assertEquals(20, batch.stream().filter(e -> e instanceof CardPlaced).count());
+    }
+  }
+
+  @Test
+  public void testSlowListenerLosesOldestEvents() {
+    try (ModelEventBus bus = new ModelEventBus(8, NO_FRAMES)) {
+      Recorder recorder = new Recorder();
+      ModelEventBus.Subscription subscription = bus.subscribe(recorder, Runnable::run);
+      for (int i = 0; i < 20; i++) {
+        bus.publish(new CardPlaced(i + 1, 0, i, 0, "card" + i));
+      }
+      Assert.assertEquals(20, subscription.getBacklog());
+      bus.dispatchFrame();
+      Assert.assertEquals(12, recorder.dropped);
+      Assert.assertEquals(12, subscription.getDropped());
+      Assert.assertEquals(8, recorder.batches.get(0).size());
+      Assert.assertEquals(13, recorder.batches.get(0).get(0).getMoveNumber());
+    }
+  }
+
+  @Test
+  public void testBusyListenerSkipsFramesWithoutBlockingPublisher() throws Exception {
+    ExecutorService listenerThread = Executors.newSingleThreadExecutor();
+    CountDownLatch release = new CountDownLatch(1);
+    List<Integer> batchSizes = new ArrayList<>();
+    try (ModelEventBus bus = new ModelEventBus(256, NO_FRAMES)) {
+      ModelEventBus.Subscription subscription = bus.subscribe(events -> {
+        batchSizes.add(events.size());
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }, listenerThread);
+      bus.publish(new CardPlaced(1, 0, 0, 0, "first"));
+      bus.dispatchFrame();
+      // The listener is stuck on the first batch, so these frames are skipped
+      for (int i = 2; i <= 100; i++) {
+        bus.publish(new CardPlaced(i, 0, 0, 0, "next"));
+        bus.dispatchFrame();
+      }
+      Assert.assertEquals(99, subscription.getBacklog());
+      release.countDown();
+      long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (subscription.getBacklog() > 0 && System.nanoTime() < waitUntil) {
+        bus.dispatchFrame();
+        Thread.sleep(1);
+      }
+      listenerThread.shutdown();
+      Assert.assertTrue(listenerThread.awaitTermination(5, TimeUnit.SECONDS));
+      Assert.assertEquals(List.of(1, 99), batchSizes);
+      Assert.assertEquals(100, subscription.getDelivered());
+    } finally {
+      listenerThread.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package model.filereader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import model.card.CardInterface;
+import model.card.Positions;
+import model.card.Value;
+import model.cell.CardCell;
+import model.cell.Cell;
+import model.cell.HoleCell;
+
+/**
+ * Tests the NIO config loader against the line based readers, and its error reporting.
+ */
+public class ConfigLoaderTest {
+
+  @Test
+  public void testMatchesLineBasedReaders() throws IOException {
+    String[][] configs = {{"AllCardsReachableBoardConfig.txt", "BigDeckCardConfig.txt"},
+        {"DisjointCardsBoardConfig.txt", "SmallDeckCardConfig.txt"},
+        {"basicBoardConfig.txt", "FlippablesCardConfig.txt"}};
+    for (String[] config : configs) {
+      String gridPath = "resources/" + config[0];
+      String cardPath = "resources/" + config[1];
+      GameConfig loaded = new ConfigLoader(gridPath, cardPath).load();
+      GridConfigFileReader gridReader = new GridConfigFileReader(gridPath);
+      Cell[][] grid = gridReader.readGrid();
+      List<CardInterface> deck = new CardConfigFileReader(cardPath).readCards();
+
+      Assert.assertEquals(gridReader.getNumCardCells(), loaded.getNumCardCells());
+      Assert.assertEquals(grid.length, loaded.getGrid().length);
+      for (int row = 0; row < grid.length; row++) {
+        for (int col = 0; col < grid[0].length; col++) {
+          Assert.assertEquals(grid[row][col].getClass(), loaded.getGrid()[row][col].getClass());
+        }
+      }
+      assertSameCards(deck, loaded.getDeck());
+      Assert.assertEquals(deck.size(), loaded.getCatalog().size());
+    }
+  }
+
+  @Test
+  public void testMappedFilesAndLooseWhitespace() throws IOException {
+    Path dir = Files.createTempDirectory("configs");
+    Path grid = dir.resolve("grid.txt");
+    Path cards = dir.resolve("cards.txt");
+    Files.writeString(grid, "2  3\r\nCXC \r\nCCC\r\n\r\n");
+    StringBuilder deck = new StringBuilder();
+    int numCards = 0;
+    while (deck.length() < ConfigLoader.MAP_THRESHOLD) {
+      // Every tenth card repeats the first, so the catalog is smaller than the deck
+      deck.append(numCards % 10 == 0 ? "dup" : "c" + numCards).append("\t1 A  5 9\n\n");
+      numCards++;
+    }
+    Files.writeString(cards, deck);
+
+    GameConfig loaded = new ConfigLoader(grid.toString(), cards.toString()).load();
+    Assert.assertEquals(5, loaded.getNumCardCells());
+    Assert.assertTrue(loaded.getGrid()[0][1] instanceof HoleCell);
+    Assert.assertTrue(loaded.getGrid()[1][2] instanceof CardCell);
+    Assert.assertEquals(numCards, loaded.getDeck().size());
+    Assert.assertEquals(numCards - (numCards + 9) / 10 + 1, loaded.getCatalog().size());
+    CardInterface last = loaded.getDeck().get(numCards - 1);
+    Assert.assertEquals(Value.TEN, last.getValueFromPos(Positions.SOUTH));
+    Assert.assertEquals(9, last.getValueFromPos(Positions.WEST).toInt());
+  }
+
+  @Test
+  public void testReportsEveryErrorWithPosition() throws IOException {
+    Path dir = Files.createTempDirectory("configs");
+    Path grid = dir.resolve("grid.txt");
+    Path cards = dir.resolve("cards.txt");
+    Files.writeString(grid, "3 3\nCCC\nCQCC\nCC\n");
+    Files.writeString(cards, "a 1 2 3 4\nb 1 10 3\nc 1 2 3 4 5\n");
+
+    ConfigFormatException e = Assert.assertThrows(ConfigFormatException.class, () ->
+            new ConfigLoader(grid.toString(), cards.toString()).load());
+    Assert.assertEquals(List.of(
+            grid + ":3:2: invalid cell type 'Q', expected C or X",
+            grid + ":3:4: row has more than 3 cells",
+            grid + ":4:3: row has 2 cells, expected 3",
+            cards + ":2:5: invalid card value '10', expected 1-9 or A",
+            cards + ":2:9: expected 4 card values, found 3",
+            cards + ":3:11: unexpected characters after the four card values"), e.getErrors());
+    Assert.assertEquals(6, e.getNumErrors());
+    Assert.assertTrue(e.getMessage().startsWith("6 errors in config files:"));
+  }
+
+  @Test
+  public void testInvalidDimensionsAndMissingRows() throws IOException {
+    Path dir = Files.createTempDirectory("configs");
+    Path grid = dir.resolve("grid.txt");
+    Path cards = dir.resolve("cards.txt");
+    Files.writeString(cards, "a 1 2 3 4\n");
+
+    Files.writeString(grid, "3 x\nCCC\n");
+    ConfigFormatException e = Assert.assertThrows(ConfigFormatException.class, () ->
+            new ConfigLoader(grid.toString(), cards.toString()).load());
+    Assert.assertEquals(List.of(grid + ":1:3: expected number of columns as a positive integer"),
+            e.getErrors());
+
+    Files.writeString(grid, "3 1\nC\nX\n");
+    e = Assert.assertThrows(ConfigFormatException.class, () ->
+            new ConfigLoader(grid.toString(), cards.toString()).load());
+    Assert.assertEquals(List.of(grid + ":4:1: expected 3 grid rows, found 2"), e.getErrors());
+
+    Assert.assertThrows(IOException.class, () ->
+            new ConfigLoader(dir.resolve("missing.txt").toString(), cards.toString()).load());
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new ConfigLoader(null, cards.toString()));
+  }
+
+  private void assertSameCards(List<CardInterface> expected, List<CardInterface> actual) {
+    Assert.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(expected.get(i).getName(), actual.get(i).getName());
+      for (Positions pos : Positions.values()) {
+        Assert.assertEquals(expected.get(i).getValueFromPos(pos),
+                actual.get(i).getValueFromPos(pos));
+      }
+    }
+  }
+}
@@ -5,20 +5,41 @@ import org.junit.Test;
 
 import java.awt.Point;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
-
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import model.BoardSymmetry;
+import model.card.CardInterface;
 import model.card.Colors;
 import model.cell.Cell;
 import model.ThreeTriosGameModel;
+import model.mock.ReadOnlyMockModel;
 import model.mock.ThreeTriosMock;
 import model.ThreeTriosModel;
+import model.UndoableThreeTriosModel;
+import player.strategy.AbstractStrategy;
+import player.strategy.AlphaBetaStrategy;
 import player.strategy.CornerStrategy;
+import player.strategy.EndgameSolver;
+import player.strategy.EvaluationCache;
 import player.strategy.LeastFlippableStrategy;
 import player.strategy.MaxCardsFlipStrategy;
+import player.strategy.MctsStrategy;
 import player.strategy.MiniMaxStrategy;
 import player.strategy.Strategy;
+import player.strategy.Tablebase;
+import player.strategy.TablebaseGenerator;
+import player.strategy.TablebaseStrategy;
+import player.strategy.TranspositionTable;
 import view.ThreeTriosGUI;
 import view.ThreeTriosGUIView;
 
@@ -405,6 +426,702 @@ public class TestStrategies {
     // If passes, that means all possible moves were checked
   }
 
+  private int plainMinimax(ThreeTriosGameModel model, int depth) {
+    boolean isRed = model.getPlayerInTurn().getColor() == Colors.RED;
+    if (depth == 0 || model.isGameOver()) {
+      return model.getPlayerScore(isRed) - model.getPlayerScore(!isRed);
+    }
+    int best = Integer.MIN_VALUE;
+    int handSize = model.getPlayerInTurn().getHandCopy().size();
+    int[] dims = model.getGridSize();
+    Cell[][] grid = model.getGrid();
+    for (int r = 0; r < dims[0]; r++) {
+      for (int c = 0; c < dims[1]; c++) {
+        if (!(grid[r][c] instanceof model.cell.CardCell) || model.getGridCellCard(r, c) != null) {
+          continue;
+        }
+        for (int i = 0; i < handSize; i++) {
+          model.applyMove(createMove(r, c, i));
+          best = Math.max(best, -plainMinimax(model, depth - 1));
+          model.undoMove();
+        }
+      }
+    }
+    return best;
+  }
+
+  @Test
+  public void testAlphaBetaMatchesPlainMinimax() {
+    for (int depth = 1; depth <= 3; depth++) {
+      ThreeTriosGameModel model = new ThreeTriosGameModel("resources/basicBoardConfig.txt",
+              "resources/SmallDeckCardConfig.txt", new Random(22));
+      AlphaBetaStrategy alphaBeta = new AlphaBetaStrategy(model, depth, 60_000);
+      Player red = new ComputerPlayer(List.of(alphaBeta), model, Colors.RED);
+      Player blue = new ComputerPlayer(List.of(new MaxCardsFlipStrategy(model)), model,
+              Colors.BLUE);
+      initModel(red, blue, model);
+      model.playMove(createMove(1, 1, 0));
+      model.playMove(createMove(0, 1, 0));
+
+      alphaBeta.execute();
+      Assert.assertEquals(depth, alphaBeta.getCompletedDepth());
+      Assert.assertEquals(plainMinimax(model, depth), alphaBeta.getBestMoveValue());
+    }
+  }
+
+  @Test
+  public void testAlphaBetaLeavesModelUnchanged() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+            "resources/BigDeckCardConfig.txt", new Random(22));
+    AlphaBetaStrategy alphaBeta = new AlphaBetaStrategy(model, 3, 60_000);
+    Player red = new ComputerPlayer(List.of(alphaBeta), model, Colors.RED);
+    Player blue = new ComputerPlayer(List.of(new CornerStrategy(model)), model, Colors.BLUE);
+    initModel(red, blue, model);
+    model.playMove(createMove(0, 0, 0));
+    model.playMove(createMove(1, 1, 0));
+    int handSize = red.getHandCopy().size();
+    int redScore = model.getPlayerScore(true);
+
+    GameMoveData move = red.getNextPlacement();
+    Assert.assertTrue(alphaBeta.getNodeCount() > 0);
+    Assert.assertEquals(0, model.getJournalDepth());
+    Assert.assertEquals(handSize, red.getHandCopy().size());
+    Assert.assertEquals(redScore, model.getPlayerScore(true));
+    Assert.assertNull(model.getGridCellCard(move.getGridRow(), move.getGridCol()));
+  }
+
+  @Test
+  public void testAlphaBetaFullPlaythrough() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+            "resources/BigDeckCardConfig.txt", new Random(22));
+    Player red = new ComputerPlayer(List.of(new AlphaBetaStrategy(model, 3, 60_000)), model,
+            Colors.RED);
+    Player blue = new ComputerPlayer(List.of(new MaxCardsFlipStrategy(model)), model,
+            Colors.BLUE);
+    initModel(red, blue, model);
+
+    while (!model.isGameOver()) {
+      model.playMove(model.getPlayerInTurn().getNextPlacement());
+    }
+    Assert.assertTrue(model.getPlayerScore(true) > model.getPlayerScore(false));
+  }
+
+  @Test
+  public void testAlphaBetaTranspositionTableKeepsValue() {
+    TranspositionTable table = new TranspositionTable(1 << 12);
+    for (int depth = 1; depth <= 3; depth++) {
+      ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+              "resources/BigDeckCardConfig.txt", new Random(22));
+      AlphaBetaStrategy plain = new AlphaBetaStrategy(model, depth, 60_000);
+      AlphaBetaStrategy cached = new AlphaBetaStrategy(model, depth, 60_000, table);
+      Player red = new ComputerPlayer(List.of(plain), model, Colors.RED);
+      Player blue = new ComputerPlayer(List.of(new CornerStrategy(model)), model, Colors.BLUE);
+      initModel(red, blue, model);
+      model.playMove(createMove(1, 1, 0));
+      model.playMove(createMove(2, 3, 0));
+
+      plain.execute();
+      // Searched twice so that the second search runs against a warm table
+      cached.execute();
+      cached.execute();
+      Assert.assertEquals(plain.getBestMoveValue(), cached.getBestMoveValue());
+      Assert.assertTrue(cached.getNodeCount() <= plain.getNodeCount());
+      Assert.assertEquals(0, model.getJournalDepth());
+    }
+    Assert.assertTrue(table.getHits() > 0);
+  }
+
+  @Test
+  public void testMiniMaxTranspositionTableKeepsMoves() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+            "resources/BigDeckCardConfig.txt", new Random(22));
+    Strategy opponent = new MaxCardsFlipStrategy(model);
+    TranspositionTable table = new TranspositionTable(1 << 12);
+    MiniMaxStrategy plain = new MiniMaxStrategy(model, opponent);
+    MiniMaxStrategy cached = new MiniMaxStrategy(model, opponent, table);
+    Player red = new ComputerPlayer(List.of(plain), model, Colors.RED);
+    Player blue = new ComputerPlayer(List.of(opponent), model, Colors.BLUE);
+    initModel(red, blue, model);
+    model.playMove(createMove(1, 1, 0));
+    model.playMove(createMove(2, 3, 0));
+
+    List<GameMoveData> expected = plain.execute();
+    Assert.assertEquals(expected, cached.execute());
+    long hitsBefore = table.getHits();
+    Assert.assertEquals(expected, cached.execute());
+    Assert.assertTrue(table.getHits() > hitsBefore);
+    Assert.assertEquals(plain.getBestMoveValue(), cached.getBestMoveValue());
+  }
+
+  @Test
+  public void testMiniMaxStopsWhenInterrupted() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+            "resources/BigDeckCardConfig.txt", new Random(22));
+    initModel(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE), model);
+    MiniMaxStrategy strategy = new MiniMaxStrategy(model, new MaxCardsFlipStrategy(model));
+    Thread.currentThread().interrupt();
+    try {
+      Assert.assertThrows(IllegalStateException.class, strategy::execute);
+    } finally {
+      Thread.interrupted();
+    }
+    Assert.assertEquals(0, model.getJournalDepth());
+    Assert.assertFalse(strategy.execute().isEmpty());
+  }
+
+  @Test
+  public void testMiniMaxScoresMovesAlikeOnEveryModel() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+            "resources/BigDeckCardConfig.txt", new Random(22));
+    initModel(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE), model);
+    model.playMove(createMove(1, 1, 0));
+    model.playMove(createMove(2, 3, 0));
+    model.playMove(createMove(1, 2, 0));
+
+    // A mock can't undo moves, so MiniMax plays them on copies of it instead. Either way the
+    // move battles and the opponent replies from their own hand.
+    ReadOnlyMockModel mock = new ReadOnlyMockModel(model);
+    List<Strategy> opponents = List.of(new CornerStrategy(model),
+            new LeastFlippableStrategy(model), new MaxCardsFlipStrategy(model));
+    for (Strategy opponent : opponents) {
+      // Empty cells are listed in a different order, which ties are broken regardless of
+      Assert.assertEquals(new HashSet<>(new MiniMaxStrategy(model, opponent).execute()),
+              new HashSet<>(new MiniMaxStrategy(mock, opponent).execute()));
+    }
+    Assert.assertEquals(0, model.getJournalDepth());
+  }
+
+  @Test
+  public void testMiniMaxParallelMatchesSequential() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+            "resources/BigDeckCardConfig.txt", new Random(22));
+    Player red = new ComputerPlayer(List.of(new CornerStrategy(model)), model, Colors.RED);
+    Player blue = new ComputerPlayer(List.of(new CornerStrategy(model)), model, Colors.BLUE);
+    initModel(red, blue, model);
+    model.playMove(createMove(1, 1, 0));
+    model.playMove(createMove(2, 3, 0));
+    model.playMove(createMove(1, 2, 2));
+    List<CardInterface> hand = blue.getHandCopy();
+
+    for (Strategy opponent : List.of(new MaxCardsFlipStrategy(model), new CornerStrategy(model),
+            new LeastFlippableStrategy(model))) {
+      List<GameMoveData> expected = new MiniMaxStrategy(model, opponent).execute();
+      for (int threads : new int[]{1, 2, 4}) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+          Assert.assertEquals(expected,
+                  new MiniMaxStrategy(model, opponent, null, pool).execute());
+          Assert.assertEquals(expected, new MiniMaxStrategy(model, opponent,
+                  new TranspositionTable(1 << 10), pool).execute());
+        } finally {
+          pool.shutdown();
+        }
+      }
+    }
+    Assert.assertEquals(0, model.getJournalDepth());
+    Assert.assertEquals(hand, blue.getHandCopy());
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new MiniMaxStrategy(model, new CornerStrategy(model), null, null));
+  }
+
+  private ThreeTriosGameModel createEndgameModel() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+            "resources/BigDeckCardConfig.txt", new Random(22));
+    initModel(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE), model);
+    // Fill all but the last four cells of the board
+    for (int cell = 0; cell < 16; cell++) {
+      model.playMove(createMove(cell / 5, cell % 5, 0));
+    }
+    return model;
+  }
+
+  @Test
+  public void testMctsFindsBestEndgameOutcome() {
+    ThreeTriosGameModel model = createEndgameModel();
+    MctsStrategy mcts = new MctsStrategy(model, 1, 60_000, 20_000,
+            MctsStrategy.PlayoutPolicy.RANDOM, 7);
+
+    // Outcome of each move for the player making it: 1 win, 0 draw, -1 loss
+    int bestOutcome = -1;
+    List<GameMoveData> moves = new ArrayList<>();
+    List<Integer> outcomes = new ArrayList<>();
+    for (int cell = 16; cell < 20; cell++) {
+      for (int i = 0; i < model.getPlayerInTurn().getHandCopy().size(); i++) {
+        GameMoveData move = createMove(cell / 5, cell % 5, i);
+        model.applyMove(move);
+        int outcome = Integer.signum(-plainMinimax(model, 20));
+        model.undoMove();
+        moves.add(move);
+        outcomes.add(outcome);
+        bestOutcome = Math.max(bestOutcome, outcome);
+      }
+    }
+
+    List<GameMoveData> recommended = mcts.execute();
+    Assert.assertFalse(recommended.isEmpty());
+    for (GameMoveData move : recommended) {
+      Assert.assertEquals(bestOutcome, (int) outcomes.get(moves.indexOf(move)));
+    }
+    Assert.assertEquals(20_000, mcts.getPlayoutCount());
+    Assert.assertEquals(0, model.getJournalDepth());
+  }
+
+  @Test
+  public void testMctsRespectsPlayoutBudget() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+            "resources/BigDeckCardConfig.txt", new Random(22));
+    initModel(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE), model);
+    model.playMove(createMove(1, 1, 0));
+    List<CardInterface> hand = model.getPlayerInTurn().getHandCopy();
+
+    // Same seed and playout budget on one thread recommends the same moves
+    List<GameMoveData> first = new MctsStrategy(model, 1, 60_000, 500,
+            MctsStrategy.PlayoutPolicy.GREEDY, 3).execute();
+    MctsStrategy single = new MctsStrategy(model, 1, 60_000, 500,
+            MctsStrategy.PlayoutPolicy.GREEDY, 3);
+    Assert.assertEquals(first, single.execute());
+    Assert.assertEquals(500, single.getPlayoutCount());
+    Assert.assertTrue(single.getPlayoutsPerSecond() > 0);
+
+    MctsStrategy parallel = new MctsStrategy(model, 4, 60_000, 2000,
+            MctsStrategy.PlayoutPolicy.RANDOM, 3);
+    for (GameMoveData move : parallel.execute()) {
+      Assert.assertNull(model.getGridCellCard(move.getGridRow(), move.getGridCol()));
+      Assert.assertTrue(move.getCardIndex() < hand.size());
+    }
+    Assert.assertEquals(2000, parallel.getPlayoutCount());
+    Assert.assertEquals(hand, model.getPlayerInTurn().getHandCopy());
+    Assert.assertEquals(0, model.getJournalDepth());
+  }
+
+  @Test
+  public void testMctsKeepsToTimeBudgetOnLargeBoard() throws IOException {
+    // A 100x100 board has 10000 empty cells, with 5000 cards in the hand of the player to move
+    int size = 100;
+    Path dir = Files.createTempDirectory("mcts");
+    Path grid = dir.resolve("grid.txt");
+    Path cards = dir.resolve("cards.txt");
+    StringBuilder rows = new StringBuilder(size + " " + size);
+    for (int i = 0; i < size; i++) {
+      rows.append('\n').append("C".repeat(size));
+    }
+    Random values = new Random(7);
+    StringBuilder deck = new StringBuilder();
+    for (int i = 0; i <= size * size; i++) {
+      deck.append("c").append(i);
+      for (int side = 0; side < 4; side++) {
+        deck.append(' ').append(1 + values.nextInt(9));
+      }
+      deck.append('\n');
+    }
+    try {
+      Files.writeString(grid, rows);
+      Files.writeString(cards, deck);
+      ThreeTriosGameModel model = new ThreeTriosGameModel(grid.toString(), cards.toString(),
+              new Random(22));
+      initModel(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE), model);
+
+      MctsStrategy mcts = new MctsStrategy(model, 1, 500, Long.MAX_VALUE,
+              MctsStrategy.PlayoutPolicy.RANDOM, 7);
+      long start = System.nanoTime();
+      List<GameMoveData> moves = mcts.execute();
+      Assert.assertTrue(System.nanoTime() - start < 2_000_000_000L);
+      Assert.assertFalse(moves.isEmpty());
+      Assert.assertNull(model.getGridCellCard(moves.get(0).getGridRow(),
+              moves.get(0).getGridCol()));
+    } finally {
+      Files.deleteIfExists(grid);
+      Files.deleteIfExists(cards);
+      Files.delete(dir);
+    }
+  }
+
+  @Test
+  public void testMctsStopsEveryThreadWhenInterrupted() throws InterruptedException {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+            "resources/BigDeckCardConfig.txt", new Random(22));
+    initModel(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE), model);
+    ExecutorService pool = Executors.newFixedThreadPool(1);
+    try {
+      MctsStrategy mcts = new MctsStrategy(model, 2, 60_000, Long.MAX_VALUE,
+              MctsStrategy.PlayoutPolicy.RANDOM, 3, pool);
+      List<List<GameMoveData>> result = new ArrayList<>();
+      boolean[] stillInterrupted = new boolean[1];
+      Thread caller = new Thread(() -> {
+        result.add(mcts.execute());
+        stillInterrupted[0] = Thread.currentThread().isInterrupted();
+      });
+      caller.start();
+      Thread.sleep(200);
+      caller.interrupt();
+      caller.join(10_000);
+
+      // The search stops well within its budget, with the playouts run so far, and no pool
+      // thread is left searching once it returns
+      Assert.assertFalse(caller.isAlive());
+      Assert.assertFalse(result.get(0).isEmpty());
+      Assert.assertTrue(stillInterrupted[0]);
+      Assert.assertTrue(mcts.getPlayoutCount() > 0);
+      pool.shutdown();
+      Assert.assertTrue(pool.awaitTermination(1, TimeUnit.SECONDS));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testMctsInvalidParameters() {
+    ThreeTriosModel model = createModel();
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new MctsStrategy(model, 0, 100, 100, MctsStrategy.PlayoutPolicy.RANDOM, 1));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new MctsStrategy(model, 0, 100));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new MctsStrategy(model, 100, 0));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new MctsStrategy(model, 1, 100, 100, null, 1));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new MctsStrategy(model, 2, 100,
+            100, MctsStrategy.PlayoutPolicy.RANDOM, 1, null));
+  }
+
+  @Test
+  public void testTranspositionTableDropsHintsOfLargeBoards() {
+    TranspositionTable table = new TranspositionTable(16);
+    // Last cells of the largest board a hint fits for, and of 100x100 and 200x200 boards
+    table.store(1L, 1, TranspositionTable.EXACT, 3, 8190);
+    table.store(2L, 1, TranspositionTable.EXACT, 3, 100 * 100 - 1);
+    table.store(3L, 1, TranspositionTable.EXACT, 3, 200 * 200 - 1);
+    table.store(4L, 1, TranspositionTable.EXACT, 3, 8191 + 12);
+    Assert.assertEquals(8190, TranspositionTable.moveOf(table.probe(1L)));
+    Assert.assertEquals(-1, TranspositionTable.moveOf(table.probe(2L)));
+    Assert.assertEquals(-1, TranspositionTable.moveOf(table.probe(3L)));
+    // Would wrap onto cell 11 if the hint were masked
+    Assert.assertEquals(-1, TranspositionTable.moveOf(table.probe(4L)));
+    Assert.assertEquals(3, TranspositionTable.valueOf(table.probe(3L)));
+  }
+
+  @Test
+  public void testTranspositionTableStoreAndProbe() {
+    TranspositionTable table = new TranspositionTable(3);
+    Assert.assertEquals(4, table.getCapacity());
+    Assert.assertEquals(TranspositionTable.NOT_FOUND, table.probe(42L));
+
+    table.store(42L, 3, TranspositionTable.LOWER_BOUND, -7, 12);
+    long entry = table.probe(42L);
+    Assert.assertEquals(-7, TranspositionTable.valueOf(entry));
+    Assert.assertEquals(3, TranspositionTable.depthOf(entry));
+    Assert.assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.boundOf(entry));
+    Assert.assertEquals(12, TranspositionTable.moveOf(entry));
+
+    // 46 maps to the same slot as 42: a shallower search must not evict the deeper one
+    table.store(46L, 2, TranspositionTable.EXACT, 5, -1);
+    Assert.assertEquals(TranspositionTable.NOT_FOUND, table.probe(46L));
+    Assert.assertEquals(-7, TranspositionTable.valueOf(table.probe(42L)));
+    table.store(46L, 3, TranspositionTable.EXACT, 5, -1);
+    Assert.assertEquals(-1, TranspositionTable.moveOf(table.probe(46L)));
+    Assert.assertEquals(TranspositionTable.NOT_FOUND, table.probe(42L));
+    Assert.assertEquals(2, table.getCollisions());
+    Assert.assertEquals(3, table.getHits());
+
+    // Entries of an earlier search are still found, but give way to shallower ones
+    table.newSearch();
+    Assert.assertEquals(5, TranspositionTable.valueOf(table.probe(46L)));
+    table.store(42L, 1, TranspositionTable.EXACT, 9, -1);
+    Assert.assertEquals(9, TranspositionTable.valueOf(table.probe(42L)));
+    table.store(46L, 0, TranspositionTable.EXACT, 5, -1);
+    Assert.assertEquals(TranspositionTable.NOT_FOUND, table.probe(46L));
+
+    table.clear();
+    Assert.assertEquals(TranspositionTable.NOT_FOUND, table.probe(46L));
+    Assert.assertEquals(0, table.getHits());
+    Assert.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+  }
+
+  @Test
+  public void testAlphaBetaInvalidParameters() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/basicBoardConfig.txt",
+            "resources/SmallDeckCardConfig.txt", new Random(22));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new AlphaBetaStrategy(model, 0, 100));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new AlphaBetaStrategy(model, 3, 0));
+  }
+
+  @Test
+  public void testEvaluationCacheIsDroppedEveryTurn() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+            "resources/BigDeckCardConfig.txt", new Random(22));
+    initModel(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE), model);
+    model.playMove(createMove(0, 0, 0));
+    EvaluationCache cache = new EvaluationCache(model, 1 << 8, 1);
+
+    GameMoveData move = createMove(0, 1, 2);
+    Assert.assertEquals(model.potentialCardsFlipped(move), cache.potentialCardsFlipped(move));
+    Assert.assertEquals(model.potentialCardsFlipped(move), cache.potentialCardsFlipped(move));
+    Assert.assertEquals(1, cache.getFlipHits());
+    // Illegal moves are remembered too, and still rejected with the model's reason
+    Assert.assertThrows(IllegalArgumentException.class,
+            () -> cache.potentialCardsFlipped(createMove(0, 0, 0)));
+    Assert.assertThrows(IllegalArgumentException.class,
+            () -> cache.potentialCardsFlipped(createMove(0, 0, 0)));
+    Assert.assertEquals(2, cache.getFlipHits());
+    Assert.assertSame(cache.getEmptyCells(), cache.getEmptyCells());
+    Assert.assertEquals(19, cache.getEmptyCells().size());
+
+    // Simulated moves are positions of the same turn, a played move starts the next
+    model.applyMove(move);
+    cache.getEmptyCells();
+    model.undoMove();
+    Assert.assertEquals(0, cache.getTurnsDropped());
+    model.playMove(move);
+    Assert.assertEquals(18, cache.getEmptyCells().size());
+    Assert.assertEquals(1, cache.getTurnsDropped());
+    Assert.assertTrue(cache.getHitRate() > 0);
+  }
+
+  @Test
+  public void testComputerPlayerStrategiesShareEvaluations() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+            "resources/BigDeckCardConfig.txt", new Random(22));
+    ComputerPlayer red = new ComputerPlayer(List.of(new MaxCardsFlipStrategy(model),
+            new AlphaBetaStrategy(model, 3, 60_000),
+            new MiniMaxStrategy(model, new MaxCardsFlipStrategy(model))), model, Colors.RED);
+    Player blue = new UserPlayer(model, Colors.BLUE);
+    initModel(red, blue, model);
+    model.playMove(createMove(1, 1, 0));
+    model.playMove(createMove(2, 2, 0));
+
+    // Without the cache every strategy asks the model, which has to choose the same move
+    ComputerPlayer uncached = new ComputerPlayer(List.of(new MaxCardsFlipStrategy(model),
+            new AlphaBetaStrategy(model, 3, 60_000),
+            new MiniMaxStrategy(model, new MaxCardsFlipStrategy(model))), model, Colors.RED);
+    for (Strategy strategy : uncached.strategies) {
+      ((AbstractStrategy) strategy).setEvaluationCache(null);
+    }
+    Assert.assertEquals(uncached.getNextPlacement(), red.getNextPlacement());
+    EvaluationCache cache = red.getEvaluationCache();
+    Assert.assertTrue(cache.getFlipHits() > 0);
+    Assert.assertTrue(cache.toString(), cache.getHitRate() > 0.1);
+  }
+
+  @Test
+  public void testConcurrentStrategiesVoteLikeSequentialOnes() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+              "resources/BigDeckCardConfig.txt", new Random(22));
+      List<Strategy> strategies = List.of(new CornerStrategy(model),
+              new LeastFlippableStrategy(model), new MaxCardsFlipStrategy(model),
+              new AlphaBetaStrategy(model, 3, 60_000));
+      ComputerPlayer sequential = new ComputerPlayer(strategies, model, Colors.RED);
+      ComputerPlayer concurrent = new ComputerPlayer(strategies, model, Colors.RED, executor,
+              60_000);
+      initModel(concurrent, new UserPlayer(model, Colors.BLUE), model);
+      model.playMove(createMove(1, 1, 0));
+      model.playMove(createMove(2, 3, 0));
+
+      Assert.assertEquals(sequential.getNextPlacement(), concurrent.getNextPlacement());
+      Assert.assertEquals(0, concurrent.getLastTimedOut());
+      Assert.assertEquals(0, model.getJournalDepth());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testSlowStrategyFallsOutOfTheVote() {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+              "resources/BigDeckCardConfig.txt", new Random(22));
+      // Recommends the last cell twice over, if it ever finishes
+      Strategy slow = new Strategy() {
+        @Override
+        public List<GameMoveData> execute() {
+          try {
+            Thread.sleep(10_000);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return List.of(createMove(3, 4, 0), createMove(3, 4, 0));
+        }
+
+        @Override
+        public int getBestMoveValue() {
+          return 0;
+        }
+
+        @Override
+        public boolean supportsCopy() {
+          return true;
+        }
+
+        @Override
+        public Strategy copyFor(UndoableThreeTriosModel snapshot) {
+          return this;
+        }
+      };
+      ComputerPlayer red = new ComputerPlayer(List.of(slow, new CornerStrategy(model)), model,
+              Colors.RED, executor, 200);
+      initModel(red, new UserPlayer(model, Colors.BLUE), model);
+
+      GameMoveData cornerMove = new ComputerPlayer(List.of(new CornerStrategy(model)), model,
+              Colors.RED).getNextPlacement();
+      long start = System.nanoTime();
+      Assert.assertEquals(cornerMove, red.getNextPlacement());
+      Assert.assertTrue(System.nanoTime() - start < 5_000_000_000L);
+      Assert.assertEquals(1, red.getLastTimedOut());
+      Assert.assertThrows(IllegalArgumentException.class, () -> new ComputerPlayer(
+              List.of(slow), model, Colors.RED, executor, 0));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testEndgameSolverMatchesPlainMinimax() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/basicBoardConfig.txt",
+            "resources/SmallDeckCardConfig.txt", new Random(22));
+    EndgameSolver solver = new EndgameSolver(model, 5);
+    initModel(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE), model);
+    model.playMove(createMove(1, 1, 0));
+    model.playMove(createMove(0, 1, 0));
+    model.playMove(createMove(2, 2, 0));
+    Assert.assertFalse(solver.canSolve());
+    Assert.assertThrows(IllegalStateException.class, solver::execute);
+    model.playMove(createMove(1, 0, 0));
+    Assert.assertTrue(solver.canSolve());
+
+    int margin = plainMinimax(model, 5);
+    List<GameMoveData> moves = solver.execute();
+    Assert.assertEquals(margin, solver.getBestMoveValue());
+    Assert.assertEquals(0, model.getJournalDepth());
+    // Every move returned is optimal, not just the first found
+    for (GameMoveData move : moves) {
+      model.applyMove(move);
+      Assert.assertEquals(margin, -plainMinimax(model, 4));
+      model.undoMove();
+    }
+    Assert.assertThrows(IllegalArgumentException.class, () -> new EndgameSolver(model, 0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new EndgameSolver(model, 5,
+            null));
+  }
+
+  @Test
+  public void testComputerPlayerSwitchesToEndgameSolver() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+            "resources/BigDeckCardConfig.txt", new Random(22));
+    ComputerPlayer red = new ComputerPlayer(List.of(new CornerStrategy(model)), model,
+            Colors.RED);
+    ComputerPlayer blue = new ComputerPlayer(List.of(new CornerStrategy(model)), model,
+            Colors.BLUE);
+    EndgameSolver redSolver = new EndgameSolver(model, 5);
+    red.setEndgameSolver(redSolver);
+    blue.setEndgameSolver(new EndgameSolver(model, 5));
+    initModel(red, blue, model);
+    Assert.assertThrows(IllegalArgumentException.class, () -> red.setEndgameSolver(
+            new EndgameSolver(model.copy(), 5)));
+
+    while (!redSolver.canSolve()) {
+      model.playMove(model.getPlayerInTurn().getNextPlacement());
+    }
+    // With both players solving, the game ends with the margin the first solve promised
+    boolean redToMove = model.getPlayerInTurn().getColor() == Colors.RED;
+    redSolver.execute();
+    int margin = redSolver.getBestMoveValue();
+    while (!model.isGameOver()) {
+      model.playMove(model.getPlayerInTurn().getNextPlacement());
+    }
+    Assert.assertEquals(margin, model.getPlayerScore(redToMove)
+            - model.getPlayerScore(!redToMove));
+  }
+
+  @Test
+  public void testTablebaseMatchesEndgameSolver() throws IOException {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/basicBoardConfig.txt",
+            "resources/SmallDeckCardConfig.txt", new Random(22));
+    ComputerPlayer red = new ComputerPlayer(List.of(new CornerStrategy(model)), model,
+            Colors.RED);
+    ComputerPlayer blue = new ComputerPlayer(List.of(new CornerStrategy(model)), model,
+            Colors.BLUE);
+    initModel(red, blue, model);
+    model.playMove(createMove(1, 1, 0));
+    model.playMove(createMove(0, 1, 0));
+    model.playMove(createMove(2, 2, 0));
+    model.playMove(createMove(1, 0, 0));
 
+    Path file = Files.createTempFile("basic", ".ttb");
+    try {
+      int size = new TablebaseGenerator(3, 2).generate(model, file);
+      Tablebase table = Tablebase.open(file);
+      Assert.assertEquals(size, table.size());
+      Assert.assertEquals(0, model.getJournalDepth());
+
+      EndgameSolver solver = new EndgameSolver(model, 5);
+      List<GameMoveData> optimal = solver.execute();
+      TablebaseStrategy tablebase = new TablebaseStrategy(model, table);
+      Assert.assertTrue(optimal.containsAll(tablebase.execute()));
+      Assert.assertEquals(solver.getBestMoveValue(), tablebase.getBestMoveValue());
+
+      // Played out by both players, the table and then the solver keep to the margin
+      red.setStrategies(List.of(tablebase));
+      blue.setStrategies(List.of(new TablebaseStrategy(model, table)));
+      int margin = tablebase.getBestMoveValue();
+      while (!model.isGameOver()) {
+        model.playMove(model.getPlayerInTurn().getNextPlacement());
+      }
+      Assert.assertEquals(margin, model.getPlayerScore(true) - model.getPlayerScore(false));
+      Assert.assertThrows(IllegalStateException.class, tablebase::execute);
+
+      ThreeTriosGameModel other = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+              "resources/BigDeckCardConfig.txt", new Random(22));
+      Assert.assertThrows(IllegalArgumentException.class, () -> new TablebaseStrategy(other,
+              table));
+    } finally {
+      Files.delete(file);
+    }
+  }
 
+  @Test
+  public void testSymmetricMovesAreReportedWithoutBeingSearched() {
+    // Cards of this deck look the same turned, so the board's symmetries carry over to play
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/basicBoardConfig.txt",
+            "resources/FlippablesCardConfig.txt", new Random(22));
+    // Dealt unshuffled, so the corners below get the same card
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            false);
+    model.playMove(createMove(0, 0, 0));
+    model.playMove(createMove(1, 1, 0));
+    model.playMove(createMove(0, 2, 0));
+    model.playMove(createMove(2, 1, 0));
+    Assert.assertEquals(2, new BoardSymmetry(model.getGridView()).symmetriesOf(model).length);
+
+    // Cells of every optimal move, found by searching each one
+    int margin = plainMinimax(model, 5);
+    Set<Point> optimal = new HashSet<>();
+    for (int r = 0; r < 3; r++) {
+      for (int c = 0; c < 3; c++) {
+        for (int i = 0; model.getGridCellCard(r, c) == null
+                && i < model.getPlayerInTurn().getHandCopy().size(); i++) {
+          model.applyMove(createMove(r, c, i));
+          if (-plainMinimax(model, 4) == margin) {
+            optimal.add(new Point(r, c));
+          }
+          model.undoMove();
+        }
+      }
+    }
+    // Mirrored left to right the position is the same, so moves come in pairs
+    Assert.assertEquals(optimal.contains(new Point(1, 0)), optimal.contains(new Point(1, 2)));
+
+    EndgameSolver solver = new EndgameSolver(model, 5);
+    AlphaBetaStrategy alphaBeta = new AlphaBetaStrategy(model, 5, 60_000);
+    for (AbstractStrategy strategy : List.of(solver, alphaBeta)) {
+      Set<Point> cells = new HashSet<>();
+      for (GameMoveData move : strategy.execute()) {
+        cells.add(new Point(move.getGridRow(), move.getGridCol()));
+      }
+      Assert.assertEquals(optimal, cells);
+      Assert.assertEquals(margin, strategy.getBestMoveValue());
+      Assert.assertEquals(0, model.getJournalDepth());
+    }
+  }
 }
@@ -0,0 +1,125 @@
+package server;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import model.card.Colors;
+import player.GameMoveData;
+
+/**
+ * Tests hosting games, directly and over HTTP.
+ */
+public class GameHostTest {
+  private static final String GRID = "resources/NoHolesBoardConfig.txt";
+  private static final String CARDS = "resources/BigDeckCardConfig.txt";
+
+  @Test
+  public void testClientPlaysComputerToTheEnd() throws Exception {
+    try (GameHost host = new GameHost(GRID, CARDS, 2, 2, 4, 5L)) {
+      long id = host.createGame("h", "3");
+      String state = host.awaitTurn(id).get(10, TimeUnit.SECONDS);
+      while (!state.contains("status OVER")) {
+        Assert.assertTrue(state.contains("status RED"));
+        state = host.playMove(id, Colors.RED, firstEmptyCell(state))
+                .get(10, TimeUnit.SECONDS);
+      }
+      Assert.assertTrue(state.contains("moves 20\n"));
+      Assert.assertFalse(state.contains("_"));
+      Assert.assertEquals(20, host.getMovesPlayed());
+    }
+  }
+
+  @Test
+  public void testComputersPlayEachOtherInBackground() throws Exception {
+    try (GameHost host = new GameHost(GRID, CARDS, 3, 2, 1, 7L)) {
+      long[] ids = new long[8];
+      for (int i = 0; i < ids.length; i++) {
+        ids[i] = host.createGame("1", "2,3");
+      }
+      for (long id : ids) {
+        String state = host.awaitTurn(id).get(30, TimeUnit.SECONDS);
+        Assert.assertTrue(state.contains("status OVER"));
+        Assert.assertTrue(state.contains("winner "));
+      }
+      Assert.assertEquals(8 * 20, host.getMovesPlayed());
+      Assert.assertTrue(host.removeGame(ids[0]));
+      Assert.assertFalse(host.removeGame(ids[0]));
+      Assert.assertEquals(7, host.getNumGames());
+    }
+  }
+
+  @Test
+  public void testRejectsInvalidRequests() throws Exception {
+    try (GameHost host = new GameHost(GRID, CARDS, 1, 1, 1, 9L)) {
+      Assert.assertThrows(IllegalArgumentException.class, () -> host.createGame("h", "0"));
+      long id = host.createGame("h", "h");
+      assertFails(IllegalStateException.class,
+              () -> host.playMove(id, Colors.BLUE, new GameMoveData(0, 0, 0)).get());
+      host.playMove(id, Colors.RED, new GameMoveData(0, 0, 0)).get();
+      assertFails(IllegalArgumentException.class,
+              () -> host.playMove(id, Colors.BLUE, new GameMoveData(0, 0, 0)).get());
+      assertFails(NoSuchElementException.class, () -> host.getState(id + 1).get());
+      host.removeGame(id);
+      assertFails(NoSuchElementException.class, () -> host.awaitTurn(id).get());
+    }
+  }
+
+  @Test
+  public void testServesGamesOverHttp() throws Exception {
+    try (GameHost host = new GameHost(GRID, CARDS, 2, 2, 16, 11L);
+         GameServer server = new GameServer(host, 0, 2)) {
+      String uri = "http://localhost:" + server.getPort();
+      HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+      HttpResponse<String> created = client.send(HttpRequest.newBuilder(
+              URI.create(uri + "/games?red=h&blue=3")).POST(HttpRequest.BodyPublishers.noBody())
+              .build(), HttpResponse.BodyHandlers.ofString());
+      Assert.assertEquals(201, created.statusCode());
+      Assert.assertTrue(created.body().startsWith("game 0\nstatus RED\n"));
+
+      HttpResponse<String> outOfTurn = client.send(HttpRequest.newBuilder(
+              URI.create(uri + "/games/0/moves?color=blue&row=0&col=0&hand=0"))
+              .POST(HttpRequest.BodyPublishers.noBody()).build(),
+              HttpResponse.BodyHandlers.ofString());
+      Assert.assertEquals(409, outOfTurn.statusCode());
+      HttpResponse<String> unknown = client.send(HttpRequest.newBuilder(
+              URI.create(uri + "/games/42")).build(), HttpResponse.BodyHandlers.ofString());
+      Assert.assertEquals(404, unknown.statusCode());
+
+      LoadGenerator.Result result = new LoadGenerator(uri, 6, 2, "3", 3L).run();
+      Assert.assertEquals(12, result.getGames());
+      // Red plays every other move of a 20 cell board
+      Assert.assertEquals(12 * 10, result.getMoves());
+      Assert.assertTrue(result.getLatencyPercentile(99) > 0);
+      Assert.assertEquals(1, host.getNumGames());
+    }
+  }
+
+  private static GameMoveData firstEmptyCell(String state) {
+    String[] lines = state.split("\n");
+    for (int i = 0; i < lines.length; i++) {
+      if (lines[i].startsWith("grid ")) {
+        for (int row = 0; ; row++) {
+          int col = lines[i + 1 + row].indexOf('_');
+          if (col >= 0) {
+            return new GameMoveData(row, col, 0);
+          }
+        }
+      }
+    }
+    throw new IllegalStateException("State has no grid.");
+  }
+
+  private static void assertFails(Class<? extends Throwable> cause, ThrowingRunnable call) {
+    ExecutionException e = Assert.assertThrows(ExecutionException.class, call);
+    Assert.assertEquals(cause, e.getCause().getClass());
+  }
+}
@@ -0,0 +1,73 @@
+package tournament;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+import player.strategy.CornerStrategy;
+import player.strategy.MaxCardsFlipStrategy;
+
+/**
+ * Tests the headless tournament runner.
+ */
+public class TournamentRunnerTest {
+  private static final String GRID = "resources/NoHolesBoardConfig.txt";
+  private static final String CARDS = "resources/BigDeckCardConfig.txt";
+
+  private List<Contestant> contestants() {
+    return List.of(Contestant.fromCodes("1"), Contestant.fromCodes("3"),
+            new Contestant("corner+flip", model -> List.of(new CornerStrategy(model),
+                    new MaxCardsFlipStrategy(model))));
+  }
+
+  @Test
+  public void testEveryPairingPlayedWithBothColors() {
+    TournamentResult result = new TournamentRunner(GRID, CARDS, contestants(), 3, 2, 11).run();
+    Assert.assertEquals(List.of("1", "3", "corner+flip"), result.getNames());
+    for (int i = 0; i < 3; i++) {
+      // Each contestant makes 10 of the 20 moves in each of its 12 games
+      Assert.assertEquals(120, result.getMoveCount(i));
+      Assert.assertTrue(result.getLatencyPercentile(i, 50)
+              <= result.getLatencyPercentile(i, 99));
+      for (int j = 0; j < 3; j++) {
+        if (i == j) {
+          continue;
+        }
+        Assert.assertEquals(6, result.getGames(i, j));
+        Assert.assertEquals(result.getWins(i, j), result.getLosses(j, i));
+        Assert.assertEquals(result.getDraws(i, j), result.getDraws(j, i));
+        Assert.assertEquals(6, result.getWins(i, j) + result.getDraws(i, j)
+                + result.getLosses(i, j));
+        // Every card ends up either on the grid or in a hand, so the scores add up to the deck
+        Assert.assertEquals(21, result.getAverageScore(i, j) + result.getAverageScore(j, i),
+                1e-9);
+      }
+    }
+    Assert.assertTrue(result.toString().contains("corner+flip"));
+  }
+
+  @Test
+  public void testResultsDoNotDependOnThreads() {
+    TournamentResult single = new TournamentRunner(GRID, CARDS, contestants(), 2, 1, 5).run();
+    TournamentResult pooled = new TournamentRunner(GRID, CARDS, contestants(), 2, 4, 5).run();
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        Assert.assertEquals(single.getWins(i, j), pooled.getWins(i, j));
+        Assert.assertEquals(single.getDraws(i, j), pooled.getDraws(i, j));
+        Assert.assertEquals(single.getAverageScore(i, j), pooled.getAverageScore(i, j), 0);
+      }
+    }
+  }
+
+  @Test
+  public void testInvalidTournaments() {
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new TournamentRunner(GRID, CARDS, List.of(Contestant.fromCodes("1")), 1, 1, 0));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new TournamentRunner(GRID, CARDS, contestants(), 0, 1, 0));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new TournamentRunner(null, CARDS, contestants(), 1, 1, 0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> Contestant.fromCodes("1,9"));
+  }
+}
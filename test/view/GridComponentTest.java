@@ -0,0 +1,79 @@
+package view;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+import model.ThreeTriosGameModel;
+import model.card.Colors;
+import player.GameMoveData;
+import player.UserPlayer;
+
+/**
+ * Tests repainting only the cells and hand slots a move changes, headless on an offscreen
+ * image.
+ */
+public class GridComponentTest {
+
+  private static ThreeTriosGameModel startedModel() {
+    ThreeTriosGameModel model = new ThreeTriosGameModel("resources/NoHolesBoardConfig.txt",
+            "resources/BigDeckCardConfig.txt", 4L);
+    model.startGame(new UserPlayer(model, Colors.RED), new UserPlayer(model, Colors.BLUE),
+            false);
+    return model;
+  }
+
+  @Test
+  public void testMoveDirtiesPlacedAndFlippedCells() {
+    ThreeTriosGameModel model = startedModel();
+    CardFaceAtlas atlas = new CardFaceAtlas();
+    GridComponent grid = new GridComponent(model.getGridView(), atlas);
+    grid.setSize(500, 400);
+    Assert.assertTrue(grid.sync().isEmpty());
+
+    model.playMove(new GameMoveData(1, 1, 0));
+    Assert.assertEquals(new Rectangle(100, 100, 100, 100), grid.sync());
+    Assert.assertTrue(grid.sync().isEmpty());
+
+    // Blue's card next to red's may flip it, which dirties both cells and nothing else
+    model.playMove(new GameMoveData(1, 2, 0));
+    Rectangle dirty = grid.sync();
+    int expected = model.getMoveLog().getFlips(1) > 0 ? 200 : 100;
+    Assert.assertEquals(new Rectangle(100 + 200 - expected, 100, expected, 100), dirty);
+    Assert.assertArrayEquals(new int[]{1, 2}, grid.cellAt(250, 150));
+    Assert.assertNull(grid.cellAt(500, 150));
+
+    BufferedImage image = new BufferedImage(500, 400, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    g.setClip(dirty);
+    grid.paint(g);
+    g.dispose();
+    Assert.assertEquals(Color.BLUE.getRGB(), image.getRGB(230, 130));
+    // The empty cell outside the clip was never drawn yellow
+    Assert.assertEquals(Color.BLACK.getRGB(), image.getRGB(50, 50));
+    Assert.assertEquals(model.getMoveLog().getFlips(1) > 0 ? 2 : 1, atlas.size());
+  }
+
+  @Test
+  public void testPlayedCardShiftsHandSlotsAndDropsHighlight() {
+    ThreeTriosGameModel model = startedModel();
+    HandComponent hand = new HandComponent(model.getPlayers().get(0).getHandView(),
+            new CardFaceAtlas());
+    int size = model.getPlayers().get(0).getHandView().size();
+    hand.setSize(100, 100 * size);
+    hand.setHighlighted(size - 1);
+    Assert.assertThrows(IllegalArgumentException.class, () -> hand.setHighlighted(size));
+
+    model.playMove(new GameMoveData(0, 0, size - 2));
+    // The played slot, the one the last card moved up to, and the slot left empty
+    Assert.assertEquals(new Rectangle(0, 100 * (size - 2), 100, 200),
+            hand.sync(model.getPlayers().get(0).getHandView()));
+    Assert.assertEquals(-1, hand.getHighlighted());
+    Assert.assertEquals(size - 2, hand.cardAt(50, 100 * (size - 2) + 50));
+    Assert.assertEquals(-1, hand.cardAt(50, 100 * (size - 1) + 50));
+  }
+}